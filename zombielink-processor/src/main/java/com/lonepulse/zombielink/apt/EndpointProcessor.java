@@ -0,0 +1,246 @@
+package com.lonepulse.zombielink.apt;
+
+/*
+ * #%L
+ * ZombieLink Processor
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.Request;
+
+/**
+ * <p>An annotation processor which reads endpoint definitions at <b>compile-time</b> and generates a plain
+ * implementation for each of them (see {@link EndpointSource}). At runtime these implementations are
+ * preferred over dynamic proxies, which spares the creation of a proxy class and the validation of the
+ * endpoint on startup.</p>
+ * 
+ * <p>The same rules which are enforced at runtime are enforced here and any violations are reported as
+ * compilation errors:</p>
+ * 
+ * <ol>
+ * 	<li>endpoint definitions must be interfaces</li>
+ * 	<li>all methods on an endpoint must be annotated with a request method such as @{@link Request}</li>
+ * </ol>
+ * 
+ * <p>Endpoints which cannot be implemented by a plain class (e.g. generic interfaces or those nested in
+ * private types) are skipped with a note; these continue to be served by dynamic proxies.</p>
+ * 
+ * <p>The processor is registered as a service and is discovered by the compiler once this artifact is on
+ * the classpath.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class EndpointProcessor extends AbstractProcessor {
+	
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		
+		return Collections.singleton(Endpoint.class.getName());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		
+		return SourceVersion.latestSupported();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		
+		for (Element element : roundEnv.getElementsAnnotatedWith(Endpoint.class)) {
+			
+			if(element.getKind() != ElementKind.INTERFACE) {
+				
+				error(element, "The endpoint should be defined on an interface.");
+				continue;
+			}
+			
+			TypeElement endpoint = (TypeElement)element;
+			List<ExecutableElement> requests = findRequests(endpoint);
+			
+			if(requests != null && isImplementable(endpoint, requests)) {
+				
+				generate(endpoint, requests);
+			}
+		}
+		
+		return false;
+	}
+	
+	private List<ExecutableElement> findRequests(TypeElement endpoint) {
+		
+		List<ExecutableElement> requests = new ArrayList<ExecutableElement>();
+		boolean valid = true;
+		
+		for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(endpoint))) {
+			
+			if(!method.getModifiers().contains(Modifier.ABSTRACT)) {
+				
+				continue; //methods inherited from Object
+			}
+			
+			if(!isRequest(method)) {
+				
+				error(method, new StringBuilder("Stray request definition ").append(method.getSimpleName())
+					.append(". All methods on an endpoint must be annotated with a request method. ").toString());
+				
+				valid = false;
+			}
+			
+			requests.add(method);
+		}
+		
+		return valid? requests :null;
+	}
+	
+	private boolean isRequest(ExecutableElement method) {
+		
+		String request = Request.class.getName();
+		
+		for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+			
+			TypeElement annotationType = (TypeElement)annotation.getAnnotationType().asElement();
+			
+			if(annotationType.getQualifiedName().contentEquals(request)) {
+				
+				return true;
+			}
+			
+			for (AnnotationMirror metaAnnotation : annotationType.getAnnotationMirrors()) {
+				
+				if(((TypeElement)metaAnnotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(request)) {
+					
+					return true;
+				}
+			}
+		}
+		
+		return false;
+	}
+	
+	private boolean isImplementable(TypeElement endpoint, List<ExecutableElement> requests) {
+		
+		String reason = null;
+		
+		if(!endpoint.getTypeParameters().isEmpty()) {
+			
+			reason = "generic endpoint definitions are not supported";
+		}
+		
+		for (Element enclosing = endpoint; reason == null && enclosing.getKind() != ElementKind.PACKAGE;
+			enclosing = enclosing.getEnclosingElement()) {
+			
+			if(enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+				
+				reason = "the endpoint is not accessible from its package";
+			}
+		}
+		
+		for (int i = 0; reason == null && i < requests.size(); i++) {
+			
+			if(!requests.get(i).getTypeParameters().isEmpty()) {
+				
+				reason = "generic request definitions are not supported";
+			}
+		}
+		
+		if(reason != null) {
+			
+			processingEnv.getMessager().printMessage(Kind.NOTE, new StringBuilder("No implementation generated for ")
+				.append(endpoint.getQualifiedName()).append("; ").append(reason)
+				.append(". A dynamic proxy will be used instead. ").toString(), endpoint);
+		}
+		
+		return reason == null;
+	}
+	
+	private void generate(TypeElement endpoint, List<ExecutableElement> requests) {
+		
+		EndpointSource source = new EndpointSource(processingEnv, endpoint, requests);
+		
+		String name = new StringBuilder(source.getPackageName()).append(source.getPackageName().length() == 0? "" :".")
+			.append(source.getSimpleName()).toString();
+		
+		Writer writer = null;
+		
+		try {
+			
+			JavaFileObject file = processingEnv.getFiler().createSourceFile(name, endpoint);
+			
+			writer = file.openWriter();
+			writer.write(source.toString());
+		}
+		catch(IOException ioe) {
+			
+			error(endpoint, "Failed to generate " + name + ": " + ioe.getMessage());
+		}
+		finally {
+			
+			if(writer != null) {
+				
+				try {
+					
+					writer.close();
+				}
+				catch(IOException ioe) {
+					
+					error(endpoint, "Failed to close the source file for " + name + ": " + ioe.getMessage());
+				}
+			}
+		}
+	}
+	
+	private void error(Element element, String message) {
+		
+		processingEnv.getMessager().printMessage(Kind.ERROR, message, element);
+	}
+}
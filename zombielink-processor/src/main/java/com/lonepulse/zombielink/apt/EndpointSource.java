@@ -0,0 +1,393 @@
+package com.lonepulse.zombielink.apt;
+
+/*
+ * #%L
+ * ZombieLink Processor
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.MirroredTypesException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import com.lonepulse.zombielink.annotation.DELETE;
+import com.lonepulse.zombielink.annotation.Deserialize;
+import com.lonepulse.zombielink.annotation.Detach;
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.Entity.ContentType;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.annotation.HEAD;
+import com.lonepulse.zombielink.annotation.Headers;
+import com.lonepulse.zombielink.annotation.OPTIONS;
+import com.lonepulse.zombielink.annotation.PATCH;
+import com.lonepulse.zombielink.annotation.POST;
+import com.lonepulse.zombielink.annotation.PUT;
+import com.lonepulse.zombielink.annotation.Request;
+import com.lonepulse.zombielink.annotation.Serialize;
+import com.lonepulse.zombielink.annotation.TRACE;
+import com.lonepulse.zombielink.proxy.GeneratedEndpoint;
+
+/**
+ * <p>Renders the source of a {@link GeneratedEndpoint} which implements a single endpoint definition.</p>
+ * 
+ * <p>Every request definition is resolved to a {@link java.lang.reflect.Method} <b>once</b>, when the
+ * generated class is initialized, and each implemented method hands off its arguments to the runtime
+ * along with this resolved request.</p>
+ * 
+ * <p>The metadata which is fixed at compile-time is resolved here and emitted as constants for each
+ * request; i.e. its complete path template, its static @{@link Headers} and its @{@link Serialize} and
+ * @{@link Deserialize} types, with the precedence of request-level metadata and @{@link Detach} applied.
+ * These constants are passed to the runtime via {@link GeneratedEndpoint}{@code #define(...)}, while
+ * all processors remain pluggable since they are still applied at runtime.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class EndpointSource {
+	
+	
+	private static final List<String> VERBS = Arrays.asList(GET.class.getName(), POST.class.getName(),
+		PUT.class.getName(), PATCH.class.getName(), DELETE.class.getName(), HEAD.class.getName(),
+		TRACE.class.getName(), OPTIONS.class.getName());
+	
+	private static final String CONTENT_TYPE = ContentType.class.getCanonicalName();
+	
+	
+	private final Types types;
+	private final Elements elements;
+	
+	private final TypeElement endpoint;
+	private final List<ExecutableElement> requests;
+	
+	private final String packageName;
+	private final String simpleName;
+	
+	
+	/**
+	 * <p>Creates a new {@link EndpointSource} for the given endpoint definition.</p>
+	 * 
+	 * @param processingEnv
+	 * 			the {@link ProcessingEnvironment} of the current compilation
+	 * <br><br>
+	 * @param endpoint
+	 * 			the {@link TypeElement} of the endpoint interface to be implemented
+	 * <br><br>
+	 * @param requests
+	 * 			all request definitions which are declared or inherited by the endpoint
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	EndpointSource(ProcessingEnvironment processingEnv, TypeElement endpoint, List<ExecutableElement> requests) {
+		
+		this.types = processingEnv.getTypeUtils();
+		this.elements = processingEnv.getElementUtils();
+		this.endpoint = endpoint;
+		this.requests = requests;
+		
+		this.packageName = processingEnv.getElementUtils().getPackageOf(endpoint).getQualifiedName().toString();
+		
+		String binaryName = processingEnv.getElementUtils().getBinaryName(endpoint).toString();
+		this.simpleName = (packageName.length() == 0? binaryName
+			:binaryName.substring(packageName.length() + 1)) + GeneratedEndpoint.SUFFIX;
+	}
+	
+	/**
+	 * <p>Retrieves the name of the package in which the implementation should be generated.</p>
+	 * 
+	 * @return the package of the endpoint; else an <b>empty String</b> for the unnamed package
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	String getPackageName() {
+		
+		return packageName;
+	}
+	
+	/**
+	 * <p>Retrieves the simple name of the generated implementation.</p>
+	 * 
+	 * @return the binary name of the endpoint without its package, followed by {@link GeneratedEndpoint#SUFFIX}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	String getSimpleName() {
+		
+		return simpleName;
+	}
+	
+	/**
+	 * <p>Renders the complete source of the generated implementation.</p>
+	 * 
+	 * @return the Java source of the implementation
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	@Override
+	public String toString() {
+		
+		String endpointName = endpoint.getQualifiedName().toString();
+		
+		StringBuilder source = new StringBuilder();
+		
+		if(packageName.length() > 0) {
+			
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+		
+		source.append("/**\n * <p>Generated by ").append(EndpointProcessor.class.getName())
+			.append(" for {@link ").append(endpointName).append("}. Do not edit.</p>\n */\n")
+			.append("@SuppressWarnings(\"unchecked\")\n")
+			.append("public final class ").append(simpleName)
+			.append(" extends ").append(GeneratedEndpoint.class.getName())
+			.append(" implements ").append(endpointName).append(" {\n\n");
+		
+		for (int i = 0; i < requests.size(); i++) {
+			
+			appendResolution(source, endpointName, i, requests.get(i));
+		}
+		
+		source.append("\tstatic {\n\n");
+		
+		for (int i = 0; i < requests.size(); i++) {
+			
+			source.append("\t\t").append(GeneratedEndpoint.class.getName()).append(".define(").append(endpointName).append(".class, REQUEST_").append(i)
+				.append(", PATH_").append(i).append(", HEADERS_").append(i).append(", SERIALIZE_").append(i)
+				.append(", SERIALIZER_").append(i).append(", DESERIALIZE_").append(i)
+				.append(", DESERIALIZER_").append(i).append(");\n");
+		}
+		
+		source.append("\t}\n\n");
+		
+		for (int i = 0; i < requests.size(); i++) {
+			
+			appendImplementation(source, i, requests.get(i));
+		}
+		
+		return source.append("}\n").toString();
+	}
+	
+	private void appendResolution(StringBuilder source, String endpointName, int index, ExecutableElement request) {
+		
+		source.append("\tprivate static final java.lang.reflect.Method REQUEST_").append(index).append(" = ")
+			.append(GeneratedEndpoint.class.getName()).append(".resolve(").append(endpointName).append(".class, \"")
+			.append(request.getSimpleName()).append("\"");
+		
+		for (VariableElement parameter : request.getParameters()) {
+			
+			source.append(", ").append(types.erasure(parameter.asType())).append(".class");
+		}
+		
+		source.append(");\n");
+		
+		source.append("\tprivate static final String PATH_").append(index).append(" = ")
+			.append(elements.getConstantExpression(endpoint.getAnnotation(Endpoint.class).value() + findPath(request)))
+			.append(";\n");
+		
+		source.append("\tprivate static final String[] HEADERS_").append(index).append(" = {");
+		
+		Headers headers = request.getAnnotation(Headers.class);
+		
+		for (int i = 0; headers != null && i < headers.value().length; i++) {
+			
+			source.append(i == 0? "" :", ").append(elements.getConstantExpression(headers.value()[i].name()))
+				.append(", ").append(elements.getConstantExpression(headers.value()[i].value()));
+		}
+		
+		source.append("};\n");
+		
+		Serialize serialize = isDetached(request, Serialize.class)? null :findAnnotation(request, Serialize.class);
+		ContentType serializeType = serialize == null? null :serialize.value();
+		String serializer = serializeType != ContentType.UNDEFINED? null :typeOf(serialize);
+		
+		Deserialize deserialize = isDetached(request, Deserialize.class)? null :findAnnotation(request, Deserialize.class);
+		ContentType deserializeType = deserialize == null? null :deserialize.value();
+		String deserializer = deserializeType != ContentType.UNDEFINED? null :typeOf(deserialize);
+		
+		appendContentType(source, "SERIALIZE_", index, serializeType);
+		appendType(source, "SERIALIZER_", index, serializer);
+		appendContentType(source, "DESERIALIZE_", index, deserializeType);
+		appendType(source, "DESERIALIZER_", index, deserializer);
+		
+		source.append("\n");
+	}
+	
+	private void appendContentType(StringBuilder source, String name, int index, ContentType contentType) {
+		
+		source.append("\tprivate static final ").append(CONTENT_TYPE).append(" ").append(name).append(index)
+			.append(" = ").append(contentType == null? "null" :CONTENT_TYPE + "." + contentType.name()).append(";\n");
+	}
+	
+	private void appendType(StringBuilder source, String name, int index, String type) {
+		
+		source.append("\tprivate static final java.lang.Class<?> ").append(name).append(index)
+			.append(" = ").append(type == null? "null" :type + ".class").append(";\n");
+	}
+	
+	private String findPath(ExecutableElement request) {
+		
+		Request definition = request.getAnnotation(Request.class);
+		
+		if(definition != null) {
+			
+			return definition.path();
+		}
+		
+		for (AnnotationMirror annotation : request.getAnnotationMirrors()) {
+			
+			TypeElement annotationType = (TypeElement)annotation.getAnnotationType().asElement();
+			Request meta = annotationType.getAnnotation(Request.class);
+			
+			if(meta != null) {
+				
+				if(!"".equals(meta.path()) || !VERBS.contains(annotationType.getQualifiedName().toString())) {
+					
+					return meta.path();
+				}
+				
+				for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value
+						: elements.getElementValuesWithDefaults(annotation).entrySet()) {
+					
+					if(value.getKey().getSimpleName().contentEquals("value")) {
+						
+						return (String)value.getValue().getValue();
+					}
+				}
+				
+				return "";
+			}
+		}
+		
+		return "";
+	}
+	
+	private <T extends Annotation> T findAnnotation(ExecutableElement request, Class<T> type) {
+		
+		T annotation = request.getAnnotation(type);
+		return annotation == null? endpoint.getAnnotation(type) :annotation;
+	}
+	
+	private boolean isDetached(ExecutableElement request, Class<? extends Annotation> type) {
+		
+		Detach detach = request.getAnnotation(Detach.class);
+		
+		if(detach != null) {
+			
+			try {
+				
+				return Arrays.asList(detach.value()).contains(type);
+			}
+			catch(MirroredTypesException mte) { //types are only available as mirrors during compilation
+				
+				for (TypeMirror detached : mte.getTypeMirrors()) {
+					
+					if(types.erasure(detached).toString().equals(type.getCanonicalName())) {
+						
+						return true;
+					}
+				}
+			}
+		}
+		
+		return false;
+	}
+	
+	private String typeOf(Annotation annotation) {
+		
+		try {
+			
+			if(annotation instanceof Serialize) {
+				
+				return ((Serialize)annotation).type().getCanonicalName();
+			}
+			
+			return ((Deserialize)annotation).type().getCanonicalName();
+		}
+		catch(MirroredTypeException mte) { //types are only available as mirrors during compilation
+			
+			return types.erasure(mte.getTypeMirror()).toString();
+		}
+	}
+	
+	private void appendImplementation(StringBuilder source, int index, ExecutableElement request) {
+		
+		TypeMirror returnType = request.getReturnType();
+		List<? extends VariableElement> parameters = request.getParameters();
+		
+		source.append("\t@Override\n\tpublic ").append(returnType).append(" ").append(request.getSimpleName()).append("(");
+		
+		for (int i = 0; i < parameters.size(); i++) {
+			
+			source.append(i == 0? "" :", ").append("final ").append(parameters.get(i).asType()).append(" arg").append(i);
+		}
+		
+		source.append(") {\n\n\t\t");
+		
+		StringBuilder dispatch = new StringBuilder("super.dispatch(REQUEST_").append(index).append(", ");
+		
+		if(parameters.isEmpty()) {
+			
+			dispatch.append("null");
+		}
+		else {
+			
+			dispatch.append("new Object[] {");
+			
+			for (int i = 0; i < parameters.size(); i++) {
+				
+				dispatch.append(i == 0? "" :", ").append("arg").append(i);
+			}
+			
+			dispatch.append("}");
+		}
+		
+		dispatch.append(")");
+		
+		if(returnType.getKind() == TypeKind.VOID) {
+			
+			source.append(dispatch).append(";");
+		}
+		else if(returnType.getKind().isPrimitive()) {
+			
+			String boxed = types.boxedClass(types.getPrimitiveType(returnType.getKind())).getQualifiedName().toString();
+			source.append("return ((").append(boxed).append(")").append(dispatch).append(").")
+				.append(returnType).append("Value();");
+		}
+		else {
+			
+			source.append("return (").append(returnType).append(")").append(dispatch).append(";");
+		}
+		
+		source.append("\n\t}\n\n");
+	}
+}
@@ -0,0 +1,99 @@
+package com.lonepulse.zombielink.apt;
+
+/*
+ * #%L
+ * ZombieLink Processor
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Map;
+
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.Entity;
+import com.lonepulse.zombielink.annotation.Entity.ContentType;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.annotation.Headers;
+import com.lonepulse.zombielink.annotation.PUT;
+import com.lonepulse.zombielink.annotation.PathParam;
+import com.lonepulse.zombielink.annotation.QueryParams;
+import com.lonepulse.zombielink.annotation.Serialize;
+
+/**
+ * <p>An endpoint whose implementation is generated at compile-time by the {@link EndpointProcessor}.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Endpoint("http://0.0.0.0:8080")
+public interface ProcessedEndpoint {
+	
+	/**
+	 * <p>Sends a request with a path parameter.</p>
+	 * 
+	 * @param id
+	 * 			the restful path parameter
+	 * 
+	 * @return the response for the RESTful request
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/processed/{id}")
+	String processedWithParam(@PathParam("id") String id);
+	
+	/**
+	 * <p>Sends a request with a generic parameter.</p>
+	 * 
+	 * @param params
+	 * 			the query parameters to be sent with the request
+	 * 
+	 * @return the response for the request with query parameters
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/processedwithqueryparams")
+	String processedWithQueryParams(@QueryParams Map<String, String> params);
+	
+	/**
+	 * <p>Sends a request which expects no response content.</p>
+	 * 
+	 * @param entity
+	 * 			the entity to be sent with the request
+	 * 
+	 * @since 1.3.4
+	 */
+	@PUT("/processedvoid")
+	void processedVoid(@Entity String entity);
+	
+	/**
+	 * <p>Sends a request with static headers and a serialized entity.</p>
+	 * 
+	 * @param entity
+	 * 			the entity to be serialized and sent with the request
+	 * 
+	 * @since 1.3.4
+	 */
+	@PUT("/processedstatic")
+	@Serialize(ContentType.PLAIN)
+	@Headers({@Headers.Header(name = "X-Species", value = "Zombie"), 
+			  @Headers.Header(name = "X-Quote", value = "\"Braaains\"")})
+	void processedStatic(@Entity String entity);
+}
@@ -0,0 +1,177 @@
+package com.lonepulse.zombielink.apt;
+
+/*
+ * #%L
+ * ZombieLink Processor
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.put;
+import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.proxy.GeneratedEndpoint;
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>Performs unit testing on the implementation of {@link ProcessedEndpoint} which was generated by the
+ * {@link EndpointProcessor}.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class ProcessedEndpointTest {
+	
+	
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule();
+	
+	@Bite
+	private ProcessedEndpoint processedEndpoint;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		Zombie.infect(this);
+	}
+	
+	/**
+	 * <p>Tests that the generated implementation is injected in place of a dynamic proxy.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testGeneratedImplementation() {
+		
+		assertTrue(processedEndpoint instanceof GeneratedEndpoint);
+		assertEquals(ProcessedEndpoint.class.getName() + GeneratedEndpoint.SUFFIX, processedEndpoint.getClass().getName());
+		assertTrue(processedEndpoint.toString().startsWith(ProcessedEndpoint.class.getName()));
+	}
+	
+	/**
+	 * <p>Test for a request with a path parameter on a generated implementation.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testProcessedWithParam() {
+		
+		String subpath = "/processed/\\S+", body = "hello", id = "doctorwho", url = "/processed/" + id;
+		
+		stubFor(get(urlMatching(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)));
+		
+		assertEquals(body, processedEndpoint.processedWithParam(id));
+		verify(getRequestedFor(urlEqualTo(url)));
+	}
+	
+	/**
+	 * <p>Test for a request with a generic parameter on a generated implementation.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testProcessedWithQueryParams() {
+		
+		String subpath = "/processedwithqueryparams\\?\\S+", body = "hello",
+			   url = "/processedwithqueryparams?first=Doctor&last=Who";
+		
+		Map<String, String> params = new LinkedHashMap<String, String>();
+		params.put("first", "Doctor");
+		params.put("last", "Who");
+		
+		stubFor(get(urlMatching(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)));
+		
+		assertEquals(body, processedEndpoint.processedWithQueryParams(params));
+		verify(getRequestedFor(urlEqualTo(url)));
+	}
+	
+	/**
+	 * <p>Test for a request without a return type on a generated implementation.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testProcessedVoid() {
+		
+		String subpath = "/processedvoid", entity = "hello";
+		
+		stubFor(put(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)));
+		
+		processedEndpoint.processedVoid(entity);
+		verify(putRequestedFor(urlEqualTo(subpath)).withRequestBody(equalTo(entity)));
+	}
+	
+	/**
+	 * <p>Test for a request whose static metadata was emitted as constants in the generated implementation.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testProcessedStatic() throws Exception {
+		
+		String subpath = "/processedstatic", entity = "hello";
+		
+		Field path = processedEndpoint.getClass().getDeclaredField("PATH_3");
+		path.setAccessible(true);
+		
+		assertEquals("http://0.0.0.0:8080" + subpath, path.get(null));
+		
+		stubFor(put(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)));
+		
+		processedEndpoint.processedStatic(entity);
+		
+		verify(putRequestedFor(urlEqualTo(subpath))
+				.withHeader("X-Species", equalTo("Zombie"))
+				.withHeader("X-Quote", equalTo("\"Braaains\""))
+				.withRequestBody(equalTo(entity)));
+	}
+}
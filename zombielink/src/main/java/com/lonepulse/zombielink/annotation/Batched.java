@@ -0,0 +1,107 @@
+package com.lonepulse.zombielink.annotation;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Identifies single-item requests whose invocations should be <b>batched</b> into a single invocation
+ * of a paired bulk request on the same endpoint, which is named by {@link #target()}. Invocations are
+ * collected until {@link #maxSize()} distinct arguments have been gathered or until {@link #maxDelay()} has
+ * elapsed since the first of them, whichever comes first. The bulk request is then invoked once with all
+ * distinct arguments and its result is split back to each invoker.</p>
+ * 
+ * <p>The batched request must take exactly one argument, its <i>key</i>, and the bulk request must take
+ * exactly one {@link java.util.Collection} or array of keys (e.g. a multi-valued &#064;{@link QueryParam}).
+ * If the bulk request returns a {@link java.util.Map}, each invoker receives the value mapped to its key;
+ * if it returns a {@link java.util.Collection} or an array, each invoker receives the element at the
+ * position of its key. Invokers whose key is absent from the result receive {@code null} and a failure of
+ * the bulk request is rethrown to every invoker in the batch.</p>
+ * 
+ * <p>Invocations of &#064;{@link Async} requests are <b>buffered</b> instead and return immediately. Their 
+ * arguments, which may repeat, are sent together as the single argument of the bulk request once the 
+ * buffer holds {@link #maxSize()} arguments or once the oldest of them has waited for {@link #maxDelay()}. 
+ * Such a request must take exactly one argument besides its 
+ * {@link com.lonepulse.zombielink.response.AsyncHandler}, which is notified of the outcome of the bulk 
+ * request. If the bulk response content is a {@link java.util.Collection} or an array, each handler 
+ * receives the element at the position of its argument; else every handler receives the whole content. 
+ * The bulk request is executed synchronously on the endpoint's executor.</p>
+ * <br>
+ * <b>Usage:</b>
+ * <br>
+ * <br>
+ * <p>
+ * <code>
+ * <pre><b>@Batched(target = "getUsers")</b>&nbsp;@GET("/users/{user}")<br>User getUser(@PathParam("user") String user);<br><br>@GET("/users")<br>List&lt;User&gt; getUsers(@QueryParam("id") List&lt;String&gt; users);</pre>
+ * </code>
+ * </p>
+ * <p>
+ * <code>
+ * <pre><b>@Batched(target = "sendAll", maxSize = 500, maxDelay = 1000)</b>&nbsp;@Async&nbsp;@POST("/events")<br>void send(@Entity Event event, AsyncHandler&lt;String&gt; handler);<br><br>@POST("/events")<br>String sendAll(@Entity List&lt;Event&gt; events);</pre>
+ * </code>
+ * </p>
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Batched {
+	
+	
+	/**
+	 * <p>The name of the bulk request on the same endpoint which serves a batch of invocations.</p>
+	 * 
+	 * @return the name of the paired bulk request
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	String target();
+	
+	/**
+	 * <p>The maximum number of distinct keys in a batch, or of arguments in a buffer of an 
+	 * &#064;{@link Async} request. A batch or buffer which reaches this size is dispatched immediately. 
+	 * Defaults to <b>100</b>.</p>
+	 * 
+	 * @return the maximum number of keys or arguments per bulk invocation
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	int maxSize() default 100;
+	
+	/**
+	 * <p>The maximum time in milliseconds for which the first invocation in a batch waits for others to 
+	 * join it, or for which an argument of an &#064;{@link Async} request is buffered. Defaults to <b>10</b> 
+	 * milliseconds.</p>
+	 * 
+	 * @return the maximum delay before a batch is dispatched in milliseconds
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	long maxDelay() default 10;
+}
@@ -0,0 +1,108 @@
+package com.lonepulse.zombielink.annotation;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Identifies requests which should be confined to a <b>bulkhead</b>, i.e. a compartment which admits at
+ * most {@link #maxConcurrent()} invocations at a time. This keeps a slow dependency from tying up the
+ * threads and the shared connection pool which are needed by other endpoints. An invocation which finds the
+ * compartment full waits for up to {@link #maxWait()} and then fails with a
+ * {@link com.lonepulse.zombielink.executor.BulkheadFullException} without being sent.</p>
+ * 
+ * <p>An {@link #adaptive()} compartment does not admit a fixed number of invocations; instead its limit 
+ * grows and shrinks with the latency of the upstream, up to {@link #maxConcurrent()}, so that the latency 
+ * stays near the one observed without load. Excess invocations wait or fail as they would when a fixed 
+ * compartment is full.</p>
+ * 
+ * <p>The compartment is entered by synchronous requests on the invoking thread and by asynchronous requests 
+ * on the thread of the endpoint's executor. See {@link com.lonepulse.zombielink.executor.Compartment} for
+ * the metrics of a compartment.</p>
+ * <br>
+ * <b>Usage:</b>
+ * <br>
+ * <br>
+ * <ol>
+ * <li>
+ * At <b>type-level</b> on an endpoint; all requests share a single compartment, unless they detach it
+ * using &#064;{@link Detach}.<br>
+ * <code>
+ * <pre><b>@Bulkhead(maxConcurrent = 100, adaptive = true)</b>&nbsp;@Endpoint("https://api.github.com")<br>public interface GithubEndpoint {<br>&nbsp;&nbsp;...<br>}
+ * </pre>
+ * </code>
+ * </li>
+ *  
+ * <li>
+ * At <b>method-level</b> on a request; the request has its own compartment which overrides any type-level one.<br>
+ * <code>
+ * <pre><b>@Bulkhead(maxConcurrent = 2, maxWait = 500)</b>&nbsp;@GET("/search/repositories")<br>Repos search(@QueryParam("q") String query);</pre>
+ * </code>
+ * </li>
+ * </ol>
+ * </p>
+ * <br>
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Bulkhead {
+	
+	
+	/**
+	 * <p>The maximum number of invocations which may be in flight at once. Defaults to <b>25</b>.</p>
+	 * 
+	 * @return the number of concurrent invocations which are admitted
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	int maxConcurrent() default 25;
+	
+	/**
+	 * <p>The maximum duration in milliseconds for which an invocation waits to be admitted. Defaults to
+	 * <b>0</b>, i.e. invocations fail fast when the compartment is full.</p>
+	 * 
+	 * @return the maximum wait for admission in milliseconds
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	long maxWait() default 0;
+	
+	/**
+	 * <p>Whether the limit of the compartment adapts to the observed latency of the upstream. The limit 
+	 * of an adaptive compartment starts at <b>20</b> (or the maximum, if lower) and never exceeds 
+	 * {@link #maxConcurrent()}. Defaults to <b>false</b>.</p>
+	 * 
+	 * @return {@code true} if the limit adapts to the latency of the upstream
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	boolean adaptive() default false;
+}
@@ -0,0 +1,152 @@
+package com.lonepulse.zombielink.annotation;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Identifies requests which should be guarded by a <b>circuit breaker</b>, which stops sending them to
+ * an upstream which is failing. The outcomes of the most recent {@link #window()} calls are tracked and the
+ * circuit <i>opens</i> once the rate of failures reaches {@link #failureRate()} or the rate of calls which
+ * are slower than {@link #slowCall()} reaches {@link #slowCallRate()}. A call fails if it could not be
+ * executed or if it responded with a <b>5xx</b> status code.</p>
+ * 
+ * <p>While the circuit is open, requests fail fast with a
+ * {@link com.lonepulse.zombielink.executor.CircuitOpenException} without being sent, or are served by the
+ * {@link #fallback()}. After {@link #openDuration()} the circuit is <i>half-open</i> and lets a few
+ * {@link #probes()} through; the circuit closes if they all succeed and opens again if any one of them
+ * fails. See {@link com.lonepulse.zombielink.executor.Circuit} for the state of a circuit, its metrics and
+ * its transitions.</p>
+ * <br>
+ * <b>Usage:</b>
+ * <br>
+ * <br>
+ * <ol>
+ * <li>
+ * At <b>type-level</b> on an endpoint; all requests share a single circuit, unless they detach it using
+ * &#064;{@link Detach}.<br>
+ * <code>
+ * <pre><b>@CircuitBreaker</b>&nbsp;@Endpoint("https://api.github.com")<br>public interface GithubEndpoint {<br>&nbsp;&nbsp;...<br>}
+ * </pre>
+ * </code>
+ * </li>
+ *  
+ * <li>
+ * At <b>method-level</b> on a request; the request has its own circuit which overrides any type-level one.<br>
+ * <code>
+ * <pre><b>@CircuitBreaker(failureRate = 25, fallback = OfflineGithub.class)</b>&nbsp;@GET("/users/{user}/repos")<br>List&lt;Repo&gt; getRepos(@PathParam("user") String user);</pre>
+ * </code>
+ * </li>
+ * </ol>
+ * </p>
+ * <br>
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface CircuitBreaker {
+	
+	
+	/**
+	 * <p>The percentage of failed calls in the window at which the circuit opens. Defaults to <b>50</b>.</p>
+	 * 
+	 * @return the failure rate which opens the circuit, between {@code 0} and {@code 100}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	double failureRate() default 50;
+	
+	/**
+	 * <p>The percentage of slow calls in the window at which the circuit opens. Defaults to <b>100</b>.</p>
+	 * 
+	 * @return the slow call rate which opens the circuit, between {@code 0} and {@code 100}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	double slowCallRate() default 100;
+	
+	/**
+	 * <p>The duration in milliseconds beyond which a call is considered slow. Defaults to <b>60000</b>.</p>
+	 * 
+	 * @return the minimum duration of a slow call in milliseconds
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	long slowCall() default 60000;
+	
+	/**
+	 * <p>The number of most recent calls whose outcomes decide whether the circuit opens. Defaults
+	 * to <b>100</b>.</p>
+	 * 
+	 * @return the size of the sliding window of calls
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	int window() default 100;
+	
+	/**
+	 * <p>The minimum number of calls in the window before the circuit may open. Defaults to <b>10</b>.</p>
+	 * 
+	 * @return the number of calls which are required to compute the rates
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	int minimumCalls() default 10;
+	
+	/**
+	 * <p>The duration in milliseconds for which the circuit stays open before it lets probes through.
+	 * Defaults to <b>60000</b>.</p>
+	 * 
+	 * @return the duration of the open state in milliseconds
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	long openDuration() default 60000;
+	
+	/**
+	 * <p>The number of calls which are let through while the circuit is half-open. Defaults to <b>5</b>.</p>
+	 * 
+	 * @return the number of probes which decide whether the circuit closes
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	int probes() default 5;
+	
+	/**
+	 * <p>An implementation of the endpoint with a public no-argument constructor whose corresponding method
+	 * serves the request while the circuit is open. Fallbacks apply to requests which return their response
+	 * directly or through a {@link java.util.concurrent.Future}. Defaults to {@link Void}, i.e. no fallback.</p>
+	 * 
+	 * @return the {@link Class} of the endpoint implementation which serves requests while the circuit is open
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	Class<?> fallback() default Void.class;
+}
@@ -0,0 +1,56 @@
+package com.lonepulse.zombielink.annotation;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Identifies idempotent requests whose <b>concurrent identical invocations</b> should share a single
+ * network exchange. Invocations are identical if they resolve to the same URI with the same headers. The
+ * first invocation executes the request and every invocation which arrives while it is in flight awaits
+ * and receives the same deserialized result, or the same failure.</p>
+ * 
+ * <p>Coalescing only applies to synchronous &#064;{@link GET} and &#064;{@link HEAD} requests (including
+ * those which return a {@link java.util.concurrent.Future}); it has no effect elsewhere. Since the result
+ * is shared, it should be treated as immutable.</p>
+ * <br>
+ * <b>Usage:</b>
+ * <br>
+ * <br>
+ * <p>
+ * <code>
+ * <pre><b>@Coalesce</b>&nbsp;@GET("/users/{user}")<br>User getUser(@PathParam("user") String user);</pre>
+ * </code>
+ * </p>
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesce {}
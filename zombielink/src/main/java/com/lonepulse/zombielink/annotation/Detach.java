@@ -28,8 +28,9 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * <p>Detaches any inherited &#064;{@link Serialize}, &#064;{@link Deserialize}, &#064;{@link Async} and 
- * &#064;{@link Intercept} annotations.</p>
+ * <p>Detaches any inherited &#064;{@link Serialize}, &#064;{@link Deserialize}, &#064;{@link Async}, 
+ * &#064;{@link Intercept}, &#064;{@link Retry}, &#064;{@link CircuitBreaker}, &#064;{@link RateLimit} and 
+ * &#064;{@link Bulkhead} annotations.</p>
  * <br>
  * <b>Usage</b> (assuming the endpoint is asynchronous and a type-level interceptor is attached):
  * <br>
@@ -42,7 +43,7 @@ import java.lang.annotation.Target;
  * </pre>
  * </code>
  * </p>
- * @version 1.1.0
+ * @version 1.3.0
  * <br><br>
  * @since 1.3.0
  * <br><br>
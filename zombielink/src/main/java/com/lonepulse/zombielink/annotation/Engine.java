@@ -0,0 +1,65 @@
+package com.lonepulse.zombielink.annotation;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.lonepulse.zombielink.proxy.ProxyEngine;
+
+/**
+ * <p>Selects the {@link ProxyEngine} which creates the proxy of an endpoint. This overrides the engine
+ * which is selected for all endpoints via the system property {@value ProxyEngine#PROPERTY}.</p>
+ * <br>
+ * <b>Usage:</b>
+ * <br>
+ * <br>
+ * <code>
+ * <pre><b>@Engine(ProxyEngine.GENERATED)</b>&nbsp;@Endpoint("https://api.github.com")<br>public interface GithubEndpoint {<br>&nbsp;&nbsp;...<br>}
+ * </pre>
+ * </code>
+ * </p>
+ * <p><b>Note</b> that an implementation which was generated at compile-time by <i>zombielink-processor</i>
+ * is always preferred over any engine.</p>
+ * <br>
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Engine {
+	
+	/**
+	 * <p>The {@link ProxyEngine} which should create the proxy of the endpoint.</p>
+	 * 
+	 * @return the {@link ProxyEngine} for the endpoint
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	ProxyEngine value();
+}
@@ -0,0 +1,91 @@
+package com.lonepulse.zombielink.annotation;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Identifies idempotent requests which should be <b>hedged</b>, i.e. sent a second time in parallel if
+ * the first attempt has not completed within a delay. The first response to arrive is served and the other
+ * attempt is aborted. The delay is either fixed using {@link #delay()} or tracks the given
+ * {@link #percentile()} of the latencies observed for the request, in which case hedging begins once
+ * enough latencies have been observed.</p>
+ * 
+ * <p>Hedging applies to &#064;{@link GET}, &#064;{@link HEAD}, &#064;{@link PUT}, &#064;{@link DELETE},
+ * &#064;{@link OPTIONS} and &#064;{@link TRACE} requests whose entity, if any, can be repeated; it has no
+ * effect elsewhere or on &#064;{@link Stateful} endpoints, whose state cannot be shared by parallel attempts.
+ * The hedges on each request are capped at the given {@link #rate()} of its traffic. See
+ * {@link com.lonepulse.zombielink.executor.HedgeMetrics} for the number of hedges sent and won.</p>
+ * <br>
+ * <b>Usage:</b>
+ * <br>
+ * <br>
+ * <p>
+ * <code>
+ * <pre><b>@Hedge(delay = 50)</b>&nbsp;@GET("/users/{user}")<br>User getUser(@PathParam("user") String user);</pre>
+ * </code>
+ * </p>
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Hedge {
+	
+	
+	/**
+	 * <p>The delay in milliseconds after which the request is hedged. Defaults to <b>0</b>, in which case
+	 * the delay tracks the observed {@link #percentile()}.</p>
+	 * 
+	 * @return the fixed delay before a hedge in milliseconds; else {@code 0}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	long delay() default 0;
+	
+	/**
+	 * <p>The percentile of the observed latencies after which the request is hedged, if no fixed
+	 * {@link #delay()} is given. Defaults to the <b>95th</b> percentile.</p>
+	 * 
+	 * @return the percentile of latencies which determines the delay, between {@code 0} and {@code 100}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	double percentile() default 95;
+	
+	/**
+	 * <p>The maximum fraction of invocations which may be hedged, in addition to a single hedge which is
+	 * held in reserve. Defaults to <b>0.05</b>, i.e. 5%.</p>
+	 * 
+	 * @return the ratio of hedges to invocations which is permitted
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	double rate() default 0.05;
+}
@@ -0,0 +1,179 @@
+package com.lonepulse.zombielink.annotation;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Declares the <b>connection pool</b> of an endpoint. The endpoint is given its own
+ * {@link org.apache.http.client.HttpClient} whose pool admits at most {@link #maxTotal()} connections,
+ * of which at most {@link #maxPerRoute()} connect to any single host unless the host is listed among the
+ * {@link #routes()} with a limit of its own. This allows the pool of each upstream to be tuned without
+ * building an {@link org.apache.http.client.HttpClient} via &#064;{@link Config}.</p>
+ * 
+ * <p>If the endpoint also has a &#064;{@link Config}, the pool of the {@link org.apache.http.client.HttpClient}
+ * supplied by the configuration is sized instead, provided that it uses a
+ * {@link org.apache.http.impl.conn.PoolingClientConnectionManager}. The {@link #timeToLive()} and the
+ * {@link #validateAfterInactivity()} of such a pool are fixed when the client is created and cannot be
+ * declared.</p>
+ * 
+ * <p>The limits can be changed while the endpoint is in use via
+ * {@link com.lonepulse.zombielink.executor.ConnectionPool}, which also exposes the usage of the pool.</p>
+ * <br>
+ * <b>Usage:</b>
+ * <br>
+ * <br>
+ * <p>
+ * <code>
+ * <pre><b>@Pool(maxTotal = 50, maxPerRoute = 10, leaseTimeout = 2000,<br>&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;routes = @Pool.Route(host = "https://uploads.github.com", maxConnections = 2))</b>
+ *@Endpoint("https://api.github.com")<br>public interface GitHubEndpoint {<br>&nbsp;&nbsp;...<br>}</pre>
+ * </code>
+ * </p>
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Pool {
+	
+	
+	/**
+	 * <p>Limits the connections to a single host, overriding {@link Pool#maxPerRoute()}.</p>
+	 * 
+	 * @version 1.0.0
+	 * <br><br>
+	 * @since 1.3.4
+	 * <br><br>
+	 * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+	 */
+	@Documented
+	@Target({})
+	@Retention(RetentionPolicy.RUNTIME)
+	public static @interface Route {
+		
+		/**
+		 * <p>The host whose connections are limited, with an optional scheme and port, e.g.
+		 * <i>https://api.github.com</i> or <i>localhost:8080</i>. The scheme defaults to <b>http</b>.</p>
+		 * 
+		 * @return the host whose connections are limited
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		String host();
+		
+		/**
+		 * <p>The maximum number of connections to the {@link #host()}.</p>
+		 * 
+		 * @return the maximum number of connections to the host
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		int maxConnections();
+	}
+	
+	
+	/**
+	 * <p>The maximum number of connections in the pool. Defaults to <b>200</b>.</p>
+	 * 
+	 * @return the maximum number of pooled connections
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	int maxTotal() default 200;
+	
+	/**
+	 * <p>The maximum number of connections to any host which is not listed among the {@link #routes()}.
+	 * Defaults to <b>20</b>.</p>
+	 * 
+	 * @return the maximum number of connections per host
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	int maxPerRoute() default 20;
+	
+	/**
+	 * <p>The hosts whose connections are limited individually. Defaults to none.</p>
+	 * 
+	 * @return the {@link Route}s with limits of their own
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	Route[] routes() default {};
+	
+	/**
+	 * <p>The maximum duration in milliseconds for which a request waits to lease a connection from a
+	 * saturated pool, after which it fails with a {@link org.apache.http.conn.ConnectionPoolTimeoutException}.
+	 * Defaults to <b>0</b>, i.e. requests wait indefinitely.</p>
+	 * 
+	 * @return the maximum wait for a connection in milliseconds
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	long leaseTimeout() default 0;
+	
+	/**
+	 * <p>The maximum lifetime in milliseconds of a pooled connection, after which it's closed instead of
+	 * being reused, e.g. to follow DNS changes of the upstream. Defaults to <b>-1</b>, i.e. connections
+	 * live for as long as the server keeps them alive.</p>
+	 * 
+	 * @return the lifetime of pooled connections in milliseconds
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	long timeToLive() default -1;
+	
+	/**
+	 * <p>The duration in milliseconds for which a pooled connection may stay idle before it's closed by
+	 * the background maintenance of the pool, which runs every few seconds. This should be shorter than
+	 * the keep-alive timeout of the upstream or of any NAT in between, so that half-closed connections
+	 * are retired before they are leased. Defaults to <b>30000</b>.</p>
+	 * 
+	 * @return the maximum idle time of pooled connections in milliseconds
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	long idleTimeout() default 30000;
+	
+	/**
+	 * <p>The duration in milliseconds for which a pooled connection may stay idle before it's checked for 
+	 * staleness when leased. Connections which were used more recently are leased without the check, 
+	 * which otherwise runs on <i>every</i> lease and blocks for up to a millisecond. Defaults to <b>-1</b>, 
+	 * i.e. every lease is checked.</p>
+	 * 
+	 * <p>A connection which the server drops within this duration is only discovered once a request fails 
+	 * on it. Idempotent requests are retried on a new connection, while others fail; hence this should be 
+	 * well within the keep-alive timeout of the upstream.</p>
+	 * 
+	 * @return the idle time in milliseconds after which a connection is checked, or <b>-1</b> to check it 
+	 * 		   on every lease
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	long validateAfterInactivity() default -1;
+}
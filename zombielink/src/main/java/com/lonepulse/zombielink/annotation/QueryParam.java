@@ -28,7 +28,9 @@ import java.lang.annotation.Target;
 
 /**
  * <p>Identifies a <b>query parameter</b> to be included in a 
- * <a href="http://en.wikipedia.org/wiki/Query_string">query string</a>. 
+ * <a href="http://en.wikipedia.org/wiki/Query_string">query string</a>. The parameter may be a 
+ * {@link CharSequence} or a {@code Collection<? extends CharSequence>}, in which case the name is 
+ * repeated for each value.</p>
  * <br>
  * <b>Usage:</b>
  * <br>
@@ -40,7 +42,7 @@ import java.lang.annotation.Target;
  * </code>
  * </p>
  * <br>
- * @version 1.1.0
+ * @version 1.2.0
  * <br><br>
  * @since 1.3.0
  * <br><br>
@@ -0,0 +1,114 @@
+package com.lonepulse.zombielink.annotation;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Identifies requests which should be <b>rate limited</b> on the client, so that they stay within the
+ * quota of an upstream. Each request takes a permit from a token bucket which is refilled with the given
+ * number of {@link #permits()} every {@link #period()} and which holds at most {@link #burst()} permits.
+ * A request which finds no permit either waits for one up to the given {@link #timeout()} or fails fast
+ * with a {@link com.lonepulse.zombielink.executor.RateLimitExceededException} without being sent.</p>
+ * 
+ * <p>The bucket adapts to the quota which the upstream reports. A <i>Retry-After</i> header on a
+ * <b>429</b> or <b>503</b> response withholds permits until the given time, as does an exhausted
+ * <i>X-RateLimit-Remaining</i> header until the time given by <i>X-RateLimit-Reset</i>. Fewer permits
+ * remaining than those in the bucket drain it to match. See
+ * {@link com.lonepulse.zombielink.executor.RateLimiter} for the metrics of a bucket.</p>
+ * <br>
+ * <b>Usage:</b>
+ * <br>
+ * <br>
+ * <ol>
+ * <li>
+ * At <b>type-level</b> on an endpoint; all requests share a single bucket, unless they detach it using
+ * &#064;{@link Detach}.<br>
+ * <code>
+ * <pre><b>@RateLimit(permits = 5000, period = 3600000)</b>&nbsp;@Endpoint("https://api.github.com")<br>public interface GithubEndpoint {<br>&nbsp;&nbsp;...<br>}
+ * </pre>
+ * </code>
+ * </li>
+ *  
+ * <li>
+ * At <b>method-level</b> on a request; the request has its own bucket which overrides any type-level one.<br>
+ * <code>
+ * <pre><b>@RateLimit(permits = 30, period = 60000, burst = 5, timeout = 2000)</b>&nbsp;@GET("/search/repositories")<br>Repos search(@QueryParam("q") String query);</pre>
+ * </code>
+ * </li>
+ * </ol>
+ * </p>
+ * <br>
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface RateLimit {
+	
+	
+	/**
+	 * <p>The number of permits which are made available in each {@link #period()}.</p>
+	 * 
+	 * @return the number of requests which may be sent per period
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	int permits();
+	
+	/**
+	 * <p>The period in milliseconds over which the {@link #permits()} are made available. Defaults to
+	 * <b>1000</b>.</p>
+	 * 
+	 * @return the refill period in milliseconds
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	long period() default 1000;
+	
+	/**
+	 * <p>The maximum number of permits which may be taken at once. Defaults to <b>0</b>, in which case
+	 * the bucket holds the number of {@link #permits()} in a period.</p>
+	 * 
+	 * @return the capacity of the bucket; else {@code 0}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	int burst() default 0;
+	
+	/**
+	 * <p>The maximum duration in milliseconds for which a request waits for a permit. Defaults to
+	 * <b>0</b>, i.e. requests fail fast when no permit is available.</p>
+	 * 
+	 * @return the maximum wait for a permit in milliseconds
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	long timeout() default 0;
+}
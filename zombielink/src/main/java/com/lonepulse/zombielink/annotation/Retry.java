@@ -0,0 +1,132 @@
+package com.lonepulse.zombielink.annotation;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Identifies requests which should be <b>retried</b> when they fail with one of the given status codes
+ * or exceptions. Retries are delayed using an exponential backoff with <i>full jitter</i>, i.e. a random
+ * delay between zero and {@link #delay()} doubled for each attempt, capped at {@link #maxDelay()}. A
+ * <i>Retry-After</i> header on the failed response raises the delay to the time which it requests and
+ * prevents the retry if that time exceeds {@link #maxDelay()}.</p>
+ * 
+ * <p>Retries on each endpoint are limited by a <b>retry budget</b>, which allows at most the given
+ * {@link #budget()} of requests to be retried, so that retries do not amplify an outage. Requests with an
+ * entity which cannot be repeated (i.e. one which is not {@link org.apache.http.HttpEntity#isRepeatable()
+ * repeatable}) are never retried. Since each failed request may be sent more than once, only requests which
+ * are safe to repeat should be retried.</p>
+ * <br>
+ * <b>Usage:</b>
+ * <br>
+ * <br>
+ * <ol>
+ * <li>
+ * At <b>type-level</b> on an endpoint; retries all requests, unless they detach it using &#064;{@link Detach}.<br>
+ * <code>
+ * <pre><b>@Retry</b>&nbsp;@Endpoint("https://api.github.com")<br>public interface GithubEndpoint {<br>&nbsp;&nbsp;...<br>}
+ * </pre>
+ * </code>
+ * </li>
+ *  
+ * <li>
+ * At <b>method-level</b> on a request; overrides any type-level policy.<br>
+ * <code>
+ * <pre><b>@Retry(attempts = 5, statuses = {429, 503})</b>&nbsp;@GET("/users/{user}/repos")<br>List&lt;Repo&gt; getRepos(@PathParam("user") String user);</pre>
+ * </code>
+ * </li>
+ * </ol>
+ * </p>
+ * <br>
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Retry {
+	
+	
+	/**
+	 * <p>The maximum number of attempts, including the first. Defaults to <b>3</b>.</p>
+	 * 
+	 * @return the maximum number of times the request is sent
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	int attempts() default 3;
+	
+	/**
+	 * <p>The status codes of responses which should be retried. Defaults to <b>502</b>, <b>503</b> and
+	 * <b>504</b>.</p>
+	 * 
+	 * @return the status codes which are retried
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	int[] statuses() default {502, 503, 504};
+	
+	/**
+	 * <p>The types of exceptions (including their subtypes) which should be retried when a request fails to
+	 * be executed. Defaults to {@link IOException}.</p>
+	 * 
+	 * @return the types of exceptions which are retried
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	Class<? extends Throwable>[] exceptions() default {IOException.class};
+	
+	/**
+	 * <p>The base delay in milliseconds, which is doubled for each attempt. Defaults to <b>100</b>.</p>
+	 * 
+	 * @return the base delay before a retry in milliseconds
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	long delay() default 100;
+	
+	/**
+	 * <p>The maximum delay in milliseconds before a retry. Defaults to <b>10000</b>.</p>
+	 * 
+	 * @return the maximum delay before a retry in milliseconds
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	long maxDelay() default 10000;
+	
+	/**
+	 * <p>The fraction of requests on the endpoint which may be retried, in addition to a small reserve
+	 * which allows endpoints with little traffic to retry. Defaults to <b>0.1</b>, i.e. 10%.</p>
+	 * 
+	 * @return the ratio of retries to requests which is permitted on the endpoint
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	double budget() default 0.1;
+}
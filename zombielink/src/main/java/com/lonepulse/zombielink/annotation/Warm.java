@@ -0,0 +1,81 @@
+package com.lonepulse.zombielink.annotation;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Identifies an endpoint whose <b>connections are opened ahead of its first requests</b>, so that these
+ * requests do not pay for the TCP and TLS handshakes. When the endpoint is first injected, the given number
+ * of keep-alive connections to its host are opened in parallel through its
+ * {@link org.apache.http.client.HttpClient} and pooled for reuse. Warm-up runs in the background and gives
+ * up on the connections which could not be opened within the {@link #timeout()}.</p>
+ * 
+ * <p>Warm-up can also be performed on demand, e.g. after a pool has been reset, using
+ * {@link com.lonepulse.zombielink.proxy.Zombie#warmUp(Class...)}. The connections are opened without
+ * sending any requests and are subject to the limits of the pool, see &#064;{@link Pool}. Endpoints which
+ * are reached through a tunnelling proxy are not warmed.</p>
+ * <br>
+ * <b>Usage:</b>
+ * <br>
+ * <br>
+ * <p>
+ * <code>
+ * <pre><b>@Warm(connections = 4)</b>
+ *@Endpoint("https://api.github.com")<br>public interface GitHubEndpoint {<br>&nbsp;&nbsp;...<br>}</pre>
+ * </code>
+ * </p>
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Warm {
+	
+	
+	/**
+	 * <p>The number of connections to be opened and pooled, which is capped by the maximum number of
+	 * connections per route of the pool. Defaults to <b>1</b>.</p>
+	 * 
+	 * @return the number of pooled connections to the endpoint's host
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	int connections() default 1;
+	
+	/**
+	 * <p>The maximum duration in milliseconds of the warm-up, which bounds both the wait for pooled
+	 * connections and the handshakes. Defaults to <b>5000</b>.</p>
+	 * 
+	 * @return the timeout of the warm-up in milliseconds
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	long timeout() default 5000;
+}
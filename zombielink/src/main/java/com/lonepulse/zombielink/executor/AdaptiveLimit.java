@@ -0,0 +1,138 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * <p>A concurrency limit which adapts to the round-trip latency of the calls made within it, following
+ * the <i>gradient</i> of the latency observed without load to the latency of each call. While calls take
+ * no longer than the baseline, the limit grows by its square root, which is the headroom for queueing.
+ * As calls slow down, the limit shrinks in proportion so that the latency returns to the baseline. Calls
+ * which fail with an error or a server error (i.e. which were <i>dropped</i>) back off the limit by a
+ * constant factor, much like the multiplicative decrease of AIMD.</p>
+ * 
+ * <p>The limit only grows while at least half of it is in use, since a limit which is not reached says
+ * nothing about the capacity of the upstream. The baseline is the minimum latency which was observed and
+ * is reset periodically, so that it follows a lasting change in the upstream.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class AdaptiveLimit {
+	
+	
+	private static final int INITIAL = 20;
+	private static final int PROBE_INTERVAL = 1000;
+	
+	private static final double SMOOTHING = 0.2;
+	private static final double BACKOFF = 0.9;
+	
+	private final int max;
+	
+	private double limit;
+	private long baseline = Long.MAX_VALUE;
+	private int samples;
+	
+	
+	/**
+	 * <p>Creates a new {@link AdaptiveLimit} which starts at a moderate limit within the given maximum.</p>
+	 * 
+	 * @param max
+	 * 			the maximum limit, which is never exceeded
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	AdaptiveLimit(int max) {
+		
+		this.max = Math.max(1, max);
+		this.limit = Math.min(this.max, INITIAL);
+	}
+	
+	/**
+	 * <p>Updates the limit using the outcome of a single call.</p>
+	 * 
+	 * @param latency
+	 * 			the round-trip latency of the call in nanoseconds
+	 * <br><br>
+	 * @param inFlight
+	 * 			the number of calls which were in flight when the call completed
+	 * <br><br>
+	 * @param dropped
+	 * 			{@code true} if the call failed with an error or a server error
+	 * <br><br>
+	 * @return the updated limit
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	synchronized int update(long latency, int inFlight, boolean dropped) {
+		
+		latency = Math.max(1, latency);
+		
+		if(++samples >= PROBE_INTERVAL) {
+			
+			samples = 0;
+			baseline = latency;
+		}
+		else {
+			
+			baseline = Math.min(baseline, latency);
+		}
+		
+		double next;
+		
+		if(dropped) {
+			
+			next = limit * BACKOFF;
+		}
+		else {
+			
+			double gradient = Math.max(0.5, Math.min(1.0, baseline / (double)latency));
+			next = limit * gradient + Math.sqrt(limit);
+			
+			if(next > limit && inFlight < limit / 2) {
+				
+				next = limit;
+			}
+			else if(next < limit) {
+				
+				next = limit * (1 - SMOOTHING) + next * SMOOTHING;
+			}
+		}
+		
+		limit = Math.max(1, Math.min(max, next));
+		
+		return getLimit();
+	}
+	
+	/**
+	 * <p>Retrieves the current limit.</p>
+	 * 
+	 * @return the number of calls which may be in flight at once
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	synchronized int getLimit() {
+		
+		return (int)limit;
+	}
+}
@@ -0,0 +1,197 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.lonepulse.zombielink.Directory;
+import com.lonepulse.zombielink.annotation.Async;
+import com.lonepulse.zombielink.annotation.Config;
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>A registry of {@link ExecutorService}s which are configured to execute the @{@link Async} requests 
+ * of a specific endpoint.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+enum AsyncExecutorDirectory implements Directory<Class<?>, ExecutorService> {
+	
+	
+	/**
+	 * <p>The {@link AsyncExecutorDirectory} which caches {@link ExecutorService}s that are uniquely 
+	 * configured for each endpoint. An {@link ExecutorService} is stored or accessed using an endpoint's 
+	 * {@link Class}.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	INSTANCE;
+	
+	
+	/**
+	 * <p>The default {@link ExecutorService} which will be used to execute asynchronous requests if no 
+	 * specialized configuration is provided. See {@link Zombie.Configuration#asyncExecutor()}.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	public static final ExecutorService DEFAULT;
+	
+	
+	private static final Map<String, ExecutorService> DIRECTORY = new HashMap<String, ExecutorService>();
+	
+	private static final Map<String, String> ENDPOINT_CONFIGS = new HashMap<String, String>();
+	
+	
+	static {
+		
+		DEFAULT = new Zombie.Configuration(){}.asyncExecutor();
+		DIRECTORY.put(Zombie.Configuration.class.getName(), DEFAULT);
+		
+		Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				synchronized (DIRECTORY) {
+					
+					for (ExecutorService executor : DIRECTORY.values()) {
+						
+						executor.shutdown(); //finish executing all pending asynchronous requests 
+					}
+					
+					for (ExecutorService executor : DIRECTORY.values()) {
+						
+						try {
+							
+							if(!executor.awaitTermination(15, TimeUnit.SECONDS)) {
+								
+								List<Runnable> pendingRequests = executor.shutdownNow();
+								
+								Logger.getLogger(AsyncExecutorDirectory.class.getName()).log(
+									Level.INFO, pendingRequests.size() + " asynchronous requests aborted.");
+							}
+						}
+						catch (InterruptedException ie) {
+							
+							Logger.getLogger(AsyncExecutorDirectory.class.getName()).log(
+								Level.WARNING, "Failed to shutdown an executor for asynchronous requests.", ie);
+							
+							Thread.currentThread().interrupt();
+							return;
+						}
+					}
+				}
+			}
+		}));
+	}
+	
+	
+	/**
+	 * <p>Registers an instance of {@link ExecutorService} under the given {@link Class} of the endpoint 
+	 * definition. If an {@link ExecutorService} already exists under the given endpoint, <i>no attempt 
+	 * will be made to replace the existing instance</i>.</p>
+	 * 
+	 * @param endpoint
+	 * 			the {@link Class} of the endpoint whose {@link ExecutorService} is added to the directory
+	 * <br><br>
+	 * @param executor
+	 * 			the {@link ExecutorService} which to be registered under the given endpoint definition
+	 * <br><br>
+	 * @return the {@link ExecutorService} which was registered under the given endpoint definition
+	 * <br><br> 
+	 * @since 1.3.4
+	 */
+	@Override
+	public ExecutorService bind(Class<?> endpoint, ExecutorService executor) {
+		
+		String configClassName = endpoint.isAnnotationPresent(Config.class)?
+			endpoint.getAnnotation(Config.class).value().getName() :Zombie.Configuration.class.getName();
+			
+		String endpointClassName = endpoint.getName();
+		
+		synchronized (DIRECTORY) {
+			
+			if(!DIRECTORY.containsKey(configClassName)) {
+				
+				DIRECTORY.put(configClassName, executor == null? DEFAULT :executor);
+			}
+			
+			if(!ENDPOINT_CONFIGS.containsKey(endpointClassName)) {
+				
+				ENDPOINT_CONFIGS.put(endpointClassName, configClassName);
+			}
+		}
+		
+		return lookup(endpoint);
+	}
+	
+	/**
+	 * <p>Determines whether an {@link ExecutorService} was already registered for the given configuration,
+	 * in which case any new instance offered to {@link #bind(Class, ExecutorService)} is discarded.</p>
+	 * 
+	 * @param configuration
+	 * 			the {@link Class} of the {@link Zombie.Configuration} whose registration is to be checked
+	 * <br><br>
+	 * @return {@code true} if the given configuration has already been bound to an {@link ExecutorService}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	boolean isBound(Class<?> configuration) {
+		
+		synchronized (DIRECTORY) {
+			
+			return DIRECTORY.containsKey(configuration.getName());
+		}
+	}
+	
+	/**
+	 * <p>Retrieves the {@link ExecutorService} which was registered under the given endpoint. If no 
+	 * instance was registered for this endpoint's {@link Class}, the {@link #DEFAULT} instance is returned.</p>
+	 *  
+	 * @param endpointClass
+	 * 			the {@link Class} of the endpoint definition whose {@link ExecutorService} is to be retrieved
+	 * <br><br>
+	 * @return the {@link ExecutorService} which was registered under the given endpoint, else the 
+	 * 		   {@link #DEFAULT} instance if no existing {@link ExecutorService} was found
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	@Override
+	public ExecutorService lookup(Class<?> endpointClass) {
+		
+		synchronized (DIRECTORY) {
+			
+			ExecutorService executor = DIRECTORY.get(ENDPOINT_CONFIGS.get(endpointClass.getName()));
+			
+			return executor == null? DEFAULT :executor;
+		}
+	}
+}
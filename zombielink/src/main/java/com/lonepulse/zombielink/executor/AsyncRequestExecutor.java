@@ -20,25 +20,41 @@ package com.lonepulse.zombielink.executor;
  * #L%
  */
 
-import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.RejectedExecutionException;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpRequestBase;
 
 import com.lonepulse.zombielink.annotation.Async;
+import com.lonepulse.zombielink.annotation.Bulkhead;
+import com.lonepulse.zombielink.annotation.CircuitBreaker;
+import com.lonepulse.zombielink.annotation.Hedge;
+import com.lonepulse.zombielink.annotation.Retry;
 import com.lonepulse.zombielink.proxy.InvocationContext;
 
 /**
  * <p>An extension of {@link BasicRequestExecutor} which is responsible for executing <b>asynchronous 
  * requests</b> identified by the @{@link Async} annotation placed on the endpoint or request method.</p>
  * 
- * @version 1.1.0
+ * <p>Requests are executed on the {@link java.util.concurrent.ExecutorService} which is configured for the 
+ * endpoint (see {@link AsyncExecutorDirectory}). Requests which are rejected by a saturated executor are 
+ * reported to the {@link ExecutionHandler} as errors.</p>
+ * 
+ * <p>If the endpoint is configured with a {@link NonBlockingTransport}, supported requests are sent via 
+ * the transport instead and only the handling of their responses is executed on the executor. Endpoints 
+ * which are also configured with a {@link ResponseCache} continue to use the blocking transport, which 
+ * consults the cache, as do requests with a @{@link Retry} or @{@link Hedge} policy and requests which 
+ * are guarded by a @{@link CircuitBreaker} or confined to a @{@link Bulkhead}. Such requests enter their 
+ * {@link Compartment} on the thread of the executor. If the transport speaks 
+ * {@link NonBlockingTransport.Protocol#HTTP_2}, they are nevertheless multiplexed over its connections.</p>
+ * 
+ * <p>Responses are handed off from the reactor of the transport to the executor without ever running on
+ * the reactor or waiting for room in the executor. If the executor is saturated, the rejection is reported
+ * on a separate thread instead (see {@link Handoff}).</p>
+ * 
+ * @version 1.10.0
  * <br><br>
  * @since 1.3.0
  * <br><br>
@@ -47,37 +63,7 @@ import com.lonepulse.zombielink.proxy.InvocationContext;
 class AsyncRequestExecutor extends BasicRequestExecutor {
 
 	
-	private static final Log LOG = LogFactory.getLog(AsyncRequestExecutor.class);
-	
-	private static final ExecutorService ASYNC_EXECUTOR_SERVICE;
-	
-	static
-	{
-		ASYNC_EXECUTOR_SERVICE = Executors.newCachedThreadPool();
-		
-		Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
-			
-			@Override
-			public void run() {
-			
-				ASYNC_EXECUTOR_SERVICE.shutdown(); //finish executing all pending asynchronous requests 
-				
-				try {
-					
-					if(!ASYNC_EXECUTOR_SERVICE.awaitTermination(15, TimeUnit.SECONDS)) {
-						
-						List<Runnable> pendingRequests = ASYNC_EXECUTOR_SERVICE.shutdownNow();
-						LOG.info(pendingRequests.size() + " asynchronous requests aborted.");
-					}
-				}
-				catch (InterruptedException ie) {
-					
-					LOG.error("Failed to shutdown the cached thread pool for asynchronous requests.");
-					Thread.currentThread().interrupt();
-				}
-			}
-		}));
-	}
+	private final ExecutionHandler executionHandler;
 	
 	
 	/**
@@ -93,12 +79,14 @@ class AsyncRequestExecutor extends BasicRequestExecutor {
 	AsyncRequestExecutor(ExecutionHandler executionHandler) {
 		
 		super(executionHandler);
+		this.executionHandler = executionHandler;
 	}
 	
 	/**
 	 * <p>Executes an {@link HttpRequestBase} <b>asynchronously</b> with the endpoint's {@link HttpClient}, 
 	 * which causes it to return immediately with {@code null}. Directing the request execution is delegated 
-	 * to the super class' implementation.</p> 
+	 * to the super class' implementation. If the request is rejected by the endpoint's executor, the failure 
+	 * is passed on to {@link ExecutionHandler#onError(InvocationContext, Exception)}.</p> 
 	 * 
 	 * <p>See {@link BasicRequestExecutor#execute(InvocationContext, HttpRequestBase)}</p>
 	 * 
@@ -115,15 +103,96 @@ class AsyncRequestExecutor extends BasicRequestExecutor {
 	@Override
 	public HttpResponse execute(final InvocationContext context, final HttpRequestBase request) {
 		
-		ASYNC_EXECUTOR_SERVICE.execute(new Runnable() {
-
-			@Override
-			public void run() {
+		final ExecutorService executor = AsyncExecutorDirectory.INSTANCE.lookup(context.getEndpoint());
+		NonBlockingTransport transport = TransportDirectory.INSTANCE.lookup(context.getEndpoint());
+		
+		if(transport != null && transport.supports(request) && !context.getPlan().isStateful() 
+			&& context.getPlan().getRetry() == null && context.getPlan().getHedge() == null
+			&& context.getPlan().getCircuitBreaker() == null && context.getPlan().getBulkhead() == null
+			&& ResponseCacheDirectory.INSTANCE.lookup(context.getEndpoint()) == null) {
+			
+			transport.execute(request, new NonBlockingTransport.Callback() {
+				
+				@Override
+				public void completed(final HttpResponse response) {
+					
+					handoff(executor, context, new Runnable() {
+						
+						@Override
+						public void run() {
+							
+							RateLimiter limiter = RateLimiter.of(context);
+							
+							if(limiter != null) {
+								
+								limiter.adapt(response);
+							}
+							
+							handleResponse(context, response);
+						}
+					});
+				}
+				
+				@Override
+				public void failed(final Exception error) {
+					
+					handoff(executor, context, new Runnable() {
+						
+						@Override
+						public void run() {
+							
+							executionHandler.onError(context, 
+								new RequestExecutionException(context.getRequest(), context.getEndpoint(), error));
+						}
+					});
+				}
+			});
+		}
+		else {
+			
+			submit(executor, context, new Runnable() {
 				
-				AsyncRequestExecutor.super.execute(context, request);
-			}
-		});
+				@Override
+				public void run() {
+					
+					AsyncRequestExecutor.super.execute(context, request);
+				}
+			});
+		}
 		
 		return null;
 	}
+	
+	private void submit(ExecutorService executor, InvocationContext context, Runnable task) {
+		
+		try {
+			
+			executor.execute(task);
+		}
+		catch(RejectedExecutionException ree) {
+			
+			executionHandler.onError(context, 
+				new RequestExecutionException(context.getRequest(), context.getEndpoint(), ree));
+		}
+	}
+	
+	private void handoff(ExecutorService executor, final InvocationContext context, Runnable task) {
+		
+		try {
+			
+			Handoff.execute(executor, task);
+		}
+		catch(final RejectedExecutionException ree) {
+			
+			Handoff.report(new Runnable() {
+				
+				@Override
+				public void run() {
+					
+					executionHandler.onError(context,
+						new RequestExecutionException(context.getRequest(), context.getEndpoint(), ree));
+				}
+			});
+		}
+	}
 }
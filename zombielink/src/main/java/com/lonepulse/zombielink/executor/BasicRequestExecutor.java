@@ -22,13 +22,26 @@ package com.lonepulse.zombielink.executor;
 
 import static com.lonepulse.zombielink.util.Is.successful;
 
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.BufferedHttpEntity;
 import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
 
+import com.lonepulse.zombielink.annotation.Bulkhead;
+import com.lonepulse.zombielink.annotation.CircuitBreaker;
+import com.lonepulse.zombielink.annotation.Hedge;
+import com.lonepulse.zombielink.annotation.RateLimit;
+import com.lonepulse.zombielink.annotation.Retry;
 import com.lonepulse.zombielink.annotation.Stateful;
+import com.lonepulse.zombielink.processor.Processors;
 import com.lonepulse.zombielink.proxy.InvocationContext;
 import com.lonepulse.zombielink.proxy.InvocationException;
 import com.lonepulse.zombielink.util.Is;
@@ -37,7 +50,7 @@ import com.lonepulse.zombielink.util.Is;
  * <p>An implementation of {@link RequestExecutor} which isolates responsibilities that are common to 
  * all concrete {@link RequestExecutor}s.</p> 
  * 
- * @version 1.2.0
+ * @version 1.10.0
  * <br><br>
  * @since 1.1.0
  * <br><br>
@@ -68,7 +81,22 @@ class BasicRequestExecutor implements RequestExecutor {
 	 * 
 	 * <p>If the endpoint is annotated with @{@link Stateful}, the relevant {@link HttpContext} from the 
 	 * {@link HttpContextDirectory} is used. See {@link HttpClient#execute(HttpUriRequest, HttpContext)}</p>
+	 * 
+	 * <p>If the endpoint is configured with a {@link ResponseCache}, the request is served via the cache, 
+	 * which sends it using the {@link HttpClient} only if no fresh response is available. Stale responses 
+	 * which are served while they're revalidated are refreshed on the endpoint's asynchronous executor, 
+	 * using a request which is built afresh by {@link Processors#REQUEST}.</p>
+	 * 
+	 * <p>Requests with a @{@link Hedge} policy are sent via a {@link RequestHedger}, which sends a copy of 
+	 * the request on the endpoint's asynchronous executor if the first attempt is slow to complete.</p>
+	 * 
+	 * <p>If the endpoint is configured with a {@link NonBlockingTransport} which speaks 
+	 * {@link NonBlockingTransport.Protocol#HTTP_2}, supported requests are multiplexed over its connections 
+	 * instead of being sent using the {@link HttpClient}, unless the endpoint is @{@link Stateful}.</p>
 	 *
+	 * <p>Requests with a @{@link RateLimit} adapt their {@link RateLimiter} to the quota which is reported
+	 * by every response that is received from the upstream, including those of hedges and revalidations.</p>
+	 * 
 	 * @param context
 	 * 			the {@link InvocationContext} used to discover information about the proxy invocation
 	 * <br><br>
@@ -79,17 +107,55 @@ class BasicRequestExecutor implements RequestExecutor {
 	 * <br><br>
 	 * @since 1.3.0
 	 */
-	protected HttpResponse fetchResponse(InvocationContext context, HttpRequestBase request) {
+	protected HttpResponse fetchResponse(final InvocationContext context, HttpRequestBase request) {
 
 		try {
 		
 			Class<?> endpoint = context.getEndpoint();
 			
-			HttpClient httpClient = HttpClientDirectory.INSTANCE.lookup(endpoint);
+			final HttpClient httpClient = HttpClientDirectory.INSTANCE.lookup(endpoint);
+			final HttpContext httpContext = context.getPlan().isStateful()? 
+					HttpContextDirectory.INSTANCE.lookup(endpoint) :null;
+			
+			NonBlockingTransport transport = TransportDirectory.INSTANCE.lookup(endpoint);
+			final RateLimiter limiter = RateLimiter.of(context);
+			
+			final NonBlockingTransport multiplexer = transport != null && !context.getPlan().isStateful() 
+				&& transport.getProtocol() == NonBlockingTransport.Protocol.HTTP_2? transport :null;
+			
+			ResponseCache.Exchange exchange = new ResponseCache.Exchange() {
+				
+				@Override
+				public HttpResponse execute(HttpRequestBase request) throws IOException {
+					
+					HttpResponse response = multiplexer != null && multiplexer.supports(request)?
+						multiplexer.transmit(request) :httpClient.execute(request, httpContext);
+					
+					if(limiter != null) {
+						
+						limiter.adapt(response);
+					}
+					
+					return response;
+				}
+				
+				@Override
+				public HttpRequestBase rebuild(HttpRequestBase request) {
+					
+					return (HttpRequestBase) Processors.REQUEST.run(context);
+				}
+			};
+			
+			Executor executor = AsyncExecutorDirectory.INSTANCE.lookup(endpoint);
 			
-			return endpoint.isAnnotationPresent(Stateful.class)? 
-					httpClient.execute(request, HttpContextDirectory.INSTANCE.lookup(endpoint)) 
-					:httpClient.execute(request);
+			if(context.getPlan().getHedge() != null) {
+				
+				exchange = new RequestHedger(context, exchange, executor);
+			}
+			
+			ResponseCache responseCache = ResponseCacheDirectory.INSTANCE.lookup(endpoint);
+			
+			return responseCache == null? exchange.execute(request) :responseCache.execute(request, exchange, executor);
 		}
 		catch(Exception e) {
 			
@@ -101,6 +167,22 @@ class BasicRequestExecutor implements RequestExecutor {
 	 * <p>Executes an {@link HttpRequestBase} using the endpoint's {@link HttpClient} and handles the 
 	 * resulting {@link HttpResponse} using this executor's {@link ExecutionHandler}.</p>
 	 * 
+	 * <p>Requests with a @{@link Retry} policy are sent again while they fail with a retryable status code 
+	 * or exception, and only the outcome of the final attempt is handed off. If the request has a
+	 * @{@link RateLimit}, each retry takes a permit from its {@link RateLimiter} just as the first attempt
+	 * did, and a retry for which no permit becomes available fails with a {@link RateLimitExceededException}.</p>
+	 * 
+	 * <p>Requests guarded by a @{@link CircuitBreaker} are rejected with a {@link CircuitOpenException} 
+	 * while their {@link Circuit} is open. The outcome of each attempt is recorded on the circuit and no 
+	 * further attempts are made once it opens.</p>
+	 * 
+	 * <p>Requests confined to a @{@link Bulkhead} are executed within their {@link Compartment}, which is 
+	 * entered before the circuit is consulted and left once the response has been handed off. Requests 
+	 * which could not enter a full compartment are rejected with a {@link BulkheadFullException}. The 
+	 * latency of each attempt is recorded on the compartment, which adapts its limit if it's adaptive.
+	 * A retry leaves the compartment while it waits for a permit from its {@link RateLimiter} and is then
+	 * admitted to the compartment and the circuit afresh, just as the first attempt was.</p>
+	 * 
 	 * <p>See {@link #fetchResponse(InvocationContext, HttpRequestBase)}</p>
 	 * 
 	 * <p>See {@link Is#successful(HttpResponse)}</p>
@@ -119,29 +201,183 @@ class BasicRequestExecutor implements RequestExecutor {
 	@Override
 	public HttpResponse execute(InvocationContext context, HttpRequestBase request) {
 		
-		HttpResponse response = null;
+		Compartment compartment = Compartment.of(context);
+		Circuit circuit = Circuit.of(context);
+		
+		boolean admitted = admit(context, compartment, circuit);
 		
 		try {
 			
-			 response = fetchResponse(context, request);
+			if(!admitted) {
+				
+				return null;
+			}
+			
+			RetryPolicy retryPolicy = RetryPolicy.of(context, request);
+			
+			HttpResponse response = null;
+			RequestExecutionException error = null;
+			
+			for (int attempt = 1; ; attempt++) {
+		
+				response = null;
+				error = null;
+			
+				long start = System.nanoTime();
+				
+				try {
+					
+					response = fetchResponse(context, request);
+				}
+				catch(RequestExecutionException ree) {
+					
+					error = ree;
+				}
+				
+				long latency = System.nanoTime() - start;
+				boolean failed = error != null || response.getStatusLine().getStatusCode() >= 500;
+				
+				if(circuit != null) {
+					
+					circuit.record(TimeUnit.NANOSECONDS.toMillis(latency), failed);
+				}
+				
+				if(compartment != null) {
+					
+					compartment.record(latency, failed);
+				}
+				
+				if(retryPolicy == null || (circuit != null && circuit.getState() == Circuit.State.OPEN)
+					|| !retryPolicy.awaitRetry(attempt, response, error)) {
+					
+					break;
+				}
+				
+				if(compartment != null) {
+					
+					compartment.leave(); //a retry which waits for a permit does not hold on to its place
+					admitted = false;
+				}
+				
+				if(!throttle(context) || !(admitted = admit(context, compartment, circuit))) {
+					
+					return null;
+				}
+			}
+			
+			if(error != null) {
+				
+				executionHandler.onError(context, error);
+			}
+			
+			if(response != null) {
+				
+				handleResponse(context, response);
+			}
+			
+			return response;
 		}
-		catch(RequestExecutionException ree) {
+		finally {
 			
-			executionHandler.onError(context, ree);
+			if(admitted && compartment != null) {
+				
+				compartment.leave();
+			}
 		}
+	}
+	
+	/**
+	 * <p>Admits an attempt of the given request into its {@link Compartment} and then its {@link Circuit},
+	 * if any. A rejected attempt is reported to the {@link ExecutionHandler} and does not hold on to a
+	 * place in the compartment.</p>
+	 */
+	private boolean admit(InvocationContext context, Compartment compartment, Circuit circuit) {
 		
-		if(response != null) {
+		if(compartment != null) {
 			
-			if(successful(response)) {
+			try {
+				
+				if(!compartment.enter()) {
+					
+					executionHandler.onError(context, new BulkheadFullException(context, compartment));
+					return false;
+				}
+			}
+			catch(InterruptedException ie) {
+				
+				Thread.currentThread().interrupt();
+				
+				executionHandler.onError(context,
+					new RequestExecutionException(context.getRequest(), context.getEndpoint(), ie));
 				
-				executionHandler.onSuccess(context, response);	
+				return false;
 			}
-			else {
+		}
+		
+		if(circuit != null && !circuit.acquire()) {
+			
+			if(compartment != null) {
 				
-				executionHandler.onFailure(context, response);
+				compartment.leave();
 			}
+			
+			executionHandler.onError(context, new CircuitOpenException(context, circuit));
+			return false;
+		}
+		
+		return true;
+	}
+	
+	private boolean throttle(InvocationContext context) {
+		
+		try {
+			
+			RequestExecutors.throttle(context);
+			return true;
+		}
+		catch(InvocationException ie) {
+			
+			executionHandler.onError(context, ie);
+			return false;
 		}
+	}
+	
+	/**
+	 * <p>Hands off the given {@link HttpResponse} to this executor's {@link ExecutionHandler}, depending 
+	 * on whether its status code signifies a success or a failure. The content of a failed response is 
+	 * buffered beforehand, which releases its connection while keeping the content readable.</p>
+	 * 
+	 * @param context
+	 * 			the {@link InvocationContext} used to discover information about the proxy invocation
+	 * <br><br>
+	 * @param response
+	 * 			the {@link HttpResponse} which resulted from the request execution
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	protected void handleResponse(InvocationContext context, HttpResponse response) {
 		
-		return response;
+		if(successful(response)) {
+			
+			executionHandler.onSuccess(context, response);	
+		}
+		else {
+			
+			HttpEntity entity = response.getEntity();
+			
+			if(entity != null) {
+				
+				try {
+					
+					response.setEntity(new BufferedHttpEntity(entity));
+				}
+				catch(IOException ioe) {
+					
+					EntityUtils.consumeQuietly(entity);
+				}
+			}
+			
+			executionHandler.onFailure(context, response);
+		}
 	}
 }
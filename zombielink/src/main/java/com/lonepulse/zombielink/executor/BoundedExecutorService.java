@@ -0,0 +1,408 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.lonepulse.zombielink.util.Assert.assertNotNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.lonepulse.zombielink.annotation.Async;
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>A {@link ThreadPoolExecutor} with a <b>bounded</b> number of threads and a <b>bounded</b> queue, which
+ * is used to execute @{@link Async} requests. Once both the threads and the queue are saturated, further
+ * requests are handled according to a {@link RejectionPolicy}, which allows async load to degrade gracefully
+ * instead of exhausting the resources of the process.</p>
+ * 
+ * <p>Instances are created using a {@link BoundedExecutorService.Builder} supplied via {@link #newBuilder()},
+ * and can be assigned to an endpoint by overriding {@link Zombie.Configuration#asyncExecutor()}.</p>
+ * 
+ * <p>Besides the statistics offered by {@link ThreadPoolExecutor} (such as {@link #getActiveCount()}), the
+ * depth of the queue and the number of rejected requests are available via {@link #getQueueDepth()} and
+ * {@link #getRejectedCount()}.</p>
+ * 
+ * @version 1.2.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class BoundedExecutorService extends ThreadPoolExecutor {
+	
+	
+	/**
+	 * <p>Identifies the strategy which is used to handle a request when all threads are busy and the
+	 * queue is full.</p>
+	 * 
+	 * @version 1.0.0
+	 * <br><br>
+	 * @since 1.3.4
+	 * <br><br>
+	 * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static enum RejectionPolicy {
+		
+		/**
+		 * <p>Executes the request on the thread which invoked it, which slows down the invoker for as long
+		 * as the executor remains saturated.</p>
+		 * 
+		 * @since 1.3.4
+		 */
+		CALLER_RUNS,
+		
+		/**
+		 * <p>Rejects the request immediately. The failure is delivered to the <i>onError</i> callback of
+		 * the request's {@link com.lonepulse.zombielink.response.AsyncHandler}, if any.</p>
+		 * 
+		 * @since 1.3.4
+		 */
+		FAIL_FAST,
+		
+		/**
+		 * <p>Blocks the invoker until space becomes available in the queue, or rejects the request as per
+		 * {@link #FAIL_FAST} if none becomes available within the configured timeout or if the executor is
+		 * shut down in the meantime.</p>
+		 * 
+		 * @since 1.3.4
+		 */
+		BLOCK;
+	}
+	
+	/**
+	 * <p>This contract defines the services for creating a {@link BoundedExecutorService}.</p>
+	 * 
+	 * @version 1.0.0
+	 * <br><br>
+	 * @since 1.3.4
+	 * <br><br>
+	 * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static interface Builder {
+		
+		/**
+		 * <p>Sets the number of threads which are kept to execute requests. Defaults to <b>64</b>.</p>
+		 * 
+		 * @param coreThreads
+		 * 			the number of core threads; must be greater than zero
+		 * <br><br>
+		 * @return the current instance of the {@link Builder} with the core threads assigned
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		Builder setCoreThreads(int coreThreads);
+		
+		/**
+		 * <p>Sets the maximum number of threads which may execute requests. Threads in excess of the core
+		 * threads are only created once the queue is full. Defaults to the number of core threads.</p>
+		 * 
+		 * @param maxThreads
+		 * 			the maximum number of threads; must not be less than the core threads
+		 * <br><br>
+		 * @return the current instance of the {@link Builder} with the maximum threads assigned
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		Builder setMaxThreads(int maxThreads);
+		
+		/**
+		 * <p>Sets the number of requests which may await execution. Defaults to <b>1024</b>.</p>
+		 * 
+		 * @param queueCapacity
+		 * 			the capacity of the queue; must be greater than zero
+		 * <br><br>
+		 * @return the current instance of the {@link Builder} with the queue capacity assigned
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		Builder setQueueCapacity(int queueCapacity);
+		
+		/**
+		 * <p>Sets the time for which an idle thread is kept alive. Defaults to <b>60 seconds</b>.</p>
+		 * 
+		 * @param keepAlive
+		 * 			the time for which idle threads are kept alive
+		 * <br><br>
+		 * @param unit
+		 * 			the {@link TimeUnit} of the given keep-alive time
+		 * <br><br>
+		 * @return the current instance of the {@link Builder} with the keep-alive time assigned
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		Builder setKeepAlive(long keepAlive, TimeUnit unit);
+		
+		/**
+		 * <p>Sets the {@link RejectionPolicy} for requests which arrive while the executor is saturated.
+		 * Defaults to {@link RejectionPolicy#CALLER_RUNS}.</p>
+		 * 
+		 * @param rejectionPolicy
+		 * 			the {@link RejectionPolicy} to be used
+		 * <br><br>
+		 * @return the current instance of the {@link Builder} with the rejection policy assigned
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		Builder setRejectionPolicy(RejectionPolicy rejectionPolicy);
+		
+		/**
+		 * <p>Sets the maximum time for which an invoker is blocked under {@link RejectionPolicy#BLOCK}.
+		 * Defaults to <b>30 seconds</b>.</p>
+		 * 
+		 * @param timeout
+		 * 			the maximum time to wait for space in the queue
+		 * <br><br>
+		 * @param unit
+		 * 			the {@link TimeUnit} of the given timeout
+		 * <br><br>
+		 * @return the current instance of the {@link Builder} with the blocking timeout assigned
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		Builder setBlockTimeout(long timeout, TimeUnit unit);
+		
+		/**
+		 * <p>Creates a new {@link BoundedExecutorService} using the assigned properties.</p>
+		 * 
+		 * @return a new instance of {@link BoundedExecutorService}
+		 * <br><br>
+		 * @throws IllegalArgumentException
+		 * 			if the assigned thread counts or queue capacity are illegal
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		BoundedExecutorService build();
+	}
+	
+	private static final class BoundedExecutorServiceBuilder implements Builder {
+		
+		
+		private int coreThreads = 64;
+		private int maxThreads = -1;
+		private int queueCapacity = 1024;
+		
+		private long keepAliveNanos = TimeUnit.SECONDS.toNanos(60);
+		private long blockTimeoutNanos = TimeUnit.SECONDS.toNanos(30);
+		
+		private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+		
+		
+		@Override
+		public Builder setCoreThreads(int coreThreads) {
+			
+			this.coreThreads = coreThreads;
+			return this;
+		}
+		
+		@Override
+		public Builder setMaxThreads(int maxThreads) {
+			
+			this.maxThreads = maxThreads;
+			return this;
+		}
+		
+		@Override
+		public Builder setQueueCapacity(int queueCapacity) {
+			
+			this.queueCapacity = queueCapacity;
+			return this;
+		}
+		
+		@Override
+		public Builder setKeepAlive(long keepAlive, TimeUnit unit) {
+			
+			this.keepAliveNanos = assertNotNull(unit).toNanos(keepAlive);
+			return this;
+		}
+		
+		@Override
+		public Builder setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+			
+			this.rejectionPolicy = assertNotNull(rejectionPolicy);
+			return this;
+		}
+		
+		@Override
+		public Builder setBlockTimeout(long timeout, TimeUnit unit) {
+			
+			this.blockTimeoutNanos = assertNotNull(unit).toNanos(timeout);
+			return this;
+		}
+		
+		@Override
+		public BoundedExecutorService build() {
+			
+			return new BoundedExecutorService(this);
+		}
+	}
+	
+	private static final class RejectionHandler implements RejectedExecutionHandler {
+		
+		
+		private final RejectionPolicy policy;
+		private final long blockTimeoutNanos;
+		
+		private final AtomicLong rejections = new AtomicLong();
+		private final ThreadLocal<Boolean> offering = new ThreadLocal<Boolean>();
+		
+		
+		private RejectionHandler(RejectionPolicy policy, long blockTimeoutNanos) {
+			
+			this.policy = policy;
+			this.blockTimeoutNanos = blockTimeoutNanos;
+		}
+		
+		@Override
+		public void rejectedExecution(Runnable request, ThreadPoolExecutor executor) {
+			
+			if(!executor.isShutdown() && offering.get() == null) {
+				
+				if(policy == RejectionPolicy.CALLER_RUNS) {
+					
+					request.run();
+					return;
+				}
+				
+				if(policy == RejectionPolicy.BLOCK) {
+					
+					try {
+						
+						if(executor.getQueue().offer(request, blockTimeoutNanos, TimeUnit.NANOSECONDS)
+							&& !(executor.isShutdown() && executor.getQueue().remove(request))) {
+							
+							return; //unless it was shut down while waiting and the request is yet to be taken
+						}
+					}
+					catch(InterruptedException ie) {
+						
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+			
+			rejections.incrementAndGet();
+			
+			throw new RejectedExecutionException(new StringBuilder("Asynchronous request rejected under policy ")
+				.append(policy.name()).append(" with ").append(executor.getActiveCount()).append(" active threads and ")
+				.append(executor.getQueue().size()).append(" queued requests. ").toString());
+		}
+	}
+	
+	
+	private final RejectionHandler rejectionHandler;
+	
+	
+	/**
+	 * <p>Returns a new {@link Builder} which can be used to construct a {@link BoundedExecutorService}.</p>
+	 * 
+	 * @return a new instance of {@link Builder} for constructing a {@link BoundedExecutorService}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static Builder newBuilder() {
+		
+		return new BoundedExecutorServiceBuilder();
+	}
+	
+	private BoundedExecutorService(BoundedExecutorServiceBuilder builder) {
+		
+		this(builder, new RejectionHandler(builder.rejectionPolicy, builder.blockTimeoutNanos));
+	}
+	
+	private BoundedExecutorService(BoundedExecutorServiceBuilder builder, RejectionHandler rejectionHandler) {
+		
+		super(builder.coreThreads, builder.maxThreads < 0? builder.coreThreads :builder.maxThreads,
+			  builder.keepAliveNanos, TimeUnit.NANOSECONDS, new ArrayBlockingQueue<Runnable>(builder.queueCapacity),
+			  Executors.defaultThreadFactory(), rejectionHandler);
+		
+		this.rejectionHandler = rejectionHandler;
+		allowCoreThreadTimeOut(true); //release idle threads after a burst
+	}
+	
+	/**
+	 * <p>Executes the given task if a thread or space in the queue is available at once, and rejects it
+	 * otherwise, irrespective of the {@link RejectionPolicy}. This is used by threads which must neither
+	 * run the task themselves nor wait for the executor.</p>
+	 * 
+	 * @param task
+	 * 			the {@link Runnable} to be executed
+	 * <br><br>
+	 * @throws RejectedExecutionException
+	 * 			if the executor is saturated or shut down
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	void offer(Runnable task) {
+		
+		rejectionHandler.offering.set(Boolean.TRUE);
+		
+		try {
+			
+			execute(task);
+		}
+		finally {
+			
+			rejectionHandler.offering.remove();
+		}
+	}
+	
+	/**
+	 * <p>Retrieves the number of requests which are currently awaiting execution.</p>
+	 * 
+	 * @return the current depth of the queue
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public int getQueueDepth() {
+		
+		return getQueue().size();
+	}
+	
+	/**
+	 * <p>Retrieves the total number of requests which were rejected by this executor.</p>
+	 * 
+	 * @return the number of rejected requests
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getRejectedCount() {
+		
+		return rejectionHandler.rejections.get();
+	}
+	
+	/**
+	 * <p>Retrieves the {@link RejectionPolicy} used by this executor.</p>
+	 * 
+	 * @return the {@link RejectionPolicy} for requests which arrive while saturated
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public RejectionPolicy getRejectionPolicy() {
+		
+		return rejectionHandler.policy;
+	}
+}
@@ -0,0 +1,109 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>A budget of tokens which limits an optional activity (such as a retry) to a fraction of the traffic
+ * on which it's based. Each unit of traffic deposits the fraction and each activity withdraws a whole
+ * token. The balance starts at and is capped by a reserve, which bounds the activity during a burst while
+ * permitting it where there's little traffic. The balance is kept in thousandths of a token.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class Budget {
+	
+	
+	private final long reserve;
+	private final AtomicLong balance;
+	
+	
+	/**
+	 * <p>Creates a new {@link Budget} whose balance starts at and is capped by the given reserve.</p>
+	 * 
+	 * @param reserve
+	 * 			the maximum number of tokens which may be held
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	Budget(int reserve) {
+		
+		this.reserve = reserve * 1000L;
+		this.balance = new AtomicLong(this.reserve);
+	}
+	
+	/**
+	 * <p>Tops up the balance by the given fraction of a token, up to the reserve.</p>
+	 * 
+	 * @param ratio
+	 * 			the fraction of a token which is deposited
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	void deposit(double ratio) {
+		
+		long amount = (long)(ratio * 1000);
+		
+		for (long current = balance.get(); current < reserve; current = balance.get()) {
+			
+			if(balance.compareAndSet(current, Math.min(reserve, current + amount))) {
+				
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * <p>Draws down the balance by a whole token if one is available.</p>
+	 * 
+	 * @return {@code true} if a token was withdrawn; {@code false} if the budget is exhausted
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	boolean withdraw() {
+		
+		for (long current = balance.get(); current >= 1000; current = balance.get()) {
+			
+			if(balance.compareAndSet(current, current - 1000)) {
+				
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * <p>Returns a whole token which was withdrawn for an activity that did not take place, up to the
+	 * reserve.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	void refund() {
+		
+		deposit(1);
+	}
+}
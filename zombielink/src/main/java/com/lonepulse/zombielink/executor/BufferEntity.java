@@ -0,0 +1,151 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import org.apache.http.entity.AbstractHttpEntity;
+
+/**
+ * <p>A <b>repeatable</b> entity whose content is read directly from a {@link ByteBuffer}. When the buffer
+ * is mapped from a file, the content is streamed to its consumer without first being copied onto the heap.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class BufferEntity extends AbstractHttpEntity {
+	
+	
+	private static final class BufferInputStream extends InputStream {
+		
+		
+		private final ByteBuffer buffer;
+		
+		
+		private BufferInputStream(ByteBuffer buffer) {
+			
+			this.buffer = buffer;
+		}
+		
+		@Override
+		public int read() {
+			
+			return buffer.hasRemaining()? buffer.get() & 0xFF :-1;
+		}
+		
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			
+			if(length == 0) {
+				
+				return 0;
+			}
+			
+			if(!buffer.hasRemaining()) {
+				
+				return -1;
+			}
+			
+			int read = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, read);
+			
+			return read;
+		}
+		
+		@Override
+		public long skip(long count) {
+			
+			int skipped = (int)Math.min(Math.max(0, count), buffer.remaining());
+			buffer.position(buffer.position() + skipped);
+			
+			return skipped;
+		}
+		
+		@Override
+		public int available() {
+			
+			return buffer.remaining();
+		}
+	}
+	
+	
+	private final ByteBuffer content;
+	
+	
+	/**
+	 * <p>Creates a new {@link BufferEntity} over the remaining bytes of the given buffer.</p>
+	 * 
+	 * @param content
+	 * 			the {@link ByteBuffer} which holds the content; it is never modified
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	BufferEntity(ByteBuffer content) {
+		
+		this.content = content.duplicate();
+	}
+	
+	@Override
+	public boolean isRepeatable() {
+		
+		return true;
+	}
+	
+	@Override
+	public long getContentLength() {
+		
+		return content.remaining();
+	}
+	
+	@Override
+	public InputStream getContent() {
+		
+		return new BufferInputStream(content.duplicate());
+	}
+	
+	@Override
+	public void writeTo(OutputStream outstream) throws IOException {
+		
+		WritableByteChannel channel = Channels.newChannel(outstream);
+		ByteBuffer buffer = content.duplicate();
+		
+		while(buffer.hasRemaining()) {
+			
+			channel.write(buffer);
+		}
+		
+		outstream.flush();
+	}
+	
+	@Override
+	public boolean isStreaming() {
+		
+		return false;
+	}
+}
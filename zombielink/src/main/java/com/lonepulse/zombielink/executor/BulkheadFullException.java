@@ -0,0 +1,74 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.lonepulse.zombielink.annotation.Bulkhead;
+import com.lonepulse.zombielink.proxy.InvocationContext;
+import com.lonepulse.zombielink.proxy.InvocationException;
+
+/**
+ * <p>This runtime exception is thrown when a request confined to a @{@link Bulkhead} fails, without being
+ * sent, because its {@link Compartment} stayed full for longer than its maximum wait.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class BulkheadFullException extends InvocationException {
+	
+	
+	private static final long serialVersionUID = 5188423540657390742L;
+	
+	private final transient Compartment compartment;
+	
+	
+	/**
+	 * <p>Creates a new instance of {@link BulkheadFullException} for a request which was rejected by the
+	 * given {@link Compartment}.</p>
+	 * 
+	 * @param context
+	 * 			the {@link InvocationContext} of the rejected request
+	 * <br><br>
+	 * @param compartment
+	 * 			the full {@link Compartment} which rejected the request
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public BulkheadFullException(InvocationContext context, Compartment compartment) {
+		
+		super(context, "the bulkhead is full");
+		this.compartment = compartment;
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Compartment} which rejected the request.</p>
+	 * 
+	 * @return the {@link Compartment} which was full when the request was invoked
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public Compartment getCompartment() {
+		
+		return compartment;
+	}
+}
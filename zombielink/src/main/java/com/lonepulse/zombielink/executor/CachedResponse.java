@@ -0,0 +1,680 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.StatusLine;
+import org.apache.http.impl.cookie.DateParseException;
+import org.apache.http.impl.cookie.DateUtils;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.protocol.HTTP;
+
+/**
+ * <p>An <b>immutable</b> response which is held by a {@link ResponseCache}, along with the information
+ * needed to determine its freshness as specified in <a href="https://tools.ietf.org/html/rfc7234">RFC
+ * 7234</a>. The <i>freshness lifetime</i> and the <i>corrected initial age</i> are computed once, when the
+ * response is received.</p>
+ * 
+ * <p>The content is held in a read-only {@link ByteBuffer}, which is either on the heap or mapped from a
+ * segment file of a {@link DiskStore}. Its metadata can be written to and read from a binary form, so
+ * that responses stored on disk outlive the process.</p>
+ * 
+ * @version 1.2.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class CachedResponse {
+	
+	
+	private static final String AGE = "Age";
+	private static final String CACHE_CONTROL = "Cache-Control";
+	private static final String DATE = "Date";
+	private static final String ETAG = "ETag";
+	private static final String EXPIRES = "Expires";
+	private static final String LAST_MODIFIED = "Last-Modified";
+	private static final String VARY = "Vary";
+	private static final String WARNING = "Warning";
+	
+	private static final String IF_NONE_MATCH = "If-None-Match";
+	private static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+	
+	
+	private final StatusLine statusLine;
+	private final Header[] headers;
+	private final ByteBuffer content;
+	
+	private final Map<String, String> variants;
+	
+	private final long responseTime;
+	private final long correctedInitialAge;
+	private final long freshnessLifetime;
+	
+	
+	/**
+	 * <p>Creates a new {@link CachedResponse} for the given response, whose content has already been read.</p>
+	 * 
+	 * @param request
+	 * 			the request which produced the response; used to record the values of any headers which
+	 * 			were nominated by the <i>Vary</i> header of the response
+	 * <br><br>
+	 * @param response
+	 * 			the cacheable {@link HttpResponse}
+	 * <br><br>
+	 * @param content
+	 * 			the content of the response entity; an empty buffer if there was no entity
+	 * <br><br>
+	 * @param requestTime
+	 * 			the time at which the request was sent, in milliseconds since the epoch
+	 * <br><br>
+	 * @param responseTime
+	 * 			the time at which the response was received, in milliseconds since the epoch
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	CachedResponse(HttpRequest request, HttpResponse response, ByteBuffer content, long requestTime, long responseTime) {
+		
+		this(response.getStatusLine(), response.getAllHeaders(), content, variants(request, response), requestTime, responseTime);
+	}
+	
+	private CachedResponse(StatusLine statusLine, Header[] headers, ByteBuffer content,
+		Map<String, String> variants, long requestTime, long responseTime) {
+		
+		this.statusLine = statusLine;
+		this.headers = headers;
+		this.content = content.asReadOnlyBuffer();
+		this.variants = variants;
+		this.responseTime = responseTime;
+		
+		long date = parseDate(firstValue(DATE), responseTime);
+		
+		long apparentAge = Math.max(0, responseTime - date);
+		long correctedAgeValue = parseSeconds(firstValue(AGE)) * 1000 + (responseTime - requestTime);
+		
+		this.correctedInitialAge = Math.max(apparentAge, correctedAgeValue);
+		this.freshnessLifetime = freshnessLifetime(date);
+	}
+	
+	private CachedResponse(StatusLine statusLine, Header[] headers, Map<String, String> variants,
+		long responseTime, long correctedInitialAge, long freshnessLifetime, ByteBuffer content) {
+		
+		this.statusLine = statusLine;
+		this.headers = headers;
+		this.content = content.asReadOnlyBuffer();
+		this.variants = variants;
+		this.responseTime = responseTime;
+		this.correctedInitialAge = correctedInitialAge;
+		this.freshnessLifetime = freshnessLifetime;
+	}
+	
+	private long freshnessLifetime(long date) {
+		
+		Map<String, String> directives = directives(headers);
+		
+		if(directives.containsKey("no-cache")) {
+			
+			return 0;
+		}
+		
+		if(directives.containsKey("max-age")) {
+			
+			return parseSeconds(directives.get("max-age")) * 1000;
+		}
+		
+		String expires = firstValue(EXPIRES);
+		
+		if(expires != null) {
+			
+			return Math.max(0, parseDate(expires, date) - date);
+		}
+		
+		String lastModified = firstValue(LAST_MODIFIED);
+		
+		if(lastModified != null) {
+			
+			return Math.max(0, (date - parseDate(lastModified, date)) / 10); //heuristic freshness
+		}
+		
+		return 0;
+	}
+	
+	/**
+	 * <p>Determines whether the given response carries enough information to be stored, i.e. a status
+	 * code which is cacheable by default, no <i>no-store</i> directive, no <i>Vary: *</i> and either
+	 * explicit freshness information or a validator.</p>
+	 * 
+	 * @param response
+	 * 			the {@link HttpResponse} whose cacheability is to be determined
+	 * <br><br>
+	 * @return {@code true} if the response may be stored
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static boolean isCacheable(HttpResponse response) {
+		
+		switch(response.getStatusLine().getStatusCode()) {
+			
+			case 200: case 203: case 300: case 301: case 404: case 410: break;
+			
+			default: return false;
+		}
+		
+		Map<String, String> directives = directives(response.getHeaders(CACHE_CONTROL));
+		
+		if(directives.containsKey("no-store")) {
+			
+			return false;
+		}
+		
+		for (Header vary : response.getHeaders(VARY)) {
+			
+			if(vary.getValue().trim().equals("*")) {
+				
+				return false;
+			}
+		}
+		
+		return directives.containsKey("max-age") || response.containsHeader(EXPIRES)
+			|| response.containsHeader(ETAG) || response.containsHeader(LAST_MODIFIED);
+	}
+	
+	/**
+	 * <p>Determines whether the given request must bypass the cache altogether, i.e. if it carries the
+	 * <i>no-store</i> directive.</p>
+	 * 
+	 * @param request
+	 * 			the {@link HttpRequest} to be inspected
+	 * <br><br>
+	 * @return {@code true} if the response to the request should neither be served nor stored
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static boolean isNoStore(HttpRequest request) {
+		
+		return directives(request.getHeaders(CACHE_CONTROL)).containsKey("no-store");
+	}
+	
+	/**
+	 * <p>Determines whether the given request demands that a stored response be validated with the server
+	 * before it is used, i.e. if it carries the <i>no-cache</i> directive or <i>Pragma: no-cache</i>.</p>
+	 * 
+	 * @param request
+	 * 			the {@link HttpRequest} to be inspected
+	 * <br><br>
+	 * @return {@code true} if a stored response may not be served without revalidation
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static boolean isNoCache(HttpRequest request) {
+		
+		if(directives(request.getHeaders(CACHE_CONTROL)).containsKey("no-cache")) {
+			
+			return true;
+		}
+		
+		for (Header pragma : request.getHeaders("Pragma")) {
+			
+			if(pragma.getValue().toLowerCase(Locale.ENGLISH).contains("no-cache")) {
+				
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * <p>Determines whether this response was selected using the same header values as those on the given
+	 * request. See <a href="https://tools.ietf.org/html/rfc7234#section-4.1">RFC 7234, Section 4.1</a>.</p>
+	 * 
+	 * @param request
+	 * 			the {@link HttpRequest} which is to be served
+	 * <br><br>
+	 * @return {@code true} if this response may be used to satisfy the given request
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	boolean matches(HttpRequest request) {
+		
+		for (Map.Entry<String, String> variant : variants.entrySet()) {
+			
+			Header header = request.getFirstHeader(variant.getKey());
+			String value = header == null? null :header.getValue();
+			
+			if(value == null? variant.getValue() != null :!value.equals(variant.getValue())) {
+				
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * <p>Determines whether this response is still fresh at the given time.</p>
+	 * 
+	 * @param now
+	 * 			the current time in milliseconds since the epoch
+	 * <br><br>
+	 * @return {@code true} if the current age of the response is less than its freshness lifetime
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	boolean isFresh(long now) {
+		
+		return currentAge(now) < freshnessLifetime;
+	}
+	
+	/**
+	 * <p>Determines whether this stale response may still be served while it's revalidated in the background. 
+	 * See <a href="https://tools.ietf.org/html/rfc5861#section-3">RFC 5861, Section 3</a>.</p>
+	 * 
+	 * <p>The window within which a stale response may be served is given by its <i>stale-while-revalidate</i> 
+	 * directive; else the given default applies. Responses which carry <i>must-revalidate</i> or <i>no-cache</i> 
+	 * are never served stale.</p>
+	 * 
+	 * @param now
+	 * 			the current time in milliseconds since the epoch
+	 * <br><br>
+	 * @param defaultWindow
+	 * 			the window in milliseconds for responses without a <i>stale-while-revalidate</i> directive
+	 * <br><br>
+	 * @return {@code true} if this response has not been stale for longer than its window
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	boolean isServableStale(long now, long defaultWindow) {
+		
+		Map<String, String> directives = directives(headers);
+		
+		if(directives.containsKey("must-revalidate") || directives.containsKey("no-cache")) {
+			
+			return false;
+		}
+		
+		long window = directives.containsKey("stale-while-revalidate")? 
+			parseSeconds(directives.get("stale-while-revalidate")) * 1000 :defaultWindow;
+		
+		return currentAge(now) < freshnessLifetime + window;
+	}
+	
+	private long currentAge(long now) {
+		
+		return correctedInitialAge + Math.max(0, now - responseTime);
+	}
+	
+	/**
+	 * <p>Determines whether this response carries an <i>ETag</i> or a <i>Last-Modified</i> validator,
+	 * with which it can be revalidated once it is stale.</p>
+	 * 
+	 * @return {@code true} if this response can be revalidated
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	boolean isRevalidatable() {
+		
+		return firstValue(ETAG) != null || firstValue(LAST_MODIFIED) != null;
+	}
+	
+	/**
+	 * <p>Turns the given request into a conditional request using the validators of this response, unless
+	 * it is already conditional.</p>
+	 * 
+	 * @param request
+	 * 			the {@link HttpRequest} to be sent for revalidating this response
+	 * <br><br>
+	 * @return {@code true} if the request was made conditional by this response; {@code false} if the
+	 * 		   request was already conditional and a <i>304</i> reply should be left to its invoker
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	boolean conditionalize(HttpRequest request) {
+		
+		if(request.containsHeader(IF_NONE_MATCH) || request.containsHeader(IF_MODIFIED_SINCE)) {
+			
+			return false;
+		}
+		
+		String etag = firstValue(ETAG);
+		String lastModified = firstValue(LAST_MODIFIED);
+		
+		if(etag != null) {
+			
+			request.setHeader(IF_NONE_MATCH, etag);
+		}
+		
+		if(lastModified != null) {
+			
+			request.setHeader(IF_MODIFIED_SINCE, lastModified);
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * <p>Creates a new {@link CachedResponse} with the same content as this one, whose headers have been
+	 * updated using those on the given <i>304 Not Modified</i> response. See <a href=
+	 * "https://tools.ietf.org/html/rfc7234#section-4.3.4">RFC 7234, Section 4.3.4</a>.</p>
+	 * 
+	 * @param notModified
+	 * 			the <i>304</i> response which was received for a conditional request
+	 * <br><br>
+	 * @param requestTime
+	 * 			the time at which the conditional request was sent, in milliseconds since the epoch
+	 * <br><br>
+	 * @param responseTime
+	 * 			the time at which the <i>304</i> was received, in milliseconds since the epoch
+	 * <br><br>
+	 * @return the refreshed {@link CachedResponse}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	CachedResponse refresh(HttpResponse notModified, long requestTime, long responseTime) {
+		
+		List<Header> refreshed = new ArrayList<Header>();
+		
+		for (Header header : headers) {
+			
+			if(!notModified.containsHeader(header.getName()) || isContentHeader(header.getName())) {
+				
+				refreshed.add(header);
+			}
+		}
+		
+		for (Header header : notModified.getAllHeaders()) {
+			
+			if(!isContentHeader(header.getName())) {
+				
+				refreshed.add(header);
+			}
+		}
+		
+		return new CachedResponse(statusLine, refreshed.toArray(new Header[refreshed.size()]),
+			content, variants, requestTime, responseTime);
+	}
+	
+	private static boolean isContentHeader(String name) {
+		
+		return HTTP.CONTENT_LEN.equalsIgnoreCase(name) || HTTP.TRANSFER_ENCODING.equalsIgnoreCase(name)
+			|| HTTP.CONTENT_ENCODING.equalsIgnoreCase(name) || HTTP.CONTENT_TYPE.equalsIgnoreCase(name);
+	}
+	
+	/**
+	 * <p>Creates a new {@link HttpResponse} which serves this cached response, with its <i>Age</i> header 
+	 * reflecting the given time. A stale response carries the <i>110 Response is Stale</i> warning.</p>
+	 * 
+	 * @param now
+	 * 			the current time in milliseconds since the epoch
+	 * <br><br>
+	 * @return a new {@link HttpResponse} backed by the cached content
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	HttpResponse toResponse(long now) {
+		
+		HttpResponse response = new BasicHttpResponse(statusLine);
+		response.setHeaders(headers);
+		response.setHeader(AGE, String.valueOf(currentAge(now) / 1000));
+		
+		if(!isFresh(now)) {
+			
+			response.addHeader(WARNING, "110 - \"Response is Stale\"");
+		}
+		
+		BufferEntity entity = new BufferEntity(content.duplicate());
+		
+		Header contentType = response.getFirstHeader(HTTP.CONTENT_TYPE);
+		Header contentEncoding = response.getFirstHeader(HTTP.CONTENT_ENCODING);
+		
+		entity.setContentType(contentType);
+		entity.setContentEncoding(contentEncoding);
+		
+		response.setEntity(entity);
+		
+		return response;
+	}
+	
+	/**
+	 * <p>Retrieves the size of the cached content, which is counted against the capacity of the cache.</p>
+	 * 
+	 * @return the length of the cached content in bytes
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	int size() {
+		
+		return content.remaining();
+	}
+	
+	/**
+	 * <p>Retrieves an independent view of the cached content.</p>
+	 * 
+	 * @return a read-only {@link ByteBuffer} over the cached content
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	ByteBuffer getContent() {
+		
+		return content.duplicate();
+	}
+	
+	/**
+	 * <p>Creates a new {@link CachedResponse} with the same metadata as this one and the given content.</p>
+	 * 
+	 * @param content
+	 * 			the {@link ByteBuffer} which holds the content of the new response
+	 * <br><br>
+	 * @return a new {@link CachedResponse} backed by the given content
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	CachedResponse withContent(ByteBuffer content) {
+		
+		return new CachedResponse(statusLine, headers, variants, responseTime, correctedInitialAge, freshnessLifetime, content);
+	}
+	
+	/**
+	 * <p>Writes the metadata of this response (everything other than its content) in a binary form which
+	 * can be read using {@link #readFrom(DataInput, ByteBuffer)}.</p>
+	 * 
+	 * @param out
+	 * 			the {@link DataOutput} to which the metadata is written
+	 * <br><br>
+	 * @throws IOException
+	 * 			if the metadata failed to be written
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	void writeTo(DataOutput out) throws IOException {
+		
+		ProtocolVersion protocol = statusLine.getProtocolVersion();
+		
+		out.writeUTF(protocol.getProtocol());
+		out.writeInt(protocol.getMajor());
+		out.writeInt(protocol.getMinor());
+		out.writeInt(statusLine.getStatusCode());
+		writeNullable(out, statusLine.getReasonPhrase());
+		
+		out.writeInt(headers.length);
+		
+		for (Header header : headers) {
+			
+			out.writeUTF(header.getName());
+			out.writeUTF(header.getValue());
+		}
+		
+		out.writeInt(variants.size());
+		
+		for (Map.Entry<String, String> variant : variants.entrySet()) {
+			
+			out.writeUTF(variant.getKey());
+			writeNullable(out, variant.getValue());
+		}
+		
+		out.writeLong(responseTime);
+		out.writeLong(correctedInitialAge);
+		out.writeLong(freshnessLifetime);
+	}
+	
+	/**
+	 * <p>Reads a {@link CachedResponse} whose metadata was written using {@link #writeTo(DataOutput)}.</p>
+	 * 
+	 * @param in
+	 * 			the {@link DataInput} from which the metadata is read
+	 * <br><br>
+	 * @param content
+	 * 			the {@link ByteBuffer} which holds the content of the response
+	 * <br><br>
+	 * @return the {@link CachedResponse} which was read
+	 * <br><br>
+	 * @throws IOException
+	 * 			if the metadata failed to be read
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static CachedResponse readFrom(DataInput in, ByteBuffer content) throws IOException {
+		
+		ProtocolVersion protocol = new ProtocolVersion(in.readUTF(), in.readInt(), in.readInt());
+		StatusLine statusLine = new BasicStatusLine(protocol, in.readInt(), readNullable(in));
+		
+		Header[] headers = new Header[in.readInt()];
+		
+		for (int i = 0; i < headers.length; i++) {
+			
+			headers[i] = new BasicHeader(in.readUTF(), in.readUTF());
+		}
+		
+		int variantCount = in.readInt();
+		Map<String, String> variants = new HashMap<String, String>();
+		
+		for (int i = 0; i < variantCount; i++) {
+			
+			variants.put(in.readUTF(), readNullable(in));
+		}
+		
+		return new CachedResponse(statusLine, headers, variants.isEmpty()? Collections.<String, String>emptyMap() :variants,
+			in.readLong(), in.readLong(), in.readLong(), content);
+	}
+	
+	private static void writeNullable(DataOutput out, String value) throws IOException {
+		
+		out.writeBoolean(value != null);
+		
+		if(value != null) {
+			
+			out.writeUTF(value);
+		}
+	}
+	
+	private static String readNullable(DataInput in) throws IOException {
+		
+		return in.readBoolean()? in.readUTF() :null;
+	}
+	
+	private String firstValue(String name) {
+		
+		for (Header header : headers) {
+			
+			if(header.getName().equalsIgnoreCase(name)) {
+				
+				return header.getValue();
+			}
+		}
+		
+		return null;
+	}
+	
+	private static Map<String, String> variants(HttpRequest request, HttpResponse response) {
+		
+		Map<String, String> variants = new HashMap<String, String>();
+		
+		for (Header vary : response.getHeaders(VARY)) {
+			
+			for (HeaderElement element : vary.getElements()) {
+				
+				Header header = request.getFirstHeader(element.getName());
+				variants.put(element.getName(), header == null? null :header.getValue());
+			}
+		}
+		
+		return variants.isEmpty()? Collections.<String, String>emptyMap() :variants;
+	}
+	
+	private static Map<String, String> directives(Header[] headers) {
+		
+		Map<String, String> directives = new HashMap<String, String>();
+		
+		for (Header header : headers) {
+			
+			if(header.getName().equalsIgnoreCase(CACHE_CONTROL)) {
+				
+				for (HeaderElement element : header.getElements()) {
+					
+					directives.put(element.getName().toLowerCase(Locale.ENGLISH), element.getValue());
+				}
+			}
+		}
+		
+		return directives;
+	}
+	
+	private static long parseSeconds(String seconds) {
+		
+		try {
+			
+			return seconds == null? 0 :Math.max(0, Long.parseLong(seconds.trim()));
+		}
+		catch(NumberFormatException nfe) {
+			
+			return 0;
+		}
+	}
+	
+	private static long parseDate(String date, long fallback) {
+		
+		try {
+			
+			return date == null? fallback :DateUtils.parseDate(date).getTime();
+		}
+		catch(DateParseException dpe) {
+			
+			return fallback;
+		}
+	}
+}
@@ -0,0 +1,409 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.lonepulse.zombielink.annotation.CircuitBreaker;
+import com.lonepulse.zombielink.proxy.InvocationContext;
+
+/**
+ * <p>The circuit of a @{@link CircuitBreaker}, which is shared by all requests on an endpoint which is
+ * guarded at type-level or owned by a single request which is guarded at method-level. The circuit tracks
+ * the outcomes of the most recent calls in a sliding window while it's {@link State#CLOSED}, rejects all
+ * calls while it's {@link State#OPEN} and lets a limited number of probes through while it's
+ * {@link State#HALF_OPEN}.</p>
+ * 
+ * <p>Transitions between these states are published to the registered {@link Listener}s on the thread
+ * which caused them, i.e. a thread which invoked a request. The cumulative number of calls, failures, slow
+ * calls and rejections are available as metrics.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public final class Circuit {
+	
+	
+	/**
+	 * <p>The states of a {@link Circuit}.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	public static enum State {
+		
+		/**
+		 * <p>Calls are let through and their outcomes are tracked.</p>
+		 * 
+		 * @since 1.3.4
+		 */
+		CLOSED,
+		
+		/**
+		 * <p>Calls are rejected without being sent.</p>
+		 * 
+		 * @since 1.3.4
+		 */
+		OPEN,
+		
+		/**
+		 * <p>A limited number of probes are let through to decide whether the circuit closes.</p>
+		 * 
+		 * @since 1.3.4
+		 */
+		HALF_OPEN;
+	}
+	
+	/**
+	 * <p>Observes the transitions of a {@link Circuit} between its {@link State}s.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	public static interface Listener {
+		
+		/**
+		 * <p>Invoked when the given {@link Circuit} transitions from one {@link State} to another. This
+		 * is invoked while the circuit is locked and should therefore return promptly.</p>
+		 * 
+		 * @param circuit
+		 * 			the {@link Circuit} which transitioned
+		 * <br><br>
+		 * @param from
+		 * 			the {@link State} which the circuit left
+		 * <br><br>
+		 * @param to
+		 * 			the {@link State} which the circuit entered
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		void onTransition(Circuit circuit, State from, State to);
+	}
+	
+	
+	private static final ConcurrentMap<Object, Circuit> CIRCUITS = new ConcurrentHashMap<Object, Circuit>();
+	
+	private final CircuitBreaker breaker;
+	private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+	
+	private final boolean[] failed;
+	private final boolean[] slow;
+	private int count, next, failures, slowCalls;
+	
+	private State state = State.CLOSED;
+	private long openedAt;
+	private int probes, successfulProbes;
+	
+	private long totalCalls, totalFailures, totalSlowCalls, totalRejections;
+	
+	
+	/**
+	 * <p>Retrieves the {@link Circuit} which guards all requests on the given endpoint using its
+	 * type-level @{@link CircuitBreaker}.</p>
+	 * 
+	 * @param endpoint
+	 * 			the {@link Class} of the endpoint definition whose circuit is retrieved
+	 * <br><br>
+	 * @return the {@link Circuit} of the endpoint; else {@code null} if it has no type-level breaker
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static Circuit of(Class<?> endpoint) {
+		
+		return lookup(endpoint, endpoint.getAnnotation(CircuitBreaker.class));
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Circuit} which guards the given request using its method-level
+	 * @{@link CircuitBreaker}.</p>
+	 * 
+	 * @param request
+	 * 			the {@link Method} of the request definition whose circuit is retrieved
+	 * <br><br>
+	 * @return the {@link Circuit} of the request; else {@code null} if it has no method-level breaker
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static Circuit of(Method request) {
+		
+		return lookup(request, request.getAnnotation(CircuitBreaker.class));
+	}
+	
+	static Circuit of(InvocationContext context) {
+		
+		CircuitBreaker breaker = context.getPlan().getCircuitBreaker();
+		
+		if(breaker == null) {
+			
+			return null;
+		}
+		
+		return context.getRequest().getAnnotation(CircuitBreaker.class) == breaker?
+			of(context.getRequest()) :of(context.getEndpoint());
+	}
+	
+	private static Circuit lookup(Object owner, CircuitBreaker breaker) {
+		
+		if(breaker == null) {
+			
+			return null;
+		}
+		
+		Circuit circuit = CIRCUITS.get(owner);
+		
+		if(circuit == null) {
+			
+			Circuit created = new Circuit(breaker);
+			circuit = CIRCUITS.putIfAbsent(owner, created);
+			circuit = circuit == null? created :circuit;
+		}
+		
+		return circuit;
+	}
+	
+	private Circuit(CircuitBreaker breaker) {
+		
+		this.breaker = breaker;
+		this.failed = new boolean[Math.max(1, breaker.window())];
+		this.slow = new boolean[failed.length];
+	}
+	
+	/**
+	 * <p>Asks for permission to send a call. An open circuit becomes half-open once its open duration
+	 * has elapsed and a half-open circuit permits as many calls as it has probes.</p>
+	 * 
+	 * @return {@code true} if the call may be sent; {@code false} if it should be rejected
+	 */
+	synchronized boolean acquire() {
+		
+		if(state == State.OPEN && System.currentTimeMillis() - openedAt >= breaker.openDuration()) {
+			
+			probes = successfulProbes = 0;
+			transition(State.HALF_OPEN);
+		}
+		
+		if(state == State.CLOSED || (state == State.HALF_OPEN && probes < breaker.probes())) {
+			
+			probes += state == State.HALF_OPEN? 1 :0;
+			return true;
+		}
+		
+		totalRejections++;
+		return false;
+	}
+	
+	/**
+	 * <p>Records the outcome of a call which was permitted by {@link #acquire()}.</p>
+	 * 
+	 * @param latency
+	 * 			the duration of the call in milliseconds
+	 * <br><br>
+	 * @param failure
+	 * 			{@code true} if the call could not be executed or responded with a server error
+	 */
+	synchronized void record(long latency, boolean failure) {
+		
+		boolean slowCall = latency >= breaker.slowCall();
+		
+		totalCalls++;
+		totalFailures += failure? 1 :0;
+		totalSlowCalls += slowCall? 1 :0;
+		
+		if(state == State.HALF_OPEN) {
+			
+			if(failure || slowCall) {
+				
+				open();
+			}
+			else if(++successfulProbes >= breaker.probes()) {
+				
+				reset();
+				transition(State.CLOSED);
+			}
+		}
+		else if(state == State.CLOSED) {
+			
+			if(count == failed.length) {
+				
+				failures -= failed[next]? 1 :0;
+				slowCalls -= slow[next]? 1 :0;
+			}
+			
+			failed[next] = failure;
+			slow[next] = slowCall;
+			next = (next + 1) % failed.length;
+			count = Math.min(count + 1, failed.length);
+			
+			failures += failure? 1 :0;
+			slowCalls += slowCall? 1 :0;
+			
+			if(count >= breaker.minimumCalls() &&
+				(rate(failures) >= breaker.failureRate() || rate(slowCalls) >= breaker.slowCallRate())) {
+				
+				open();
+			}
+		}
+	}
+	
+	private double rate(int calls) {
+		
+		return count == 0? 0 :calls * 100.0 / count;
+	}
+	
+	private void open() {
+		
+		reset();
+		openedAt = System.currentTimeMillis();
+		transition(State.OPEN);
+	}
+	
+	private void reset() {
+		
+		count = next = failures = slowCalls = 0;
+	}
+	
+	private void transition(State to) {
+		
+		State from = state;
+		state = to;
+		
+		for (Listener listener : listeners) {
+			
+			listener.onTransition(this, from, to);
+		}
+	}
+	
+	/**
+	 * <p>Registers a {@link Listener} which is notified of the transitions of this circuit.</p>
+	 * 
+	 * @param listener
+	 * 			the {@link Listener} to be registered
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public void addListener(Listener listener) {
+		
+		listeners.add(listener);
+	}
+	
+	/**
+	 * <p>Unregisters a {@link Listener} which was registered using {@link #addListener(Listener)}.</p>
+	 * 
+	 * @param listener
+	 * 			the {@link Listener} to be unregistered
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public void removeListener(Listener listener) {
+		
+		listeners.remove(listener);
+	}
+	
+	/**
+	 * <p>Retrieves the current {@link State} of this circuit. An open circuit whose open duration has
+	 * elapsed is reported as open until a call is invoked.</p>
+	 * 
+	 * @return the current {@link State}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public synchronized State getState() {
+		
+		return state;
+	}
+	
+	/**
+	 * <p>Retrieves the percentage of failed calls in the current window.</p>
+	 * 
+	 * @return the failure rate between {@code 0} and {@code 100}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public synchronized double getFailureRate() {
+		
+		return rate(failures);
+	}
+	
+	/**
+	 * <p>Retrieves the percentage of slow calls in the current window.</p>
+	 * 
+	 * @return the slow call rate between {@code 0} and {@code 100}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public synchronized double getSlowCallRate() {
+		
+		return rate(slowCalls);
+	}
+	
+	/**
+	 * <p>Retrieves the number of calls which were sent through this circuit.</p>
+	 * 
+	 * @return the number of calls which were let through
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public synchronized long getCallCount() {
+		
+		return totalCalls;
+	}
+	
+	/**
+	 * <p>Retrieves the number of calls through this circuit which failed.</p>
+	 * 
+	 * @return the number of failed calls
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public synchronized long getFailureCount() {
+		
+		return totalFailures;
+	}
+	
+	/**
+	 * <p>Retrieves the number of calls through this circuit which were slow.</p>
+	 * 
+	 * @return the number of slow calls
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public synchronized long getSlowCallCount() {
+		
+		return totalSlowCalls;
+	}
+	
+	/**
+	 * <p>Retrieves the number of calls which were rejected because this circuit was not closed.</p>
+	 * 
+	 * @return the number of rejected calls
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public synchronized long getRejectionCount() {
+		
+		return totalRejections;
+	}
+}
@@ -0,0 +1,337 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.lonepulse.zombielink.annotation.Bulkhead;
+import com.lonepulse.zombielink.proxy.InvocationContext;
+
+/**
+ * <p>The compartment of a @{@link Bulkhead}, which is shared by all requests on an endpoint which is 
+ * confined at type-level or owned by a single request which is confined at method-level. Admission is 
+ * gated by a fair {@link Semaphore} with a permit for each concurrent invocation.</p>
+ * 
+ * <p>The permits of an {@link Bulkhead#adaptive() adaptive} compartment follow an {@link AdaptiveLimit} 
+ * which is updated with the latency of each call made within it. Permits are added as the limit grows 
+ * and withdrawn as it shrinks, in which case no invocations are admitted until enough of those in flight 
+ * have left.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public final class Compartment {
+	
+	
+	/**
+	 * <p>A fair {@link Semaphore} whose permits can be withdrawn.</p>
+	 */
+	private static final class Permits extends Semaphore {
+		
+		
+		private static final long serialVersionUID = 4360962437913306813L;
+		
+		
+		private Permits(int permits) {
+			
+			super(permits, true);
+		}
+		
+		private void withdraw(int permits) {
+			
+			reducePermits(permits);
+		}
+	}
+	
+	
+	private static final ConcurrentMap<Object, Compartment> COMPARTMENTS = new ConcurrentHashMap<Object, Compartment>();
+	
+	private final int maxConcurrent;
+	private final long maxWait;
+	private final Permits permits;
+	
+	private final AdaptiveLimit adaptiveLimit;
+	private volatile int limit;
+	
+	private final AtomicLong admitted = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong waitTime = new AtomicLong();
+	private final AtomicLong maxWaitTime = new AtomicLong();
+	
+	
+	/**
+	 * <p>Retrieves the {@link Compartment} which is shared by all requests on the given endpoint using its
+	 * type-level @{@link Bulkhead}.</p>
+	 * 
+	 * @param endpoint
+	 * 			the {@link Class} of the endpoint definition whose compartment is retrieved
+	 * <br><br>
+	 * @return the {@link Compartment} of the endpoint; else {@code null} if it has no type-level bulkhead
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static Compartment of(Class<?> endpoint) {
+		
+		return lookup(endpoint, endpoint.getAnnotation(Bulkhead.class));
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Compartment} which is owned by the given request using its method-level
+	 * @{@link Bulkhead}.</p>
+	 * 
+	 * @param request
+	 * 			the {@link Method} of the request definition whose compartment is retrieved
+	 * <br><br>
+	 * @return the {@link Compartment} of the request; else {@code null} if it has no method-level bulkhead
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static Compartment of(Method request) {
+		
+		return lookup(request, request.getAnnotation(Bulkhead.class));
+	}
+	
+	static Compartment of(InvocationContext context) {
+		
+		Bulkhead bulkhead = context.getPlan().getBulkhead();
+		
+		if(bulkhead == null) {
+			
+			return null;
+		}
+		
+		return context.getRequest().getAnnotation(Bulkhead.class) == bulkhead?
+			of(context.getRequest()) :of(context.getEndpoint());
+	}
+	
+	private static Compartment lookup(Object owner, Bulkhead bulkhead) {
+		
+		if(bulkhead == null) {
+			
+			return null;
+		}
+		
+		Compartment compartment = COMPARTMENTS.get(owner);
+		
+		if(compartment == null) {
+			
+			Compartment created = new Compartment(bulkhead);
+			compartment = COMPARTMENTS.putIfAbsent(owner, created);
+			compartment = compartment == null? created :compartment;
+		}
+		
+		return compartment;
+	}
+	
+	private Compartment(Bulkhead bulkhead) {
+		
+		this.maxConcurrent = Math.max(1, bulkhead.maxConcurrent());
+		this.maxWait = Math.max(0, bulkhead.maxWait());
+		
+		this.adaptiveLimit = bulkhead.adaptive()? new AdaptiveLimit(maxConcurrent) :null;
+		this.limit = adaptiveLimit == null? maxConcurrent :adaptiveLimit.getLimit();
+		this.permits = new Permits(limit);
+	}
+	
+	/**
+	 * <p>Admits an invocation into this compartment, waiting for up to the maximum wait if it's full.
+	 * An admitted invocation must {@link #leave()} once it completes.</p>
+	 * 
+	 * @return {@code true} if the invocation was admitted; {@code false} if it should be rejected
+	 * <br><br>
+	 * @throws InterruptedException
+	 * 			if the thread was interrupted while waiting to be admitted
+	 */
+	boolean enter() throws InterruptedException {
+		
+		if(permits.tryAcquire()) {
+			
+			admitted.incrementAndGet();
+			return true;
+		}
+		
+		long start = System.nanoTime();
+		boolean entered = maxWait > 0 && permits.tryAcquire(maxWait, TimeUnit.MILLISECONDS);
+		long wait = System.nanoTime() - start;
+		
+		if(!entered) {
+			
+			rejected.incrementAndGet();
+			return false;
+		}
+		
+		admitted.incrementAndGet();
+		waitTime.addAndGet(wait);
+		
+		for (long max = maxWaitTime.get(); wait > max; max = maxWaitTime.get()) {
+			
+			if(maxWaitTime.compareAndSet(max, wait)) {
+				
+				break;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * <p>Releases the place of an invocation which was admitted by {@link #enter()}.</p>
+	 */
+	void leave() {
+		
+		permits.release();
+	}
+	
+	/**
+	 * <p>Records the outcome of a call made within this compartment, which adapts its limit if it's 
+	 * adaptive.</p>
+	 * 
+	 * @param latency
+	 * 			the round-trip latency of the call in nanoseconds
+	 * <br><br>
+	 * @param dropped
+	 * 			{@code true} if the call failed with an error or a server error
+	 */
+	void record(long latency, boolean dropped) {
+		
+		if(adaptiveLimit == null) {
+			
+			return;
+		}
+		
+		synchronized (permits) {
+			
+			int next = adaptiveLimit.update(latency, getInFlightCount(), dropped);
+			
+			if(next > limit) {
+				
+				permits.release(next - limit);
+			}
+			else if(next < limit) {
+				
+				permits.withdraw(limit - next);
+			}
+			
+			limit = next;
+		}
+	}
+	
+	/**
+	 * <p>Retrieves the maximum number of invocations which may be in flight at once.</p>
+	 * 
+	 * @return the capacity of this compartment
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public int getMaxConcurrent() {
+		
+		return maxConcurrent;
+	}
+	
+	/**
+	 * <p>Retrieves the number of invocations which are currently admitted at once, which is below the 
+	 * maximum for an adaptive compartment whose upstream is under load.</p>
+	 * 
+	 * @return the current limit of this compartment
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public int getLimit() {
+		
+		return limit;
+	}
+	
+	/**
+	 * <p>Retrieves the number of invocations which are currently in flight.</p>
+	 * 
+	 * @return the number of admitted invocations which have not yet completed
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public int getInFlightCount() {
+		
+		return Math.max(0, limit - permits.availablePermits());
+	}
+	
+	/**
+	 * <p>Retrieves the number of invocations which were admitted.</p>
+	 * 
+	 * @return the number of admitted invocations
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getAdmittedCount() {
+		
+		return admitted.get();
+	}
+	
+	/**
+	 * <p>Retrieves the number of invocations which were rejected because this compartment was full.</p>
+	 * 
+	 * @return the number of rejected invocations
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getRejectedCount() {
+		
+		return rejected.get();
+	}
+	
+	/**
+	 * <p>Retrieves the average time for which an admitted invocation waited, including those which were
+	 * admitted right away.</p>
+	 * 
+	 * @param unit
+	 * 			the {@link TimeUnit} in which the wait is expressed
+	 * <br><br>
+	 * @return the average wait for admission; {@code 0} if none were admitted
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getAverageWait(TimeUnit unit) {
+		
+		long count = admitted.get();
+		return count == 0? 0 :unit.convert(waitTime.get() / count, TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 * <p>Retrieves the longest time for which an admitted invocation waited.</p>
+	 * 
+	 * @param unit
+	 * 			the {@link TimeUnit} in which the wait is expressed
+	 * <br><br>
+	 * @return the maximum wait for admission; {@code 0} if none had to wait
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getMaxWait(TimeUnit unit) {
+		
+		return unit.convert(maxWaitTime.get(), TimeUnit.NANOSECONDS);
+	}
+}
@@ -20,6 +20,9 @@ package com.lonepulse.zombielink.executor;
  * #L%
  */
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
 import org.apache.http.client.HttpClient;
 import org.apache.http.conn.scheme.PlainSocketFactory;
 import org.apache.http.conn.scheme.Scheme;
@@ -27,8 +30,11 @@ import org.apache.http.conn.scheme.SchemeRegistry;
 import org.apache.http.conn.ssl.SSLSocketFactory;
 import org.apache.http.impl.client.DefaultHttpClient;
 import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.HttpConnectionParams;
 
 import com.lonepulse.zombielink.annotation.Config;
+import com.lonepulse.zombielink.annotation.Pool;
+import com.lonepulse.zombielink.annotation.Warm;
 import com.lonepulse.zombielink.proxy.Zombie;
 import com.lonepulse.zombielink.proxy.Zombie.Configuration;
 
@@ -36,13 +42,22 @@ import com.lonepulse.zombielink.proxy.Zombie.Configuration;
  * <p>This is a concrete implementation of {@link ConfigurationManager} which manages request execution 
  * configurations defined as instances of {@link Zombie.Configuration}.</p> 
  * 
- * @version 1.1.0
+ * @version 1.10.0
  * <br><br>
  * @since 1.3.0
  * <br><br>
  * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
  */
 final class ConfigurationService implements ConfigurationManager {
+	
+	
+	/**
+	 * <p>Guards the registration of endpoints which share a {@link Config}, so that the resources of each
+	 * configuration are created only once, by the first of its endpoints to be registered.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	private static final Object REGISTRATION_LOCK = new Object();
 
 	
 	/**
@@ -61,7 +76,26 @@ final class ConfigurationService implements ConfigurationManager {
 	 * </ol>
 	 * 
 	 * <p>It uses a {@link PoolingClientConnectionManager} with the maximum number of client connections 
-	 * per route set to <b>4</b> and the total set to <b>128</b>.</p>
+	 * per route set to <b>20</b> and the total set to <b>200</b>. Endpoints with a @{@link Pool} are given 
+	 * their own {@link HttpClient} of this kind, whose pool is sized as declared. Idle connections are evicted 
+	 * in the background (see {@link ConnectionPool}).</p>
+	 * </li>
+	 * <li>
+	 * <p><b>ExecutorService</b></p>
+	 * <br>
+	 * <p>It uses a single executor of the {@link ExecutionMode} selected via the system property 
+	 * {@value ExecutionMode#PROPERTY}, which is shared by all endpoints that do not override it. By default 
+	 * this is a {@link BoundedExecutorService} with the default properties of its builder.</p>
+	 * </li>
+	 * <li>
+	 * <p><b>NonBlockingTransport</b></p>
+	 * <br>
+	 * <p>None; all requests are sent using the blocking {@link HttpClient}.</p>
+	 * </li>
+	 * <li>
+	 * <p><b>ResponseCache</b></p>
+	 * <br>
+	 * <p>None; responses are never cached.</p>
 	 * </li>
 	 * </ul>
 	 * @return the instance of {@link HttpClient} which will be used for request execution
@@ -71,6 +105,8 @@ final class ConfigurationService implements ConfigurationManager {
 	@Override
 	public Configuration getDefault() {
 		
+		final ExecutorService asyncExecutor = ExecutionMode.resolve().newExecutor();
+		
 		return new Configuration() {
 
 			@Override
@@ -78,21 +114,31 @@ final class ConfigurationService implements ConfigurationManager {
 				
 				try {
 				
-					SchemeRegistry schemeRegistry = new SchemeRegistry();
-					schemeRegistry.register(new Scheme("http", 80, PlainSocketFactory.getSocketFactory()));
-					schemeRegistry.register(new Scheme("https", 443, SSLSocketFactory.getSocketFactory()));
-					
-					PoolingClientConnectionManager pccm = new PoolingClientConnectionManager(schemeRegistry);
-					pccm.setMaxTotal(200);
-					pccm.setDefaultMaxPerRoute(20);
-					
-					return new DefaultHttpClient(pccm);
+					return newHttpClient(-1, -1);
 				}
 				catch(Exception e) {
 					
 					throw new ConfigurationFailedException(e);
 				}
 			}
+			
+			@Override
+			public ExecutorService asyncExecutor() {
+				
+				return asyncExecutor;
+			}
+			
+			@Override
+			public NonBlockingTransport nonBlockingTransport() {
+				
+				return null;
+			}
+			
+			@Override
+			public ResponseCache responseCache() {
+				
+				return null;
+			}
 		};
 	}
 	
@@ -104,25 +150,74 @@ final class ConfigurationService implements ConfigurationManager {
 		
 		try {
 			
+			Pool pool = endpointClass.getAnnotation(Pool.class);
+			Configuration configuration;
+			
 			if(endpointClass.isAnnotationPresent(Config.class)) {
 				
-				Configuration configuration = endpointClass.getAnnotation(Config.class).value().newInstance();
+				Class<? extends Configuration> type = endpointClass.getAnnotation(Config.class).value();
+				configuration = type.newInstance();
 				
 				HttpClient httpClient = configuration.httpClient();
-				HttpClientDirectory.INSTANCE.bind(endpointClass, httpClient); //currently the only configurable property
 				
-				return configuration;
+				HttpClientDirectory.INSTANCE.bind(endpointClass, 
+					pool == null? httpClient :ConnectionPool.configure(httpClient, pool));
+				
+				synchronized (REGISTRATION_LOCK) {
+					
+					//executors and transports own threads and caches open stores, so they're created once per config
+					AsyncExecutorDirectory.INSTANCE.bind(endpointClass,
+						AsyncExecutorDirectory.INSTANCE.isBound(type)? null :configuration.asyncExecutor());
+					TransportDirectory.INSTANCE.bind(endpointClass,
+						TransportDirectory.INSTANCE.isBound(type)? null :configuration.nonBlockingTransport());
+					ResponseCacheDirectory.INSTANCE.bind(endpointClass,
+						ResponseCacheDirectory.INSTANCE.isBound(type)? null :configuration.responseCache());
+				}
 			}
 			else {
 				
-				HttpClientDirectory.INSTANCE.bind(endpointClass, HttpClientDirectory.DEFAULT);
+				HttpClientDirectory.INSTANCE.bind(endpointClass, pool == null? HttpClientDirectory.DEFAULT 
+					:ConnectionPool.configure(newHttpClient(pool.timeToLive(), pool.validateAfterInactivity()), pool));
+				AsyncExecutorDirectory.INSTANCE.bind(endpointClass, AsyncExecutorDirectory.DEFAULT);
+				TransportDirectory.INSTANCE.bind(endpointClass, TransportDirectory.DEFAULT);
+				ResponseCacheDirectory.INSTANCE.bind(endpointClass, ResponseCacheDirectory.DEFAULT);
+				
+				configuration = new Configuration(){};
+			}
+			
+			if(endpointClass.isAnnotationPresent(Warm.class)) {
 				
-				return new Configuration(){};
+				ConnectionWarmer.warm(endpointClass);
 			}
+			
+			return configuration;
 		}
 		catch(Exception e) {
 			
 			throw new ConfigurationFailedException(endpointClass, e);
 		}
 	}
+	
+	private static HttpClient newHttpClient(long timeToLive, long validateAfterInactivity) {
+		
+		SchemeRegistry schemeRegistry = new SchemeRegistry();
+		schemeRegistry.register(new Scheme("http", 80, PlainSocketFactory.getSocketFactory()));
+		schemeRegistry.register(new Scheme("https", 443, SSLSocketFactory.getSocketFactory()));
+		
+		PoolingClientConnectionManager pccm = validateAfterInactivity < 0? 
+			new PoolingClientConnectionManager(schemeRegistry, timeToLive, TimeUnit.MILLISECONDS)
+			:new ValidatingConnectionManager(schemeRegistry, timeToLive, validateAfterInactivity);
+		
+		pccm.setMaxTotal(200);
+		pccm.setDefaultMaxPerRoute(20);
+		
+		DefaultHttpClient httpClient = new DefaultHttpClient(pccm);
+		
+		if(validateAfterInactivity >= 0) {
+			
+			HttpConnectionParams.setStaleCheckingEnabled(httpClient.getParams(), false);
+		}
+		
+		return httpClient;
+	}
 }
@@ -0,0 +1,447 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.params.HttpClientParams;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+
+import com.lonepulse.zombielink.annotation.Pool;
+
+/**
+ * <p>The connection pool of an endpoint's {@link HttpClient}, whose limits can be resized while the endpoint
+ * is in use. Pools are declared using @{@link Pool}; endpoints without one share the pool of the default
+ * {@link HttpClient} (or that of their {@link com.lonepulse.zombielink.annotation.Config}), in which case
+ * resizing it affects all of them.</p>
+ * 
+ * <p>Idle connections are closed when a limit is lowered, since the pool would otherwise keep leasing
+ * them; connections in excess of the new limit are not closed while they are in use.</p>
+ * 
+ * <p>Connections which have expired or have been idle for longer than the {@link #getIdleTimeout()} are
+ * evicted every few seconds by the maintenance thread of {@link HttpClientDirectory}. The number of
+ * connections evicted for either reason is recorded, as estimated from the number of available
+ * connections before and after each eviction.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public final class ConnectionPool {
+	
+	
+	private static final ConcurrentMap<ClientConnectionManager, ConnectionPool> POOLS
+		= new ConcurrentHashMap<ClientConnectionManager, ConnectionPool>();
+	
+	private static final long DEFAULT_IDLE_TIMEOUT = 30000;
+	
+	private final PoolingClientConnectionManager manager;
+	
+	private final AtomicLong expiredEvictions = new AtomicLong();
+	private final AtomicLong idleEvictions = new AtomicLong();
+	
+	private volatile long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+	
+	
+	/**
+	 * <p>Retrieves the {@link ConnectionPool} of the {@link HttpClient} which is used by the given endpoint.</p>
+	 * 
+	 * @param endpoint
+	 * 			the {@link Class} of the endpoint definition whose pool is retrieved
+	 * <br><br>
+	 * @return the {@link ConnectionPool} of the endpoint; else {@code null} if its {@link HttpClient} does
+	 * 		   not use a {@link PoolingClientConnectionManager}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static ConnectionPool of(Class<?> endpoint) {
+		
+		return of(HttpClientDirectory.INSTANCE.lookup(endpoint));
+	}
+	
+	static ConnectionPool of(HttpClient httpClient) {
+		
+		ClientConnectionManager manager = httpClient.getConnectionManager();
+		
+		if(!(manager instanceof PoolingClientConnectionManager)) {
+			
+			return null;
+		}
+		
+		ConnectionPool pool = POOLS.get(manager);
+		
+		if(pool == null) {
+			
+			pool = new ConnectionPool((PoolingClientConnectionManager)manager);
+			ConnectionPool existing = POOLS.putIfAbsent(manager, pool);
+			
+			pool = existing == null? pool :existing;
+		}
+		
+		return pool;
+	}
+	
+	/**
+	 * <p>Applies the limits of the given @{@link Pool} to the pool of the given {@link HttpClient}, along
+	 * with its lease and idle timeouts. The time-to-live of pooled connections is fixed when the client is created
+	 * and is not applied here.</p>
+	 * 
+	 * @param httpClient
+	 * 			the {@link HttpClient} whose pool is sized
+	 * <br><br>
+	 * @param pool
+	 * 			the @{@link Pool} which declares the limits
+	 * <br><br>
+	 * @return the given {@link HttpClient}
+	 * <br><br>
+	 * @throws IllegalArgumentException
+	 * 			if a limit is less than one, a route has an illegal host or the client does not use a
+	 * 			{@link PoolingClientConnectionManager}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static HttpClient configure(HttpClient httpClient, Pool pool) {
+		
+		ConnectionPool connectionPool = of(httpClient);
+		
+		if(connectionPool == null) {
+			
+			throw new IllegalArgumentException(new StringBuilder("A @Pool cannot be applied to an HttpClient with a ")
+				.append(httpClient.getConnectionManager().getClass().getName()).append(". ").toString());
+		}
+		
+		connectionPool.setMaxTotal(pool.maxTotal());
+		connectionPool.setMaxPerRoute(pool.maxPerRoute());
+		
+		for (Pool.Route route : pool.routes()) {
+			
+			connectionPool.setMaxPerRoute(route.host(), route.maxConnections());
+		}
+		
+		connectionPool.setIdleTimeout(pool.idleTimeout());
+		
+		if(pool.leaseTimeout() > 0) {
+			
+			HttpClientParams.setConnectionManagerTimeout(httpClient.getParams(), pool.leaseTimeout());
+		}
+		
+		return httpClient;
+	}
+	
+	/**
+	 * <p>Closes the connections of the given {@link HttpClient} which have expired or have been idle for
+	 * longer than the idle timeout of its pool, or the default idle timeout if it's not pooled.</p>
+	 * 
+	 * @param httpClient
+	 * 			the {@link HttpClient} whose connections are evicted
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static void evict(HttpClient httpClient) {
+		
+		ConnectionPool pool = of(httpClient);
+		
+		if(pool == null) {
+			
+			ClientConnectionManager manager = httpClient.getConnectionManager();
+			
+			manager.closeExpiredConnections();
+			manager.closeIdleConnections(DEFAULT_IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+		}
+		else {
+			
+			pool.evict();
+		}
+	}
+	
+	/**
+	 * <p>Closes the connections of this pool which have expired or have been idle for longer than its
+	 * {@link #getIdleTimeout()}, and records the number of connections evicted.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	void evict() {
+		
+		int available = getAvailableCount();
+		manager.closeExpiredConnections();
+		
+		int unexpired = getAvailableCount();
+		manager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+		
+		expiredEvictions.addAndGet(Math.max(0, available - unexpired));
+		idleEvictions.addAndGet(Math.max(0, unexpired - getAvailableCount()));
+	}
+	
+	private ConnectionPool(PoolingClientConnectionManager manager) {
+		
+		this.manager = manager;
+	}
+	
+	private static List<HttpRoute> routes(String host) {
+		
+		URI uri = URI.create(host.contains("://")? host :"http://" + host);
+		
+		if(uri.getHost() == null) {
+			
+			throw new IllegalArgumentException(new StringBuilder("The host <").append(host)
+				.append("> of a route is illegal. ").toString());
+		}
+		
+		String scheme = uri.getScheme().toLowerCase(Locale.ENGLISH);
+		boolean secure = scheme.equals("https");
+		
+		int defaultPort = secure? 443 :80;
+		
+		List<HttpRoute> routes = new ArrayList<HttpRoute>(2);
+		routes.add(new HttpRoute(new HttpHost(uri.getHost(), uri.getPort(), scheme), null, secure));
+		
+		//requests are routed with the port of their URI, which may omit the default port
+		if(uri.getPort() == -1 || uri.getPort() == defaultPort) {
+			
+			int port = uri.getPort() == -1? defaultPort :-1;
+			routes.add(new HttpRoute(new HttpHost(uri.getHost(), port, scheme), null, secure));
+		}
+		
+		return routes;
+	}
+	
+	private void shrink(int previous, int max) {
+		
+		if(max < previous) {
+			
+			manager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	private static int assertPositive(int max) {
+		
+		if(max < 1) {
+			
+			throw new IllegalArgumentException(new StringBuilder("A connection limit of ").append(max)
+				.append(" is illegal; it must be greater than zero. ").toString());
+		}
+		
+		return max;
+	}
+	
+	/**
+	 * <p>Retrieves the maximum number of connections in the pool.</p>
+	 * 
+	 * @return the maximum number of pooled connections
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public int getMaxTotal() {
+		
+		return manager.getMaxTotal();
+	}
+	
+	/**
+	 * <p>Sets the maximum number of connections in the pool.</p>
+	 * 
+	 * @param maxTotal
+	 * 			the maximum number of pooled connections, which must be greater than zero
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public void setMaxTotal(int maxTotal) {
+		
+		int previous = manager.getMaxTotal();
+		manager.setMaxTotal(assertPositive(maxTotal));
+		
+		shrink(previous, maxTotal);
+	}
+	
+	/**
+	 * <p>Retrieves the maximum number of connections to any host which has no limit of its own.</p>
+	 * 
+	 * @return the default maximum number of connections per host
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public int getMaxPerRoute() {
+		
+		return manager.getDefaultMaxPerRoute();
+	}
+	
+	/**
+	 * <p>Sets the maximum number of connections to any host which has no limit of its own.</p>
+	 * 
+	 * @param maxPerRoute
+	 * 			the default maximum number of connections per host, which must be greater than zero
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public void setMaxPerRoute(int maxPerRoute) {
+		
+		int previous = manager.getDefaultMaxPerRoute();
+		manager.setDefaultMaxPerRoute(assertPositive(maxPerRoute));
+		
+		shrink(previous, maxPerRoute);
+	}
+	
+	/**
+	 * <p>Retrieves the maximum number of connections to the given host.</p>
+	 * 
+	 * @param host
+	 * 			the host with an optional scheme and port, as in {@link Pool.Route#host()}
+	 * <br><br>
+	 * @return the maximum number of connections to the host
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public int getMaxPerRoute(String host) {
+		
+		return manager.getMaxPerRoute(routes(host).get(0));
+	}
+	
+	/**
+	 * <p>Sets the maximum number of connections to the given host, overriding {@link #getMaxPerRoute()}.</p>
+	 * 
+	 * @param host
+	 * 			the host with an optional scheme and port, as in {@link Pool.Route#host()}
+	 * <br><br>
+	 * @param maxConnections
+	 * 			the maximum number of connections to the host, which must be greater than zero
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public void setMaxPerRoute(String host, int maxConnections) {
+		
+		assertPositive(maxConnections);
+		
+		List<HttpRoute> routes = routes(host);
+		int previous = manager.getMaxPerRoute(routes.get(0));
+		
+		for (HttpRoute route : routes) {
+			
+			manager.setMaxPerRoute(route, maxConnections);
+		}
+		
+		shrink(previous, maxConnections);
+	}
+	
+	/**
+	 * <p>Retrieves the duration for which a pooled connection may stay idle before it's evicted.</p>
+	 * 
+	 * @return the maximum idle time of pooled connections in milliseconds
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getIdleTimeout() {
+		
+		return idleTimeout;
+	}
+	
+	/**
+	 * <p>Sets the duration for which a pooled connection may stay idle before it's evicted.</p>
+	 * 
+	 * @param idleTimeout
+	 * 			the maximum idle time of pooled connections in milliseconds, which must not be negative
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public void setIdleTimeout(long idleTimeout) {
+		
+		if(idleTimeout < 0) {
+			
+			throw new IllegalArgumentException(new StringBuilder("An idle timeout of ").append(idleTimeout)
+				.append(" is illegal; it must not be negative. ").toString());
+		}
+		
+		this.idleTimeout = idleTimeout;
+	}
+	
+	/**
+	 * <p>Retrieves the number of connections which are currently leased by requests.</p>
+	 * 
+	 * @return the number of leased connections
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public int getLeasedCount() {
+		
+		return manager.getTotalStats().getLeased();
+	}
+	
+	/**
+	 * <p>Retrieves the number of idle connections which are kept alive for reuse.</p>
+	 * 
+	 * @return the number of available connections
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public int getAvailableCount() {
+		
+		return manager.getTotalStats().getAvailable();
+	}
+	
+	/**
+	 * <p>Retrieves the number of requests which are waiting to lease a connection.</p>
+	 * 
+	 * @return the number of pending requests
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public int getPendingCount() {
+		
+		return manager.getTotalStats().getPending();
+	}
+	
+	/**
+	 * <p>Retrieves the number of connections which were evicted because their time-to-live or the
+	 * keep-alive duration advertised by the server had elapsed.</p>
+	 * 
+	 * @return the number of expired connections which were evicted
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getExpiredEvictionCount() {
+		
+		return expiredEvictions.get();
+	}
+	
+	/**
+	 * <p>Retrieves the number of connections which were evicted because they had been idle for longer
+	 * than the {@link #getIdleTimeout()}.</p>
+	 * 
+	 * @return the number of idle connections which were evicted
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getIdleEvictionCount() {
+		
+		return idleEvictions.get();
+	}
+}
@@ -0,0 +1,293 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.AbstractHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.DefaultedHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.BasicHttpContext;
+
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.Warm;
+
+/**
+ * <p>Opens connections to the host of an endpoint ahead of its requests and leaves them in the pool of
+ * its {@link HttpClient}, as declared by its @{@link Warm} annotation. Connections are leased from the pool
+ * all at once, so that each of them is a distinct connection, after which those which are not open yet
+ * are opened in parallel and released for reuse.</p>
+ * 
+ * <p>Only one warm-up is performed for an endpoint at a time; warm-ups which are requested while one is
+ * in progress share its outcome.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class ConnectionWarmer {
+	
+	
+	private static final Logger LOGGER = Logger.getLogger(ConnectionWarmer.class.getName());
+	
+	private static final int DEFAULT_CONNECTIONS = 1;
+	private static final long DEFAULT_TIMEOUT = 5000;
+	
+	private static final ConcurrentMap<Class<?>, FutureTask<Integer>> IN_FLIGHT
+		= new ConcurrentHashMap<Class<?>, FutureTask<Integer>>();
+	
+	private static final ExecutorService WARMERS = Executors.newCachedThreadPool(new ThreadFactory() {
+		
+		@Override
+		public Thread newThread(Runnable runnable) {
+			
+			Thread warmer = new Thread(runnable, "zombielink-warm-up");
+			warmer.setDaemon(true);
+			
+			return warmer;
+		}
+	});
+	
+	
+	private ConnectionWarmer() {}
+	
+	
+	/**
+	 * <p>Warms up the connections of the given endpoint in the background, unless a warm-up is already in
+	 * progress. The number of connections and the timeout are taken from its @{@link Warm} annotation,
+	 * or its defaults if the endpoint has none.</p>
+	 * 
+	 * @param endpoint
+	 * 			the {@link Class} of the endpoint definition whose connections are warmed up
+	 * <br><br>
+	 * @return a {@link Future} which yields the number of open connections that were pooled; it never
+	 * 		   fails, since warm-up failures are only logged
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static Future<Integer> warm(final Class<?> endpoint) {
+		
+		Warm warm = endpoint.getAnnotation(Warm.class);
+		
+		final int connections = warm == null? DEFAULT_CONNECTIONS :warm.connections();
+		final long timeout = warm == null? DEFAULT_TIMEOUT :warm.timeout();
+		
+		final FutureTask<Integer> flight = new FutureTask<Integer>(new Callable<Integer>() {
+			
+			@Override
+			public Integer call() {
+				
+				try {
+					
+					return warm(endpoint, connections, System.currentTimeMillis() + timeout);
+				}
+				catch(Exception e) {
+					
+					LOGGER.log(Level.WARNING, new StringBuilder("Failed to warm up the connections of endpoint <")
+						.append(endpoint.getName()).append(">. ").toString(), e);
+					
+					return 0;
+				}
+			}
+		});
+		
+		FutureTask<Integer> leader = IN_FLIGHT.putIfAbsent(endpoint, flight);
+		
+		if(leader != null) {
+			
+			return leader;
+		}
+		
+		WARMERS.execute(new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				try {
+					
+					flight.run();
+				}
+				finally {
+					
+					IN_FLIGHT.remove(endpoint, flight);
+				}
+			}
+		});
+		
+		return flight;
+	}
+	
+	private static int warm(Class<?> endpoint, int connections, long deadline) throws Exception {
+		
+		HttpClient httpClient = HttpClientDirectory.INSTANCE.lookup(endpoint);
+		final ClientConnectionManager manager = httpClient.getConnectionManager();
+		
+		URI uri = URI.create(endpoint.getAnnotation(Endpoint.class).value());
+		final HttpRoute route = route(httpClient, uri);
+		
+		if(route.isTunnelled()) {
+			
+			return 0; //the tunnel is only established by a request
+		}
+		
+		int count = manager instanceof PoolingClientConnectionManager?
+			Math.min(connections, ((PoolingClientConnectionManager)manager).getMaxPerRoute(route)) :connections;
+		
+		List<ManagedClientConnection> leased = new ArrayList<ManagedClientConnection>(count);
+		
+		try {
+			
+			for (int i = 0; i < count; i++) {
+				
+				long remaining = deadline - System.currentTimeMillis();
+				
+				if(remaining <= 0) {
+					
+					break;
+				}
+				
+				leased.add(manager.requestConnection(route, null).getConnection(remaining, TimeUnit.MILLISECONDS));
+			}
+		}
+		catch(ConnectionPoolTimeoutException cpte) {
+			
+			//the pool is saturated by requests, which warm it up as well
+		}
+		catch(InterruptedException ie) {
+			
+			for (ManagedClientConnection connection : leased) {
+				
+				manager.releaseConnection(connection, 0, TimeUnit.MILLISECONDS);
+			}
+			
+			throw ie;
+		}
+		
+		List<Future<Boolean>> opened = new ArrayList<Future<Boolean>>(leased.size());
+		
+		for (final ManagedClientConnection connection : leased) {
+			
+			final int timeout = (int)Math.max(1, deadline - System.currentTimeMillis());
+			final HttpParams params = new DefaultedHttpParams(new BasicHttpParams(), httpClient.getParams());
+			
+			opened.add(WARMERS.submit(new Callable<Boolean>() {
+				
+				@Override
+				public Boolean call() {
+					
+					return open(manager, connection, route, params, timeout);
+				}
+			}));
+		}
+		
+		int warmed = 0;
+		
+		for (Future<Boolean> open : opened) {
+			
+			warmed += open.get()? 1 :0;
+		}
+		
+		return warmed;
+	}
+	
+	private static HttpRoute route(HttpClient httpClient, URI uri) throws HttpException {
+		
+		if(uri.getHost() == null) {
+			
+			throw new IllegalArgumentException(new StringBuilder("The URI <").append(uri)
+				.append("> of the endpoint has no host. ").toString());
+		}
+		
+		HttpHost target = new HttpHost(uri.getHost(), uri.getPort(), uri.getScheme());
+		
+		if(httpClient instanceof AbstractHttpClient) {
+			
+			HttpGet request = new HttpGet(uri);
+			request.setParams(httpClient.getParams());
+			
+			return ((AbstractHttpClient)httpClient).getRoutePlanner().determineRoute(target, request, new BasicHttpContext());
+		}
+		
+		return new HttpRoute(target, null, "https".equalsIgnoreCase(uri.getScheme()));
+	}
+	
+	private static boolean open(ClientConnectionManager manager, ManagedClientConnection connection,
+		HttpRoute route, HttpParams params, int timeout) {
+		
+		try {
+			
+			if(connection.isOpen() && connection.isStale()) {
+				
+				connection.close(); //warm-up is off the request path and can afford the check
+			}
+			
+			if(!connection.isOpen()) {
+				
+				HttpConnectionParams.setConnectionTimeout(params, timeout);
+				HttpConnectionParams.setSoTimeout(params, timeout);
+				
+				connection.open(route, new BasicHttpContext(), params);
+			}
+			
+			connection.markReusable();
+			
+			return true;
+		}
+		catch(IOException ioe) {
+			
+			LOGGER.log(Level.WARNING, new StringBuilder("Failed to open a connection to <")
+				.append(route.getTargetHost()).append(">. ").toString(), ioe);
+			
+			return false;
+		}
+		finally {
+			
+			manager.releaseConnection(connection, 0, TimeUnit.MILLISECONDS);
+		}
+	}
+}
@@ -0,0 +1,686 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>A <b>disk-backed</b> store of {@link CachedResponse}s which serves as the second tier of a
+ * {@link ResponseCache}. Responses are appended to <i>segment files</i> and read back by mapping their
+ * region of the segment into memory, so the content of a stored response is never copied onto the heap.</p>
+ * 
+ * <p>The location of each response is recorded in an append-only <i>index</i> file, which is replayed when
+ * the store is opened; hence stored responses survive a restart of the process. Each process starts a new
+ * segment and the index is compacted whenever it's replayed or has accumulated too many obsolete records.</p>
+ * 
+ * <p>Once the total size of the segments exceeds the capacity of the store, the oldest segment is deleted
+ * along with all responses in it. A directory should not be shared by more than one store.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class DiskStore {
+	
+	
+	private static final class Location {
+		
+		
+		private final int segment;
+		private final long offset;
+		private final long length;
+		
+		
+		private Location(int segment, long offset, long length) {
+			
+			this.segment = segment;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+	
+	/**
+	 * <p>Stages the content of a single response as it's being read, to be appended to the store once the
+	 * content has been read in full. Content which exceeds the maximum entry size of the store is discarded.</p>
+	 * 
+	 * @version 1.0.0
+	 * <br><br>
+	 * @since 1.3.4
+	 * <br><br>
+	 * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+	 */
+	final class Writer {
+		
+		
+		private final String key;
+		private final CachedResponse metadata;
+		
+		private final File staging;
+		private final OutputStream out;
+		
+		private long written;
+		private boolean done;
+		
+		
+		private Writer(String key, CachedResponse metadata) throws IOException {
+			
+			this.key = key;
+			this.metadata = metadata;
+			this.staging = File.createTempFile(STAGING_PREFIX, TEMP_SUFFIX, directory);
+			this.out = new BufferedOutputStream(new FileOutputStream(staging));
+		}
+		
+		void write(byte[] bytes, int offset, int length) {
+			
+			if(done) {
+				
+				return;
+			}
+			
+			if(written + length > maxEntrySize) {
+				
+				abort();
+				return;
+			}
+			
+			try {
+				
+				out.write(bytes, offset, length);
+				written += length;
+			}
+			catch(IOException ioe) {
+				
+				LOGGER.log(Level.WARNING, "Failed to stage a response for the disk cache.", ioe);
+				abort();
+			}
+		}
+		
+		void commit() {
+			
+			if(done) {
+				
+				return;
+			}
+			
+			done = true;
+			
+			try {
+				
+				out.close();
+				
+				FileInputStream in = new FileInputStream(staging);
+				
+				try {
+					
+					append(key, metadata, written, null, in.getChannel());
+				}
+				finally {
+					
+					in.close();
+				}
+			}
+			catch(IOException ioe) {
+				
+				LOGGER.log(Level.WARNING, "Failed to store a response in the disk cache.", ioe);
+			}
+			finally {
+				
+				staging.delete();
+			}
+		}
+		
+		void abort() {
+			
+			if(done) {
+				
+				return;
+			}
+			
+			done = true;
+			
+			try {
+				
+				out.close();
+			}
+			catch(IOException ioe) {
+				
+				//the staged content is discarded regardless
+			}
+			finally {
+				
+				staging.delete();
+			}
+		}
+	}
+	
+	
+	private static final Logger LOGGER = Logger.getLogger(DiskStore.class.getName());
+	
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".dat";
+	private static final String STAGING_PREFIX = "staging-";
+	private static final String TEMP_SUFFIX = ".tmp";
+	
+	private static final String INDEX = "index.dat";
+	private static final String INDEX_SWAP = "index.tmp";
+	
+	private static final byte PUT = 1;
+	private static final byte REMOVE = 0;
+	
+	
+	private final File directory;
+	
+	private final long capacity;
+	private final long segmentSize;
+	private final long maxEntrySize;
+	
+	private final Map<String, Location> index = new HashMap<String, Location>();
+	private final TreeMap<Integer, Long> segments = new TreeMap<Integer, Long>();
+	
+	private int current;
+	private RandomAccessFile currentFile;
+	
+	private DataOutputStream indexLog;
+	private int indexRecords;
+	
+	
+	/**
+	 * <p>Opens the {@link DiskStore} in the given directory, recovering any responses which were stored by
+	 * a previous process. The directory is created if it does not exist.</p>
+	 * 
+	 * @param directory
+	 * 			the directory which holds the segment files and the index
+	 * <br><br>
+	 * @param capacity
+	 * 			the maximum total size of the segment files in bytes; a single response may occupy at most
+	 * 			a quarter of it
+	 * <br><br>
+	 * @return the opened {@link DiskStore}
+	 * <br><br>
+	 * @throws IOException
+	 * 			if the directory, the index or a new segment could not be created
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static DiskStore open(File directory, long capacity) throws IOException {
+		
+		return new DiskStore(directory, capacity);
+	}
+	
+	private DiskStore(File directory, long capacity) throws IOException {
+		
+		this.directory = directory;
+		this.capacity = capacity;
+		this.segmentSize = Math.max(1024 * 1024, capacity / 8);
+		this.maxEntrySize = Math.min(Integer.MAX_VALUE, capacity / 4);
+		
+		if(!directory.isDirectory() && !directory.mkdirs()) {
+			
+			throw new IOException("Failed to create the disk cache directory " + directory);
+		}
+		
+		File[] files = directory.listFiles();
+		
+		for (File file : files == null? new File[0] :files) {
+			
+			String name = file.getName();
+			
+			if(name.endsWith(TEMP_SUFFIX)) {
+				
+				file.delete();
+			}
+			else if(name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+				
+				try {
+					
+					int segment = Integer.parseInt(
+						name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+					
+					segments.put(segment, file.length());
+				}
+				catch(NumberFormatException nfe) {
+					
+					continue; //not a segment of this store
+				}
+			}
+		}
+		
+		replayIndex();
+		compactIndex();
+		
+		roll();
+		evict();
+	}
+	
+	private void replayIndex() {
+		
+		File indexFile = new File(directory, INDEX);
+		
+		if(!indexFile.isFile()) {
+			
+			return;
+		}
+		
+		try {
+			
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+			
+			try {
+				
+				while(true) {
+					
+					byte operation = in.readByte();
+					String key = in.readUTF();
+					
+					if(operation == PUT) {
+						
+						Location location = new Location(in.readInt(), in.readLong(), in.readLong());
+						Long segmentLength = segments.get(location.segment);
+						
+						if(segmentLength != null && location.offset + location.length <= segmentLength) {
+							
+							index.put(key, location);
+						}
+						else {
+							
+							index.remove(key); //the segment was evicted or its tail was never written
+						}
+					}
+					else {
+						
+						index.remove(key);
+					}
+				}
+			}
+			finally {
+				
+				in.close();
+			}
+		}
+		catch(EOFException eofe) {
+			
+			//the end of the index, possibly cut short by an abrupt exit
+		}
+		catch(IOException ioe) {
+			
+			LOGGER.log(Level.WARNING, "Failed to replay the disk cache index in full.", ioe);
+		}
+	}
+	
+	private void compactIndex() throws IOException {
+		
+		if(indexLog != null) {
+			
+			indexLog.close();
+		}
+		
+		File swap = new File(directory, INDEX_SWAP);
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(swap)));
+		
+		try {
+			
+			for (Map.Entry<String, Location> entry : index.entrySet()) {
+				
+				writePut(out, entry.getKey(), entry.getValue());
+			}
+		}
+		finally {
+			
+			out.close();
+		}
+		
+		File indexFile = new File(directory, INDEX);
+		
+		if(!swap.renameTo(indexFile) && !(indexFile.delete() && swap.renameTo(indexFile))) {
+			
+			throw new IOException("Failed to replace the disk cache index " + indexFile);
+		}
+		
+		indexLog = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile, true)));
+		indexRecords = index.size();
+	}
+	
+	private static void writePut(DataOutputStream out, String key, Location location) throws IOException {
+		
+		out.writeByte(PUT);
+		out.writeUTF(key);
+		out.writeInt(location.segment);
+		out.writeLong(location.offset);
+		out.writeLong(location.length);
+	}
+	
+	private void roll() throws IOException {
+		
+		start(segments.isEmpty()? 0 :segments.lastKey() + 1);
+	}
+	
+	private void start(int segment) throws IOException {
+		
+		if(currentFile != null) {
+			
+			currentFile.close();
+		}
+		
+		current = segment;
+		currentFile = new RandomAccessFile(segmentFile(segment), "rw");
+		
+		segments.put(segment, 0L);
+	}
+	
+	private File segmentFile(int segment) {
+		
+		return new File(directory, SEGMENT_PREFIX + segment + SEGMENT_SUFFIX);
+	}
+	
+	private void evict() {
+		
+		long total = 0;
+		
+		for (long length : segments.values()) {
+			
+			total += length;
+		}
+		
+		while(total > capacity && segments.firstKey() != current) {
+			
+			int eldest = segments.firstKey();
+			total -= segments.remove(eldest);
+			
+			for (Iterator<Location> locations = index.values().iterator(); locations.hasNext();) {
+				
+				if(locations.next().segment == eldest) {
+					
+					locations.remove();
+				}
+			}
+			
+			if(!segmentFile(eldest).delete()) {
+				
+				segmentFile(eldest).deleteOnExit();
+			}
+		}
+	}
+	
+	/**
+	 * <p>Retrieves the response which is stored under the given key, with its content mapped from disk.</p>
+	 * 
+	 * @param key
+	 * 			the key of the stored response
+	 * <br><br>
+	 * @return the stored {@link CachedResponse}; else {@code null} if none is stored or if it could not be read
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	synchronized CachedResponse get(String key) {
+		
+		Location location = index.get(key);
+		
+		if(location == null) {
+			
+			return null;
+		}
+		
+		try {
+			
+			RandomAccessFile segment = new RandomAccessFile(segmentFile(location.segment), "r");
+			MappedByteBuffer record;
+			
+			try {
+				
+				record = segment.getChannel().map(FileChannel.MapMode.READ_ONLY, location.offset, location.length);
+			}
+			finally {
+				
+				segment.close(); //the mapping remains valid
+			}
+			
+			byte[] metadata = new byte[record.getInt()];
+			record.get(metadata);
+			
+			long contentLength = record.getLong();
+			
+			ByteBuffer content = record.slice();
+			content.limit((int)contentLength);
+			
+			return CachedResponse.readFrom(new DataInputStream(new ByteArrayInputStream(metadata)), content);
+		}
+		catch(Exception e) {
+			
+			LOGGER.log(Level.WARNING, "Failed to read a response from the disk cache; discarding it.", e);
+			index.remove(key);
+			
+			return null;
+		}
+	}
+	
+	/**
+	 * <p>Stores the given response under the given key, replacing any response which is already stored.</p>
+	 * 
+	 * @param key
+	 * 			the key under which the response is stored
+	 * <br><br>
+	 * @param cached
+	 * 			the {@link CachedResponse} to be stored
+	 * <br><br>
+	 * @throws IOException
+	 * 			if the response failed to be written
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	void put(String key, CachedResponse cached) throws IOException {
+		
+		if(cached.size() <= maxEntrySize) {
+			
+			append(key, cached, cached.size(), cached.getContent(), null);
+		}
+	}
+	
+	/**
+	 * <p>Creates a {@link Writer} which stores the given response under the given key once its content
+	 * has been written in full.</p>
+	 * 
+	 * @param key
+	 * 			the key under which the response is stored
+	 * <br><br>
+	 * @param metadata
+	 * 			the {@link CachedResponse} whose metadata is stored; its content is ignored
+	 * <br><br>
+	 * @return a new {@link Writer} for the content of the response
+	 * <br><br>
+	 * @throws IOException
+	 * 			if the content could not be staged
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	Writer stage(String key, CachedResponse metadata) throws IOException {
+		
+		return new Writer(key, metadata);
+	}
+	
+	/**
+	 * <p>Retrieves the maximum size of the content of a single response which may be stored.</p>
+	 * 
+	 * @return the maximum entry size in bytes
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	long getMaxEntrySize() {
+		
+		return maxEntrySize;
+	}
+	
+	private synchronized void append(String key, CachedResponse metadata, long contentLength,
+		ByteBuffer content, FileChannel staged) throws IOException {
+		
+		ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+		metadata.writeTo(new DataOutputStream(encoded));
+		
+		ByteBuffer header = ByteBuffer.allocate(4 + encoded.size() + 8);
+		header.putInt(encoded.size()).put(encoded.toByteArray()).putLong(contentLength).flip();
+		
+		FileChannel channel = currentFile.getChannel();
+		
+		long offset = segments.get(current);
+		long position = offset;
+		
+		while(header.hasRemaining()) {
+			
+			position += channel.write(header, position);
+		}
+		
+		if(content != null) {
+			
+			while(content.hasRemaining()) {
+				
+				position += channel.write(content, position);
+			}
+		}
+		else {
+			
+			for (long transferred = 0; transferred < contentLength;) {
+				
+				long count = channel.transferFrom(staged, position, contentLength - transferred);
+				
+				if(count <= 0) {
+					
+					throw new EOFException("The staged content of a response was truncated.");
+				}
+				
+				transferred += count;
+				position += count;
+			}
+		}
+		
+		Location location = new Location(current, offset, position - offset);
+		
+		segments.put(current, position);
+		index.put(key, location);
+		
+		writePut(indexLog, key, location);
+		indexLog.flush();
+		indexRecords++;
+		
+		if(position >= segmentSize) {
+			
+			roll();
+		}
+		
+		evict();
+		compactIndexIfBloated();
+	}
+	
+	/**
+	 * <p>Removes the response which is stored under the given key, if any.</p>
+	 * 
+	 * @param key
+	 * 			the key of the response to be removed
+	 * <br><br>
+	 * @throws IOException
+	 * 			if the removal failed to be recorded in the index
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	synchronized void remove(String key) throws IOException {
+		
+		if(index.remove(key) != null) {
+			
+			indexLog.writeByte(REMOVE);
+			indexLog.writeUTF(key);
+			indexLog.flush();
+			indexRecords++;
+			
+			compactIndexIfBloated();
+		}
+	}
+	
+	private void compactIndexIfBloated() throws IOException {
+		
+		if(indexRecords > 1024 && indexRecords > 4 * index.size()) {
+			
+			compactIndex();
+		}
+	}
+	
+	/**
+	 * <p>Retrieves the number of responses which are currently held by this store.</p>
+	 * 
+	 * @return the number of stored responses
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	synchronized int size() {
+		
+		return index.size();
+	}
+	
+	/**
+	 * <p>Discards all responses which are held by this store along with their segment files.</p>
+	 * 
+	 * @throws IOException
+	 * 			if a new segment or index could not be created
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	synchronized void clear() throws IOException {
+		
+		index.clear();
+		compactIndex();
+		
+		int next = segments.lastKey() + 1;
+		
+		currentFile.close();
+		currentFile = null;
+		
+		for (int segment : segments.keySet()) {
+			
+			if(!segmentFile(segment).delete()) {
+				
+				segmentFile(segment).deleteOnExit();
+			}
+		}
+		
+		segments.clear();
+		start(next);
+	}
+}
@@ -0,0 +1,182 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.lonepulse.zombielink.annotation.Async;
+import com.lonepulse.zombielink.proxy.Zombie;
+import com.lonepulse.zombielink.response.AsyncHandler;
+
+/**
+ * <p>Identifies the kind of threads on which @{@link Async} requests and their {@link AsyncHandler}
+ * callbacks are executed.</p>
+ * 
+ * <p>The mode for the <b>default</b> executor is chosen using the system property {@value #PROPERTY},
+ * which accepts <i>platform</i> (the default) or <i>virtual</i>. Endpoints with a custom configuration
+ * may choose a mode by returning {@link #newExecutor()} from {@link Zombie.Configuration#asyncExecutor()}.</p>
+ * 
+ * <p>Synchronous requests continue to execute on the thread which invoked them, since that thread has
+ * to wait for the response regardless. If that thread is itself virtual, so is the request execution.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public enum ExecutionMode {
+	
+	
+	/**
+	 * <p>Executes asynchronous requests on a pool of platform threads, i.e. a {@link BoundedExecutorService}
+	 * with the default properties of its builder.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	PLATFORM {
+		
+		@Override
+		public boolean isSupported() {
+			
+			return true;
+		}
+		
+		@Override
+		public ExecutorService newExecutor() {
+			
+			return BoundedExecutorService.newBuilder().build();
+		}
+	},
+	
+	/**
+	 * <p>Executes each asynchronous request on a <b>new virtual thread</b>. Such threads are cheap enough
+	 * to sustain a very large number of concurrent slow requests, which are then bounded only by the
+	 * connection pool of the endpoint's {@link org.apache.http.client.HttpClient}.</p>
+	 * 
+	 * <p>Virtual threads are detected at runtime. On a JVM which does not support them, this mode falls
+	 * back to {@link #PLATFORM}.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	VIRTUAL {
+		
+		@Override
+		public boolean isSupported() {
+			
+			return VIRTUAL_THREAD_FACTORY != null;
+		}
+		
+		@Override
+		public ExecutorService newExecutor() {
+			
+			ExecutorService executor = newVirtualThreadExecutor();
+			
+			if(executor == null) {
+				
+				Logger.getLogger(ExecutionMode.class.getName()).log(Level.INFO,
+					"Virtual threads are not supported on this JVM. Falling back to platform threads. ");
+				
+				return PLATFORM.newExecutor();
+			}
+			
+			return executor;
+		}
+	};
+	
+	
+	/**
+	 * <p>The name of the system property which selects the {@link ExecutionMode} of the default executor.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	public static final String PROPERTY = "zombielink.execution.mode";
+	
+	
+	private static final Method VIRTUAL_THREAD_FACTORY;
+	
+	
+	static {
+		
+		Method factory = null;
+		
+		try {
+			
+			factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			((ExecutorService)factory.invoke(null)).shutdown();
+		}
+		catch(Exception e) { //unavailable before Java 21 or without preview features enabled
+			
+			factory = null;
+		}
+		
+		VIRTUAL_THREAD_FACTORY = factory;
+	}
+	
+	
+	private static ExecutorService newVirtualThreadExecutor() {
+		
+		try {
+			
+			return VIRTUAL_THREAD_FACTORY == null? null :(ExecutorService)VIRTUAL_THREAD_FACTORY.invoke(null);
+		}
+		catch(Exception e) {
+			
+			return null;
+		}
+	}
+	
+	/**
+	 * <p>Resolves the {@link ExecutionMode} which is selected via the system property {@value #PROPERTY}.</p>
+	 * 
+	 * @return the selected {@link ExecutionMode}; else {@link #PLATFORM} if the property is undefined or unknown
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static ExecutionMode resolve() {
+		
+		String mode = System.getProperty(PROPERTY);
+		
+		return (mode != null && mode.trim().equalsIgnoreCase(VIRTUAL.name()))? VIRTUAL :PLATFORM;
+	}
+	
+	/**
+	 * <p>Determines if this mode is supported by the current JVM.</p>
+	 * 
+	 * @return {@code true} if executors of this mode can be created
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public abstract boolean isSupported();
+	
+	/**
+	 * <p>Creates a new {@link ExecutorService} which executes requests using this mode.</p>
+	 * 
+	 * @return a new {@link ExecutorService} for asynchronous requests
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public abstract ExecutorService newExecutor();
+}
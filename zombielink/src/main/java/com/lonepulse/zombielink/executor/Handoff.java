@@ -0,0 +1,145 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <p>Hands off a task from a thread which must never be held up, such as the reactor of a
+ * {@link NonBlockingTransport} or a timer, to an executor. Unlike {@link Executor#execute(Runnable)},
+ * a handoff neither runs the task on the handing thread nor waits for space in the executor; a saturated
+ * executor simply rejects the task, irrespective of its {@link BoundedExecutorService.RejectionPolicy}.</p>
+ * 
+ * <p>Rejections are reported on a single daemon thread, so that the handing thread is spared from running
+ * the callbacks of the invoker.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class Handoff {
+	
+	
+	/**
+	 * <p>Guards a task which is handed to an arbitrary executor against being run by the handing thread
+	 * <b>while</b> it is being handed off, which is what a caller-runs policy of a saturated executor would
+	 * do. The same thread may still run the task once the handoff is complete, e.g. if it is a worker of
+	 * the executor which later takes the task off its queue.</p>
+	 */
+	private static final class Guard implements Runnable {
+		
+		
+		private final Thread owner;
+		private final Runnable task;
+		
+		private volatile boolean handing = true;
+		
+		
+		private Guard(Thread owner, Runnable task) {
+			
+			this.owner = owner;
+			this.task = task;
+		}
+		
+		@Override
+		public void run() {
+			
+			if(handing && Thread.currentThread() == owner) {
+				
+				throw new RejectedExecutionException("Task declined by the handing thread of a saturated executor. ");
+			}
+			
+			task.run();
+		}
+	}
+	
+	
+	private static final ExecutorService REPORTER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+		
+		@Override
+		public Thread newThread(Runnable runnable) {
+			
+			Thread reporter = new Thread(runnable, "zombielink-handoff-reporter");
+			reporter.setDaemon(true);
+			
+			return reporter;
+		}
+	});
+	
+	
+	private Handoff() {}
+	
+	
+	/**
+	 * <p>Hands off the given task to the given executor without running it on the current thread and
+	 * without waiting for the executor to make room for it.</p>
+	 * 
+	 * @param executor
+	 * 			the {@link Executor} which runs the task
+	 * <br><br>
+	 * @param task
+	 * 			the {@link Runnable} to be handed off
+	 * <br><br>
+	 * @throws RejectedExecutionException
+	 * 			if the executor is saturated or shut down
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static void execute(Executor executor, Runnable task) {
+		
+		if(executor instanceof BoundedExecutorService) {
+			
+			((BoundedExecutorService)executor).offer(task);
+		}
+		else {
+			
+			Guard guard = new Guard(Thread.currentThread(), task);
+			
+			try {
+				
+				executor.execute(guard);
+			}
+			finally {
+				
+				guard.handing = false;
+			}
+		}
+	}
+	
+	/**
+	 * <p>Runs the given report of a rejected handoff on the daemon thread which is reserved for reports.</p>
+	 * 
+	 * @param report
+	 * 			the {@link Runnable} which delivers the rejection to the invoker
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static void report(Runnable report) {
+		
+		REPORTER.execute(report);
+	}
+}
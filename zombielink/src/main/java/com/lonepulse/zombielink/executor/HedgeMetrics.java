@@ -0,0 +1,126 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.lonepulse.zombielink.annotation.Hedge;
+
+/**
+ * <p>Counts the invocations of @{@link Hedge}d requests on an endpoint, the hedges which were sent for them
+ * and the hedges which won, i.e. whose response arrived before that of the first attempt. A high ratio of
+ * wins to hedges suggests that the hedge delay could be lowered; a low one that it could be raised.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public final class HedgeMetrics {
+	
+	
+	private static final ConcurrentMap<Class<?>, HedgeMetrics> METRICS = new ConcurrentHashMap<Class<?>, HedgeMetrics>();
+	
+	private final AtomicLong invocations = new AtomicLong();
+	private final AtomicLong hedges = new AtomicLong();
+	private final AtomicLong wins = new AtomicLong();
+	
+	
+	/**
+	 * <p>Retrieves the {@link HedgeMetrics} of the given endpoint.</p>
+	 * 
+	 * @param endpoint
+	 * 			the {@link Class} of the endpoint definition whose metrics are retrieved
+	 * <br><br>
+	 * @return the {@link HedgeMetrics} of the endpoint, which are all zero if it has no hedged requests
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static HedgeMetrics of(Class<?> endpoint) {
+		
+		HedgeMetrics metrics = METRICS.get(endpoint);
+		
+		if(metrics == null) {
+			
+			HedgeMetrics created = new HedgeMetrics();
+			metrics = METRICS.putIfAbsent(endpoint, created);
+			metrics = metrics == null? created :metrics;
+		}
+		
+		return metrics;
+	}
+	
+	private HedgeMetrics() {}
+	
+	/**
+	 * <p>Retrieves the number of invocations of hedged requests on the endpoint.</p>
+	 * 
+	 * @return the number of invocations which were eligible for a hedge
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getInvocationCount() {
+		
+		return invocations.get();
+	}
+	
+	/**
+	 * <p>Retrieves the number of hedges which were sent on the endpoint.</p>
+	 * 
+	 * @return the number of hedges sent
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getHedgeCount() {
+		
+		return hedges.get();
+	}
+	
+	/**
+	 * <p>Retrieves the number of hedges whose response was served in place of that of the first attempt.</p>
+	 * 
+	 * @return the number of hedges which won
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getWinCount() {
+		
+		return wins.get();
+	}
+	
+	void recordInvocation() {
+		
+		invocations.incrementAndGet();
+	}
+	
+	void recordHedge() {
+		
+		hedges.incrementAndGet();
+	}
+	
+	void recordWin() {
+		
+		wins.incrementAndGet();
+	}
+}
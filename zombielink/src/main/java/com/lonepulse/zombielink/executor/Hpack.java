@@ -0,0 +1,525 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.http.Header;
+import org.apache.http.message.BasicHeader;
+
+/**
+ * <p>An implementation of <a href="http://tools.ietf.org/html/rfc7541">HPACK</a>, the header compression
+ * format of HTTP/2, which is used by the {@link Http2Connection}s of a {@link NonBlockingTransport}.</p>
+ * 
+ * <p>Header blocks are <b>encoded</b> without Huffman coding and without adding to the dynamic table of
+ * the peer, i.e. each header is either an exact match in the static table or a literal which is not
+ * indexed. This keeps the encoder stateless at the cost of some compression. Header blocks are
+ * <b>decoded</b> in full, including Huffman coded strings and the dynamic table of the peer.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class Hpack {
+	
+	
+	/**
+	 * <p>Decodes the header blocks which are received on a single connection. A {@link Decoder} maintains
+	 * the dynamic table of the peer and is therefore stateful; header blocks must be decoded in the order
+	 * in which they were received.</p>
+	 * 
+	 * @version 1.0.0
+	 * <br><br>
+	 * @since 1.3.4
+	 * <br><br>
+	 * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+	 */
+	static final class Decoder {
+		
+		
+		private final List<Header> dynamicTable = new ArrayList<Header>();
+		private final int maxTableSizeLimit;
+		
+		private int maxTableSize;
+		private int tableSize;
+		
+		
+		/**
+		 * <p>Creates a new {@link Decoder} whose dynamic table may grow up to the given size.</p>
+		 * 
+		 * @param maxTableSize
+		 * 			the maximum size of the dynamic table in octets, as advertised to the peer
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		Decoder(int maxTableSize) {
+			
+			this.maxTableSizeLimit = maxTableSize;
+			this.maxTableSize = maxTableSize;
+		}
+		
+		/**
+		 * <p>Decodes a complete header block.</p>
+		 * 
+		 * @param block
+		 * 			the header block, i.e. the concatenated fragments of a HEADERS frame and its
+		 * 			CONTINUATION frames
+		 * <br><br>
+		 * @return the decoded {@link Header}s in the order of their appearance, including pseudo-headers
+		 * <br><br>
+		 * @throws IOException
+		 * 			if the header block is malformed, in which case the connection cannot be used any further
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		List<Header> decode(byte[] block) throws IOException {
+			
+			ByteBuffer in = ByteBuffer.wrap(block);
+			List<Header> headers = new ArrayList<Header>();
+			
+			try {
+				
+				while(in.hasRemaining()) {
+					
+					int first = in.get() & 0xff;
+					
+					if((first & 0x80) != 0) { //indexed header field
+						
+						headers.add(lookup(readInteger(in, first, 7)));
+					}
+					else if((first & 0x40) != 0) { //literal header field with incremental indexing
+						
+						Header header = readLiteral(in, first, 6);
+						
+						headers.add(header);
+						add(header);
+					}
+					else if((first & 0x20) != 0) { //dynamic table size update
+						
+						int size = readInteger(in, first, 5);
+						
+						if(size > maxTableSizeLimit) {
+							
+							throw new IOException("HPACK: the dynamic table size exceeds the advertised limit. ");
+						}
+						
+						maxTableSize = size;
+						evict();
+					}
+					else { //literal header field without indexing or never indexed
+						
+						headers.add(readLiteral(in, first, 4));
+					}
+				}
+			}
+			catch(RuntimeException re) { //buffer underflows and illegal indices
+				
+				throw new IOException("HPACK: malformed header block. ", re);
+			}
+			
+			return headers;
+		}
+		
+		private Header readLiteral(ByteBuffer in, int first, int prefix) throws IOException {
+			
+			int index = readInteger(in, first, prefix);
+			String name = index == 0? readString(in) :lookup(index).getName();
+			
+			return new BasicHeader(name, readString(in));
+		}
+		
+		private Header lookup(int index) throws IOException {
+			
+			if(index > 0 && index <= STATIC_TABLE.length) {
+				
+				return STATIC_TABLE[index - 1];
+			}
+			
+			if(index > STATIC_TABLE.length && index <= STATIC_TABLE.length + dynamicTable.size()) {
+				
+				return dynamicTable.get(index - STATIC_TABLE.length - 1);
+			}
+			
+			throw new IOException(new StringBuilder("HPACK: illegal index ").append(index).append(". ").toString());
+		}
+		
+		private void add(Header header) {
+			
+			int size = size(header);
+			
+			if(size > maxTableSize) {
+				
+				dynamicTable.clear();
+				tableSize = 0;
+				
+				return;
+			}
+			
+			dynamicTable.add(0, header);
+			tableSize += size;
+			
+			evict();
+		}
+		
+		private void evict() {
+			
+			while(tableSize > maxTableSize) {
+				
+				tableSize -= size(dynamicTable.remove(dynamicTable.size() - 1));
+			}
+		}
+		
+		private static int size(Header header) {
+			
+			return header.getName().length() + header.getValue().length() + 32;
+		}
+	}
+	
+	
+	private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+	
+	private static final Header[] STATIC_TABLE = {
+		new BasicHeader(":authority", ""),
+		new BasicHeader(":method", "GET"),
+		new BasicHeader(":method", "POST"),
+		new BasicHeader(":path", "/"),
+		new BasicHeader(":path", "/index.html"),
+		new BasicHeader(":scheme", "http"),
+		new BasicHeader(":scheme", "https"),
+		new BasicHeader(":status", "200"),
+		new BasicHeader(":status", "204"),
+		new BasicHeader(":status", "206"),
+		new BasicHeader(":status", "304"),
+		new BasicHeader(":status", "400"),
+		new BasicHeader(":status", "404"),
+		new BasicHeader(":status", "500"),
+		new BasicHeader("accept-charset", ""),
+		new BasicHeader("accept-encoding", "gzip, deflate"),
+		new BasicHeader("accept-language", ""),
+		new BasicHeader("accept-ranges", ""),
+		new BasicHeader("accept", ""),
+		new BasicHeader("access-control-allow-origin", ""),
+		new BasicHeader("age", ""),
+		new BasicHeader("allow", ""),
+		new BasicHeader("authorization", ""),
+		new BasicHeader("cache-control", ""),
+		new BasicHeader("content-disposition", ""),
+		new BasicHeader("content-encoding", ""),
+		new BasicHeader("content-language", ""),
+		new BasicHeader("content-length", ""),
+		new BasicHeader("content-location", ""),
+		new BasicHeader("content-range", ""),
+		new BasicHeader("content-type", ""),
+		new BasicHeader("cookie", ""),
+		new BasicHeader("date", ""),
+		new BasicHeader("etag", ""),
+		new BasicHeader("expect", ""),
+		new BasicHeader("expires", ""),
+		new BasicHeader("from", ""),
+		new BasicHeader("host", ""),
+		new BasicHeader("if-match", ""),
+		new BasicHeader("if-modified-since", ""),
+		new BasicHeader("if-none-match", ""),
+		new BasicHeader("if-range", ""),
+		new BasicHeader("if-unmodified-since", ""),
+		new BasicHeader("last-modified", ""),
+		new BasicHeader("link", ""),
+		new BasicHeader("location", ""),
+		new BasicHeader("max-forwards", ""),
+		new BasicHeader("proxy-authenticate", ""),
+		new BasicHeader("proxy-authorization", ""),
+		new BasicHeader("range", ""),
+		new BasicHeader("referer", ""),
+		new BasicHeader("refresh", ""),
+		new BasicHeader("retry-after", ""),
+		new BasicHeader("server", ""),
+		new BasicHeader("set-cookie", ""),
+		new BasicHeader("strict-transport-security", ""),
+		new BasicHeader("transfer-encoding", ""),
+		new BasicHeader("user-agent", ""),
+		new BasicHeader("vary", ""),
+		new BasicHeader("via", ""),
+		new BasicHeader("www-authenticate", "")
+	};
+	
+	private static final Map<String, Integer> STATIC_NAMES = new HashMap<String, Integer>();
+	private static final Map<String, Integer> STATIC_FIELDS = new HashMap<String, Integer>();
+	
+	private static final int[] HUFFMAN_CODES = {
+		0x1ff8, 0x7fffd8, 0xfffffe2, 0xfffffe3, 0xfffffe4, 0xfffffe5, 0xfffffe6, 0xfffffe7,
+		0xfffffe8, 0xffffea, 0x3ffffffc, 0xfffffe9, 0xfffffea, 0x3ffffffd, 0xfffffeb, 0xfffffec,
+		0xfffffed, 0xfffffee, 0xfffffef, 0xffffff0, 0xffffff1, 0xffffff2, 0x3ffffffe, 0xffffff3,
+		0xffffff4, 0xffffff5, 0xffffff6, 0xffffff7, 0xffffff8, 0xffffff9, 0xffffffa, 0xffffffb,
+		0x14, 0x3f8, 0x3f9, 0xffa, 0x1ff9, 0x15, 0xf8, 0x7fa,
+		0x3fa, 0x3fb, 0xf9, 0x7fb, 0xfa, 0x16, 0x17, 0x18,
+		0x0, 0x1, 0x2, 0x19, 0x1a, 0x1b, 0x1c, 0x1d,
+		0x1e, 0x1f, 0x5c, 0xfb, 0x7ffc, 0x20, 0xffb, 0x3fc,
+		0x1ffa, 0x21, 0x5d, 0x5e, 0x5f, 0x60, 0x61, 0x62,
+		0x63, 0x64, 0x65, 0x66, 0x67, 0x68, 0x69, 0x6a,
+		0x6b, 0x6c, 0x6d, 0x6e, 0x6f, 0x70, 0x71, 0x72,
+		0xfc, 0x73, 0xfd, 0x1ffb, 0x7fff0, 0x1ffc, 0x3ffc, 0x22,
+		0x7ffd, 0x3, 0x23, 0x4, 0x24, 0x5, 0x25, 0x26,
+		0x27, 0x6, 0x74, 0x75, 0x28, 0x29, 0x2a, 0x7,
+		0x2b, 0x76, 0x2c, 0x8, 0x9, 0x2d, 0x77, 0x78,
+		0x79, 0x7a, 0x7b, 0x7ffe, 0x7fc, 0x3ffd, 0x1ffd, 0xffffffc,
+		0xfffe6, 0x3fffd2, 0xfffe7, 0xfffe8, 0x3fffd3, 0x3fffd4, 0x3fffd5, 0x7fffd9,
+		0x3fffd6, 0x7fffda, 0x7fffdb, 0x7fffdc, 0x7fffdd, 0x7fffde, 0xffffeb, 0x7fffdf,
+		0xffffec, 0xffffed, 0x3fffd7, 0x7fffe0, 0xffffee, 0x7fffe1, 0x7fffe2, 0x7fffe3,
+		0x7fffe4, 0x1fffdc, 0x3fffd8, 0x7fffe5, 0x3fffd9, 0x7fffe6, 0x7fffe7, 0xffffef,
+		0x3fffda, 0x1fffdd, 0xfffe9, 0x3fffdb, 0x3fffdc, 0x7fffe8, 0x7fffe9, 0x1fffde,
+		0x7fffea, 0x3fffdd, 0x3fffde, 0xfffff0, 0x1fffdf, 0x3fffdf, 0x7fffeb, 0x7fffec,
+		0x1fffe0, 0x1fffe1, 0x3fffe0, 0x1fffe2, 0x7fffed, 0x3fffe1, 0x7fffee, 0x7fffef,
+		0xfffea, 0x3fffe2, 0x3fffe3, 0x3fffe4, 0x7ffff0, 0x3fffe5, 0x3fffe6, 0x7ffff1,
+		0x3ffffe0, 0x3ffffe1, 0xfffeb, 0x7fff1, 0x3fffe7, 0x7ffff2, 0x3fffe8, 0x1ffffec,
+		0x3ffffe2, 0x3ffffe3, 0x3ffffe4, 0x7ffffde, 0x7ffffdf, 0x3ffffe5, 0xfffff1, 0x1ffffed,
+		0x7fff2, 0x1fffe3, 0x3ffffe6, 0x7ffffe0, 0x7ffffe1, 0x3ffffe7, 0x7ffffe2, 0xfffff2,
+		0x1fffe4, 0x1fffe5, 0x3ffffe8, 0x3ffffe9, 0xffffffd, 0x7ffffe3, 0x7ffffe4, 0x7ffffe5,
+		0xfffec, 0xfffff3, 0xfffed, 0x1fffe6, 0x3fffe9, 0x1fffe7, 0x1fffe8, 0x7ffff3,
+		0x3fffea, 0x3fffeb, 0x1ffffee, 0x1ffffef, 0xfffff4, 0xfffff5, 0x3ffffea, 0x7ffff4,
+		0x3ffffeb, 0x7ffffe6, 0x3ffffec, 0x3ffffed, 0x7ffffe7, 0x7ffffe8, 0x7ffffe9, 0x7ffffea,
+		0x7ffffeb, 0xffffffe, 0x7ffffec, 0x7ffffed, 0x7ffffee, 0x7ffffef, 0x7fffff0, 0x3ffffee
+	};
+	
+	private static final byte[] HUFFMAN_LENGTHS = {
+		13, 23, 28, 28, 28, 28, 28, 28, 28, 24, 30, 28, 28, 30, 28, 28,
+		28, 28, 28, 28, 28, 28, 30, 28, 28, 28, 28, 28, 28, 28, 28, 28,
+		6, 10, 10, 12, 13, 6, 8, 11, 10, 10, 8, 11, 8, 6, 6, 6,
+		5, 5, 5, 6, 6, 6, 6, 6, 6, 6, 7, 8, 15, 6, 12, 10,
+		13, 6, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7,
+		7, 7, 7, 7, 7, 7, 7, 7, 8, 7, 8, 13, 19, 13, 14, 6,
+		15, 5, 6, 5, 6, 5, 6, 6, 6, 5, 7, 7, 6, 6, 6, 5,
+		6, 7, 6, 5, 5, 6, 7, 7, 7, 7, 7, 15, 11, 14, 13, 28,
+		20, 22, 20, 20, 22, 22, 22, 23, 22, 23, 23, 23, 23, 23, 24, 23,
+		24, 24, 22, 23, 24, 23, 23, 23, 23, 21, 22, 23, 22, 23, 23, 24,
+		22, 21, 20, 22, 22, 23, 23, 21, 23, 22, 22, 24, 21, 22, 23, 23,
+		21, 21, 22, 21, 23, 22, 23, 23, 20, 22, 22, 22, 23, 22, 22, 23,
+		26, 26, 20, 19, 22, 23, 22, 25, 26, 26, 26, 27, 27, 26, 24, 25,
+		19, 21, 26, 27, 27, 26, 27, 24, 21, 21, 26, 26, 28, 27, 27, 27,
+		20, 24, 20, 21, 22, 21, 21, 23, 22, 22, 25, 25, 24, 24, 26, 23,
+		26, 27, 26, 26, 27, 27, 27, 27, 27, 28, 27, 27, 27, 27, 27, 26
+	};
+	
+	private static final int[] HUFFMAN_TREE = new int[2 * 2 * HUFFMAN_CODES.length];
+	
+	static {
+		
+		for (int i = STATIC_TABLE.length - 1; i >= 0; i--) {
+			
+			STATIC_NAMES.put(STATIC_TABLE[i].getName(), i + 1);
+			STATIC_FIELDS.put(STATIC_TABLE[i].getName() + '\n' + STATIC_TABLE[i].getValue(), i + 1);
+		}
+		
+		int nodes = 1; //the root is node 0; children are positive and leaves store ~symbol
+		
+		for (int symbol = 0; symbol < HUFFMAN_CODES.length; symbol++) {
+			
+			int node = 0;
+			
+			for (int bit = HUFFMAN_LENGTHS[symbol] - 1; bit >= 0; bit--) {
+				
+				int branch = 2 * node + ((HUFFMAN_CODES[symbol] >>> bit) & 1);
+				
+				if(bit == 0) {
+					
+					HUFFMAN_TREE[branch] = ~symbol;
+				}
+				else {
+					
+					if(HUFFMAN_TREE[branch] == 0) {
+						
+						HUFFMAN_TREE[branch] = nodes++;
+					}
+					
+					node = HUFFMAN_TREE[branch];
+				}
+			}
+		}
+	}
+	
+	
+	private Hpack() {}
+	
+	
+	/**
+	 * <p>Encodes a single header into the given header block. Headers which exactly match an entry in
+	 * the static table are indexed; all others are literals which the peer must not index and sensitive
+	 * headers (credentials and cookies) are marked as such.</p>
+	 * 
+	 * @param name
+	 * 			the name of the header, which should be in lowercase
+	 * <br><br>
+	 * @param value
+	 * 			the value of the header
+	 * <br><br>
+	 * @param block
+	 * 			the header block to which the encoded header is appended
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static void encode(String name, String value, ByteArrayOutputStream block) {
+		
+		Integer field = STATIC_FIELDS.get(name + '\n' + value);
+		
+		if(field != null) {
+			
+			writeInteger(block, 0x80, 7, field);
+			return;
+		}
+		
+		boolean sensitive = name.equals("authorization") ||
+			name.equals("proxy-authorization") || name.equals("cookie");
+		
+		Integer index = STATIC_NAMES.get(name);
+		
+		writeInteger(block, sensitive? 0x10 :0x00, 4, index == null? 0 :index);
+		
+		if(index == null) {
+			
+			writeString(block, name);
+		}
+		
+		writeString(block, value);
+	}
+	
+	private static void writeInteger(ByteArrayOutputStream block, int mask, int prefix, int value) {
+		
+		int max = (1 << prefix) - 1;
+		
+		if(value < max) {
+			
+			block.write(mask | value);
+			return;
+		}
+		
+		block.write(mask | max);
+		
+		for (value -= max; value >= 0x80; value >>>= 7) {
+			
+			block.write((value & 0x7f) | 0x80);
+		}
+		
+		block.write(value);
+	}
+	
+	private static void writeString(ByteArrayOutputStream block, String value) {
+		
+		byte[] octets = value.getBytes(ISO_8859_1);
+		
+		writeInteger(block, 0x00, 7, octets.length);
+		block.write(octets, 0, octets.length);
+	}
+	
+	private static int readInteger(ByteBuffer in, int first, int prefix) throws IOException {
+		
+		int max = (1 << prefix) - 1;
+		int value = first & max;
+		
+		if(value < max) {
+			
+			return value;
+		}
+		
+		for (int shift = 0; ; shift += 7) {
+			
+			int octet = in.get() & 0xff;
+			
+			if(shift > 21 && (octet & 0x7f) > (Integer.MAX_VALUE - value) >>> shift) {
+				
+				throw new IOException("HPACK: integer overflow. ");
+			}
+			
+			value += (octet & 0x7f) << shift;
+			
+			if((octet & 0x80) == 0) {
+				
+				return value;
+			}
+		}
+	}
+	
+	private static String readString(ByteBuffer in) throws IOException {
+		
+		int first = in.get() & 0xff;
+		int length = readInteger(in, first, 7);
+		
+		if(length > in.remaining()) {
+			
+			throw new IOException("HPACK: string literal exceeds the header block. ");
+		}
+		
+		byte[] octets = new byte[length];
+		in.get(octets);
+		
+		return (first & 0x80) == 0? new String(octets, ISO_8859_1) :decodeHuffman(octets);
+	}
+	
+	private static String decodeHuffman(byte[] octets) throws IOException {
+		
+		StringBuilder decoded = new StringBuilder(octets.length * 8 / 5);
+		
+		int node = 0, pending = 0;
+		boolean padding = true;
+		
+		for (byte octet : octets) {
+			
+			for (int bit = 7; bit >= 0; bit--) {
+				
+				int value = (octet >>> bit) & 1;
+				int next = HUFFMAN_TREE[2 * node + value];
+				
+				pending++;
+				padding &= value == 1;
+				
+				if(next < 0) {
+					
+					decoded.append((char)~next);
+					
+					node = pending = 0;
+					padding = true;
+				}
+				else if(next == 0) {
+					
+					throw new IOException("HPACK: illegal Huffman code. ");
+				}
+				else {
+					
+					node = next;
+				}
+			}
+		}
+		
+		if(pending > 7 || !padding) {
+			
+			throw new IOException("HPACK: illegal Huffman padding. ");
+		}
+		
+		return decoded.toString();
+	}
+}
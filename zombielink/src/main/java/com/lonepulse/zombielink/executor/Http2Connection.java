@@ -0,0 +1,1042 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.protocol.HTTP;
+
+/**
+ * <p>A single HTTP/2 connection to a host which is driven by a {@link NonBlockingTransport} that speaks
+ * {@link NonBlockingTransport.Protocol#HTTP_2}. Concurrent requests to the host are multiplexed over this
+ * connection as {@link Stream}s, up to the limit advertised by the server, and the remainder are queued
+ * until a stream completes.</p>
+ * 
+ * <p>Connections use cleartext HTTP/2 with <i>prior knowledge</i> (h2c), i.e. the connection preface is sent
+ * right away without an upgrade from HTTP/1.1. Server push is disabled and response bodies are gathered in
+ * full, with flow-control credit being returned to the server as they arrive.</p>
+ * 
+ * <p>Apart from the constructor of {@link Stream}, all members are confined to the I/O thread which owns
+ * the connection.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class Http2Connection {
+	
+	
+	/**
+	 * <p>A single request-response exchange on an {@link Http2Connection}. The request is encoded up-front
+	 * on the thread which submits it and the response is gathered as its frames arrive.</p>
+	 * 
+	 * @version 1.0.0
+	 * <br><br>
+	 * @since 1.3.4
+	 * <br><br>
+	 * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+	 */
+	static final class Stream {
+		
+		
+		private final HttpRequestBase request;
+		private final NonBlockingTransport.Callback callback;
+		
+		private final InetSocketAddress address;
+		private final byte[] headerBlock;
+		private final byte[] body;
+		
+		private final ByteArrayOutputStream data = new ByteArrayOutputStream(4 * 1024);
+		
+		private Http2Connection connection;
+		private List<Header> headers;
+		
+		private int id;
+		private int sent;
+		private int sendWindow;
+		private int unacknowledged;
+		private long deadline;
+		
+		private volatile boolean cancelled;
+		
+		
+		/**
+		 * <p>Creates a new {@link Stream} by encoding the given request. The address of the target host is
+		 * resolved here, i.e. on the thread which submits the request.</p>
+		 * 
+		 * @param request
+		 * 			the {@link HttpRequestBase} to be sent, which must have an absolute URI
+		 * <br><br>
+		 * @param callback
+		 * 			the {@link NonBlockingTransport.Callback} which is notified of the outcome
+		 * <br><br>
+		 * @throws IOException
+		 * 			if the request entity could not be read
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		Stream(HttpRequestBase request, NonBlockingTransport.Callback callback) throws IOException {
+			
+			this.request = request;
+			this.callback = callback;
+			
+			URI uri = request.getURI();
+			int port = uri.getPort() < 0? 80 :uri.getPort();
+			
+			this.address = new InetSocketAddress(uri.getHost(), port);
+			
+			HttpEntity entity = (request instanceof HttpEntityEnclosingRequest)?
+				((HttpEntityEnclosingRequest)request).getEntity() :null;
+			
+			if(entity == null) {
+				
+				this.body = null;
+			}
+			else {
+				
+				ByteArrayOutputStream content = new ByteArrayOutputStream(1024);
+				entity.writeTo(content);
+				
+				this.body = content.toByteArray();
+			}
+			
+			this.headerBlock = encode(request, uri, port, entity, body);
+		}
+		
+		private static byte[] encode(HttpRequestBase request, URI uri, int port, HttpEntity entity, byte[] body) {
+			
+			String path = uri.getRawPath() == null || uri.getRawPath().length() == 0? "/" :uri.getRawPath();
+			String target = uri.getRawQuery() == null? path :path + "?" + uri.getRawQuery();
+			
+			ByteArrayOutputStream block = new ByteArrayOutputStream(256);
+			
+			Hpack.encode(":method", request.getMethod(), block);
+			Hpack.encode(":scheme", "http", block);
+			Hpack.encode(":authority", port == 80? uri.getHost() :uri.getHost() + ":" + port, block);
+			Hpack.encode(":path", target, block);
+			
+			for (Header header : request.getAllHeaders()) {
+				
+				String name = header.getName().toLowerCase(Locale.ENGLISH);
+				
+				if(!CONNECTION_HEADERS.contains(name)) {
+					
+					Hpack.encode(name, header.getValue(), block);
+				}
+			}
+			
+			if(entity != null) {
+				
+				if(!request.containsHeader(HTTP.CONTENT_LEN)) {
+					
+					Hpack.encode("content-length", String.valueOf(body.length), block);
+				}
+				
+				encodeHeader(request, entity.getContentType(), block);
+				encodeHeader(request, entity.getContentEncoding(), block);
+			}
+			
+			return block.toByteArray();
+		}
+		
+		private static void encodeHeader(HttpRequestBase request, Header header, ByteArrayOutputStream block) {
+			
+			if(header != null && !request.containsHeader(header.getName())) {
+				
+				Hpack.encode(header.getName().toLowerCase(Locale.ENGLISH), header.getValue(), block);
+			}
+		}
+		
+		private HttpResponse decode() throws IOException {
+			
+			int status = status(headers);
+			
+			HttpResponse response = new BasicHttpResponse(new BasicStatusLine(
+				HTTP_2, status, EnglishReasonPhraseCatalog.INSTANCE.getReason(status, Locale.ENGLISH)));
+			
+			for (Header header : headers) {
+				
+				if(!header.getName().startsWith(":")) {
+					
+					response.addHeader(header);
+				}
+			}
+			
+			if(!"HEAD".equalsIgnoreCase(request.getMethod()) && status >= 200 && status != 204 && status != 304) {
+				
+				ByteArrayEntity entity = new ByteArrayEntity(data.toByteArray());
+				entity.setContentType(response.getFirstHeader(HTTP.CONTENT_TYPE));
+				entity.setContentEncoding(response.getFirstHeader(HTTP.CONTENT_ENCODING));
+				
+				response.setEntity(entity);
+			}
+			
+			return response;
+		}
+		
+		InetSocketAddress getAddress() {
+			
+			return address;
+		}
+		
+		HttpRequestBase getRequest() {
+			
+			return request;
+		}
+		
+		NonBlockingTransport.Callback getCallback() {
+			
+			return callback;
+		}
+		
+		Http2Connection getConnection() {
+			
+			return connection;
+		}
+		
+		boolean isCancelled() {
+			
+			return cancelled;
+		}
+		
+		void cancel() {
+			
+			this.cancelled = true;
+		}
+	}
+	
+	
+	private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+	
+	private static final byte[] PREFACE = "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n".getBytes(ISO_8859_1);
+	
+	private static final ProtocolVersion HTTP_2 = new ProtocolVersion("HTTP", 2, 0);
+	
+	private static final Set<String> CONNECTION_HEADERS = new HashSet<String>(Arrays.asList(
+		"connection", "host", "keep-alive", "proxy-connection", "te", "transfer-encoding", "upgrade"));
+	
+	private static final int DATA = 0x0, HEADERS = 0x1, RST_STREAM = 0x3, SETTINGS = 0x4,
+		PUSH_PROMISE = 0x5, PING = 0x6, GOAWAY = 0x7, WINDOW_UPDATE = 0x8, CONTINUATION = 0x9;
+	
+	private static final int END_STREAM = 0x1, ACK = 0x1, END_HEADERS = 0x4, PADDED = 0x8, PRIORITY = 0x20;
+	
+	private static final int SETTINGS_ENABLE_PUSH = 0x2, SETTINGS_MAX_CONCURRENT_STREAMS = 0x3,
+		SETTINGS_INITIAL_WINDOW_SIZE = 0x4, SETTINGS_MAX_FRAME_SIZE = 0x5;
+	
+	private static final int REFUSED_STREAM = 0x7, CANCEL = 0x8;
+	
+	private static final int FRAME_HEADER = 9;
+	private static final int DEFAULT_FRAME_SIZE = 16 * 1024;
+	private static final int DEFAULT_WINDOW = 64 * 1024 - 1;
+	private static final int RECEIVE_WINDOW = 1024 * 1024;
+	private static final int MAX_WINDOW = Integer.MAX_VALUE;
+	
+	
+	private final InetSocketAddress address;
+	private final long timeoutMillis;
+	
+	private final Map<Integer, Stream> streams = new LinkedHashMap<Integer, Stream>();
+	private final Queue<Stream> queued = new LinkedList<Stream>();
+	private final List<Stream> refused = new ArrayList<Stream>();
+	
+	private final Hpack.Decoder decoder = new Hpack.Decoder(4 * 1024);
+	private final ByteArrayOutputStream headerBlock = new ByteArrayOutputStream(1024);
+	
+	private final ByteArrayOutputStream frames = new ByteArrayOutputStream(16 * 1024);
+	private ByteBuffer outgoing = ByteBuffer.allocate(0);
+	
+	//large enough for the remainder of an incomplete frame followed by a full read of the I/O thread
+	private final ByteBuffer incoming = ByteBuffer.allocate(2 * (FRAME_HEADER + DEFAULT_FRAME_SIZE));
+	
+	private SocketChannel channel;
+	
+	private int nextStreamId = 1;
+	private int maxConcurrentStreams = Integer.MAX_VALUE;
+	private int initialWindow = DEFAULT_WINDOW;
+	private int maxFrameSize = DEFAULT_FRAME_SIZE;
+	private int sendWindow = DEFAULT_WINDOW;
+	private int unacknowledged;
+	
+	private int continuation;
+	private boolean continuationEnds;
+	private boolean draining;
+	
+	
+	/**
+	 * <p>Creates a new {@link Http2Connection} to the given host and queues the connection preface, which
+	 * disables server push and enlarges the receive windows.</p>
+	 * 
+	 * @param address
+	 * 			the {@link InetSocketAddress} of the host
+	 * <br><br>
+	 * @param timeoutMillis
+	 * 			the maximum time in milliseconds for which a stream may remain without any progress
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	Http2Connection(InetSocketAddress address, long timeoutMillis) {
+		
+		this.address = address;
+		this.timeoutMillis = timeoutMillis;
+		
+		frames.write(PREFACE, 0, PREFACE.length);
+		
+		ByteBuffer settings = ByteBuffer.allocate(12);
+		settings.putShort((short)SETTINGS_ENABLE_PUSH).putInt(0);
+		settings.putShort((short)SETTINGS_INITIAL_WINDOW_SIZE).putInt(RECEIVE_WINDOW);
+		
+		frame(SETTINGS, 0, 0, settings.array(), 0, 12);
+		windowUpdate(0, RECEIVE_WINDOW - DEFAULT_WINDOW);
+	}
+	
+	/**
+	 * <p>Opens a new stream for the given request, or queues it if the server's limit of concurrent streams
+	 * has been reached. Requests which are submitted to a draining connection are refused.</p>
+	 * 
+	 * @param stream
+	 * 			the {@link Stream} to be sent over this connection
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	void submit(Stream stream) {
+		
+		stream.connection = this;
+		touch(stream);
+		
+		if(draining) {
+			
+			refused.add(stream);
+		}
+		else if(streams.size() < maxConcurrentStreams) {
+			
+			open(stream);
+			writeData();
+		}
+		else {
+			
+			queued.add(stream);
+		}
+	}
+	
+	/**
+	 * <p>Resets the given stream, if it's still open, and fails it with the given error.</p>
+	 * 
+	 * @param stream
+	 * 			the {@link Stream} to be cancelled
+	 * <br><br>
+	 * @param error
+	 * 			the {@link Exception} which the stream fails with
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	void cancel(Stream stream, Exception error) {
+		
+		if(stream.id != 0 && streams.get(stream.id) == stream) {
+			
+			streams.remove(stream.id);
+			reset(stream.id, CANCEL);
+		}
+		else {
+			
+			queued.remove(stream);
+		}
+		
+		stream.callback.failed(error);
+		openQueued();
+	}
+	
+	/**
+	 * <p>Cancels each stream which has made no progress since its deadline.</p>
+	 * 
+	 * @param now
+	 * 			the current time in milliseconds
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	void expire(long now) {
+		
+		List<Stream> expired = new ArrayList<Stream>();
+		
+		for (Stream stream : streams.values()) {
+			
+			if(now > stream.deadline) {
+				
+				expired.add(stream);
+			}
+		}
+		
+		for (Stream stream : queued) {
+			
+			if(now > stream.deadline) {
+				
+				expired.add(stream);
+			}
+		}
+		
+		for (Stream stream : expired) {
+			
+			cancel(stream, new SocketTimeoutException(new StringBuilder("No progress on request ")
+				.append(stream.request.getURI()).append(" for ").append(timeoutMillis).append(" ms. ").toString()));
+		}
+	}
+	
+	/**
+	 * <p>Fails all open and queued streams with the given error, after which the connection must be closed.</p>
+	 * 
+	 * @param error
+	 * 			the {@link Exception} which the streams fail with
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	void fail(Exception error) {
+		
+		List<Stream> failed = new ArrayList<Stream>(streams.values());
+		failed.addAll(queued);
+		failed.addAll(refused);
+		
+		streams.clear();
+		queued.clear();
+		refused.clear();
+		
+		draining = true;
+		
+		for (Stream stream : failed) {
+			
+			stream.callback.failed(error);
+		}
+	}
+	
+	/**
+	 * <p>Consumes the given bytes which were read off the connection and processes each complete frame.</p>
+	 * 
+	 * @param chunk
+	 * 			a {@link ByteBuffer} with no more than 16 KiB of data read off the connection
+	 * <br><br>
+	 * @throws IOException
+	 * 			if the server violated the HTTP/2 protocol, in which case the connection must be closed
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	void receive(ByteBuffer chunk) throws IOException {
+		
+		incoming.put(chunk);
+		incoming.flip();
+		
+		try {
+			
+			while(incoming.remaining() >= FRAME_HEADER) {
+				
+				int position = incoming.position();
+				int length = ((incoming.get(position) & 0xff) << 16)
+					| ((incoming.get(position + 1) & 0xff) << 8) | (incoming.get(position + 2) & 0xff);
+				
+				if(length > DEFAULT_FRAME_SIZE) {
+					
+					throw new IOException("HTTP/2: a frame exceeded the maximum frame size. ");
+				}
+				
+				if(incoming.remaining() < FRAME_HEADER + length) {
+					
+					break;
+				}
+				
+				incoming.position(position + 3);
+				
+				int type = incoming.get() & 0xff;
+				int flags = incoming.get() & 0xff;
+				int stream = incoming.getInt() & Integer.MAX_VALUE;
+				
+				byte[] payload = new byte[length];
+				incoming.get(payload);
+				
+				process(type, flags, stream, payload);
+			}
+		}
+		finally {
+			
+			incoming.compact();
+		}
+	}
+	
+	private void process(int type, int flags, int stream, byte[] payload) throws IOException {
+		
+		if(continuation != 0 && (type != CONTINUATION || stream != continuation)) {
+			
+			throw new IOException("HTTP/2: a header block was interrupted. ");
+		}
+		
+		switch(type) {
+			
+			case DATA: onData(flags, stream, payload); break;
+			case HEADERS: onHeaders(flags, stream, payload); break;
+			case CONTINUATION: onContinuation(flags, stream, payload); break;
+			case RST_STREAM: onReset(stream, payload); break;
+			case SETTINGS: onSettings(flags, stream, payload); break;
+			case PING: onPing(flags, payload); break;
+			case GOAWAY: onGoAway(payload); break;
+			case WINDOW_UPDATE: onWindowUpdate(stream, payload); break;
+			
+			case PUSH_PROMISE: throw new IOException("HTTP/2: the server attempted a push although it was disabled. ");
+			
+			default: break; //PRIORITY and unknown frame types are ignored
+		}
+	}
+	
+	private void onData(int flags, int id, byte[] payload) throws IOException {
+		
+		if(id == 0) {
+			
+			throw new IOException("HTTP/2: received a DATA frame on stream 0. ");
+		}
+		
+		int padding = padding(flags, payload);
+		
+		unacknowledged += payload.length;
+		
+		if(unacknowledged >= RECEIVE_WINDOW / 2) {
+			
+			windowUpdate(0, unacknowledged);
+			unacknowledged = 0;
+		}
+		
+		Stream stream = streams.get(id);
+		
+		if(stream == null) {
+			
+			return; //a stream which was cancelled or reset
+		}
+		
+		if(stream.headers == null) {
+			
+			throw new IOException("HTTP/2: received a DATA frame before the response headers. ");
+		}
+		
+		touch(stream);
+		
+		int offset = (flags & PADDED) != 0? 1 :0;
+		stream.data.write(payload, offset, payload.length - offset - padding);
+		
+		if((flags & END_STREAM) != 0) {
+			
+			complete(stream);
+		}
+		else if((stream.unacknowledged += payload.length) >= RECEIVE_WINDOW / 2) {
+			
+			windowUpdate(id, stream.unacknowledged);
+			stream.unacknowledged = 0;
+		}
+	}
+	
+	private void onHeaders(int flags, int id, byte[] payload) throws IOException {
+		
+		if(id == 0) {
+			
+			throw new IOException("HTTP/2: received a HEADERS frame on stream 0. ");
+		}
+		
+		int padding = padding(flags, payload);
+		int offset = ((flags & PADDED) != 0? 1 :0) + ((flags & PRIORITY) != 0? 5 :0);
+		int length = payload.length - offset - padding;
+		
+		if(length < 0) {
+			
+			throw new IOException("HTTP/2: received a malformed HEADERS frame. ");
+		}
+		
+		headerBlock.reset();
+		headerBlock.write(payload, offset, length);
+		
+		continuation = id;
+		continuationEnds = (flags & END_STREAM) != 0;
+		
+		if((flags & END_HEADERS) != 0) {
+			
+			endHeaders();
+		}
+	}
+	
+	private void onContinuation(int flags, int id, byte[] payload) throws IOException {
+		
+		if(continuation == 0) {
+			
+			throw new IOException("HTTP/2: received a CONTINUATION frame without a header block. ");
+		}
+		
+		headerBlock.write(payload, 0, payload.length);
+		
+		if((flags & END_HEADERS) != 0) {
+			
+			endHeaders();
+		}
+	}
+	
+	private void endHeaders() throws IOException {
+		
+		int id = continuation;
+		continuation = 0;
+		
+		List<Header> headers = decoder.decode(headerBlock.toByteArray()); //keeps the decoder in sync
+		Stream stream = streams.get(id);
+		
+		if(stream == null) {
+			
+			return;
+		}
+		
+		touch(stream);
+		
+		if(stream.headers == null) {
+			
+			int status = status(headers);
+			
+			if(status >= 100 && status < 200) {
+				
+				return; //an interim response
+			}
+			
+			stream.headers = headers;
+		}
+		else {
+			
+			stream.headers.addAll(headers); //trailers
+		}
+		
+		if(continuationEnds) {
+			
+			complete(stream);
+		}
+	}
+	
+	private void onReset(int id, byte[] payload) throws IOException {
+		
+		if(id == 0 || payload.length != 4) {
+			
+			throw new IOException("HTTP/2: received a malformed RST_STREAM frame. ");
+		}
+		
+		Stream stream = streams.remove(id);
+		
+		if(stream == null) {
+			
+			return;
+		}
+		
+		int error = ByteBuffer.wrap(payload).getInt();
+		
+		if(error == REFUSED_STREAM) {
+			
+			refused.add(stream); //unprocessed and safe to send again
+		}
+		else {
+			
+			stream.callback.failed(new IOException(new StringBuilder("HTTP/2: request ")
+				.append(stream.request.getURI()).append(" was reset with error code ").append(error)
+				.append(". ").toString()));
+		}
+		
+		openQueued();
+	}
+	
+	private void onSettings(int flags, int id, byte[] payload) throws IOException {
+		
+		if(id != 0 || payload.length % 6 != 0) {
+			
+			throw new IOException("HTTP/2: received a malformed SETTINGS frame. ");
+		}
+		
+		if((flags & ACK) != 0) {
+			
+			return;
+		}
+		
+		ByteBuffer settings = ByteBuffer.wrap(payload);
+		
+		while(settings.hasRemaining()) {
+			
+			int setting = settings.getShort() & 0xffff;
+			long value = settings.getInt() & 0xffffffffL;
+			
+			if(setting == SETTINGS_MAX_CONCURRENT_STREAMS) {
+				
+				maxConcurrentStreams = (int)Math.min(value, Integer.MAX_VALUE);
+			}
+			else if(setting == SETTINGS_INITIAL_WINDOW_SIZE) {
+				
+				if(value > MAX_WINDOW) {
+					
+					throw new IOException("HTTP/2: the initial window size exceeds the maximum. ");
+				}
+				
+				int delta = (int)value - initialWindow;
+				initialWindow = (int)value;
+				
+				for (Stream stream : streams.values()) {
+					
+					stream.sendWindow += delta;
+				}
+			}
+			else if(setting == SETTINGS_MAX_FRAME_SIZE) {
+				
+				if(value < DEFAULT_FRAME_SIZE || value > 0xffffff) {
+					
+					throw new IOException("HTTP/2: received an illegal maximum frame size. ");
+				}
+				
+				maxFrameSize = (int)value;
+			}
+		}
+		
+		frame(SETTINGS, ACK, 0, payload, 0, 0);
+		openQueued();
+	}
+	
+	private void onPing(int flags, byte[] payload) throws IOException {
+		
+		if(payload.length != 8) {
+			
+			throw new IOException("HTTP/2: received a malformed PING frame. ");
+		}
+		
+		if((flags & ACK) == 0) {
+			
+			frame(PING, ACK, 0, payload, 0, 8);
+		}
+	}
+	
+	private void onGoAway(byte[] payload) throws IOException {
+		
+		if(payload.length < 8) {
+			
+			throw new IOException("HTTP/2: received a malformed GOAWAY frame. ");
+		}
+		
+		int lastStreamId = ByteBuffer.wrap(payload).getInt() & Integer.MAX_VALUE;
+		
+		draining = true;
+		
+		for (Iterator<Stream> iterator = streams.values().iterator(); iterator.hasNext();) {
+			
+			Stream stream = iterator.next();
+			
+			if(stream.id > lastStreamId) {
+				
+				iterator.remove();
+				refused.add(stream); //never processed by the server
+			}
+		}
+		
+		refused.addAll(queued);
+		queued.clear();
+	}
+	
+	private void onWindowUpdate(int id, byte[] payload) throws IOException {
+		
+		int increment = payload.length == 4? ByteBuffer.wrap(payload).getInt() & Integer.MAX_VALUE :0;
+		
+		if(increment == 0) {
+			
+			throw new IOException("HTTP/2: received a malformed WINDOW_UPDATE frame. ");
+		}
+		
+		if(id == 0) {
+			
+			if(sendWindow > MAX_WINDOW - increment) {
+				
+				throw new IOException("HTTP/2: the connection window overflowed. ");
+			}
+			
+			sendWindow += increment;
+		}
+		else {
+			
+			Stream stream = streams.get(id);
+			
+			if(stream != null) {
+				
+				stream.sendWindow = (int)Math.min((long)stream.sendWindow + increment, MAX_WINDOW);
+			}
+		}
+		
+		writeData();
+	}
+	
+	private void complete(Stream stream) {
+		
+		streams.remove(stream.id);
+		
+		HttpResponse response = null;
+		
+		try {
+			
+			response = stream.decode();
+		}
+		catch(Exception e) {
+			
+			stream.callback.failed(e);
+			return;
+		}
+		finally {
+			
+			openQueued();
+		}
+		
+		stream.callback.completed(response);
+	}
+	
+	private void open(Stream stream) {
+		
+		if(nextStreamId < 0) { //stream identifiers are exhausted
+			
+			draining = true;
+			refused.add(stream);
+			
+			return;
+		}
+		
+		stream.id = nextStreamId;
+		stream.sendWindow = initialWindow;
+		
+		nextStreamId += 2;
+		streams.put(stream.id, stream);
+		
+		byte[] block = stream.headerBlock;
+		boolean ends = stream.body == null || stream.body.length == 0;
+		
+		int offset = 0;
+		
+		do {
+			
+			int length = Math.min(block.length - offset, maxFrameSize);
+			int flags = offset + length == block.length? END_HEADERS :0;
+			
+			if(offset == 0) {
+				
+				frame(HEADERS, ends? flags | END_STREAM :flags, stream.id, block, offset, length);
+			}
+			else {
+				
+				frame(CONTINUATION, flags, stream.id, block, offset, length);
+			}
+			
+			offset += length;
+		}
+		while(offset < block.length);
+	}
+	
+	private void openQueued() {
+		
+		while(!draining && streams.size() < maxConcurrentStreams && !queued.isEmpty()) {
+			
+			open(queued.poll());
+		}
+		
+		writeData();
+	}
+	
+	private void writeData() {
+		
+		for (Stream stream : streams.values()) {
+			
+			if(stream.body == null) {
+				
+				continue;
+			}
+			
+			while(stream.sent < stream.body.length) {
+				
+				int length = Math.min(Math.min(stream.body.length - stream.sent, maxFrameSize),
+					Math.min(sendWindow, stream.sendWindow));
+				
+				if(length <= 0) {
+					
+					break;
+				}
+				
+				boolean ends = stream.sent + length == stream.body.length;
+				
+				frame(DATA, ends? END_STREAM :0, stream.id, stream.body, stream.sent, length);
+				
+				stream.sent += length;
+				stream.sendWindow -= length;
+				sendWindow -= length;
+			}
+		}
+	}
+	
+	private void reset(int id, int error) {
+		
+		frame(RST_STREAM, 0, id, ByteBuffer.allocate(4).putInt(error).array(), 0, 4);
+	}
+	
+	private void windowUpdate(int id, int increment) {
+		
+		frame(WINDOW_UPDATE, 0, id, ByteBuffer.allocate(4).putInt(increment).array(), 0, 4);
+	}
+	
+	private void frame(int type, int flags, int stream, byte[] payload, int offset, int length) {
+		
+		frames.write(length >>> 16);
+		frames.write(length >>> 8);
+		frames.write(length);
+		frames.write(type);
+		frames.write(flags);
+		frames.write(stream >>> 24);
+		frames.write(stream >>> 16);
+		frames.write(stream >>> 8);
+		frames.write(stream);
+		frames.write(payload, offset, length);
+	}
+	
+	private void touch(Stream stream) {
+		
+		stream.deadline = System.currentTimeMillis() + timeoutMillis;
+	}
+	
+	private static int padding(int flags, byte[] payload) throws IOException {
+		
+		if((flags & PADDED) == 0) {
+			
+			return 0;
+		}
+		
+		if(payload.length == 0 || (payload[0] & 0xff) >= payload.length) {
+			
+			throw new IOException("HTTP/2: received a frame with illegal padding. ");
+		}
+		
+		return payload[0] & 0xff;
+	}
+	
+	private static int status(List<Header> headers) throws IOException {
+		
+		for (Header header : headers) {
+			
+			if(header.getName().equals(":status")) {
+				
+				try {
+					
+					return Integer.parseInt(header.getValue());
+				}
+				catch(NumberFormatException nfe) {
+					
+					break;
+				}
+			}
+		}
+		
+		throw new IOException("HTTP/2: received a response without a valid status. ");
+	}
+	
+	/**
+	 * <p>Retrieves the frames which are yet to be written, including those which were queued since the
+	 * last invocation.</p>
+	 * 
+	 * @return a {@link ByteBuffer} with the frames to be written to the channel
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	ByteBuffer getOutgoing() {
+		
+		if(!outgoing.hasRemaining() && frames.size() > 0) {
+			
+			outgoing = ByteBuffer.wrap(frames.toByteArray());
+			frames.reset();
+		}
+		
+		return outgoing;
+	}
+	
+	boolean isWritePending() {
+		
+		return outgoing.hasRemaining() || frames.size() > 0;
+	}
+	
+	/**
+	 * <p>Retrieves and clears the streams which were refused by the server or by this connection without
+	 * having been processed, which are safe to submit again on a new connection.</p>
+	 * 
+	 * @return the refused {@link Stream}s, which may be empty
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	List<Stream> drainRefused() {
+		
+		List<Stream> drained = new ArrayList<Stream>(refused);
+		refused.clear();
+		
+		return drained;
+	}
+	
+	boolean isDraining() {
+		
+		return draining;
+	}
+	
+	boolean isIdle() {
+		
+		return streams.isEmpty() && queued.isEmpty() && refused.isEmpty();
+	}
+	
+	InetSocketAddress getAddress() {
+		
+		return address;
+	}
+	
+	SocketChannel getChannel() {
+		
+		return channel;
+	}
+	
+	void setChannel(SocketChannel channel) {
+		
+		this.channel = channel;
+	}
+}
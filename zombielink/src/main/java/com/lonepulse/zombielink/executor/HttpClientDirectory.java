@@ -20,8 +20,14 @@ package com.lonepulse.zombielink.executor;
  * #L%
  */
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -29,12 +35,19 @@ import org.apache.http.client.HttpClient;
 
 import com.lonepulse.zombielink.Directory;
 import com.lonepulse.zombielink.annotation.Config;
+import com.lonepulse.zombielink.annotation.Pool;
 import com.lonepulse.zombielink.proxy.Zombie;
 
 /**
- * <p>A registry of {@link HttpClient}s which are configured to be used for a specific endpoint.</p>
+ * <p>A registry of {@link HttpClient}s which are configured to be used for a specific endpoint. Endpoints 
+ * which share a {@link Config} share its {@link HttpClient}, except for those with a @{@link Pool}, each 
+ * of which has an {@link HttpClient} of its own.</p>
  * 
- * @version 1.1.0
+ * <p>The connections of every registered {@link HttpClient} are swept by a background maintenance thread,
+ * which closes those that have expired or have been idle for longer than the idle timeout of their
+ * {@link ConnectionPool}, so that they are retired before the server or a NAT in between drops them.</p>
+ * 
+ * @version 1.3.0
  * <br><br>
  * @since 1.3.0
  * <br><br>
@@ -65,6 +78,20 @@ enum HttpClientDirectory implements Directory<Class<?>, HttpClient> {
 	
 	private static final Map<String, String> ENDPOINT_CONFIGS = new HashMap<String, String>();
 	
+	private static final long SWEEP_INTERVAL = 5000;
+	
+	private static final ScheduledExecutorService MAINTENANCE = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+		
+		@Override
+		public Thread newThread(Runnable runnable) {
+			
+			Thread maintenance = new Thread(runnable, "zombielink-pool-maintenance");
+			maintenance.setDaemon(true);
+			
+			return maintenance;
+		}
+	});
+	
 	
 	static {
 		
@@ -93,6 +120,33 @@ enum HttpClientDirectory implements Directory<Class<?>, HttpClient> {
 				}
 			}
 		}));
+		
+		MAINTENANCE.scheduleWithFixedDelay(new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				List<HttpClient> httpClients;
+				
+				synchronized (INSTANCE) {
+					
+					httpClients = new ArrayList<HttpClient>(DIRECTORY.values());
+				}
+				
+				for (HttpClient httpClient : httpClients) {
+					
+					try {
+						
+						ConnectionPool.evict(httpClient);
+					}
+					catch(Exception e) {
+						
+						Logger.getLogger(HttpClientDirectory.class.getName()).log(
+							Level.WARNING, "Failed to evict the idle connections of an HTTP client.", e);
+					}
+				}
+			}
+		}, SWEEP_INTERVAL, SWEEP_INTERVAL, TimeUnit.MILLISECONDS);
 	}
 	
 	
@@ -114,10 +168,11 @@ enum HttpClientDirectory implements Directory<Class<?>, HttpClient> {
 	@Override
 	public synchronized HttpClient bind(Class<?> endpoint, HttpClient httpClient) {
 		
-		String configClassName = endpoint.isAnnotationPresent(Config.class)?
-			endpoint.getAnnotation(Config.class).value().getName() :Zombie.Configuration.class.getName();
-			
 		String endpointClassName = endpoint.getName();
+		
+		String configClassName = endpoint.isAnnotationPresent(Pool.class)? endpointClassName 
+			:endpoint.isAnnotationPresent(Config.class)? endpoint.getAnnotation(Config.class).value().getName() 
+			:Zombie.Configuration.class.getName();
 			
 		if(!DIRECTORY.containsKey(configClassName)) {
 			
@@ -0,0 +1,272 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ContentLengthStrategy;
+import org.apache.http.impl.DefaultHttpResponseFactory;
+import org.apache.http.impl.entity.EntityDeserializer;
+import org.apache.http.impl.entity.EntitySerializer;
+import org.apache.http.impl.entity.LaxContentLengthStrategy;
+import org.apache.http.impl.entity.StrictContentLengthStrategy;
+import org.apache.http.impl.io.AbstractSessionInputBuffer;
+import org.apache.http.impl.io.AbstractSessionOutputBuffer;
+import org.apache.http.impl.io.DefaultHttpResponseParser;
+import org.apache.http.impl.io.HttpRequestWriter;
+import org.apache.http.message.BasicHttpEntityEnclosingRequest;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HTTP;
+
+/**
+ * <p>A single request-response exchange which is driven by a {@link NonBlockingTransport}. The request
+ * is encoded up-front into a buffer which is written as the channel permits and the response is gathered
+ * as it arrives, to be decoded once the server closes the connection.</p>
+ * 
+ * <p>Each exchange uses its own connection with <i>Connection: close</i>, which delimits the response
+ * without having to parse it while it's in flight.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class HttpExchange {
+	
+	
+	private static final class InputBuffer extends AbstractSessionInputBuffer {
+		
+		
+		private InputBuffer(byte[] content, HttpParams params) {
+			
+			init(new ByteArrayInputStream(content), 8 * 1024, params);
+		}
+		
+		@Override
+		public boolean isDataAvailable(int timeout) {
+			
+			return true;
+		}
+	}
+	
+	private static final class OutputBuffer extends AbstractSessionOutputBuffer {
+		
+		
+		private OutputBuffer(ByteArrayOutputStream content, HttpParams params) {
+			
+			init(content, 8 * 1024, params);
+		}
+	}
+	
+	
+	private static final HttpParams PARAMS = new BasicHttpParams();
+	
+	private static final ContentLengthStrategy OUTGOING = new StrictContentLengthStrategy();
+	private static final ContentLengthStrategy INCOMING = new LaxContentLengthStrategy();
+	
+	
+	private final HttpRequestBase request;
+	private final NonBlockingTransport.Callback callback;
+	
+	private final InetSocketAddress address;
+	private final ByteBuffer outgoing;
+	private final ByteArrayOutputStream incoming = new ByteArrayOutputStream(4 * 1024);
+	
+	private SocketChannel channel;
+	private long deadline;
+	
+	
+	/**
+	 * <p>Creates a new {@link HttpExchange} by encoding the given request. The address of the target
+	 * host is resolved here, i.e. on the thread which submits the request.</p>
+	 * 
+	 * @param request
+	 * 			the {@link HttpRequestBase} to be sent, which must have an absolute URI
+	 * <br><br>
+	 * @param callback
+	 * 			the {@link NonBlockingTransport.Callback} which is notified of the outcome
+	 * <br><br>
+	 * @throws IOException
+	 * 			if the request could not be encoded
+	 * <br><br>
+	 * @throws HttpException
+	 * 			if the request violates the HTTP protocol
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	HttpExchange(HttpRequestBase request, NonBlockingTransport.Callback callback) throws IOException, HttpException {
+		
+		this.request = request;
+		this.callback = callback;
+		
+		URI uri = request.getURI();
+		int port = uri.getPort() < 0? 80 :uri.getPort();
+		
+		this.address = new InetSocketAddress(uri.getHost(), port);
+		this.outgoing = ByteBuffer.wrap(encode(request, uri, port));
+	}
+	
+	private static byte[] encode(HttpRequestBase request, URI uri, int port) throws IOException, HttpException {
+		
+		String path = uri.getRawPath() == null || uri.getRawPath().length() == 0? "/" :uri.getRawPath();
+		String target = uri.getRawQuery() == null? path :path + "?" + uri.getRawQuery();
+		
+		HttpEntity entity = (request instanceof HttpEntityEnclosingRequest)?
+			((HttpEntityEnclosingRequest)request).getEntity() :null;
+		
+		HttpRequest message = entity == null?
+			new BasicHttpRequest(request.getMethod(), target, HttpVersion.HTTP_1_1)
+			:new BasicHttpEntityEnclosingRequest(request.getMethod(), target, HttpVersion.HTTP_1_1);
+		
+		message.setHeaders(request.getAllHeaders());
+		message.setHeader(HTTP.TARGET_HOST, port == 80? uri.getHost() :uri.getHost() + ":" + port);
+		message.setHeader(HTTP.CONN_DIRECTIVE, HTTP.CONN_CLOSE);
+		
+		if(entity != null) {
+			
+			if(entity.isChunked() || entity.getContentLength() < 0) {
+				
+				message.setHeader(HTTP.TRANSFER_ENCODING, HTTP.CHUNK_CODING);
+			}
+			else {
+				
+				message.setHeader(HTTP.CONTENT_LEN, String.valueOf(entity.getContentLength()));
+			}
+			
+			copyHeader(entity.getContentType(), message);
+			copyHeader(entity.getContentEncoding(), message);
+		}
+		
+		ByteArrayOutputStream content = new ByteArrayOutputStream(1024);
+		OutputBuffer buffer = new OutputBuffer(content, PARAMS);
+		
+		new HttpRequestWriter(buffer, null, PARAMS).write(message);
+		
+		if(entity != null) {
+			
+			new EntitySerializer(OUTGOING).serialize(buffer, message, entity);
+		}
+		
+		buffer.flush();
+		
+		return content.toByteArray();
+	}
+	
+	private static void copyHeader(Header header, HttpRequest message) {
+		
+		if(header != null && !message.containsHeader(header.getName())) {
+			
+			message.addHeader(header);
+		}
+	}
+	
+	/**
+	 * <p>Decodes the gathered response once the server has closed the connection.</p>
+	 * 
+	 * @return the {@link HttpResponse} whose entity, if any, is backed by the gathered content
+	 * <br><br>
+	 * @throws IOException
+	 * 			if the response was truncated or malformed
+	 * <br><br>
+	 * @throws HttpException
+	 * 			if the response violates the HTTP protocol
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	HttpResponse decode() throws IOException, HttpException {
+		
+		InputBuffer buffer = new InputBuffer(incoming.toByteArray(), PARAMS);
+		
+		HttpResponse response = new DefaultHttpResponseParser(
+			buffer, null, new DefaultHttpResponseFactory(), PARAMS).parse();
+		
+		int status = response.getStatusLine().getStatusCode();
+		
+		if(!"HEAD".equalsIgnoreCase(request.getMethod()) && status >= 200 && status != 204 && status != 304) {
+			
+			response.setEntity(new EntityDeserializer(INCOMING).deserialize(buffer, response));
+		}
+		
+		return response;
+	}
+	
+	InetSocketAddress getAddress() {
+		
+		return address;
+	}
+	
+	HttpRequestBase getRequest() {
+		
+		return request;
+	}
+	
+	NonBlockingTransport.Callback getCallback() {
+		
+		return callback;
+	}
+	
+	ByteBuffer getOutgoing() {
+		
+		return outgoing;
+	}
+	
+	void gather(ByteBuffer chunk) {
+		
+		incoming.write(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+	}
+	
+	SocketChannel getChannel() {
+		
+		return channel;
+	}
+	
+	void setChannel(SocketChannel channel) {
+		
+		this.channel = channel;
+	}
+	
+	long getDeadline() {
+		
+		return deadline;
+	}
+	
+	void setDeadline(long deadline) {
+		
+		this.deadline = deadline;
+	}
+}
@@ -0,0 +1,185 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import com.lonepulse.zombielink.proxy.InvocationContext;
+
+/**
+ * <p>A {@link FutureTask} which runs an entire request invocation in the background and which is handed
+ * out to the invoker of a request that returns a {@link java.util.concurrent.Future}. The future completes
+ * with the deserialized response content or fails with the cause of the invocation failure.</p>
+ * 
+ * <p>Requests which return a {@code CompletableFuture} (or any of its supertypes other than those of
+ * {@link FutureTask}) receive a {@code CompletableFuture} which is completed along with this task. Since
+ * this library targets runtimes which predate it, {@code CompletableFuture} is discovered reflectively.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class InvocationFuture extends FutureTask<Object> {
+	
+	
+	private static final Class<?> CompletableFuture;
+	private static final Method CompletableFuture_complete;
+	private static final Method CompletableFuture_completeExceptionally;
+	
+	static {
+		
+		Class<?> completableFuture = null;
+		Method complete = null, completeExceptionally = null;
+		
+		try {
+			
+			completableFuture = Class.forName("java.util.concurrent.CompletableFuture");
+			complete = completableFuture.getMethod("complete", Object.class);
+			completeExceptionally = completableFuture.getMethod("completeExceptionally", Throwable.class);
+		}
+		catch(Exception e) {
+			
+			completableFuture = null; //CompletableFuture is unavailable on this runtime
+		}
+		
+		CompletableFuture = completableFuture;
+		CompletableFuture_complete = complete;
+		CompletableFuture_completeExceptionally = completeExceptionally;
+	}
+	
+	
+	private final Object completable;
+	
+	
+	/**
+	 * <p>Creates a new {@link InvocationFuture} which performs the given invocation when run.</p>
+	 * 
+	 * @param context
+	 * 			the {@link InvocationContext} of the request, whose return type decides the kind of
+	 * 			future which is handed out
+	 * <br><br>
+	 * @param invocation
+	 * 			the {@link Callable} which performs the invocation and yields the response content
+	 * <br><br>
+	 * @throws RequestExecutionException
+	 * 			if the return type of the request is a {@link java.util.concurrent.Future} which cannot
+	 * 			be supplied
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	InvocationFuture(InvocationContext context, Callable<Object> invocation) {
+		
+		super(invocation);
+		
+		Class<?> futureType = context.getRequest().getReturnType();
+		
+		if(futureType.isAssignableFrom(FutureTask.class)) {
+			
+			this.completable = null;
+		}
+		else if(CompletableFuture != null && futureType.isAssignableFrom(CompletableFuture)) {
+			
+			try {
+				
+				this.completable = CompletableFuture.newInstance();
+			}
+			catch(Exception e) {
+				
+				throw new RequestExecutionException(context.getRequest(), context.getEndpoint(), e);
+			}
+		}
+		else {
+			
+			throw new RequestExecutionException(context.getRequest(), context.getEndpoint(),
+				new UnsupportedOperationException(new StringBuilder("Requests may only return a Future, ")
+					.append("a CompletableFuture or one of their supertypes; found ")
+					.append(futureType.getName()).append(". ").toString()));
+		}
+	}
+	
+	/**
+	 * <p>Retrieves the future which should be handed out to the invoker of the request.</p>
+	 * 
+	 * @return a {@code CompletableFuture} if the request returns one; else this {@link InvocationFuture}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	Object getFuture() {
+		
+		return completable == null? this :completable;
+	}
+	
+	/**
+	 * <p>Fails this future with the given cause without running the invocation. This is used when the
+	 * invocation could not be scheduled for execution.</p>
+	 * 
+	 * @param cause
+	 * 			the reason for which the invocation failed
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	void fail(Throwable cause) {
+		
+		setException(cause);
+	}
+	
+	/**
+	 * <p>Propagates the outcome of this task to the {@code CompletableFuture}, if one was handed out.</p>
+	 */
+	@Override
+	protected void done() {
+		
+		if(completable == null) {
+			
+			return;
+		}
+		
+		try {
+			
+			try {
+				
+				CompletableFuture_complete.invoke(completable, get());
+			}
+			catch(ExecutionException ee) {
+				
+				CompletableFuture_completeExceptionally.invoke(completable, ee.getCause());
+			}
+			catch(CancellationException ce) {
+				
+				CompletableFuture_completeExceptionally.invoke(completable, ce);
+			}
+			catch(InterruptedException ie) {
+				
+				Thread.currentThread().interrupt(); //unreachable, since the task is done
+			}
+		}
+		catch(Exception e) {
+			
+			throw new IllegalStateException("Failed to complete the CompletableFuture of a request. ", e);
+		}
+	}
+}
@@ -0,0 +1,1010 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.lonepulse.zombielink.util.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.conn.ConnectionReleaseTrigger;
+
+import com.lonepulse.zombielink.annotation.Async;
+import com.lonepulse.zombielink.annotation.Stateful;
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>An <b>event-driven</b> transport for @{@link Async} requests, where a small number of I/O threads
+ * multiplex all in-flight requests using NIO {@link Selector}s. Unlike the blocking {@link HttpClient}
+ * transport, no thread is held while a request awaits its response; a thread is only engaged once the
+ * response has arrived, to run the response processor chain and the
+ * {@link com.lonepulse.zombielink.response.AsyncHandler} on the endpoint's executor.</p>
+ * 
+ * <p>Instances are created using a {@link NonBlockingTransport.Builder} supplied via {@link #newBuilder()}
+ * and can be assigned to an endpoint by overriding {@link Zombie.Configuration#nonBlockingTransport()}.
+ * The endpoint interface itself remains unchanged.</p>
+ * 
+ * <p>By default this transport speaks plain HTTP/1.1 with a connection per request. If it's built for
+ * {@link Protocol#HTTP_2}, it speaks cleartext HTTP/2 instead and multiplexes all requests to a host over
+ * a single connection per I/O thread. Such a transport also carries the synchronous requests of the
+ * endpoint, whose invoking threads await their responses while the connection is shared.</p>
+ * 
+ * <p><b>Note</b> that requests over HTTPS and those of @{@link Stateful} endpoints (which rely on the
+ * cookies and credentials managed by the {@link HttpClient}) continue to use the blocking transport.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public final class NonBlockingTransport {
+	
+	
+	/**
+	 * <p>The protocols which can be spoken by a {@link NonBlockingTransport}.</p>
+	 * 
+	 * @version 1.0.0
+	 * <br><br>
+	 * @since 1.3.4
+	 * <br><br>
+	 * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static enum Protocol {
+		
+		/**
+		 * <p>HTTP/1.1 with a new connection for each request, which is closed once the response has been
+		 * received. Only @{@link Async} requests are sent using this protocol.</p>
+		 * 
+		 * @since 1.3.4
+		 */
+		HTTP_1_1,
+		
+		/**
+		 * <p>Cleartext HTTP/2 with <i>prior knowledge</i> (h2c), where each I/O thread keeps a single
+		 * connection to a host over which all requests to that host are multiplexed. Requests beyond the
+		 * server's limit of concurrent streams await a free stream instead of opening another connection.
+		 * The server must accept HTTP/2 without an upgrade from HTTP/1.1.</p>
+		 * 
+		 * @since 1.3.4
+		 */
+		HTTP_2;
+	}
+	
+	/**
+	 * <p>This contract defines the services for creating a {@link NonBlockingTransport}.</p>
+	 * 
+	 * @version 1.0.0
+	 * <br><br>
+	 * @since 1.3.4
+	 * <br><br>
+	 * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static interface Builder {
+		
+		/**
+		 * <p>Sets the number of I/O threads, each of which runs its own {@link Selector}. Defaults to the
+		 * number of available processors.</p>
+		 * 
+		 * @param ioThreads
+		 * 			the number of I/O threads; must be greater than zero
+		 * <br><br>
+		 * @return the current instance of the {@link Builder} with the I/O threads assigned
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		Builder setIoThreads(int ioThreads);
+		
+		/**
+		 * <p>Sets the maximum time for which a request may remain without any progress in connecting,
+		 * sending or receiving. Defaults to <b>30 seconds</b>.</p>
+		 * 
+		 * @param timeout
+		 * 			the maximum period of inactivity
+		 * <br><br>
+		 * @param unit
+		 * 			the {@link TimeUnit} of the given timeout
+		 * <br><br>
+		 * @return the current instance of the {@link Builder} with the timeout assigned
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		Builder setTimeout(long timeout, TimeUnit unit);
+		
+		/**
+		 * <p>Sets the {@link Protocol} which is spoken by the transport. Defaults to {@link Protocol#HTTP_1_1}.</p>
+		 * 
+		 * @param protocol
+		 * 			the {@link Protocol} to be spoken
+		 * <br><br>
+		 * @return the current instance of the {@link Builder} with the protocol assigned
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		Builder setProtocol(Protocol protocol);
+		
+		/**
+		 * <p>Creates a new {@link NonBlockingTransport} using the assigned properties and starts its I/O
+		 * threads.</p>
+		 * 
+		 * @return a new instance of {@link NonBlockingTransport}
+		 * <br><br>
+		 * @throws IllegalArgumentException
+		 * 			if the assigned number of I/O threads is illegal
+		 * <br><br>
+		 * @throws IllegalStateException
+		 * 			if the selectors could not be opened
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		NonBlockingTransport build();
+	}
+	
+	private static final class NonBlockingTransportBuilder implements Builder {
+		
+		
+		private int ioThreads = Runtime.getRuntime().availableProcessors();
+		private long timeoutMillis = TimeUnit.SECONDS.toMillis(30);
+		private Protocol protocol = Protocol.HTTP_1_1;
+		
+		
+		@Override
+		public Builder setIoThreads(int ioThreads) {
+			
+			this.ioThreads = ioThreads;
+			return this;
+		}
+		
+		@Override
+		public Builder setTimeout(long timeout, TimeUnit unit) {
+			
+			this.timeoutMillis = assertNotNull(unit).toMillis(timeout);
+			return this;
+		}
+		
+		@Override
+		public Builder setProtocol(Protocol protocol) {
+			
+			this.protocol = assertNotNull(protocol);
+			return this;
+		}
+		
+		@Override
+		public NonBlockingTransport build() {
+			
+			if(ioThreads < 1) {
+				
+				throw new IllegalArgumentException("The number of I/O threads must be greater than zero. ");
+			}
+			
+			return new NonBlockingTransport(this);
+		}
+	}
+	
+	/**
+	 * <p>Receives the outcome of a request which was sent via {@link NonBlockingTransport#execute(
+	 * HttpRequestBase, Callback)}. Callbacks are invoked on an I/O thread and should hand off any
+	 * lengthy work.</p>
+	 * 
+	 * @version 1.0.0
+	 * <br><br>
+	 * @since 1.3.4
+	 * <br><br>
+	 * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+	 */
+	static interface Callback {
+		
+		void completed(HttpResponse response);
+		
+		void failed(Exception error);
+	}
+	
+	private final class Completion implements Callback {
+		
+		
+		private final Callback callback;
+		private final AtomicBoolean done = new AtomicBoolean();
+		
+		
+		private Completion(Callback callback) {
+			
+			this.callback = callback;
+		}
+		
+		@Override
+		public void completed(HttpResponse response) {
+			
+			if(done.compareAndSet(false, true)) {
+				
+				inFlight.decrementAndGet();
+				
+				try {
+					
+					callback.completed(response);
+				}
+				catch(Exception e) {
+					
+					LOGGER.log(Level.SEVERE, "A callback of the non-blocking transport aborted with an exception.", e);
+				}
+			}
+		}
+		
+		@Override
+		public void failed(Exception error) {
+			
+			if(done.compareAndSet(false, true)) {
+				
+				inFlight.decrementAndGet();
+				
+				try {
+					
+					callback.failed(error);
+				}
+				catch(Exception e) {
+					
+					LOGGER.log(Level.SEVERE, "A callback of the non-blocking transport aborted with an exception.", e);
+				}
+			}
+		}
+	}
+	
+	private static final class Outcome implements Callback {
+		
+		
+		private final CountDownLatch latch = new CountDownLatch(1);
+		
+		private HttpResponse response;
+		private Exception error;
+		
+		
+		@Override
+		public void completed(HttpResponse response) {
+			
+			this.response = response;
+			latch.countDown();
+		}
+		
+		@Override
+		public void failed(Exception error) {
+			
+			this.error = error;
+			latch.countDown();
+		}
+	}
+	
+	private final class Reactor implements Runnable {
+		
+		
+		private final Selector selector;
+		private final Queue<Object> submissions = new ConcurrentLinkedQueue<Object>();
+		
+		private final Map<InetSocketAddress, Http2Connection> connections = new HashMap<InetSocketAddress, Http2Connection>();
+		
+		private final ByteBuffer readBuffer = ByteBuffer.allocate(16 * 1024);
+		
+		
+		private Reactor() throws IOException {
+			
+			this.selector = Selector.open();
+		}
+		
+		private void submit(Object submission) {
+			
+			submissions.add(submission);
+			selector.wakeup();
+			
+			if(!selector.isOpen()) { //submitted after the I/O thread has terminated
+				
+				drain();
+			}
+		}
+		
+		@Override
+		public void run() {
+			
+			try {
+				
+				while(!shutdown) {
+					
+					selector.select(SELECT_INTERVAL);
+					
+					register();
+					dispatch();
+					expire();
+				}
+			}
+			catch(ClosedSelectorException cse) {
+				
+				//the transport was shut down
+			}
+			catch(Exception e) {
+				
+				LOGGER.log(Level.SEVERE, "An I/O thread of the non-blocking transport terminated unexpectedly.", e);
+			}
+			finally {
+				
+				abort();
+			}
+		}
+		
+		private void register() {
+			
+			for (Object submission = submissions.poll(); submission != null; submission = submissions.poll()) {
+				
+				if(submission instanceof Http2Connection.Stream) {
+					
+					multiplex((Http2Connection.Stream)submission);
+					continue;
+				}
+				
+				HttpExchange exchange = (HttpExchange)submission;
+				
+				try {
+					
+					SocketChannel channel = SocketChannel.open();
+					exchange.setChannel(channel);
+					openConnections.incrementAndGet();
+					
+					channel.configureBlocking(false);
+					boolean connected = channel.connect(exchange.getAddress());
+					
+					channel.register(selector, connected? SelectionKey.OP_WRITE :SelectionKey.OP_CONNECT, exchange);
+					exchange.setDeadline(System.currentTimeMillis() + timeoutMillis);
+				}
+				catch(Exception e) {
+					
+					fail(exchange, e);
+				}
+			}
+		}
+		
+		private void multiplex(Http2Connection.Stream stream) {
+			
+			if(stream.isCancelled()) {
+				
+				Exception aborted = new IOException("The request was aborted. ");
+				
+				if(stream.getConnection() == null) {
+					
+					stream.getCallback().failed(aborted);
+				}
+				else {
+					
+					stream.getConnection().cancel(stream, aborted);
+					settle(stream.getConnection());
+				}
+				
+				return;
+			}
+			
+			Http2Connection connection = connections.get(stream.getAddress());
+			
+			if(connection == null || connection.isDraining()) {
+				
+				connection = new Http2Connection(stream.getAddress(), timeoutMillis);
+				
+				try {
+					
+					SocketChannel channel = SocketChannel.open();
+					connection.setChannel(channel);
+					openConnections.incrementAndGet();
+					
+					channel.configureBlocking(false);
+					boolean connected = channel.connect(connection.getAddress());
+					
+					channel.register(selector, connected?
+						SelectionKey.OP_READ | SelectionKey.OP_WRITE :SelectionKey.OP_CONNECT, connection);
+				}
+				catch(Exception e) {
+					
+					close(connection.getChannel());
+					stream.getCallback().failed(e);
+					
+					return;
+				}
+				
+				connections.put(connection.getAddress(), connection);
+			}
+			
+			connection.submit(stream);
+			settle(connection);
+		}
+		
+		private void dispatch() {
+			
+			Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+			
+			while(keys.hasNext()) {
+				
+				SelectionKey key = keys.next();
+				keys.remove();
+				
+				if(key.attachment() instanceof Http2Connection) {
+					
+					dispatch(key, (Http2Connection)key.attachment());
+					continue;
+				}
+				
+				HttpExchange exchange = (HttpExchange)key.attachment();
+				
+				try {
+					
+					if(!key.isValid()) {
+						
+						continue;
+					}
+					
+					exchange.setDeadline(System.currentTimeMillis() + timeoutMillis);
+					
+					if(key.isConnectable() && exchange.getChannel().finishConnect()) {
+						
+						key.interestOps(SelectionKey.OP_WRITE);
+					}
+					else if(key.isWritable()) {
+						
+						ByteBuffer outgoing = exchange.getOutgoing();
+						exchange.getChannel().write(outgoing);
+						
+						if(!outgoing.hasRemaining()) {
+							
+							key.interestOps(SelectionKey.OP_READ);
+						}
+					}
+					else if(key.isReadable()) {
+						
+						readBuffer.clear();
+						
+						if(exchange.getChannel().read(readBuffer) < 0) {
+							
+							complete(key, exchange);
+						}
+						else {
+							
+							readBuffer.flip();
+							exchange.gather(readBuffer);
+						}
+					}
+				}
+				catch(Exception e) {
+					
+					key.cancel();
+					fail(exchange, e);
+				}
+			}
+		}
+		
+		private void dispatch(SelectionKey key, Http2Connection connection) {
+			
+			try {
+				
+				if(!key.isValid()) {
+					
+					return;
+				}
+				
+				if(key.isConnectable()) {
+					
+					if(connection.getChannel().finishConnect()) {
+						
+						settle(connection);
+					}
+					
+					return;
+				}
+				
+				if(key.isReadable()) {
+					
+					readBuffer.clear();
+					
+					if(connection.getChannel().read(readBuffer) < 0) {
+						
+						release(connection, new IOException("The connection was closed by the server. "));
+						return;
+					}
+					
+					readBuffer.flip();
+					connection.receive(readBuffer);
+				}
+				
+				if(key.isWritable()) {
+					
+					connection.getChannel().write(connection.getOutgoing());
+				}
+				
+				settle(connection);
+			}
+			catch(Exception e) {
+				
+				release(connection, e);
+			}
+		}
+		
+		private void expire() {
+			
+			long now = System.currentTimeMillis();
+			
+			for (SelectionKey key : selector.keys()) {
+				
+				if(!key.isValid()) {
+					
+					continue;
+				}
+				
+				if(key.attachment() instanceof Http2Connection) {
+					
+					Http2Connection connection = (Http2Connection)key.attachment();
+					connection.expire(now);
+					
+					if(connection.isIdle() && !connection.getChannel().isConnected()) {
+						
+						release(connection, null); //no requests are left to await the connection
+					}
+					else {
+						
+						settle(connection);
+					}
+					
+					continue;
+				}
+				
+				HttpExchange exchange = (HttpExchange)key.attachment();
+				
+				if(now > exchange.getDeadline()) {
+					
+					key.cancel();
+					fail(exchange, new SocketTimeoutException(new StringBuilder("No progress on request ")
+						.append(exchange.getRequest().getURI()).append(" for ").append(timeoutMillis)
+						.append(" ms. ").toString()));
+				}
+			}
+		}
+		
+		private void abort() {
+			
+			IOException shutdown = new IOException("The non-blocking transport was shut down. ");
+			
+			try {
+				
+				for (SelectionKey key : selector.keys()) {
+					
+					if(!key.isValid()) {
+						
+						continue;
+					}
+					
+					if(key.attachment() instanceof Http2Connection) {
+						
+						release((Http2Connection)key.attachment(), shutdown);
+					}
+					else {
+						
+						fail((HttpExchange)key.attachment(), shutdown);
+					}
+				}
+				
+				selector.close();
+			}
+			catch(Exception e) {
+				
+				LOGGER.log(Level.WARNING, "Failed to release the selector of the non-blocking transport.", e);
+			}
+			
+			drain();
+		}
+		
+		private void drain() {
+			
+			IOException shutdown = new IOException("The non-blocking transport was shut down. ");
+			
+			for (Object submission = submissions.poll(); submission != null; submission = submissions.poll()) {
+				
+				if(submission instanceof Http2Connection.Stream) {
+					
+					((Http2Connection.Stream)submission).getCallback().failed(shutdown);
+				}
+				else {
+					
+					fail((HttpExchange)submission, shutdown);
+				}
+			}
+		}
+		
+		private void settle(Http2Connection connection) {
+			
+			List<Http2Connection.Stream> refused = connection.drainRefused();
+			
+			for (Http2Connection.Stream stream : refused) {
+				
+				submit(stream); //sent again on a new connection
+			}
+			
+			if(connection.isDraining() && connection.isIdle()) {
+				
+				release(connection, null);
+				return;
+			}
+			
+			SelectionKey key = connection.getChannel().keyFor(selector);
+			
+			if(key != null && key.isValid() && connection.getChannel().isConnected()) {
+				
+				key.interestOps(connection.isWritePending()?
+					SelectionKey.OP_READ | SelectionKey.OP_WRITE :SelectionKey.OP_READ);
+			}
+		}
+		
+		private void release(Http2Connection connection, Exception error) {
+			
+			if(connections.get(connection.getAddress()) == connection) {
+				
+				connections.remove(connection.getAddress());
+			}
+			
+			close(connection.getChannel());
+			connection.fail(error == null? new IOException("The connection was closed. ") :error);
+		}
+		
+		private void complete(SelectionKey key, HttpExchange exchange) {
+			
+			key.cancel();
+			close(exchange.getChannel());
+			
+			HttpResponse response = null;
+			
+			try {
+				
+				response = exchange.decode();
+			}
+			catch(Exception e) {
+				
+				fail(exchange, e);
+				return;
+			}
+			
+			inFlight.decrementAndGet();
+			notify(exchange, response);
+		}
+		
+		private void fail(HttpExchange exchange, Exception error) {
+			
+			close(exchange.getChannel());
+			inFlight.decrementAndGet();
+			
+			try {
+				
+				exchange.getCallback().failed(error);
+			}
+			catch(Exception e) {
+				
+				LOGGER.log(Level.SEVERE, "A callback of the non-blocking transport aborted with an exception.", e);
+			}
+		}
+		
+		private void notify(HttpExchange exchange, HttpResponse response) {
+			
+			try {
+				
+				exchange.getCallback().completed(response);
+			}
+			catch(Exception e) {
+				
+				LOGGER.log(Level.SEVERE, "A callback of the non-blocking transport aborted with an exception.", e);
+			}
+		}
+		
+		private void close(SocketChannel channel) {
+			
+			if(channel != null && channel.isOpen()) {
+				
+				try {
+					
+					channel.close();
+				}
+				catch(IOException ioe) {
+					
+					LOGGER.log(Level.FINE, "Failed to close a channel of the non-blocking transport.", ioe);
+				}
+				finally {
+					
+					openConnections.decrementAndGet();
+				}
+			}
+		}
+	}
+	
+	
+	private static final Logger LOGGER = Logger.getLogger(NonBlockingTransport.class.getName());
+	
+	private static final long SELECT_INTERVAL = 500;
+	
+	private static final AtomicInteger TRANSPORTS = new AtomicInteger();
+	
+	
+	private final Reactor[] reactors;
+	private final long timeoutMillis;
+	private final Protocol protocol;
+	
+	private final AtomicInteger next = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger openConnections = new AtomicInteger();
+	
+	private volatile boolean shutdown;
+	
+	
+	/**
+	 * <p>Returns a new {@link Builder} which can be used to construct a {@link NonBlockingTransport}.</p>
+	 * 
+	 * @return a new instance of {@link Builder} for constructing a {@link NonBlockingTransport}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static Builder newBuilder() {
+		
+		return new NonBlockingTransportBuilder();
+	}
+	
+	private NonBlockingTransport(NonBlockingTransportBuilder builder) {
+		
+		this.timeoutMillis = builder.timeoutMillis;
+		this.protocol = builder.protocol;
+		this.reactors = new Reactor[builder.ioThreads];
+		
+		int transport = TRANSPORTS.incrementAndGet();
+		
+		try {
+			
+			for (int i = 0; i < reactors.length; i++) {
+				
+				reactors[i] = new Reactor();
+				
+				Thread ioThread = new Thread(reactors[i], new StringBuilder("zombielink-nio-")
+					.append(transport).append("-").append(i).toString());
+				
+				ioThread.setDaemon(true);
+				ioThread.start();
+			}
+		}
+		catch(IOException ioe) {
+			
+			shutdown();
+			throw new IllegalStateException("Failed to open the selectors for a non-blocking transport. ", ioe);
+		}
+	}
+	
+	/**
+	 * <p>Determines if the given request can be sent using this transport, i.e. if it's a plain HTTP
+	 * request and the transport has not been shut down.</p>
+	 * 
+	 * @param request
+	 * 			the {@link HttpRequestBase} whose support is to be determined
+	 * <br><br>
+	 * @return {@code true} if the request can be sent via {@link #execute(HttpRequestBase, Callback)}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	boolean supports(HttpRequestBase request) {
+		
+		return !shutdown && "http".equalsIgnoreCase(request.getURI().getScheme());
+	}
+	
+	/**
+	 * <p>Sends the given request and returns immediately. The outcome is delivered to the given
+	 * {@link Callback} on one of the I/O threads.</p>
+	 * 
+	 * <p>If this transport speaks {@link Protocol#HTTP_2}, the request is sent on the I/O thread which
+	 * owns the connection to its host.</p>
+	 * 
+	 * @param request
+	 * 			the {@link HttpRequestBase} to be sent, which must be supported as per
+	 * 			{@link #supports(HttpRequestBase)}
+	 * <br><br>
+	 * @param callback
+	 * 			the {@link Callback} which is notified once the request completes or fails
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	void execute(HttpRequestBase request, Callback callback) {
+		
+		if(protocol == Protocol.HTTP_2) {
+			
+			Http2Connection.Stream stream = null;
+			
+			try {
+				
+				stream = new Http2Connection.Stream(request, new Completion(callback));
+			}
+			catch(Exception e) {
+				
+				callback.failed(e);
+				return;
+			}
+			
+			inFlight.incrementAndGet();
+			route(stream).submit(stream);
+			
+			return;
+		}
+		
+		HttpExchange exchange = null;
+		
+		try {
+			
+			exchange = new HttpExchange(request, callback);
+		}
+		catch(Exception e) {
+			
+			callback.failed(e);
+			return;
+		}
+		
+		inFlight.incrementAndGet();
+		reactors[(next.getAndIncrement() & Integer.MAX_VALUE) % reactors.length].submit(exchange);
+	}
+	
+	/**
+	 * <p>Sends the given request over a multiplexed HTTP/2 connection and blocks until its response has
+	 * been received. Aborting the request via {@link HttpRequestBase#abort()} resets its stream.</p>
+	 * 
+	 * @param request
+	 * 			the {@link HttpRequestBase} to be sent, which must be supported as per
+	 * 			{@link #supports(HttpRequestBase)}
+	 * <br><br>
+	 * @return the {@link HttpResponse} whose entity, if any, holds the entire response body
+	 * <br><br>
+	 * @throws IOException
+	 * 			if the request failed, timed out or was aborted, or if the thread was interrupted
+	 * <br><br>
+	 * @throws IllegalStateException
+	 * 			if this transport does not speak {@link Protocol#HTTP_2}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	HttpResponse transmit(HttpRequestBase request) throws IOException {
+		
+		if(protocol != Protocol.HTTP_2) {
+			
+			throw new IllegalStateException("Only an HTTP/2 transport can send synchronous requests. ");
+		}
+		
+		Outcome outcome = new Outcome();
+		final Http2Connection.Stream stream = new Http2Connection.Stream(request, new Completion(outcome));
+		
+		request.setReleaseTrigger(new ConnectionReleaseTrigger() {
+			
+			@Override
+			public void releaseConnection() {}
+			
+			@Override
+			public void abortConnection() {
+				
+				stream.cancel();
+				route(stream).submit(stream);
+			}
+		});
+		
+		inFlight.incrementAndGet();
+		route(stream).submit(stream);
+		
+		try {
+			
+			outcome.latch.await();
+		}
+		catch(InterruptedException ie) {
+			
+			stream.cancel();
+			route(stream).submit(stream);
+			
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while awaiting a response over HTTP/2. ");
+		}
+		
+		if(outcome.response != null) {
+			
+			return outcome.response;
+		}
+		
+		throw outcome.error instanceof IOException? (IOException)outcome.error :new IOException(outcome.error);
+	}
+	
+	private Reactor route(Http2Connection.Stream stream) {
+		
+		return reactors[(stream.getAddress().hashCode() & Integer.MAX_VALUE) % reactors.length];
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Protocol} which is spoken by this transport.</p>
+	 * 
+	 * @return the {@link Protocol} of this transport
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public Protocol getProtocol() {
+		
+		return protocol;
+	}
+	
+	/**
+	 * <p>Retrieves the number of connections which are currently open, including those which are still
+	 * being established. With {@link Protocol#HTTP_2} this is at most one per host and I/O thread.</p>
+	 * 
+	 * @return the number of open connections
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public int getOpenConnectionCount() {
+		
+		return openConnections.get();
+	}
+	
+	/**
+	 * <p>Retrieves the number of requests which have been sent but whose outcome has not yet been
+	 * delivered.</p>
+	 * 
+	 * @return the number of requests which are currently in flight
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public int getInFlightCount() {
+		
+		return inFlight.get();
+	}
+	
+	/**
+	 * <p>Stops the I/O threads of this transport. All requests in flight fail with an {@link IOException}
+	 * and subsequent requests fall back to the blocking transport.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	public void shutdown() {
+		
+		shutdown = true;
+		
+		for (Reactor reactor : reactors) {
+			
+			if(reactor != null) {
+				
+				reactor.selector.wakeup();
+			}
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.lonepulse.zombielink.annotation.RateLimit;
+import com.lonepulse.zombielink.proxy.InvocationContext;
+import com.lonepulse.zombielink.proxy.InvocationException;
+
+/**
+ * <p>This runtime exception is thrown when a request with a @{@link RateLimit} fails fast, without being
+ * sent, because no permit became available within its timeout.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class RateLimitExceededException extends InvocationException {
+	
+	
+	private static final long serialVersionUID = -2317944869512260553L;
+	
+	private final transient RateLimiter limiter;
+	
+	
+	/**
+	 * <p>Creates a new instance of {@link RateLimitExceededException} for a request which was rejected
+	 * by the given {@link RateLimiter}.</p>
+	 * 
+	 * @param context
+	 * 			the {@link InvocationContext} of the rejected request
+	 * <br><br>
+	 * @param limiter
+	 * 			the exhausted {@link RateLimiter} which rejected the request
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public RateLimitExceededException(InvocationContext context, RateLimiter limiter) {
+		
+		super(context, "the rate limit was exceeded");
+		this.limiter = limiter;
+	}
+	
+	/**
+	 * <p>Retrieves the {@link RateLimiter} which rejected the request.</p>
+	 * 
+	 * @return the {@link RateLimiter} which had no permits for the request
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public RateLimiter getLimiter() {
+		
+		return limiter;
+	}
+}
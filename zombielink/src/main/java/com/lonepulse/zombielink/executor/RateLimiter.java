@@ -0,0 +1,334 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+
+import com.lonepulse.zombielink.annotation.RateLimit;
+import com.lonepulse.zombielink.proxy.InvocationContext;
+
+/**
+ * <p>The token bucket of a @{@link RateLimit}, which is shared by all requests on an endpoint which is
+ * limited at type-level or owned by a single request which is limited at method-level.</p>
+ * 
+ * <p>The bucket is kept as the <i>theoretical arrival time</i> of the next permit, which advances by the
+ * interval between permits whenever one is taken, and a permit is available if that time is no further
+ * ahead than the interval of a full burst. Since this is a single value which is updated by a
+ * compare-and-set, the limiter is lock-free and a waiting request reserves its permit before it sleeps.
+ * Responses from the upstream push the arrival time forward when they report an exhausted quota.</p>
+ * 
+ * <p>A permit is taken for every attempt which is sent to the upstream, including retries and hedges,
+ * and every response which is received adapts the bucket.</p>
+ * 
+ * @version 1.2.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public final class RateLimiter {
+	
+	
+	private static final ConcurrentMap<Object, RateLimiter> LIMITERS = new ConcurrentHashMap<Object, RateLimiter>();
+	
+	private final long interval;
+	private final long tolerance;
+	private final long period;
+	private final long timeout;
+	private final int burst;
+	
+	private final AtomicLong arrival;
+	
+	private final AtomicLong granted = new AtomicLong();
+	private final AtomicLong delayed = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	
+	
+	/**
+	 * <p>Retrieves the {@link RateLimiter} which is shared by all requests on the given endpoint using
+	 * its type-level @{@link RateLimit}.</p>
+	 * 
+	 * @param endpoint
+	 * 			the {@link Class} of the endpoint definition whose limiter is retrieved
+	 * <br><br>
+	 * @return the {@link RateLimiter} of the endpoint; else {@code null} if it has no type-level limit
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static RateLimiter of(Class<?> endpoint) {
+		
+		return lookup(endpoint, endpoint.getAnnotation(RateLimit.class));
+	}
+	
+	/**
+	 * <p>Retrieves the {@link RateLimiter} which is owned by the given request using its method-level
+	 * @{@link RateLimit}.</p>
+	 * 
+	 * @param request
+	 * 			the {@link Method} of the request definition whose limiter is retrieved
+	 * <br><br>
+	 * @return the {@link RateLimiter} of the request; else {@code null} if it has no method-level limit
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static RateLimiter of(Method request) {
+		
+		return lookup(request, request.getAnnotation(RateLimit.class));
+	}
+	
+	static RateLimiter of(InvocationContext context) {
+		
+		RateLimit rateLimit = context.getPlan().getRateLimit();
+		
+		if(rateLimit == null) {
+			
+			return null;
+		}
+		
+		return context.getRequest().getAnnotation(RateLimit.class) == rateLimit?
+			of(context.getRequest()) :of(context.getEndpoint());
+	}
+	
+	private static RateLimiter lookup(Object owner, RateLimit rateLimit) {
+		
+		if(rateLimit == null) {
+			
+			return null;
+		}
+		
+		RateLimiter limiter = LIMITERS.get(owner);
+		
+		if(limiter == null) {
+			
+			RateLimiter created = new RateLimiter(rateLimit);
+			limiter = LIMITERS.putIfAbsent(owner, created);
+			limiter = limiter == null? created :limiter;
+		}
+		
+		return limiter;
+	}
+	
+	private RateLimiter(RateLimit rateLimit) {
+		
+		this.period = TimeUnit.MILLISECONDS.toNanos(Math.max(1, rateLimit.period()));
+		this.interval = Math.max(1, period / Math.max(1, rateLimit.permits()));
+		this.burst = rateLimit.burst() > 0? rateLimit.burst() :Math.max(1, rateLimit.permits());
+		this.tolerance = (burst - 1) * interval;
+		this.timeout = TimeUnit.MILLISECONDS.toNanos(Math.max(0, rateLimit.timeout()));
+		this.arrival = new AtomicLong(System.nanoTime());
+	}
+	
+	/**
+	 * <p>Takes a permit, waiting for one to become available if the timeout permits. The permit is reserved
+	 * before the wait and returned if the wait is interrupted.</p>
+	 * 
+	 * @return {@code true} if a permit was taken; {@code false} if none is available within the timeout
+	 * <br><br>
+	 * @throws InterruptedException
+	 * 			if the thread was interrupted while waiting for a permit
+	 */
+	boolean acquire() throws InterruptedException {
+		
+		while(true) {
+			
+			long current = arrival.get(), now = System.nanoTime();
+			long next = Math.max(current, now);
+			long wait = next - tolerance - now;
+			
+			if(wait > timeout) {
+				
+				rejected.incrementAndGet();
+				return false;
+			}
+			
+			if(arrival.compareAndSet(current, next + interval)) {
+				
+				if(wait > 0) {
+					
+					delayed.incrementAndGet();
+					
+					try {
+						
+						TimeUnit.NANOSECONDS.sleep(wait);
+					}
+					catch(InterruptedException ie) {
+						
+						arrival.addAndGet(-interval); //returns the reserved permit
+						throw ie;
+					}
+				}
+				
+				granted.incrementAndGet();
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * <p>Takes a permit only if one is available at once. This is used for optional attempts, such as
+	 * hedges, which are skipped rather than delayed.</p>
+	 * 
+	 * @return {@code true} if a permit was taken; {@code false} if none is available right now
+	 */
+	boolean tryAcquire() {
+		
+		while(true) {
+			
+			long current = arrival.get(), now = System.nanoTime();
+			long next = Math.max(current, now);
+			
+			if(next - tolerance - now > 0) {
+				
+				return false;
+			}
+			
+			if(arrival.compareAndSet(current, next + interval)) {
+				
+				granted.incrementAndGet();
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * <p>Adapts the bucket to the quota reported by the given response of the upstream.</p>
+	 * 
+	 * @param response
+	 * 			the {@link HttpResponse} which was received for a limited request
+	 */
+	void adapt(HttpResponse response) {
+		
+		long now = System.nanoTime();
+		int status = response.getStatusLine().getStatusCode();
+		
+		if(status == 429 || status == 503) {
+			
+			long retryAfter = RetryPolicy.retryAfter(response);
+			
+			if(retryAfter > 0 || status == 429) {
+				
+				withhold(now + (retryAfter > 0? TimeUnit.MILLISECONDS.toNanos(retryAfter) :period));
+			}
+		}
+		
+		long remaining = header(response, "X-RateLimit-Remaining");
+		
+		if(remaining == 0) {
+			
+			long reset = header(response, "X-RateLimit-Reset");
+			long resetMillis = reset <= 0? 0 :reset > 1000000000L?
+				reset * 1000 - System.currentTimeMillis() :reset * 1000; //epoch seconds or delta seconds
+			
+			withhold(now + (resetMillis > 0? TimeUnit.MILLISECONDS.toNanos(resetMillis) :period));
+		}
+		else if(remaining > 0 && remaining < burst) {
+			
+			advance(now + tolerance - (remaining - 1) * interval);
+		}
+	}
+	
+	private void withhold(long until) {
+		
+		advance(until + tolerance);
+	}
+	
+	private void advance(long target) {
+		
+		for (long current = arrival.get(); current < target; current = arrival.get()) {
+			
+			if(arrival.compareAndSet(current, target)) {
+				
+				return;
+			}
+		}
+	}
+	
+	private static long header(HttpResponse response, String name) {
+		
+		Header header = response.getFirstHeader(name);
+		
+		try {
+			
+			return header == null? -1 :Long.parseLong(header.getValue().trim());
+		}
+		catch(NumberFormatException nfe) {
+			
+			return -1;
+		}
+	}
+	
+	/**
+	 * <p>Retrieves the number of permits which can be taken right away.</p>
+	 * 
+	 * @return the number of available permits, between {@code 0} and the burst
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public int getAvailablePermits() {
+		
+		long available = System.nanoTime() + tolerance - arrival.get();
+		
+		return available < 0? 0 :(int)Math.min(burst, available / interval + 1);
+	}
+	
+	/**
+	 * <p>Retrieves the number of permits which were taken.</p>
+	 * 
+	 * @return the number of requests which were let through
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getGrantedCount() {
+		
+		return granted.get();
+	}
+	
+	/**
+	 * <p>Retrieves the number of permits which were taken after waiting for them.</p>
+	 * 
+	 * @return the number of requests which were delayed
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getDelayedCount() {
+		
+		return delayed.get();
+	}
+	
+	/**
+	 * <p>Retrieves the number of requests which failed fast because no permit was available in time.</p>
+	 * 
+	 * @return the number of rejected requests
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getRejectedCount() {
+		
+		return rejected.get();
+	}
+}
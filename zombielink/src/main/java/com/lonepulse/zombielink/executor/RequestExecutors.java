@@ -22,17 +22,24 @@ package com.lonepulse.zombielink.executor;
 
 import static com.lonepulse.zombielink.util.Is.async;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpRequestBase;
 
 import com.lonepulse.zombielink.annotation.Async;
+import com.lonepulse.zombielink.annotation.RateLimit;
+import com.lonepulse.zombielink.annotation.Warm;
 import com.lonepulse.zombielink.proxy.InvocationContext;
+import com.lonepulse.zombielink.proxy.InvocationException;
 import com.lonepulse.zombielink.proxy.Zombie;
 
 /**
  * <p>Exposes all available {@link RequestExecutor}s and delegates communication.</p>
  * 
- * @version 1.2.0
+ * @version 1.9.0
  * <br><br>
  * @since 1.1.0
  * <br><br>
@@ -77,6 +84,10 @@ public enum RequestExecutors implements RequestExecutor {
 	/**
 	 * <p>Discovers a suitable {@link RequestExecutor} for an {@link InvocationContext}.</p>
 	 * 
+	 * <p>Requests which return a {@link Future} are always resolved to {@link RequestExecutors#BASIC}, 
+	 * since the entire invocation is already moved off the invoking thread. See {@link #submit(InvocationContext, 
+	 * Callable)}.</p>
+	 * 
 	 * @param context
 	 * 			the {@link InvocationContext} for resolving a suitable {@link RequestExecutor}
 	 * <br><br>
@@ -91,6 +102,137 @@ public enum RequestExecutors implements RequestExecutor {
 				RequestExecutors.ASYNC.requestExecutor :RequestExecutors.BASIC.requestExecutor;
 	}
 	
+	/**
+	 * <p>Takes a permit for the given request from the {@link RateLimiter} of its @{@link RateLimit}, if 
+	 * any, before it is dispatched. The request waits for a permit up to the timeout of its limit. This
+	 * permit covers the first attempt of the request; every retry takes a permit of its own.</p>
+	 * 
+	 * @param context
+	 * 			the {@link InvocationContext} of the request which is about to be dispatched
+	 * <br><br>
+	 * @throws RateLimitExceededException
+	 * 			if no permit became available within the timeout of the request's limit
+	 * <br><br>
+	 * @throws InvocationException
+	 * 			if the thread was interrupted while waiting for a permit
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static final void throttle(InvocationContext context) {
+		
+		RateLimiter limiter = RateLimiter.of(context);
+		
+		if(limiter == null) {
+			
+			return;
+		}
+		
+		try {
+			
+			if(!limiter.acquire()) {
+				
+				throw new RateLimitExceededException(context, limiter);
+			}
+		}
+		catch(InterruptedException ie) {
+			
+			Thread.currentThread().interrupt();
+			throw InvocationException.newInstance(context, ie);
+		}
+	}
+	
+	/**
+	 * <p>Schedules the given invocation of a request which returns a {@link Future} on the executor which 
+	 * is configured for its endpoint (see {@link Zombie.Configuration#asyncExecutor()}) and returns the 
+	 * future which is handed out to the invoker.</p>
+	 * 
+	 * <p>The future completes with the deserialized response content. If the request failed or responded 
+	 * with an unsuccessful status code, the future fails with the same exception which would have been 
+	 * thrown by a synchronous request.</p>
+	 * 
+	 * <p>The invocation is handed off without ever running on the invoking thread, irrespective of the
+	 * rejection policy of the executor (see {@link Handoff}). If the executor is saturated or shut down, the
+	 * future fails with a {@link RequestExecutionException}.</p>
+	 * 
+	 * @param context
+	 * 			the {@link InvocationContext} of the request whose invocation is to be scheduled
+	 * <br><br>
+	 * @param invocation
+	 * 			the {@link Callable} which performs the invocation synchronously and yields its result
+	 * <br><br>
+	 * @return a {@link Future} which is assignable to the return type of the request
+	 * <br><br>
+	 * @throws RequestExecutionException
+	 * 			if the return type of the request is a kind of {@link Future} which cannot be supplied
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static final Object submit(InvocationContext context, Callable<Object> invocation) {
+		
+		InvocationFuture future = new InvocationFuture(context, invocation);
+		
+		try {
+			
+			Handoff.execute(AsyncExecutorDirectory.INSTANCE.lookup(context.getEndpoint()), future);
+		}
+		catch(RejectedExecutionException ree) {
+			
+			future.fail(new RequestExecutionException(context.getRequest(), context.getEndpoint(), ree));
+		}
+		
+		return future.getFuture();
+	}
+	
+	/**
+	 * <p>Runs the given task in the background on the executor which is configured for the endpoint of the 
+	 * given request (see {@link Zombie.Configuration#asyncExecutor()}).</p>
+	 * 
+	 * <p>The task is handed off without ever running on the current thread and without waiting for room in
+	 * the executor, irrespective of its rejection policy, so this is safe to call from timer threads and from
+	 * invocations which must return at once.</p>
+	 * 
+	 * @param context
+	 * 			the {@link InvocationContext} of a request on the endpoint whose executor runs the task
+	 * <br><br>
+	 * @param task
+	 * 			the {@link Runnable} to be executed in the background
+	 * <br><br>
+	 * @throws RequestExecutionException
+	 * 			if the executor is saturated or shut down
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static final void schedule(InvocationContext context, Runnable task) {
+		
+		try {
+			
+			Handoff.execute(AsyncExecutorDirectory.INSTANCE.lookup(context.getEndpoint()), task);
+		}
+		catch(RejectedExecutionException ree) {
+			
+			throw new RequestExecutionException(context.getRequest(), context.getEndpoint(), ree);
+		}
+	}
+	
+	/**
+	 * <p>Opens connections to the host of the given endpoint in the background and pools them for reuse
+	 * by its requests, as declared by its @{@link Warm} annotation or the defaults thereof. If a warm-up
+	 * of the endpoint is already in progress, its outcome is shared.</p>
+	 * 
+	 * @param endpoint
+	 * 			the {@link Class} of the endpoint definition whose connections are warmed up; its configuration
+	 * 			must have been registered beforehand
+	 * <br><br>
+	 * @return a {@link Future} which yields the number of open connections that were pooled within the
+	 * 		   timeout; it never fails, since warm-up failures are only logged
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static final Future<Integer> warmUp(Class<?> endpoint) {
+		
+		return ConnectionWarmer.warm(endpoint);
+	}
+	
 	/**
 	 * <p>Manages the services related to {@link Zombie.Configuration}s which govern all configurable 
 	 * aspects of request execution.</p>
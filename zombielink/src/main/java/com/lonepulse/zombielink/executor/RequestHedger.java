@@ -0,0 +1,448 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+
+import com.lonepulse.zombielink.annotation.Hedge;
+import com.lonepulse.zombielink.proxy.InvocationContext;
+
+/**
+ * <p>Sends a @{@link Hedge}d request using another {@link ResponseCache.Exchange} and sends a copy of it in
+ * parallel if the first attempt has not completed within the hedge delay. The response of the attempt which
+ * completes first is served and the other attempt is aborted using {@link HttpRequestBase#abort()}. An
+ * attempt which fails with an error leaves the other attempt, if any, to decide the outcome.</p>
+ * 
+ * <p>The latencies of the recent attempts of each request are sampled to determine the delay for a given
+ * percentile. The hedges of each request are drawn from a {@link Budget} which is topped up by each
+ * invocation, which caps the hedges at the policy's {@link Hedge#rate()}. Hedges are scheduled using a
+ * single daemon timer and are handed off to the endpoint's asynchronous executor (see {@link Handoff}). A
+ * hedge which is rejected by a saturated executor is skipped and its token is returned to the budget.</p>
+ * 
+ * <p>If the request has a @{@link com.lonepulse.zombielink.annotation.RateLimit}, a hedge is only sent if
+ * a permit is available at once, since a delayed hedge is of little use.</p>
+ * 
+ * @version 1.2.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class RequestHedger implements ResponseCache.Exchange {
+	
+	
+	/**
+	 * <p>A sliding window of the most recent latencies of a request.</p>
+	 */
+	private static final class Latencies {
+		
+		
+		private static final int MIN_SAMPLES = 20;
+		
+		private final long[] samples = new long[256];
+		private int count;
+		private int next;
+		
+		
+		private synchronized void record(long latency) {
+			
+			samples[next] = latency;
+			next = (next + 1) % samples.length;
+			count = Math.min(count + 1, samples.length);
+		}
+		
+		private synchronized long percentile(double percentile) {
+			
+			if(count < MIN_SAMPLES) {
+				
+				return -1;
+			}
+			
+			long[] sorted = Arrays.copyOf(samples, count);
+			Arrays.sort(sorted);
+			
+			int index = (int)Math.ceil(percentile / 100 * count) - 1;
+			
+			return sorted[Math.max(0, Math.min(count - 1, index))];
+		}
+	}
+	
+	/**
+	 * <p>The attempts of a single invocation, the first of which to complete decides the outcome.</p>
+	 */
+	private final class Race {
+		
+		
+		private final HttpRequestBase primary;
+		private final List<HttpRequestBase> attempts = new ArrayList<HttpRequestBase>(2);
+		private int pending;
+		
+		private boolean decided;
+		private HttpResponse response;
+		private Exception failure;
+		
+		
+		private Race(HttpRequestBase primary) {
+			
+			this.primary = primary;
+			this.attempts.add(primary);
+			this.pending = 1;
+		}
+		
+		private synchronized boolean enter(HttpRequestBase attempt) {
+			
+			if(decided) {
+				
+				return false;
+			}
+			
+			attempts.add(attempt);
+			pending++;
+			
+			return true;
+		}
+		
+		private synchronized boolean isDecided() {
+			
+			return decided;
+		}
+		
+		private void complete(HttpRequestBase attempt, HttpResponse response) {
+			
+			List<HttpRequestBase> losers = null;
+			
+			synchronized (this) {
+				
+				pending--;
+				
+				if(decided) {
+					
+					losers = Collections.singletonList(attempt); //releases the connection of the late response
+				}
+				else {
+					
+					decided = true;
+					this.response = response;
+					
+					if(attempt != primary) {
+						
+						metrics.recordWin();
+					}
+					
+					losers = new ArrayList<HttpRequestBase>(attempts);
+					losers.remove(attempt);
+					
+					notifyAll();
+				}
+			}
+			
+			for (HttpRequestBase loser : losers) {
+				
+				loser.abort();
+			}
+		}
+		
+		private synchronized void fail(HttpRequestBase attempt, Exception error) {
+			
+			failure = failure == null || attempt == primary? error :failure;
+			leave(attempt);
+		}
+		
+		private synchronized void leave(HttpRequestBase attempt) {
+			
+			pending--;
+			
+			if(attempt != primary) {
+				
+				attempts.remove(attempt);
+			}
+			
+			if(!decided && pending == 0) {
+				
+				decided = true;
+				notifyAll();
+			}
+		}
+		
+		private HttpResponse await() throws IOException {
+			
+			synchronized (this) {
+				
+				try {
+					
+					while(!decided) {
+						
+						wait();
+					}
+				}
+				catch(InterruptedException ie) {
+					
+					for (HttpRequestBase attempt : attempts) {
+						
+						attempt.abort();
+					}
+					
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while awaiting a hedged request. ");
+				}
+			}
+			
+			if(response != null) {
+				
+				return response;
+			}
+			
+			if(failure instanceof IOException) {
+				
+				throw (IOException)failure;
+			}
+			
+			throw (RuntimeException)failure;
+		}
+	}
+	
+	
+	private static final int RESERVE = 1;
+	
+	private static final ConcurrentMap<Method, Latencies> LATENCIES = new ConcurrentHashMap<Method, Latencies>();
+	private static final ConcurrentMap<Method, Budget> BUDGETS = new ConcurrentHashMap<Method, Budget>();
+	
+	private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+		
+		@Override
+		public Thread newThread(Runnable runnable) {
+			
+			Thread timer = new Thread(runnable, "zombielink-hedge-timer");
+			timer.setDaemon(true);
+			
+			return timer;
+		}
+	});
+	
+	
+	private final Hedge hedge;
+	private final ResponseCache.Exchange exchange;
+	private final Executor executor;
+	
+	private final Latencies latencies;
+	private final Budget budget;
+	private final HedgeMetrics metrics;
+	private final RateLimiter limiter;
+	
+	
+	/**
+	 * <p>Creates a new {@link RequestHedger} which applies the @{@link Hedge} policy of the given request.</p>
+	 * 
+	 * @param context
+	 * 			the {@link InvocationContext} of a request which has a @{@link Hedge} policy
+	 * <br><br>
+	 * @param exchange
+	 * 			the {@link ResponseCache.Exchange} which sends each attempt
+	 * <br><br>
+	 * @param executor
+	 * 			the {@link Executor} which sends the hedges
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	RequestHedger(InvocationContext context, ResponseCache.Exchange exchange, Executor executor) {
+		
+		Method request = context.getRequest();
+		
+		this.hedge = context.getPlan().getHedge();
+		this.exchange = exchange;
+		this.executor = executor;
+		
+		Latencies latencies = LATENCIES.get(request);
+		
+		if(latencies == null) {
+			
+			Latencies created = new Latencies();
+			latencies = LATENCIES.putIfAbsent(request, created);
+			latencies = latencies == null? created :latencies;
+		}
+		
+		Budget budget = BUDGETS.get(request);
+		
+		if(budget == null) {
+			
+			Budget created = new Budget(RESERVE);
+			budget = BUDGETS.putIfAbsent(request, created);
+			budget = budget == null? created :budget;
+		}
+		
+		this.latencies = latencies;
+		this.budget = budget;
+		this.metrics = HedgeMetrics.of(context.getEndpoint());
+		this.limiter = RateLimiter.of(context);
+	}
+	
+	@Override
+	public HttpResponse execute(final HttpRequestBase request) throws IOException {
+		
+		metrics.recordInvocation();
+		budget.deposit(hedge.rate());
+		
+		long delay = hedge.delay() > 0? hedge.delay() :latencies.percentile(hedge.percentile());
+		
+		if(delay < 0 || !isRepeatable(request)) {
+			
+			return attempt(request);
+		}
+		
+		final Race race = new Race(request);
+		
+		ScheduledFuture<?> trigger = TIMER.schedule(new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				hedge(request, race);
+			}
+		}, delay, TimeUnit.MILLISECONDS);
+		
+		try {
+			
+			race.complete(request, attempt(request));
+		}
+		catch(IOException ioe) {
+			
+			race.fail(request, ioe);
+		}
+		catch(RuntimeException re) {
+			
+			race.fail(request, re);
+		}
+		finally {
+			
+			trigger.cancel(false);
+		}
+		
+		return race.await();
+	}
+	
+	@Override
+	public HttpRequestBase rebuild(HttpRequestBase request) {
+		
+		return exchange.rebuild(request);
+	}
+	
+	private void hedge(HttpRequestBase request, final Race race) {
+		
+		if(race.isDecided() || !budget.withdraw()) {
+			
+			return;
+		}
+		
+		if(limiter != null && !limiter.tryAcquire()) {
+			
+			budget.refund();
+			return;
+		}
+		
+		final HttpRequestBase copy;
+		
+		try {
+			
+			copy = (HttpRequestBase)request.clone();
+		}
+		catch(CloneNotSupportedException cnse) {
+			
+			return; //unreachable, since all requests are cloneable
+		}
+		
+		if(!race.enter(copy)) {
+			
+			budget.refund();
+			return;
+		}
+		
+		try {
+			
+			Handoff.execute(executor, new Runnable() {
+				
+				@Override
+				public void run() {
+					
+					metrics.recordHedge();
+					
+					try {
+						
+						race.complete(copy, attempt(copy));
+					}
+					catch(IOException ioe) {
+						
+						race.fail(copy, ioe);
+					}
+					catch(RuntimeException re) {
+						
+						race.fail(copy, re);
+					}
+				}
+			});
+		}
+		catch(RejectedExecutionException ree) {
+			
+			race.leave(copy); //the hedge is optional, so the first attempt is left to decide the outcome
+			budget.refund();
+		}
+	}
+	
+	private HttpResponse attempt(HttpRequestBase request) throws IOException {
+		
+		long start = System.currentTimeMillis();
+		HttpResponse response = exchange.execute(request);
+		
+		latencies.record(System.currentTimeMillis() - start);
+		
+		return response;
+	}
+	
+	private static boolean isRepeatable(HttpRequestBase request) {
+		
+		if(request instanceof HttpEntityEnclosingRequest) {
+			
+			HttpEntity entity = ((HttpEntityEnclosingRequest)request).getEntity();
+			return entity == null || entity.isRepeatable();
+		}
+		
+		return true;
+	}
+}
@@ -0,0 +1,876 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.lonepulse.zombielink.util.Assert.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.util.EntityUtils;
+
+import com.lonepulse.zombielink.annotation.Config;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>A <b>bounded in-memory</b> cache of responses which honours the HTTP caching semantics of <a href=
+ * "https://tools.ietf.org/html/rfc7234">RFC 7234</a> for a <i>private</i> cache. Responses to @{@link GET}
+ * requests are stored if they carry explicit freshness information (<i>Cache-Control: max-age</i> or
+ * <i>Expires</i>) or a validator (<i>ETag</i> or <i>Last-Modified</i>), and fresh responses are served
+ * without contacting the server.</p>
+ * 
+ * <p>Once a stored response becomes stale, the request is sent with <i>If-None-Match</i> and/or
+ * <i>If-Modified-Since</i> and a <i>304 Not Modified</i> reply is answered with the stored content.
+ * Requests which carry <i>no-cache</i> are always revalidated and those which carry <i>no-store</i> bypass
+ * the cache. A successful unsafe request (e.g. POST) on a URI invalidates the response stored for it.</p>
+ * 
+ * <p>The cache is bounded by the total size of the stored content and evicts the <i>least recently
+ * used</i> responses once its capacity is exceeded. Instances are created using a {@link ResponseCache.Builder}
+ * supplied via {@link #newBuilder()} and can be assigned to endpoints by overriding
+ * {@link Zombie.Configuration#responseCache()} on a configuration which is attached using @{@link Config}.</p>
+ * 
+ * <p>A <b>disk-backed</b> second tier can be enabled using {@link Builder#setDiskStore(File, long)}. Every
+ * stored response is then also written to memory-mapped segment files, including responses which are too
+ * large for the in-memory tier. Responses on disk are served directly from the mapped files and survive
+ * restarts of the process.</p>
+ * 
+ * <p>Stale responses may be served <b>while they're revalidated</b> in the background, as described by <a
+ * href="https://tools.ietf.org/html/rfc5861">RFC 5861</a>. This applies to responses which carry the
+ * <i>stale-while-revalidate</i> directive, or to all responses once a window has been set using
+ * {@link Builder#setStaleWhileRevalidate(long, TimeUnit)}. Only a single refresh is in flight for each
+ * stored response and the outcome of refreshes is reported via {@link #getRefreshCount()},
+ * {@link #getRefreshFailureCount()} and {@link #getAverageRefreshLatency(TimeUnit)}.</p>
+ * 
+ * @version 1.3.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public final class ResponseCache {
+	
+	
+	/**
+	 * <p>This contract defines the services for creating a {@link ResponseCache}.</p>
+	 * 
+	 * @version 1.0.0
+	 * <br><br>
+	 * @since 1.3.4
+	 * <br><br>
+	 * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static interface Builder {
+		
+		/**
+		 * <p>Sets the maximum total size of the content held by the cache. Defaults to <b>16 MiB</b>.</p>
+		 * 
+		 * @param capacity
+		 * 			the capacity in bytes; must be greater than zero
+		 * <br><br>
+		 * @return the current instance of the {@link Builder} with the capacity assigned
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		Builder setCapacity(long capacity);
+		
+		/**
+		 * <p>Sets the maximum size of the content of a single response which may be stored. Larger
+		 * responses are passed through without being cached. Defaults to <b>1 MiB</b>.</p>
+		 * 
+		 * @param maxEntrySize
+		 * 			the maximum size of a response's content in bytes; must be greater than zero
+		 * <br><br>
+		 * @return the current instance of the {@link Builder} with the maximum entry size assigned
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		Builder setMaxEntrySize(int maxEntrySize);
+		
+		/**
+		 * <p>Enables a second tier which stores responses in memory-mapped segment files within the given
+		 * directory, where they survive restarts of the process. A single response may occupy at most a
+		 * quarter of the disk capacity. The directory should be dedicated to a single cache. Disabled by
+		 * default.</p>
+		 * 
+		 * @param directory
+		 * 			the directory for the segment files and their index; created if it does not exist
+		 * <br><br>
+		 * @param capacity
+		 * 			the maximum total size of the segment files in bytes; must be greater than zero
+		 * <br><br>
+		 * @return the current instance of the {@link Builder} with the disk store assigned
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		Builder setDiskStore(File directory, long capacity);
+		
+		/**
+		 * <p>Sets the window within which a stale response may be served while a refresh is performed in
+		 * the background. This applies to responses without their own <i>stale-while-revalidate</i>
+		 * directive, excluding those which carry <i>must-revalidate</i> or <i>no-cache</i>. Defaults to
+		 * <b>zero</b>, i.e. only responses with the directive are served stale.</p>
+		 * 
+		 * @param window
+		 * 			the duration for which a response may be served after it becomes stale; must not be negative
+		 * <br><br>
+		 * @param unit
+		 * 			the {@link TimeUnit} of the given window
+		 * <br><br>
+		 * @return the current instance of the {@link Builder} with the window assigned
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		Builder setStaleWhileRevalidate(long window, TimeUnit unit);
+		
+		/**
+		 * <p>Creates a new {@link ResponseCache} using the assigned properties.</p>
+		 * 
+		 * @return a new instance of {@link ResponseCache}
+		 * <br><br>
+		 * @throws IllegalArgumentException
+		 * 			if the assigned capacity, maximum entry size, disk capacity or window is illegal
+		 * <br><br>
+		 * @throws IllegalStateException
+		 * 			if the disk store could not be opened
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		ResponseCache build();
+	}
+	
+	private static final class ResponseCacheBuilder implements Builder {
+		
+		
+		private long capacity = 16 * 1024 * 1024;
+		private int maxEntrySize = 1024 * 1024;
+		
+		private File diskDirectory;
+		private long diskCapacity;
+		
+		private long staleWindow;
+		
+		
+		@Override
+		public Builder setCapacity(long capacity) {
+			
+			this.capacity = capacity;
+			return this;
+		}
+		
+		@Override
+		public Builder setMaxEntrySize(int maxEntrySize) {
+			
+			this.maxEntrySize = maxEntrySize;
+			return this;
+		}
+		
+		@Override
+		public Builder setDiskStore(File directory, long capacity) {
+			
+			this.diskDirectory = assertNotNull(directory);
+			this.diskCapacity = capacity;
+			return this;
+		}
+		
+		@Override
+		public Builder setStaleWhileRevalidate(long window, TimeUnit unit) {
+			
+			this.staleWindow = assertNotNull(unit).toMillis(window);
+			return this;
+		}
+		
+		@Override
+		public ResponseCache build() {
+			
+			if(capacity < 1 || maxEntrySize < 1 || (diskDirectory != null && diskCapacity < 1)) {
+				
+				throw new IllegalArgumentException("The capacities and maximum entry size must be greater than zero. ");
+			}
+			
+			if(staleWindow < 0) {
+				
+				throw new IllegalArgumentException("The stale-while-revalidate window must not be negative. ");
+			}
+			
+			try {
+				
+				return new ResponseCache(this, diskDirectory == null? null :DiskStore.open(diskDirectory, diskCapacity));
+			}
+			catch(IOException ioe) {
+				
+				throw new IllegalStateException("Failed to open the disk store in " + diskDirectory, ioe);
+			}
+		}
+	}
+	
+	/**
+	 * <p>Sends a request over the network on behalf of the {@link ResponseCache} and builds the requests
+	 * which refresh stale responses in the background.</p>
+	 * 
+	 * @version 1.1.0
+	 * <br><br>
+	 * @since 1.3.4
+	 * <br><br>
+	 * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+	 */
+	static interface Exchange {
+		
+		HttpResponse execute(HttpRequestBase request) throws IOException;
+		
+		HttpRequestBase rebuild(HttpRequestBase request);
+	}
+	
+	/**
+	 * <p>Passes through the content of a response which is too large for the in-memory tier, while staging
+	 * it for the disk store. The response is stored once its consumer has read the content in full.</p>
+	 */
+	private static final class StagingEntity extends HttpEntityWrapper {
+		
+		
+		private final InputStream content;
+		
+		
+		private StagingEntity(HttpEntity entity, InputStream content, final DiskStore.Writer writer) {
+			
+			super(entity);
+			
+			this.content = new FilterInputStream(content) {
+				
+				@Override
+				public int read() throws IOException {
+					
+					byte[] single = new byte[1];
+					return read(single, 0, 1) == -1? -1 :single[0] & 0xFF;
+				}
+				
+				@Override
+				public int read(byte[] bytes, int offset, int length) throws IOException {
+					
+					int read = super.read(bytes, offset, length);
+					
+					if(read == -1) {
+						
+						writer.commit();
+					}
+					else {
+						
+						writer.write(bytes, offset, read);
+					}
+					
+					return read;
+				}
+				
+				@Override
+				public long skip(long count) throws IOException {
+					
+					writer.abort(); //skipped content cannot be staged
+					return super.skip(count);
+				}
+				
+				@Override
+				public void close() throws IOException {
+					
+					writer.abort(); //no effect if the content was read in full
+					super.close();
+				}
+			};
+		}
+		
+		@Override
+		public InputStream getContent() {
+			
+			return content;
+		}
+		
+		@Override
+		public void writeTo(OutputStream outstream) throws IOException {
+			
+			byte[] chunk = new byte[4096];
+			
+			try {
+				
+				for (int read = content.read(chunk); read != -1; read = content.read(chunk)) {
+					
+					outstream.write(chunk, 0, read);
+				}
+			}
+			finally {
+				
+				content.close();
+			}
+		}
+		
+		@Override
+		public boolean isRepeatable() {
+			
+			return false;
+		}
+		
+		@Override
+		public boolean isStreaming() {
+			
+			return true;
+		}
+	}
+	
+	
+	private static final Logger LOGGER = Logger.getLogger(ResponseCache.class.getName());
+	
+	private final long capacity;
+	private final int maxEntrySize;
+	
+	private final DiskStore diskStore;
+	
+	private final long staleWindow;
+	
+	private final Map<String, CachedResponse> entries = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true);
+	private long size;
+	
+	private final ConcurrentMap<String, Boolean> refreshing = new ConcurrentHashMap<String, Boolean>();
+	
+	private final AtomicLong refreshes = new AtomicLong();
+	private final AtomicLong refreshFailures = new AtomicLong();
+	private final AtomicLong refreshLatency = new AtomicLong();
+	private final AtomicLong maxRefreshLatency = new AtomicLong();
+	
+	
+	/**
+	 * <p>Returns a new {@link ResponseCache.Builder} for creating a {@link ResponseCache}.</p>
+	 * 
+	 * @return a new {@link ResponseCache.Builder}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static Builder newBuilder() {
+		
+		return new ResponseCacheBuilder();
+	}
+	
+	private ResponseCache(ResponseCacheBuilder builder, DiskStore diskStore) {
+		
+		this.capacity = builder.capacity;
+		this.maxEntrySize = builder.maxEntrySize;
+		this.diskStore = diskStore;
+		this.staleWindow = builder.staleWindow;
+	}
+	
+	/**
+	 * <p>Serves the given request from the cache if possible; else sends it using the given {@link Exchange}
+	 * (conditionally if a stale response can be revalidated) and stores the response if it's cacheable.
+	 * Stale responses are never served, since there's no {@link Executor} to refresh them.</p>
+	 * 
+	 * <p>See {@link #execute(HttpRequestBase, Exchange, Executor)}.</p>
+	 * 
+	 * @param request
+	 * 			the {@link HttpRequestBase} to be served
+	 * <br><br>
+	 * @param exchange
+	 * 			the {@link Exchange} which sends requests over the network
+	 * <br><br>
+	 * @return the {@link HttpResponse} which was served from the cache or received from the server
+	 * <br><br>
+	 * @throws IOException
+	 * 			if the request failed to be sent or its response could not be read
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	HttpResponse execute(HttpRequestBase request, Exchange exchange) throws IOException {
+		
+		return execute(request, exchange, null);
+	}
+	
+	/**
+	 * <p>Serves the given request from the cache if possible; else sends it using the given {@link Exchange}
+	 * (conditionally if a stale response can be revalidated) and stores the response if it's cacheable.</p>
+	 * 
+	 * <p>A stale response which is within its <i>stale-while-revalidate</i> window is served immediately,
+	 * while a request which is rebuilt by the {@link Exchange} refreshes it on the given {@link Executor}. The
+	 * refresh is handed off without ever running on the current thread (see {@link Handoff}); if the executor
+	 * is saturated, it is counted as a failed refresh.</p>
+	 * 
+	 * @param request
+	 * 			the {@link HttpRequestBase} to be served
+	 * <br><br>
+	 * @param exchange
+	 * 			the {@link Exchange} which sends requests over the network
+	 * <br><br>
+	 * @param executor
+	 * 			the {@link Executor} which runs background refreshes; may be {@code null}, in which case
+	 * 			stale responses are always revalidated before they're served
+	 * <br><br>
+	 * @return the {@link HttpResponse} which was served from the cache or received from the server
+	 * <br><br>
+	 * @throws IOException
+	 * 			if the request failed to be sent or its response could not be read
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	HttpResponse execute(HttpRequestBase request, Exchange exchange, Executor executor) throws IOException {
+		
+		String key = request.getURI().toString();
+		String method = request.getMethod();
+		
+		if(!"GET".equalsIgnoreCase(method)) {
+			
+			HttpResponse response = exchange.execute(request);
+			
+			if(isUnsafe(method) && response.getStatusLine().getStatusCode() < 400) {
+				
+				remove(key);
+			}
+			
+			return response;
+		}
+		
+		if(CachedResponse.isNoStore(request)) {
+			
+			return exchange.execute(request);
+		}
+		
+		CachedResponse cached = lookup(key, request);
+		long now = System.currentTimeMillis();
+		
+		if(cached != null && !CachedResponse.isNoCache(request)) {
+			
+			if(cached.isFresh(now)) {
+				
+				return cached.toResponse(now);
+			}
+			
+			if(executor != null && cached.isServableStale(now, staleWindow)) {
+				
+				refresh(key, request, cached, exchange, executor);
+				return cached.toResponse(now);
+			}
+		}
+		
+		return revalidate(key, request, cached, exchange);
+	}
+	
+	private HttpResponse revalidate(String key, HttpRequestBase request, CachedResponse cached, Exchange exchange)
+	throws IOException {
+		
+		boolean revalidating = cached != null && cached.isRevalidatable() && cached.conditionalize(request);
+		
+		long requestTime = System.currentTimeMillis();
+		HttpResponse response = exchange.execute(request);
+		long responseTime = System.currentTimeMillis();
+		
+		if(revalidating && response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+			
+			EntityUtils.consume(response.getEntity());
+			
+			CachedResponse refreshed = cached.refresh(response, requestTime, responseTime);
+			put(key, refreshed);
+			
+			return refreshed.toResponse(responseTime);
+		}
+		
+		return store(key, request, response, requestTime, responseTime);
+	}
+	
+	private void refresh(final String key, final HttpRequestBase request, final CachedResponse cached,
+		final Exchange exchange, Executor executor) {
+		
+		if(refreshing.putIfAbsent(key, Boolean.TRUE) != null) {
+			
+			return; //a refresh is already in flight
+		}
+		
+		try {
+			
+			Handoff.execute(executor, new Runnable() {
+				
+				@Override
+				public void run() {
+					
+					long start = System.nanoTime();
+					boolean failed = true;
+					
+					try {
+						
+						HttpResponse response = revalidate(key, exchange.rebuild(request), cached, exchange);
+						drain(response.getEntity());
+						
+						failed = response.getStatusLine().getStatusCode() >= 500;
+					}
+					catch(Exception e) {
+						
+						LOGGER.log(Level.WARNING, "Failed to refresh a stale response in the background.", e);
+					}
+					finally {
+						
+						refreshing.remove(key);
+						record(System.nanoTime() - start, failed);
+					}
+				}
+			});
+		}
+		catch(RejectedExecutionException ree) {
+			
+			refreshing.remove(key);
+			refreshFailures.incrementAndGet();
+		}
+	}
+	
+	private static void drain(HttpEntity entity) throws IOException {
+		
+		if(entity == null) {
+			
+			return;
+		}
+		
+		InputStream content = entity.getContent();
+		
+		try {
+			
+			byte[] chunk = new byte[4096];
+			
+			while(content.read(chunk) != -1) {
+				
+				//reading in full commits any content which is staged for the disk store
+			}
+		}
+		finally {
+			
+			content.close();
+		}
+	}
+	
+	private void record(long latency, boolean failed) {
+		
+		refreshes.incrementAndGet();
+		refreshLatency.addAndGet(latency);
+		
+		if(failed) {
+			
+			refreshFailures.incrementAndGet();
+		}
+		
+		for (long max = maxRefreshLatency.get(); latency > max; max = maxRefreshLatency.get()) {
+			
+			if(maxRefreshLatency.compareAndSet(max, latency)) {
+				
+				break;
+			}
+		}
+	}
+	
+	private HttpResponse store(String key, HttpRequestBase request, HttpResponse response, long requestTime, long responseTime)
+	throws IOException {
+		
+		if(!CachedResponse.isCacheable(response)) {
+			
+			return response;
+		}
+		
+		HttpEntity entity = response.getEntity();
+		
+		if(entity != null && entity.getContentLength() > maxEntrySize) {
+			
+			return stage(key, request, response, entity.getContent(), requestTime, responseTime);
+		}
+		
+		byte[] content = new byte[0];
+		
+		if(entity != null) {
+			
+			InputStream stream = entity.getContent();
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			
+			byte[] chunk = new byte[4096];
+			int read = 0;
+			
+			while(buffer.size() <= maxEntrySize && (read = stream.read(chunk)) != -1) {
+				
+				buffer.write(chunk, 0, read);
+			}
+			
+			if(buffer.size() > maxEntrySize) { //too large for memory; replay what was read along with the rest
+				
+				return stage(key, request, response,
+					new SequenceInputStream(new ByteArrayInputStream(buffer.toByteArray()), stream), requestTime, responseTime);
+			}
+			
+			stream.close();
+			content = buffer.toByteArray();
+		}
+		
+		CachedResponse cached = new CachedResponse(request, response, ByteBuffer.wrap(content), requestTime, responseTime);
+		put(key, cached);
+		
+		return cached.toResponse(responseTime);
+	}
+	
+	private HttpResponse stage(String key, HttpRequestBase request, HttpResponse response, InputStream content,
+		long requestTime, long responseTime) throws IOException {
+		
+		HttpEntity entity = response.getEntity();
+		long contentLength = entity.getContentLength();
+		
+		if(diskStore != null && contentLength <= diskStore.getMaxEntrySize()) {
+			
+			CachedResponse metadata = new CachedResponse(
+				request, response, ByteBuffer.allocate(0), requestTime, responseTime);
+			
+			response.setEntity(new StagingEntity(entity, content, diskStore.stage(key, metadata)));
+		}
+		else {
+			
+			InputStreamEntity passThrough = new InputStreamEntity(content, contentLength);
+			
+			passThrough.setContentType(entity.getContentType());
+			passThrough.setContentEncoding(entity.getContentEncoding());
+			passThrough.setChunked(entity.isChunked());
+			response.setEntity(passThrough);
+		}
+		
+		return response;
+	}
+	
+	private static boolean isUnsafe(String method) {
+		
+		return !("HEAD".equalsIgnoreCase(method) || "OPTIONS".equalsIgnoreCase(method) || "TRACE".equalsIgnoreCase(method));
+	}
+	
+	private CachedResponse lookup(String key, HttpRequestBase request) {
+		
+		CachedResponse cached = null;
+		
+		synchronized (entries) {
+			
+			cached = entries.get(key);
+		}
+		
+		if(cached == null && diskStore != null) {
+			
+			cached = diskStore.get(key);
+			
+			if(cached != null && cached.size() <= maxEntrySize) { //promote to the in-memory tier
+				
+				ByteBuffer content = ByteBuffer.allocate(cached.size());
+				content.put(cached.getContent()).flip();
+				
+				cached = cached.withContent(content);
+				cache(key, cached);
+			}
+		}
+		
+		return cached != null && cached.matches(request)? cached :null;
+	}
+	
+	private void put(String key, CachedResponse cached) {
+		
+		if(cached.size() <= maxEntrySize) {
+			
+			cache(key, cached);
+		}
+		
+		if(diskStore != null) {
+			
+			try {
+				
+				diskStore.put(key, cached);
+			}
+			catch(IOException ioe) {
+				
+				LOGGER.log(Level.WARNING, "Failed to store a response in the disk cache.", ioe);
+			}
+		}
+	}
+	
+	private void cache(String key, CachedResponse cached) {
+		
+		synchronized (entries) {
+			
+			CachedResponse previous = entries.put(key, cached);
+			size += cached.size() - (previous == null? 0 :previous.size());
+			
+			Iterator<CachedResponse> eldest = entries.values().iterator();
+			
+			while(size > capacity && eldest.hasNext()) {
+				
+				size -= eldest.next().size();
+				eldest.remove();
+			}
+		}
+	}
+	
+	private void remove(String key) {
+		
+		synchronized (entries) {
+			
+			CachedResponse removed = entries.remove(key);
+			size -= removed == null? 0 :removed.size();
+		}
+		
+		if(diskStore != null) {
+			
+			try {
+				
+				diskStore.remove(key);
+			}
+			catch(IOException ioe) {
+				
+				LOGGER.log(Level.WARNING, "Failed to remove a response from the disk cache.", ioe);
+			}
+		}
+	}
+	
+	/**
+	 * <p>Retrieves the number of responses which are currently held by the in-memory tier of this cache.</p>
+	 * 
+	 * @return the number of responses stored in memory
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public int getEntryCount() {
+		
+		synchronized (entries) {
+			
+			return entries.size();
+		}
+	}
+	
+	/**
+	 * <p>Retrieves the number of responses which are currently held by the disk tier of this cache.</p>
+	 * 
+	 * @return the number of responses stored on disk; {@code 0} if the disk tier is disabled
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public int getDiskEntryCount() {
+		
+		return diskStore == null? 0 :diskStore.size();
+	}
+	
+	/**
+	 * <p>Retrieves the number of background refreshes of stale responses which have completed, including
+	 * those which failed once they were sent.</p>
+	 * 
+	 * @return the number of completed refreshes
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getRefreshCount() {
+		
+		return refreshes.get();
+	}
+	
+	/**
+	 * <p>Retrieves the number of background refreshes which failed, i.e. those which could not be scheduled,
+	 * which could not be sent or which were answered with a server error. The stale response remains
+	 * stored after a failed refresh.</p>
+	 * 
+	 * @return the number of failed refreshes
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getRefreshFailureCount() {
+		
+		return refreshFailures.get();
+	}
+	
+	/**
+	 * <p>Retrieves the average time taken by the background refreshes which have completed.</p>
+	 * 
+	 * @param unit
+	 * 			the {@link TimeUnit} in which the latency is expressed
+	 * <br><br>
+	 * @return the average latency of a refresh; {@code 0} if none have completed
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getAverageRefreshLatency(TimeUnit unit) {
+		
+		long count = refreshes.get();
+		return count == 0? 0 :unit.convert(refreshLatency.get() / count, TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 * <p>Retrieves the longest time taken by a background refresh.</p>
+	 * 
+	 * @param unit
+	 * 			the {@link TimeUnit} in which the latency is expressed
+	 * <br><br>
+	 * @return the maximum latency of a refresh; {@code 0} if none have completed
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public long getMaxRefreshLatency(TimeUnit unit) {
+		
+		return unit.convert(maxRefreshLatency.get(), TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 * <p>Discards all responses which are held by this cache, including those on disk.</p>
+	 * 
+	 * @throws IllegalStateException
+	 * 			if the disk tier could not be cleared
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public void clear() {
+		
+		synchronized (entries) {
+			
+			entries.clear();
+			size = 0;
+		}
+		
+		if(diskStore != null) {
+			
+			try {
+				
+				diskStore.clear();
+			}
+			catch(IOException ioe) {
+				
+				throw new IllegalStateException("Failed to clear the disk store. ", ioe);
+			}
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.lonepulse.zombielink.Directory;
+import com.lonepulse.zombielink.annotation.Config;
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>A registry of {@link ResponseCache}s which are configured for a specific endpoint. Endpoints
+ * without a {@link ResponseCache} are bound to {@code null} and their responses are never cached.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+enum ResponseCacheDirectory implements Directory<Class<?>, ResponseCache> {
+	
+	
+	/**
+	 * <p>The {@link ResponseCacheDirectory} which caches {@link ResponseCache}s that are uniquely
+	 * configured for each endpoint. A {@link ResponseCache} is stored or accessed using an
+	 * endpoint's {@link Class}.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	INSTANCE;
+	
+	
+	/**
+	 * <p>The default {@link ResponseCache} for endpoints which do not provide a specialized
+	 * configuration, which may be {@code null}. See {@link Zombie.Configuration#responseCache()}.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	public static final ResponseCache DEFAULT;
+	
+	
+	private static final Map<String, ResponseCache> DIRECTORY = new HashMap<String, ResponseCache>();
+	
+	private static final Map<String, String> ENDPOINT_CONFIGS = new HashMap<String, String>();
+	
+	
+	static {
+		
+		DEFAULT = new Zombie.Configuration(){}.responseCache();
+		DIRECTORY.put(Zombie.Configuration.class.getName(), DEFAULT);
+	}
+	
+	
+	/**
+	 * <p>Registers an instance of {@link ResponseCache} under the given {@link Class} of the endpoint
+	 * definition. If a {@link ResponseCache} already exists under the given endpoint, <i>no attempt
+	 * will be made to replace the existing instance</i>.</p>
+	 * 
+	 * @param endpoint
+	 * 			the {@link Class} of the endpoint whose {@link ResponseCache} is added to the directory
+	 * <br><br>
+	 * @param cache
+	 * 			the {@link ResponseCache} to be registered under the given endpoint definition;
+	 * 			may be {@code null} if the endpoint does not cache responses
+	 * <br><br>
+	 * @return the {@link ResponseCache} which was registered under the given endpoint definition
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	@Override
+	public ResponseCache bind(Class<?> endpoint, ResponseCache cache) {
+		
+		String configClassName = endpoint.isAnnotationPresent(Config.class)?
+			endpoint.getAnnotation(Config.class).value().getName() :Zombie.Configuration.class.getName();
+		
+		String endpointClassName = endpoint.getName();
+		
+		synchronized (DIRECTORY) {
+			
+			if(!DIRECTORY.containsKey(configClassName)) {
+				
+				DIRECTORY.put(configClassName, cache);
+			}
+			
+			if(!ENDPOINT_CONFIGS.containsKey(endpointClassName)) {
+				
+				ENDPOINT_CONFIGS.put(endpointClassName, configClassName);
+			}
+		}
+		
+		return lookup(endpoint);
+	}
+	
+	/**
+	 * <p>Determines whether a {@link ResponseCache} was already registered for the given configuration,
+	 * in which case any new instance offered to {@link #bind(Class, ResponseCache)} is discarded.</p>
+	 * 
+	 * @param configuration
+	 * 			the {@link Class} of the {@link Zombie.Configuration} whose registration is to be checked
+	 * <br><br>
+	 * @return {@code true} if the given configuration has already been bound to a {@link ResponseCache}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	boolean isBound(Class<?> configuration) {
+		
+		synchronized (DIRECTORY) {
+			
+			return DIRECTORY.containsKey(configuration.getName());
+		}
+	}
+	
+	/**
+	 * <p>Retrieves the {@link ResponseCache} which was registered under the given endpoint.</p>
+	 * 
+	 * @param endpointClass
+	 * 			the {@link Class} of the endpoint definition whose {@link ResponseCache} is to be retrieved
+	 * <br><br>
+	 * @return the {@link ResponseCache} which was registered under the given endpoint; else the
+	 * 		   {@link #DEFAULT} instance, which is {@code null} unless configured otherwise
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	@Override
+	public ResponseCache lookup(Class<?> endpointClass) {
+		
+		synchronized (DIRECTORY) {
+			
+			String configClassName = ENDPOINT_CONFIGS.get(endpointClass.getName());
+			
+			return configClassName == null? DEFAULT :DIRECTORY.get(configClassName);
+		}
+	}
+}
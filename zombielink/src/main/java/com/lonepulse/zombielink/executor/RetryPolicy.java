@@ -0,0 +1,266 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.WeakHashMap;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.impl.cookie.DateParseException;
+import org.apache.http.impl.cookie.DateUtils;
+
+import com.lonepulse.zombielink.annotation.Retry;
+import com.lonepulse.zombielink.proxy.InvocationContext;
+
+/**
+ * <p>Applies the @{@link Retry} policy of a single request invocation. Each attempt which fails with one of
+ * the policy's status codes or exceptions is followed by an exponential backoff with <i>full jitter</i>, as
+ * long as attempts remain and the endpoint's retry budget permits it.</p>
+ * 
+ * <p>The <b>retry budget</b> of an endpoint is a {@link Budget} which every invocation tops up by the
+ * policy's {@link Retry#budget()} and every retry draws down by one token, so that at most the given
+ * fraction of the traffic on an endpoint (plus a small reserve) is ever retried.</p>
+ * 
+ * @version 1.2.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class RetryPolicy {
+	
+	
+	private static final int RESERVE = 10;
+	
+	private static final Map<Class<?>, Budget> BUDGETS = Collections.synchronizedMap(new WeakHashMap<Class<?>, Budget>());
+	
+	private static final Random JITTER = new Random();
+	
+	private final Retry retry;
+	private final Budget budget;
+	
+	
+	/**
+	 * <p>Creates the {@link RetryPolicy} for an invocation of the given request and records the invocation
+	 * against the retry budget of its endpoint.</p>
+	 * 
+	 * @param context
+	 * 			the {@link InvocationContext} of the request whose @{@link Retry} policy is applied
+	 * <br><br>
+	 * @param request
+	 * 			the {@link HttpRequestBase} which is to be sent
+	 * <br><br>
+	 * @return the {@link RetryPolicy} of the invocation; else {@code null} if the request has no policy
+	 * 		   or if it has an entity which cannot be repeated
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static RetryPolicy of(InvocationContext context, HttpRequestBase request) {
+		
+		Retry retry = context.getPlan().getRetry();
+		
+		if(retry == null || retry.attempts() < 2) {
+			
+			return null;
+		}
+		
+		if(request instanceof HttpEntityEnclosingRequest) {
+			
+			HttpEntity entity = ((HttpEntityEnclosingRequest)request).getEntity();
+			
+			if(entity != null && !entity.isRepeatable()) {
+				
+				return null; //the content would have been consumed by the first attempt
+			}
+		}
+		
+		Class<?> endpoint = context.getEndpoint();
+		Budget budget;
+		
+		synchronized (BUDGETS) {
+			
+			budget = BUDGETS.get(endpoint);
+			
+			if(budget == null) {
+				
+				budget = new Budget(RESERVE);
+				BUDGETS.put(endpoint, budget);
+			}
+		}
+		
+		budget.deposit(retry.budget());
+		
+		return new RetryPolicy(retry, budget);
+	}
+	
+	private RetryPolicy(Retry retry, Budget budget) {
+		
+		this.retry = retry;
+		this.budget = budget;
+	}
+	
+	/**
+	 * <p>Decides whether the given attempt should be retried and if so, buffers the content of its response
+	 * and waits for the backoff to elapse. Buffering releases the connection during the backoff, while the
+	 * response remains readable in case the wait is interrupted and the attempt becomes final after all.</p>
+	 * 
+	 * @param attempt
+	 * 			the number of the attempt which completed, starting at {@code 1}
+	 * <br><br>
+	 * @param response
+	 * 			the {@link HttpResponse} of the attempt; {@code null} if it failed with an error
+	 * <br><br>
+	 * @param error
+	 * 			the {@link RequestExecutionException} with which the attempt failed; else {@code null}
+	 * <br><br>
+	 * @return {@code true} if the request should be sent again; {@code false} if the outcome of the given
+	 * 		   attempt is final
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	boolean awaitRetry(int attempt, HttpResponse response, RequestExecutionException error) {
+		
+		if(attempt >= retry.attempts() || !(error != null? isRetryable(error) :isRetryable(response))) {
+			
+			return false;
+		}
+		
+		long ceiling = Math.min(retry.maxDelay(), retry.delay() << Math.min(attempt - 1, 30));
+		long delay = (long)(JITTER.nextDouble() * Math.max(0, ceiling));
+		
+		if(response != null) {
+			
+			long retryAfter = retryAfter(response);
+			
+			if(retryAfter > retry.maxDelay()) {
+				
+				return false;
+			}
+			
+			delay = Math.max(delay, retryAfter);
+		}
+		
+		if(!budget.withdraw()) {
+			
+			return false;
+		}
+		
+		HttpEntity entity = response == null? null :response.getEntity();
+		
+		if(entity != null) {
+			
+			try {
+				
+				response.setEntity(new BufferedHttpEntity(entity)); //reads the content, which releases the connection
+			}
+			catch(IOException ioe) {
+				
+				//the connection is discarded instead
+			}
+		}
+		
+		try {
+			
+			Thread.sleep(delay);
+			return true;
+		}
+		catch(InterruptedException ie) {
+			
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+	
+	private boolean isRetryable(RequestExecutionException error) {
+		
+		Throwable cause = error.getCause() == null? error :error.getCause();
+		
+		for (Class<? extends Throwable> type : retry.exceptions()) {
+			
+			if(type.isInstance(cause)) {
+				
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private boolean isRetryable(HttpResponse response) {
+		
+		int status = response.getStatusLine().getStatusCode();
+		
+		for (int retryable : retry.statuses()) {
+			
+			if(status == retryable) {
+				
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * <p>Reads the <i>Retry-After</i> header of the given response, which is either a number of seconds 
+	 * or an HTTP date.</p>
+	 * 
+	 * @param response
+	 * 			the {@link HttpResponse} whose <i>Retry-After</i> header is read
+	 * <br><br>
+	 * @return the delay requested by the header in milliseconds; else {@code 0} if there is none
+	 */
+	static long retryAfter(HttpResponse response) {
+		
+		Header header = response.getFirstHeader("Retry-After");
+		
+		if(header == null) {
+			
+			return 0;
+		}
+		
+		String value = header.getValue().trim();
+		
+		try {
+			
+			return Math.max(0, Long.parseLong(value) * 1000);
+		}
+		catch(NumberFormatException nfe) {
+			
+			try {
+				
+				return Math.max(0, DateUtils.parseDate(value).getTime() - System.currentTimeMillis());
+			}
+			catch(DateParseException dpe) {
+				
+				return 0;
+			}
+		}
+	}
+}
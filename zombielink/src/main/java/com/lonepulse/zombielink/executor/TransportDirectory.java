@@ -0,0 +1,172 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.lonepulse.zombielink.Directory;
+import com.lonepulse.zombielink.annotation.Config;
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>A registry of {@link NonBlockingTransport}s which are configured for a specific endpoint. Endpoints
+ * without a {@link NonBlockingTransport} are bound to {@code null} and use the blocking transport.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+enum TransportDirectory implements Directory<Class<?>, NonBlockingTransport> {
+	
+	
+	/**
+	 * <p>The {@link TransportDirectory} which caches {@link NonBlockingTransport}s that are uniquely
+	 * configured for each endpoint. A {@link NonBlockingTransport} is stored or accessed using an
+	 * endpoint's {@link Class}.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	INSTANCE;
+	
+	
+	/**
+	 * <p>The default {@link NonBlockingTransport} for endpoints which do not provide a specialized
+	 * configuration, which may be {@code null}. See {@link Zombie.Configuration#nonBlockingTransport()}.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	public static final NonBlockingTransport DEFAULT;
+	
+	
+	private static final Map<String, NonBlockingTransport> DIRECTORY = new HashMap<String, NonBlockingTransport>();
+	
+	private static final Map<String, String> ENDPOINT_CONFIGS = new HashMap<String, String>();
+	
+	
+	static {
+		
+		DEFAULT = new Zombie.Configuration(){}.nonBlockingTransport();
+		DIRECTORY.put(Zombie.Configuration.class.getName(), DEFAULT);
+		
+		Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				synchronized (DIRECTORY) {
+					
+					for (NonBlockingTransport transport : DIRECTORY.values()) {
+						
+						if(transport != null) {
+							
+							transport.shutdown();
+						}
+					}
+				}
+			}
+		}));
+	}
+	
+	
+	/**
+	 * <p>Registers an instance of {@link NonBlockingTransport} under the given {@link Class} of the endpoint
+	 * definition. If a {@link NonBlockingTransport} already exists under the given endpoint, <i>no attempt
+	 * will be made to replace the existing instance</i>.</p>
+	 * 
+	 * @param endpoint
+	 * 			the {@link Class} of the endpoint whose {@link NonBlockingTransport} is added to the directory
+	 * <br><br>
+	 * @param transport
+	 * 			the {@link NonBlockingTransport} to be registered under the given endpoint definition;
+	 * 			may be {@code null} if the endpoint uses the blocking transport
+	 * <br><br>
+	 * @return the {@link NonBlockingTransport} which was registered under the given endpoint definition
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	@Override
+	public NonBlockingTransport bind(Class<?> endpoint, NonBlockingTransport transport) {
+		
+		String configClassName = endpoint.isAnnotationPresent(Config.class)?
+			endpoint.getAnnotation(Config.class).value().getName() :Zombie.Configuration.class.getName();
+		
+		String endpointClassName = endpoint.getName();
+		
+		synchronized (DIRECTORY) {
+			
+			if(!DIRECTORY.containsKey(configClassName)) {
+				
+				DIRECTORY.put(configClassName, transport);
+			}
+			
+			if(!ENDPOINT_CONFIGS.containsKey(endpointClassName)) {
+				
+				ENDPOINT_CONFIGS.put(endpointClassName, configClassName);
+			}
+		}
+		
+		return lookup(endpoint);
+	}
+	
+	/**
+	 * <p>Determines whether a {@link NonBlockingTransport} was already registered for the given configuration,
+	 * in which case any new instance offered to {@link #bind(Class, NonBlockingTransport)} is discarded.</p>
+	 * 
+	 * @param configuration
+	 * 			the {@link Class} of the {@link Zombie.Configuration} whose registration is to be checked
+	 * <br><br>
+	 * @return {@code true} if the given configuration has already been bound to a {@link NonBlockingTransport}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	boolean isBound(Class<?> configuration) {
+		
+		synchronized (DIRECTORY) {
+			
+			return DIRECTORY.containsKey(configuration.getName());
+		}
+	}
+	
+	/**
+	 * <p>Retrieves the {@link NonBlockingTransport} which was registered under the given endpoint.</p>
+	 * 
+	 * @param endpointClass
+	 * 			the {@link Class} of the endpoint definition whose {@link NonBlockingTransport} is to be retrieved
+	 * <br><br>
+	 * @return the {@link NonBlockingTransport} which was registered under the given endpoint; else the
+	 * 		   {@link #DEFAULT} instance, which is {@code null} unless configured otherwise
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	@Override
+	public NonBlockingTransport lookup(Class<?> endpointClass) {
+		
+		synchronized (DIRECTORY) {
+			
+			String configClassName = ENDPOINT_CONFIGS.get(endpointClass.getName());
+			
+			return configClassName == null? DEFAULT :DIRECTORY.get(configClassName);
+		}
+	}
+}
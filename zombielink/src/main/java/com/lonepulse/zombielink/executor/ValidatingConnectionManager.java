@@ -0,0 +1,137 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpConnectionMetrics;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+
+/**
+ * <p>A {@link PoolingClientConnectionManager} which checks whether a pooled connection is stale only if
+ * it has been idle for longer than a given duration, in place of the check which an
+ * {@link org.apache.http.client.HttpClient} performs on <i>every</i> lease. A stale connection is closed
+ * before it's handed out, so that the request opens a new one.</p>
+ * 
+ * <p>Connections which were used recently are leased without the check, which blocks for up to a
+ * millisecond. They are unlikely to have been dropped by the server, which would only be discovered
+ * once the request fails.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class ValidatingConnectionManager extends PoolingClientConnectionManager {
+	
+	
+	private final long validateAfterInactivity;
+	
+	private final Map<HttpConnectionMetrics, Long> releases
+		= Collections.synchronizedMap(new WeakHashMap<HttpConnectionMetrics, Long>());
+	
+	
+	/**
+	 * <p>Creates a new {@link ValidatingConnectionManager}.</p>
+	 * 
+	 * @param schemeRegistry
+	 * 			the {@link SchemeRegistry} of the supported protocols
+	 * <br><br>
+	 * @param timeToLive
+	 * 			the maximum lifetime of a pooled connection in milliseconds, or <b>-1</b> if unlimited
+	 * <br><br>
+	 * @param validateAfterInactivity
+	 * 			the duration in milliseconds for which a connection may be idle before it's checked
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	ValidatingConnectionManager(SchemeRegistry schemeRegistry, long timeToLive, long validateAfterInactivity) {
+		
+		super(schemeRegistry, timeToLive, TimeUnit.MILLISECONDS);
+		
+		this.validateAfterInactivity = validateAfterInactivity;
+	}
+	
+	@Override
+	public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+		
+		final ClientConnectionRequest request = super.requestConnection(route, state);
+		
+		return new ClientConnectionRequest() {
+			
+			@Override
+			public ManagedClientConnection getConnection(long timeout, TimeUnit unit)
+			throws InterruptedException, ConnectionPoolTimeoutException {
+				
+				return validate(request.getConnection(timeout, unit));
+			}
+			
+			@Override
+			public void abortRequest() {
+				
+				request.abortRequest();
+			}
+		};
+	}
+	
+	private ManagedClientConnection validate(ManagedClientConnection connection) {
+		
+		if(connection.isOpen()) {
+			
+			Long released = releases.remove(connection.getMetrics());
+			
+			if((released == null || System.currentTimeMillis() - released > validateAfterInactivity)
+				&& connection.isStale()) {
+				
+				try {
+					
+					connection.close();
+				}
+				catch(Exception e) {
+					
+					//the request opens a new connection regardless
+				}
+			}
+		}
+		
+		return connection;
+	}
+	
+	@Override
+	public void releaseConnection(ManagedClientConnection connection, long keepAlive, TimeUnit unit) {
+		
+		if(connection.isOpen() && connection.isMarkedReusable()) {
+			
+			releases.put(connection.getMetrics(), System.currentTimeMillis());
+		}
+		
+		super.releaseConnection(connection, keepAlive, unit);
+	}
+}
@@ -0,0 +1,533 @@
+package com.lonepulse.zombielink.proxy;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>Generates an implementation of an endpoint at <b>runtime</b>. The implementation is a plain class which
+ * extends {@link GeneratedEndpoint} and which implements each request with a method that hands off its
+ * arguments along with the index of its request to {@link GeneratedEndpoint#dispatch(int, Object[])}.
+ * The invoked {@link Method} is never discovered and no {@link java.lang.reflect.InvocationHandler} is
+ * involved.</p>
+ * 
+ * <p>The bytecode is written directly, since the methods consist of straight-line code which only boxes
+ * their arguments and unboxes their results. The class is defined by a new {@link ClassLoader} whose parent
+ * is that of the endpoint, so that it may be unloaded along with the endpoint.</p>
+ * 
+ * <p><b>Note</b> that the generated methods do not avoid allocation: each one creates an {@code Object[]}
+ * of its arguments, boxes any primitive argument and unboxes a primitive result. The arguments of every
+ * invocation are read as objects by its {@link InvocationContext} and by each processor thereafter, so a
+ * typed dispatch would only defer the boxing. What is saved is the discovery of the invoked {@link Method}
+ * and the indirection through an {@link java.lang.reflect.InvocationHandler}. See {@code ProxyEngineBenchmark}
+ * in the test sources of this module for a comparison of both engines.</p>
+ * 
+ * @version 1.0.1
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class EndpointGenerator {
+	
+	
+	/**
+	 * <p>Defines the classes which are generated for a single endpoint.</p>
+	 * 
+	 * @version 1.0.0
+	 * <br><br>
+	 * @since 1.3.4
+	 * <br><br>
+	 * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+	 */
+	private static final class Loader extends ClassLoader {
+		
+		
+		private Loader(ClassLoader parent) {
+			
+			super(parent);
+		}
+		
+		private Class<?> define(String name, byte[] bytecode) {
+			
+			return defineClass(name, bytecode, 0, bytecode.length);
+		}
+	}
+	
+	/**
+	 * <p>Accumulates the constant pool of a class file, reusing the entries which are already defined.</p>
+	 * 
+	 * @version 1.0.0
+	 * <br><br>
+	 * @since 1.3.4
+	 * <br><br>
+	 * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+	 */
+	private static final class ConstantPool {
+		
+		
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		private final DataOutputStream entries = new DataOutputStream(bytes);
+		
+		private final Map<String, Integer> indices = new HashMap<String, Integer>();
+		
+		
+		private int utf8(String value) throws IOException {
+			
+			Integer index = indices.get("U" + value);
+			
+			if(index == null) {
+				
+				entries.writeByte(1);
+				entries.writeUTF(value);
+				
+				index = register("U" + value);
+			}
+			
+			return index;
+		}
+		
+		private int type(String internalName) throws IOException {
+			
+			Integer index = indices.get("C" + internalName);
+			
+			if(index == null) {
+				
+				int name = utf8(internalName);
+				
+				entries.writeByte(7);
+				entries.writeShort(name);
+				
+				index = register("C" + internalName);
+			}
+			
+			return index;
+		}
+		
+		private int method(String owner, String name, String descriptor) throws IOException {
+			
+			String key = new StringBuilder("M").append(owner).append('.').append(name).append(descriptor).toString();
+			Integer index = indices.get(key);
+			
+			if(index == null) {
+				
+				int type = type(owner), methodName = utf8(name), methodDescriptor = utf8(descriptor);
+				
+				entries.writeByte(12);
+				entries.writeShort(methodName);
+				entries.writeShort(methodDescriptor);
+				
+				int nameAndType = register("N" + key);
+				
+				entries.writeByte(10);
+				entries.writeShort(type);
+				entries.writeShort(nameAndType);
+				
+				index = register(key);
+			}
+			
+			return index;
+		}
+		
+		private int register(String key) {
+			
+			int index = indices.size() + 1;
+			indices.put(key, index);
+			
+			return index;
+		}
+		
+		private void writeTo(DataOutputStream out) throws IOException {
+			
+			out.writeShort(indices.size() + 1);
+			bytes.writeTo(out);
+		}
+	}
+	
+	
+	/**
+	 * <p>The suffix which is appended to the name of an endpoint interface to produce the name of its
+	 * implementation which is generated at runtime.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	static final String SUFFIX = GeneratedEndpoint.SUFFIX + "Runtime";
+	
+	
+	private static final String BASE = internalName(GeneratedEndpoint.class);
+	private static final String OBJECT = internalName(Object.class);
+	
+	private static final String DISPATCH = "(I[Ljava/lang/Object;)Ljava/lang/Object;";
+	
+	private static final Map<Class<?>, Class<?>> WRAPPERS = new HashMap<Class<?>, Class<?>>();
+	
+	private static final int JAVA_6 = 50;
+	private static final int ACC_PUBLIC = 0x0001, ACC_FINAL = 0x0010, ACC_SUPER = 0x0020;
+	
+	private static final int ACONST_NULL = 0x01, ICONST_0 = 0x03, BIPUSH = 0x10, SIPUSH = 0x11,
+		ILOAD = 0x15, LLOAD = 0x16, FLOAD = 0x17, DLOAD = 0x18, ALOAD = 0x19, ALOAD_0 = 0x2a,
+		AASTORE = 0x53, POP = 0x57, DUP = 0x59, IRETURN = 0xac, LRETURN = 0xad, FRETURN = 0xae,
+		DRETURN = 0xaf, ARETURN = 0xb0, RETURN = 0xb1, INVOKEVIRTUAL = 0xb6, INVOKESPECIAL = 0xb7,
+		INVOKESTATIC = 0xb8, ANEWARRAY = 0xbd, CHECKCAST = 0xc0;
+	
+	
+	static {
+		
+		WRAPPERS.put(boolean.class, Boolean.class);
+		WRAPPERS.put(byte.class, Byte.class);
+		WRAPPERS.put(char.class, Character.class);
+		WRAPPERS.put(short.class, Short.class);
+		WRAPPERS.put(int.class, Integer.class);
+		WRAPPERS.put(long.class, Long.class);
+		WRAPPERS.put(float.class, Float.class);
+		WRAPPERS.put(double.class, Double.class);
+	}
+	
+	
+	private EndpointGenerator() {}
+	
+	/**
+	 * <p>Generates an implementation of the given endpoint and creates a new instance of it which is
+	 * attached to the given {@link ProxyInvocation.Template}.</p>
+	 * 
+	 * @param endpoint
+	 * 			the endpoint definition interface to be implemented
+	 * <br><br>
+	 * @param template
+	 * 			the {@link ProxyInvocation.Template} for all request invocations on the endpoint
+	 * <br><br>
+	 * @return a new instance of the generated implementation; else {@code null} if the endpoint cannot
+	 * 		   be implemented at runtime
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static GeneratedEndpoint newInstance(Class<?> endpoint, ProxyInvocation.Template template) {
+		
+		Method[] requests = findRequests(endpoint);
+		
+		if(!isImplementable(endpoint, requests)) {
+			
+			return null;
+		}
+		
+		String name = endpoint.getName() + SUFFIX;
+		
+		try {
+			
+			Class<?> implementation = new Loader(endpoint.getClassLoader()).define(name, write(name, endpoint, requests));
+			
+			GeneratedEndpoint generated = (GeneratedEndpoint)implementation.newInstance();
+			generated.attach(template, requests);
+			
+			return generated;
+		}
+		catch(Exception e) {
+			
+			Logger.getLogger(EndpointGenerator.class.getName()).log(Level.WARNING, new StringBuilder("Failed to ")
+				.append("generate an implementation for ").append(endpoint.getName()).append(". ").toString(), e);
+		}
+		catch(LinkageError le) { //bytecode is not loaded on this platform
+			
+			Logger.getLogger(EndpointGenerator.class.getName()).log(Level.WARNING, new StringBuilder("Failed to ")
+				.append("generate an implementation for ").append(endpoint.getName()).append(". ").toString(), le);
+		}
+		
+		return null;
+	}
+	
+	private static Method[] findRequests(Class<?> endpoint) {
+		
+		Map<String, Method> requests = new LinkedHashMap<String, Method>();
+		
+		for (Method request : endpoint.getMethods()) {
+			
+			String signature = request.getName() + descriptor(request);
+			
+			if(!requests.containsKey(signature)) { //a request which is inherited from several interfaces
+				
+				requests.put(signature, request);
+			}
+		}
+		
+		Collection<Method> definitions = requests.values();
+		return definitions.toArray(new Method[definitions.size()]);
+	}
+	
+	private static boolean isImplementable(Class<?> endpoint, Method[] requests) {
+		
+		ClassLoader classLoader = endpoint.getClassLoader();
+		
+		if(!Modifier.isPublic(endpoint.getModifiers()) || classLoader == null) {
+			
+			return false;
+		}
+		
+		try {
+			
+			if(Class.forName(GeneratedEndpoint.class.getName(), false, classLoader) != GeneratedEndpoint.class) {
+				
+				return false;
+			}
+		}
+		catch(ClassNotFoundException cnfe) {
+			
+			return false;
+		}
+		
+		for (Method request : requests) {
+			
+			Class<?> returnType = request.getReturnType();
+			
+			while(returnType.isArray()) {
+				
+				returnType = returnType.getComponentType();
+			}
+			
+			if(!returnType.isPrimitive() && !Modifier.isPublic(returnType.getModifiers())) {
+				
+				return false; //results are cast to the return type, which should be accessible
+			}
+		}
+		
+		return true;
+	}
+	
+	private static byte[] write(String name, Class<?> endpoint, Method[] requests) throws IOException {
+		
+		ConstantPool pool = new ConstantPool();
+		
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream methods = new DataOutputStream(bytes);
+		
+		int code = pool.utf8("Code"), superConstructor = pool.method(BASE, "<init>", "()V");
+		
+		writeMethod(methods, pool.utf8("<init>"), pool.utf8("()V"), code, 1, 1, new byte[] {
+			(byte)ALOAD_0, (byte)INVOKESPECIAL, (byte)(superConstructor >> 8), (byte)superConstructor, (byte)RETURN});
+		
+		for (int i = 0; i < requests.length; i++) {
+			
+			Class<?>[] parameterTypes = requests[i].getParameterTypes();
+			int locals = 1;
+			
+			for (Class<?> parameterType : parameterTypes) {
+				
+				locals += size(parameterType);
+			}
+			
+			writeMethod(methods, pool.utf8(requests[i].getName()), pool.utf8(descriptor(requests[i])),
+				code, 7, locals, stub(pool, i, requests[i])); //this, index, array, array, index, wide value
+		}
+		
+		int thisClass = pool.type(name.replace('.', '/')), superClass = pool.type(BASE),
+			endpointClass = pool.type(internalName(endpoint));
+		
+		ByteArrayOutputStream classFile = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(classFile);
+		
+		out.writeInt(0xCAFEBABE);
+		out.writeShort(0);
+		out.writeShort(JAVA_6);
+		
+		pool.writeTo(out);
+		
+		out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+		out.writeShort(thisClass);
+		out.writeShort(superClass);
+		
+		out.writeShort(1);
+		out.writeShort(endpointClass);
+		
+		out.writeShort(0); //fields
+		
+		out.writeShort(requests.length + 1);
+		bytes.writeTo(out);
+		
+		out.writeShort(0); //attributes
+		
+		return classFile.toByteArray();
+	}
+	
+	private static void writeMethod(DataOutputStream out, int name, int descriptor, int code,
+		int maxStack, int maxLocals, byte[] instructions) throws IOException {
+		
+		out.writeShort(ACC_PUBLIC);
+		out.writeShort(name);
+		out.writeShort(descriptor);
+		
+		out.writeShort(1);
+		out.writeShort(code);
+		out.writeInt(12 + instructions.length);
+		out.writeShort(maxStack);
+		out.writeShort(maxLocals);
+		out.writeInt(instructions.length);
+		out.write(instructions);
+		out.writeShort(0); //exception table
+		out.writeShort(0); //attributes
+	}
+	
+	private static byte[] stub(ConstantPool pool, int index, Method request) throws IOException {
+		
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream code = new DataOutputStream(bytes);
+		
+		Class<?>[] parameterTypes = request.getParameterTypes();
+		
+		code.writeByte(ALOAD_0);
+		push(code, index);
+		
+		if(parameterTypes.length == 0) {
+			
+			code.writeByte(ACONST_NULL);
+		}
+		else {
+			
+			push(code, parameterTypes.length);
+			code.writeByte(ANEWARRAY);
+			code.writeShort(pool.type(OBJECT));
+			
+			for (int i = 0, slot = 1; i < parameterTypes.length; slot += size(parameterTypes[i++])) {
+				
+				code.writeByte(DUP);
+				push(code, i);
+				
+				code.writeByte(opcode(parameterTypes[i], ILOAD, LLOAD, FLOAD, DLOAD, ALOAD));
+				code.writeByte(slot);
+				
+				if(parameterTypes[i].isPrimitive()) {
+					
+					String wrapper = internalName(WRAPPERS.get(parameterTypes[i]));
+					
+					code.writeByte(INVOKESTATIC);
+					code.writeShort(pool.method(wrapper, "valueOf",
+						"(" + descriptor(parameterTypes[i]) + ")L" + wrapper + ";"));
+				}
+				
+				code.writeByte(AASTORE);
+			}
+		}
+		
+		code.writeByte(INVOKEVIRTUAL);
+		code.writeShort(pool.method(BASE, "dispatch", DISPATCH));
+		
+		Class<?> returnType = request.getReturnType();
+		
+		if(returnType == void.class) {
+			
+			code.writeByte(POP);
+			code.writeByte(RETURN);
+		}
+		else if(returnType.isPrimitive()) {
+			
+			String wrapper = internalName(WRAPPERS.get(returnType));
+			
+			code.writeByte(CHECKCAST);
+			code.writeShort(pool.type(wrapper));
+			code.writeByte(INVOKEVIRTUAL);
+			code.writeShort(pool.method(wrapper, returnType.getName() + "Value", "()" + descriptor(returnType)));
+			code.writeByte(opcode(returnType, IRETURN, LRETURN, FRETURN, DRETURN, ARETURN));
+		}
+		else {
+			
+			if(returnType != Object.class) {
+				
+				code.writeByte(CHECKCAST);
+				code.writeShort(pool.type(internalName(returnType)));
+			}
+			
+			code.writeByte(ARETURN);
+		}
+		
+		return bytes.toByteArray();
+	}
+	
+	private static void push(DataOutputStream code, int value) throws IOException {
+		
+		if(value <= 5) {
+			
+			code.writeByte(ICONST_0 + value);
+		}
+		else if(value <= Byte.MAX_VALUE) {
+			
+			code.writeByte(BIPUSH);
+			code.writeByte(value);
+		}
+		else {
+			
+			code.writeByte(SIPUSH);
+			code.writeShort(value);
+		}
+	}
+	
+	private static int opcode(Class<?> type, int intOpcode, int longOpcode, int floatOpcode, int doubleOpcode, int referenceOpcode) {
+		
+		return type == long.class? longOpcode :type == float.class? floatOpcode :
+			   type == double.class? doubleOpcode :type.isPrimitive()? intOpcode :referenceOpcode;
+	}
+	
+	private static int size(Class<?> type) {
+		
+		return (type == long.class || type == double.class)? 2 :1;
+	}
+	
+	private static String internalName(Class<?> type) {
+		
+		return type.isArray()? descriptor(type) :type.getName().replace('.', '/');
+	}
+	
+	private static String descriptor(Method method) {
+		
+		StringBuilder descriptor = new StringBuilder("(");
+		
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			
+			descriptor.append(descriptor(parameterType));
+		}
+		
+		return descriptor.append(")").append(descriptor(method.getReturnType())).toString();
+	}
+	
+	private static String descriptor(Class<?> type) {
+		
+		if(type.isArray()) {
+			
+			return type.getName().replace('.', '/');
+		}
+		
+		if(type.isPrimitive()) {
+			
+			return type == void.class? "V" :type == boolean.class? "Z" :type == byte.class? "B" :
+				   type == char.class? "C" :type == short.class? "S" :type == int.class? "I" :
+				   type == long.class? "J" :type == float.class? "F" :"D";
+		}
+		
+		return new StringBuilder("L").append(internalName(type)).append(";").toString();
+	}
+}
@@ -22,18 +22,23 @@ package com.lonepulse.zombielink.proxy;
 
 import static com.lonepulse.zombielink.util.Assert.assertNotNull;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * <p>This is an implementation of {@link ProxyFactory} which is used for constructing thread-safe 
  * proxies of endpoint definitions.</p>
  * 
- * @version 2.2.0
+ * <p>If an implementation of the endpoint was generated at compile-time (see {@link GeneratedEndpoint}), 
+ * it will be preferred. Otherwise the proxy is created by the {@link ProxyEngine} which is selected for
+ * the endpoint.</p>
+ * 
+ * @version 2.7.0
  * <br><br>
  * @since 1.1.0
  * <br><br>
@@ -50,43 +55,113 @@ enum EndpointProxyFactory implements ProxyFactory {
 	INSTANCE;
 	
 	
-	private static final Map<String, Object> ENDPOINTS = Collections.synchronizedMap(new HashMap<String, Object>());
+	private static final ConcurrentMap<String, FutureTask<Object>> ENDPOINTS 
+		= new ConcurrentHashMap<String, FutureTask<Object>>();
+	
+	
+	private static GeneratedEndpoint findGenerated(Class<?> endpoint) {
+		
+		try {
+			
+			Class<?> implementation = Class.forName(
+				endpoint.getName() + GeneratedEndpoint.SUFFIX, true, endpoint.getClassLoader());
+			
+			return (endpoint.isAssignableFrom(implementation) && GeneratedEndpoint.class.isAssignableFrom(implementation))? 
+					(GeneratedEndpoint)implementation.newInstance() :null;
+		}
+		catch(ClassNotFoundException cnfe) {
+			
+			return null; //no implementation was generated at compile-time; fall back to a dynamic proxy
+		}
+		catch(LinkageError le) { //e.g. a stale implementation which fails to link or to initialize
+			
+			Logger.getLogger(EndpointProxyFactory.class.getName()).log(Level.WARNING, new StringBuilder("The generated ")
+				.append("implementation for ").append(endpoint.getName()).append(" could not be loaded. ")
+				.append("Falling back to a runtime proxy. ").toString(), le);
+			
+			return null;
+		}
+		catch(Exception e) {
+			
+			throw new ProxyFactoryException(EndpointProxyFactory.class, e);
+		}
+	}
+	
+	private static Object newInstance(Class<?> endpoint) {
+		
+		GeneratedEndpoint generated = findGenerated(endpoint);
+		
+		if(generated != null) {
+			
+			generated.attach(new ProxyInvocation.Template(endpoint, false){});
+			return generated;
+		}
+		
+		return ProxyEngine.of(endpoint).newInstance(endpoint, new ProxyInvocation.Template(endpoint){});
+	}
 	
 
 	/**
+	 * <p>Retrieves the proxy for the given endpoint, creating it if this is the first request for the 
+	 * endpoint. Proxies which already exist are retrieved without any locking. When several threads 
+	 * request a proxy which does not exist yet, only one of them creates it while the others await 
+	 * its creation.</p>
+	 * 
 	 * {@inheritDoc}
 	 */
 	@Override
-	public synchronized <T> T create(final Class<T> endpoint) {
+	public <T> T create(final Class<T> endpoint) {
 
 		String proxyKey = assertNotNull(endpoint).getName();
 		
-		if(ENDPOINTS.containsKey(proxyKey)) {
-			
-			return endpoint.cast(ENDPOINTS.get(proxyKey));
-		}
-		
-		final ProxyInvocation.Template template = new ProxyInvocation.Template(endpoint){};
+		FutureTask<Object> proxy = ENDPOINTS.get(proxyKey);
 		
-		try {
+		if(proxy == null) {
 			
-			T endpointProxy = endpoint.cast(Proxy.newProxyInstance(
-				endpoint.getClassLoader(), new Class<?>[] {endpoint} , new InvocationHandler() {
+			FutureTask<Object> creation = new FutureTask<Object>(new Callable<Object>() {
 				
 				@Override
-				public Object invoke(final Object proxy, final Method method, final Object[] args) {
-
-					return ProxyInvocation.newInstance(template, proxy, method, args).invoke();
+				public Object call() {
+					
+					return newInstance(endpoint);
 				}
-			}));
+			});
 			
-			ENDPOINTS.put(proxyKey, endpointProxy);
+			proxy = ENDPOINTS.putIfAbsent(proxyKey, creation);
 			
-			return endpointProxy;
+			if(proxy == null) {
+				
+				proxy = creation;
+				creation.run();
+			}
 		}
-		catch(Exception e) {
+		
+		try {
+			
+			return endpoint.cast(proxy.get());
+		}
+		catch(InterruptedException ie) {
+			
+			Thread.currentThread().interrupt();
+			throw new ProxyFactoryException(getClass(), ie);
+		}
+		catch(ExecutionException ee) {
+			
+			ENDPOINTS.remove(proxyKey, proxy); //allow creation to be reattempted
+			
+			Throwable cause = ee.getCause();
+			
+			if(cause instanceof RuntimeException) {
+				
+				throw (RuntimeException)cause;
+			}
+			
+			if(cause instanceof Error) {
+				
+				throw (Error)cause;
+			}
 			
-			throw new ProxyFactoryException(getClass(), e);
+			throw new ProxyFactoryException(getClass(), cause);
 		}
 	}
 }
@@ -0,0 +1,341 @@
+package com.lonepulse.zombielink.proxy;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.lonepulse.zombielink.annotation.Entity.ContentType;
+
+/**
+ * <p>This is the base class for endpoint implementations which are generated at <b>compile-time</b> by
+ * the annotation processor in <i>zombielink-processor</i>. Each generated implementation is a plain class
+ * named after the binary name of its endpoint interface followed by {@link #SUFFIX}, which resides in the
+ * same package and which hands off each request to {@link #dispatch(Method, Object[])}.</p>
+ * 
+ * <p>When a generated implementation is available on the classpath, the {@link EndpointProxyFactory}
+ * prefers it over a dynamic proxy and skips runtime validation of the endpoint, since the same rules
+ * have already been enforced during compilation.</p>
+ * 
+ * <p>The metadata of each request which can be resolved statically (i.e. its path template, its static
+ * headers and its serializer and deserializer) is emitted as constants in the generated source and passed
+ * to {@link #define(Class, Method, String, String[], ContentType, Class, ContentType, Class)}. These are
+ * compiled into the {@link RequestPlan} of the request in place of the reflective discovery of annotations.</p>
+ * 
+ * <p>The same base is used by implementations which are generated at <b>runtime</b> by the
+ * {@link ProxyEngine#GENERATED} engine. Each of their methods hands off its arguments along with the
+ * index of its request to {@link #dispatch(int, Object[])}, which invokes the {@link RequestPlan} of the
+ * request directly.</p>
+ * 
+ * <p><b>Note</b> that this class is not intended for direct extension. It is only a contract between the
+ * generated code and the runtime.</p>
+ * 
+ * @version 1.3.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public abstract class GeneratedEndpoint {
+	
+	
+	/**
+	 * <p>The suffix which is appended to the binary name of an endpoint interface to produce the name of
+	 * its generated implementation.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	public static final String SUFFIX = "$$ZombieLink";
+	
+	
+	/**
+	 * <p>The metadata of a request definition which was resolved when its endpoint was compiled.</p>
+	 * 
+	 * <p>The serializer and deserializer are referenced <b>weakly</b>, since they are usually loaded along
+	 * with the endpoint and would otherwise keep it from being unloaded. They remain reachable through the
+	 * constants of the generated implementation for as long as the endpoint is.</p>
+	 * 
+	 * @version 1.1.0
+	 * <br><br>
+	 * @since 1.3.4
+	 * <br><br>
+	 * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+	 */
+	static final class Definition {
+		
+		
+		final String path;
+		final String[] headers;
+		
+		final ContentType serialize;
+		private final WeakReference<Class<?>> serializer;
+		
+		final ContentType deserialize;
+		private final WeakReference<Class<?>> deserializer;
+		
+		
+		private Definition(String path, String[] headers,
+			ContentType serialize, Class<?> serializer, ContentType deserialize, Class<?> deserializer) {
+			
+			this.path = path;
+			this.headers = headers;
+			this.serialize = serialize;
+			this.serializer = serializer == null? null :new WeakReference<Class<?>>(serializer);
+			this.deserialize = deserialize;
+			this.deserializer = deserializer == null? null :new WeakReference<Class<?>>(deserializer);
+		}
+		
+		Class<?> serializer() {
+			
+			return serializer == null? null :serializer.get();
+		}
+		
+		Class<?> deserializer() {
+			
+			return deserializer == null? null :deserializer.get();
+		}
+	}
+	
+	
+	private static final Map<Class<?>, ConcurrentMap<String, Definition>> DEFINITIONS
+		= Collections.synchronizedMap(new WeakHashMap<Class<?>, ConcurrentMap<String, Definition>>());
+	
+	
+	private volatile ProxyInvocation.Template template;
+	private volatile RequestPlan[] plans;
+	
+	
+	/**
+	 * <p>Resolves the {@link Method} which defines a request on the given endpoint. This is used by
+	 * generated implementations to resolve all their request definitions <b>once</b>, during class
+	 * initialization.</p>
+	 * 
+	 * @param endpoint
+	 * 			the endpoint interface which declares or inherits the request definition
+	 * <br><br>
+	 * @param name
+	 * 			the name of the method which defines the request
+	 * <br><br>
+	 * @param parameterTypes
+	 * 			the erased types of the parameters on the request definition
+	 * <br><br>
+	 * @return the {@link Method} which defines the request
+	 * <br><br>
+	 * @throws ProxyFactoryException
+	 * 			if the request definition could not be found on the endpoint, which implies that the
+	 * 			generated implementation is out of sync with its endpoint interface
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	protected static Method resolve(Class<?> endpoint, String name, Class<?>... parameterTypes) {
+		
+		try {
+			
+			return endpoint.getMethod(name, parameterTypes);
+		}
+		catch(NoSuchMethodException nsme) {
+			
+			throw new ProxyFactoryException(new StringBuilder("The generated implementation for ")
+				.append(endpoint.getName()).append(" is out of sync with the request definition ")
+				.append(name).append(". Recompile the endpoint. ").toString(), nsme);
+		}
+	}
+	
+	/**
+	 * <p>Defines the statically resolved metadata of a request on the given endpoint. This is used by
+	 * generated implementations to register the constants which were emitted for each of their requests,
+	 * during class initialization and before any {@link RequestPlan} is compiled for the endpoint.</p>
+	 * 
+	 * <p>Definitions are held <b>weakly</b> by their endpoint and are keyed by the signature of their request,
+	 * so that they do not keep the endpoint from being unloaded along with its {@link ClassLoader}.</p>
+	 * 
+	 * @param endpoint
+	 * 			the endpoint interface which declares or inherits the request definition
+	 * <br><br>
+	 * @param request
+	 * 			the {@link Method} which defines the request; see {@link #resolve(Class, String, Class...)}
+	 * <br><br>
+	 * @param path
+	 * 			the complete URI template of the request, including the root path of the endpoint
+	 * <br><br>
+	 * @param headers
+	 * 			the names and values of all static headers on the request, in alternating order
+	 * <br><br>
+	 * @param serialize
+	 * 			the {@link ContentType} of the serializer; else {@link ContentType#UNDEFINED} if a custom
+	 * 			serializer is used, or {@code null} if the request defines no serializer
+	 * <br><br>
+	 * @param serializer
+	 * 			the type of the custom serializer; else {@code null} if none is used
+	 * <br><br>
+	 * @param deserialize
+	 * 			the {@link ContentType} of the deserializer; else {@link ContentType#UNDEFINED} if a custom
+	 * 			deserializer is used, or {@code null} if the request defines no deserializer
+	 * <br><br>
+	 * @param deserializer
+	 * 			the type of the custom deserializer; else {@code null} if none is used
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	protected static void define(Class<?> endpoint, Method request, String path, String[] headers,
+		ContentType serialize, Class<?> serializer, ContentType deserialize, Class<?> deserializer) {
+		
+		ConcurrentMap<String, Definition> definitions;
+		
+		synchronized (DEFINITIONS) {
+			
+			definitions = DEFINITIONS.get(endpoint);
+			
+			if(definitions == null) {
+				
+				definitions = new ConcurrentHashMap<String, Definition>();
+				DEFINITIONS.put(endpoint, definitions);
+			}
+		}
+		
+		definitions.put(signature(request),
+			new Definition(path, headers, serialize, serializer, deserialize, deserializer));
+	}
+	
+	/**
+	 * <p>Retrieves the statically resolved metadata of a request on the given endpoint.</p>
+	 * 
+	 * @param endpoint
+	 * 			the endpoint interface which declares or inherits the request definition
+	 * <br><br>
+	 * @param request
+	 * 			the {@link Method} which defines the request
+	 * <br><br>
+	 * @return the {@link Definition} of the request; else {@code null} if no implementation of the
+	 * 		   endpoint was generated at compile-time
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static Definition definitionOf(Class<?> endpoint, Method request) {
+		
+		ConcurrentMap<String, Definition> definitions = DEFINITIONS.get(endpoint);
+		return definitions == null? null :definitions.get(signature(request));
+	}
+	
+	private static String signature(Method request) {
+		
+		return request.getName() + Arrays.toString(request.getParameterTypes()); //a Method keeps its endpoint alive
+	}
+	
+	/**
+	 * <p>Attaches the {@link ProxyInvocation.Template} which is used for all request invocations on
+	 * this endpoint implementation.</p>
+	 * 
+	 * @param template
+	 * 			the {@link ProxyInvocation.Template} for the endpoint being implemented
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	void attach(ProxyInvocation.Template template) {
+		
+		this.template = template;
+	}
+	
+	/**
+	 * <p>Attaches the {@link ProxyInvocation.Template} which is used for all request invocations on this
+	 * endpoint implementation, along with the requests which its methods dispatch by index.</p>
+	 * 
+	 * @param template
+	 * 			the {@link ProxyInvocation.Template} for the endpoint being implemented
+	 * <br><br>
+	 * @param requests
+	 * 			the request definitions in the order of the indices which are used by the implementation
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	void attach(ProxyInvocation.Template template, Method[] requests) {
+		
+		RequestPlan[] requestPlans = new RequestPlan[requests.length];
+		
+		for (int i = 0; i < requests.length; i++) {
+			
+			requestPlans[i] = template.planFor(requests[i]);
+		}
+		
+		this.plans = requestPlans;
+		this.template = template;
+	}
+	
+	/**
+	 * <p>Invokes the given request with its arguments in the same manner as a dynamic endpoint proxy.</p>
+	 * 
+	 * @param request
+	 * 			the {@link Method} which defines the invoked request
+	 * <br><br>
+	 * @param args
+	 * 			the arguments which were passed to the request; else {@code null} if none
+	 * <br><br>
+	 * @return the result of the invocation as specified by the request definition
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	protected final Object dispatch(Method request, Object[] args) {
+		
+		return ProxyInvocation.newInstance(template, this, request, args).invoke();
+	}
+	
+	/**
+	 * <p>Invokes the request at the given index with its arguments. See
+	 * {@link #attach(ProxyInvocation.Template, Method[])}.</p>
+	 * 
+	 * <p>The arguments are passed as an array with any primitives boxed, since they are read as such by the
+	 * {@link InvocationContext} of the invocation.</p>
+	 * 
+	 * @param request
+	 * 			the index of the invoked request
+	 * <br><br>
+	 * @param args
+	 * 			the arguments which were passed to the request; else {@code null} if none
+	 * <br><br>
+	 * @return the result of the invocation as specified by the request definition
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	protected final Object dispatch(int request, Object[] args) {
+		
+		return ProxyInvocation.newInstance(template, this, plans[request], args).invoke();
+	}
+	
+	/**
+	 * <p>Returns a representation of this endpoint implementation which mirrors that of a dynamic proxy.</p>
+	 * 
+	 * @return the name of the implemented endpoint, followed by the identity hash code in hexadecimal
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	@Override
+	public String toString() {
+		
+		return new StringBuilder(getClass().getInterfaces()[0].getName()).append("@")
+			.append(Integer.toHexString(System.identityHashCode(this))).toString();
+	}
+}
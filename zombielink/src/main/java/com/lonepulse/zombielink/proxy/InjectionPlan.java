@@ -0,0 +1,229 @@
+package com.lonepulse.zombielink.proxy;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.lonepulse.zombielink.util.Is.hierarchyTerminal;
+
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.util.Fields;
+
+/**
+ * <p>A plan for injecting endpoint proxies into instances of a single {@link Class}. The inheritance
+ * hierarchy of the class is scanned for @{@link Bite} properties <b>once</b>, and the means by which
+ * each property is injected (field access, a setter or forced field access) is resolved on its first
+ * injection and replayed thereafter.</p>
+ * 
+ * <p>Plans are cached with <b>weak keys</b> so that they do not prevent classes (and their class
+ * loaders) from being unloaded.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class InjectionPlan {
+	
+	
+	private static enum Strategy { UNRESOLVED, FIELD, SETTER, FORCED_FIELD };
+	
+	
+	private static final class Target {
+		
+		
+		private final Field field;
+		private final Class<?> endpoint;
+		
+		private volatile Strategy strategy = Strategy.UNRESOLVED;
+		private volatile Method mutator;
+		
+		
+		private Target(Field field) {
+			
+			this.field = field;
+			this.endpoint = field.getType();
+		}
+		
+		private void inject(Object injectee, Object proxy) throws Exception {
+			
+			switch (strategy) {
+				
+				case FIELD:
+				case FORCED_FIELD:
+					
+					field.set(injectee, proxy);
+					break;
+				
+				case SETTER:
+					
+					mutator.invoke(injectee, proxy);
+					break;
+				
+				default:
+					
+					resolve(injectee, proxy);
+			}
+		}
+		
+		private void resolve(Object injectee, Object proxy) throws Exception {
+			
+			try { //1.Simple Field Injection
+				
+				field.set(injectee, proxy);
+				strategy = Strategy.FIELD;
+			}
+			catch (IllegalAccessException iae) { //2.Setter Injection
+				
+				String fieldName = field.getName();
+				String mutatorName = "set" + Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+				
+				try {
+					
+					Method setter = injectee.getClass().getDeclaredMethod(mutatorName, endpoint);
+					setter.invoke(injectee, proxy);
+					
+					mutator = setter;
+					strategy = Strategy.SETTER;
+				}
+				catch (NoSuchMethodException nsme) { //3.Forced Field Injection
+					
+					field.setAccessible(true);
+					field.set(injectee, proxy);
+					
+					strategy = Strategy.FORCED_FIELD;
+				}
+			}
+		}
+	}
+	
+	
+	private static final Map<Class<?>, SoftReference<InjectionPlan>> PLANS
+		= Collections.synchronizedMap(new WeakHashMap<Class<?>, SoftReference<InjectionPlan>>());
+	
+	
+	private final List<Class<?>> hierarchy;
+	private final List<List<Target>> targets;
+	
+	
+	/**
+	 * <p>Retrieves the {@link InjectionPlan} for the given type, creating and caching a new plan if none
+	 * exists. Plans are held <b>softly</b>, since each plan references the type which keys it.</p>
+	 * 
+	 * @param type
+	 * 			the {@link Class} of the instances to be injected
+	 * <br><br>
+	 * @return the {@link InjectionPlan} for the given type
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static InjectionPlan of(Class<?> type) {
+		
+		SoftReference<InjectionPlan> reference = PLANS.get(type);
+		InjectionPlan plan = reference == null? null :reference.get();
+		
+		if(plan == null) {
+			
+			plan = new InjectionPlan(type); //a race merely results in a redundant plan
+			PLANS.put(type, new SoftReference<InjectionPlan>(plan));
+		}
+		
+		return plan;
+	}
+	
+	private InjectionPlan(Class<?> type) {
+		
+		List<Class<?>> levels = new ArrayList<Class<?>>();
+		List<List<Target>> levelTargets = new ArrayList<List<Target>>();
+		
+		for (Class<?> level = type; level != null && level != Object.class; level = level.getSuperclass()) {
+			
+			List<Target> bites = new ArrayList<Target>();
+			
+			for (Field field : Fields.in(level).annotatedWith(Bite.class)) {
+				
+				bites.add(new Target(field));
+			}
+			
+			levels.add(level);
+			levelTargets.add(bites);
+		}
+		
+		this.hierarchy = levels;
+		this.targets = levelTargets;
+	}
+	
+	/**
+	 * <p>Injects endpoint proxies into all @{@link Bite} properties on the given instance. The inheritance
+	 * hierarchy is traversed until a type is found which terminates it as per the given package prefixes.
+	 * See {@link com.lonepulse.zombielink.util.Is#hierarchyTerminal(Class, List)}.</p>
+	 * 
+	 * <p>Failures to inject individual properties are logged and do not prevent injection of the rest.</p>
+	 * 
+	 * @param injectee
+	 * 			the instance whose endpoint properties are to be injected
+	 * <br><br>
+	 * @param packagePrefixes
+	 * 			the prefixes of the packages to restrict hierarchical lookup of injection targets
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	void apply(Object injectee, List<String> packagePrefixes) {
+		
+		for (int i = 0; i < hierarchy.size(); i++) {
+			
+			if(i > 0 && hierarchyTerminal(hierarchy.get(i), packagePrefixes)) {
+				
+				break;
+			}
+			
+			for (Target target : targets.get(i)) {
+				
+				try {
+					
+					target.inject(injectee, EndpointProxyFactory.INSTANCE.create(target.endpoint));
+				}
+				catch (Exception e) {
+					
+					Logger.getLogger(Zombie.class.getName())
+					.log(Level.SEVERE, new StringBuilder()
+					.append("Failed to inject the endpoint proxy instance of type ")
+					.append(target.endpoint.getName())
+					.append(" on property ")
+					.append(target.field.getName())
+					.append(" at ")
+					.append(injectee.getClass().getName())
+					.append(". ").toString(), e);
+				}
+			}
+		}
+	}
+}
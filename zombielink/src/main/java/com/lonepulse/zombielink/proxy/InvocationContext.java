@@ -23,7 +23,6 @@ package com.lonepulse.zombielink.proxy;
 import static com.lonepulse.zombielink.util.Assert.assertNotNull;
 
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -40,7 +39,7 @@ import java.util.List;
  * and neither can its deep-state with the exception of any <b>mutable arguments</b> accessed via 
  * {@link #getArguments()}.</p> 
  * 
- * @version 1.1.0
+ * @version 1.2.0
  * <br><br>
  * @since 1.3.0
  * <br><br>
@@ -108,6 +107,19 @@ public final class InvocationContext {
 		 */
 		Builder setArguments(Object[] arguments);
 		
+		/**
+		 * <p>Sets the precompiled {@link RequestPlan} for the invoked request. If a plan is not supplied, 
+		 * one will be compiled for the endpoint and request when the context is built.</p>
+		 * 
+		 * @param plan
+		 * 			the {@link RequestPlan} which was compiled for the invoked request
+		 * <br><br>
+		 * @return the current instance of the {@link Builder} with the plan assigned
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		Builder setPlan(RequestPlan plan);
+		
 		/**
 		 * <p>Takes the supplied information and creates a new instance of {@link InvocationContext}.</p> 
 		 *  
@@ -124,6 +136,7 @@ public final class InvocationContext {
 		private Object proxy;
 		private Method request; 
 		private List<Object> arguments;
+		private RequestPlan plan;
 
 		@Override
 		public Builder setEndpoint(Class<?> endpoint) {
@@ -149,14 +162,26 @@ public final class InvocationContext {
 		@Override
 		public Builder setArguments(Object[] arguments) { //null args imply zero parameters
 			
-			this.arguments = Collections.unmodifiableList(
-				arguments == null? new ArrayList<Object>() :Arrays.asList(arguments));
+			this.arguments = (arguments == null || arguments.length == 0)? 
+				Collections.emptyList() :Collections.unmodifiableList(Arrays.asList(arguments));
+			
+			return this;
+		}
+
+		@Override
+		public Builder setPlan(RequestPlan plan) {
 			
+			this.plan = assertNotNull(plan);
 			return this;
 		}
 
 		@Override
 		public InvocationContext build() {
+			
+			if(plan == null) {
+				
+				plan = RequestPlan.compile(endpoint, request);
+			}
 
 			return new InvocationContext(this);
 		}
@@ -180,6 +205,7 @@ public final class InvocationContext {
 	private final Object proxy;
 	private final Method request; 
 	private final List<Object> arguments;
+	private final RequestPlan plan;
 	
 
 	private InvocationContext(InvocationContextBuilder builder) {
@@ -188,6 +214,7 @@ public final class InvocationContext {
 		this.proxy = builder.proxy;
 		this.request = builder.request;
 		this.arguments = builder.arguments;
+		this.plan = builder.plan;
 	}
 
 	/**
@@ -245,4 +272,19 @@ public final class InvocationContext {
 		
 		return arguments;
 	}
+	
+	/**
+	 * <p>Retrieves the precompiled {@link RequestPlan} which holds all metadata discovered on the endpoint, 
+	 * the request definition and its parameters.</p>
+	 * 
+	 * <p>See {@link Builder#setPlan(RequestPlan)}</p>
+	 * 
+	 * @return the {@link RequestPlan} for the invoked request
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public RequestPlan getPlan() {
+		
+		return plan;
+	}
 }
@@ -34,13 +34,13 @@ import com.lonepulse.zombielink.ZombieLinkRuntimeException;
  * 	<li>Response Processing</li>
  * </ol>
  *
- * @version 1.1.0
+ * @version 1.2.0
  * <br><br>
  * @since 1.3.0
  * <br><br>
  * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
  */
-public final class InvocationException extends ZombieLinkRuntimeException {
+public class InvocationException extends ZombieLinkRuntimeException {
 	
 
 	private static final long serialVersionUID = -6306853618935833711L;
@@ -145,6 +145,27 @@ public final class InvocationException extends ZombieLinkRuntimeException {
 		this.context = context;
 		this.response = null;
 	}
+	
+	/**
+	 * <p>Creates a new instance of {@link InvocationException} which signals that the request was not 
+	 * executed for the given reason. This is used by specializations which identify such reasons.</p>
+	 * 
+	 * @param context
+	 * 			the {@link InvocationContext} of the request which was not executed
+	 * <br><br>
+	 * @param reason
+	 * 			the reason for which the request was not executed
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	protected InvocationException(InvocationContext context, String reason) {
+		
+		super(new StringBuilder().append("Failed to execute request <")
+			  .append(context.getRequest().getName()).append(">: ").append(reason).toString());
+		
+		this.context = context;
+		this.response = null;
+	}
 
 	/**
 	 * <p>Retrieves the {@link HttpResponse} which was returned for the request.</p>
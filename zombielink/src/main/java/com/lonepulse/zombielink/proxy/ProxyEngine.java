@@ -0,0 +1,192 @@
+package com.lonepulse.zombielink.proxy;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.lonepulse.zombielink.annotation.Engine;
+
+/**
+ * <p>Identifies the mechanism which creates the proxies of endpoints whose implementations were not
+ * generated at compile-time.</p>
+ * 
+ * <p>The engine for <b>all</b> endpoints is chosen using the system property {@value #PROPERTY}, which
+ * accepts <i>dynamic</i> (the default) or <i>generated</i>. An engine may be chosen for a single endpoint
+ * using @{@link Engine}.</p>
+ * 
+ * @version 1.0.1
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public enum ProxyEngine {
+	
+	
+	/**
+	 * <p>Creates a {@link Proxy} of the endpoint, which dispatches each invocation to an
+	 * {@link InvocationHandler} along with the invoked {@link Method}.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	DYNAMIC {
+		
+		@Override
+		Object newInstance(final Class<?> endpoint, final ProxyInvocation.Template template) {
+			
+			try {
+				
+				return Proxy.newProxyInstance(endpoint.getClassLoader(), new Class<?>[] {endpoint} , new InvocationHandler() {
+					
+					@Override
+					public Object invoke(final Object proxy, final Method method, final Object[] args) {
+						
+						if(method.getDeclaringClass() == Object.class) { //equals, hashCode and toString are not requests
+							
+							return invokeOnProxy(endpoint, proxy, method, args);
+						}
+						
+						return ProxyInvocation.newInstance(template, proxy, method, args).invoke();
+					}
+				});
+			}
+			catch(Exception e) {
+				
+				throw new ProxyFactoryException(EndpointProxyFactory.class, e);
+			}
+		}
+	},
+	
+	/**
+	 * <p>Generates a class at runtime which implements the endpoint with one method per request. Each
+	 * method dispatches directly to the {@link RequestPlan} of its request, without discovering the
+	 * invoked {@link Method}. See {@link EndpointGenerator}.</p>
+	 * 
+	 * <p>Arguments are still collected into an array and primitives are still boxed, exactly as they are
+	 * by {@link #DYNAMIC}, since every stage of an invocation reads them via
+	 * {@link InvocationContext#getArguments()}.</p>
+	 * 
+	 * <p>Classes cannot be generated for endpoints which are not public or whose requests return types
+	 * which are not public, nor on platforms which do not load JVM bytecode. Such endpoints fall back to
+	 * {@link #DYNAMIC}.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	GENERATED {
+		
+		@Override
+		Object newInstance(Class<?> endpoint, ProxyInvocation.Template template) {
+			
+			GeneratedEndpoint generated = EndpointGenerator.newInstance(endpoint, template);
+			
+			if(generated == null) {
+				
+				Logger.getLogger(ProxyEngine.class.getName()).log(Level.INFO, new StringBuilder("An implementation ")
+					.append("cannot be generated for ").append(endpoint.getName())
+					.append(". Falling back to a dynamic proxy. ").toString());
+				
+				return DYNAMIC.newInstance(endpoint, template);
+			}
+			
+			return generated;
+		}
+	};
+	
+	
+	/**
+	 * <p>The name of the system property which selects the {@link ProxyEngine} for all endpoints.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	public static final String PROPERTY = "zombielink.proxy.engine";
+	
+	
+	private static Object invokeOnProxy(Class<?> endpoint, Object proxy, Method method, Object[] args) {
+		
+		String name = method.getName();
+		
+		if("equals".equals(name)) {
+			
+			return proxy == args[0];
+		}
+		
+		if("hashCode".equals(name)) {
+			
+			return System.identityHashCode(proxy);
+		}
+		
+		return new StringBuilder(endpoint.getName()).append("@")
+			.append(Integer.toHexString(System.identityHashCode(proxy))).toString();
+	}
+	
+	/**
+	 * <p>Resolves the {@link ProxyEngine} which is selected via the system property {@value #PROPERTY}.</p>
+	 * 
+	 * @return the selected {@link ProxyEngine}; else {@link #DYNAMIC} if the property is undefined or unknown
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static ProxyEngine resolve() {
+		
+		String engine = System.getProperty(PROPERTY);
+		
+		return (engine != null && engine.trim().equalsIgnoreCase(GENERATED.name()))? GENERATED :DYNAMIC;
+	}
+	
+	/**
+	 * <p>Resolves the {@link ProxyEngine} for the given endpoint, which is the one selected via @{@link Engine};
+	 * else the one selected via the system property {@value #PROPERTY}.</p>
+	 * 
+	 * @param endpoint
+	 * 			the endpoint definition interface whose proxy is to be created
+	 * <br><br>
+	 * @return the {@link ProxyEngine} for the given endpoint
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static ProxyEngine of(Class<?> endpoint) {
+		
+		Engine engine = endpoint.getAnnotation(Engine.class);
+		return engine == null? resolve() :engine.value();
+	}
+	
+	/**
+	 * <p>Creates a new proxy of the given endpoint which invokes all its requests using the given template.</p>
+	 * 
+	 * @param endpoint
+	 * 			the endpoint definition interface to be proxied
+	 * <br><br>
+	 * @param template
+	 * 			the {@link ProxyInvocation.Template} for all request invocations on the endpoint
+	 * <br><br>
+	 * @return a new proxy which implements the given endpoint
+	 * <br><br>
+	 * @throws ProxyFactoryException
+	 * 			if the proxy failed to be created
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	abstract Object newInstance(Class<?> endpoint, ProxyInvocation.Template template);
+}
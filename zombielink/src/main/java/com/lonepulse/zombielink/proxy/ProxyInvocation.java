@@ -20,15 +20,25 @@ package com.lonepulse.zombielink.proxy;
  * #L%
  */
 
+import static com.lonepulse.zombielink.util.Assert.assertNotNull;
 import static com.lonepulse.zombielink.util.Assert.assertValid;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpRequestBase;
 
 import com.lonepulse.zombielink.ZombieLinkRuntimeException;
+import com.lonepulse.zombielink.annotation.CircuitBreaker;
+import com.lonepulse.zombielink.annotation.RateLimit;
+import com.lonepulse.zombielink.executor.CircuitOpenException;
 import com.lonepulse.zombielink.executor.RequestExecutors;
 import com.lonepulse.zombielink.processor.Processors;
 
@@ -38,7 +48,7 @@ import com.lonepulse.zombielink.processor.Processors;
  * direct the invocation as defined on an {@link ProxyInvocation.Template}. Instances of {@link ProxyInvocation} 
  * may be used for deferred request execution using a queuing strategy, reuse via caching, etc.</p>
  * 
- * @version 1.2.0
+ * @version 1.8.0
  * <br><br>
  * @since 1.3.0
  * <br><br>
@@ -58,7 +68,7 @@ final class ProxyInvocation implements Invocation {
 	 * 	<li>{@link #handleResponse(HttpResponse, InvocationContext)} - transforms the response to a consumable</li>
 	 * </ol>
 	 * 
-	 * @version 1.2.0
+	 * @version 1.3.0
 	 * <br><br>
 	 * @since 1.3.0
 	 * <br><br>
@@ -69,6 +79,8 @@ final class ProxyInvocation implements Invocation {
 		
 		private final Class<?> endpoint;
 		
+		private final Map<Method, RequestPlan> plans;
+		
 		
 		/**
 		 * <p>Creates a new {@link ProxyInvocation.Template} which defines the stages in request invocation 
@@ -78,7 +90,8 @@ final class ProxyInvocation implements Invocation {
 		 * is mandatory. The provided interface will be validated against a set of predetermined rules to 
 		 * ensure its integrity. See {@link Validators#ENDPOINT}.</p>
 		 * 
-		 * <p>Any custom {@link Zombie.Configuration} on the endpoint will be registered after validation.</p>
+		 * <p>Any custom {@link Zombie.Configuration} on the endpoint will be registered after validation 
+		 * and a {@link RequestPlan} will be compiled for each request definition on the endpoint.</p>
 		 * 
 		 * @param endpoint
 		 * 			the endpoint definition interface for which {@link ProxyInvocation}s are to be made
@@ -90,8 +103,56 @@ final class ProxyInvocation implements Invocation {
 		 */
 		public Template(Class<?> endpoint) {
 			
-			this.endpoint = assertValid(endpoint, Validators.ENDPOINT);
+			this(endpoint, true);
+		}
+		
+		/**
+		 * <p>Creates a new {@link ProxyInvocation.Template} for the given endpoint, optionally skipping its 
+		 * validation. This is used for endpoints whose implementations were generated at compile-time, where 
+		 * the rules in {@link Validators#ENDPOINT} have already been enforced.</p>
+		 * 
+		 * @param endpoint
+		 * 			the endpoint definition interface for which {@link ProxyInvocation}s are to be made
+		 * <br><br>
+		 * @param validate
+		 * 			{@code true} if the endpoint should be validated against the predetermined rules
+		 * <br><br>
+		 * @throws EndpointValidationFailedException
+		 * 			if validation was requested and the given endpoint failed to be validated
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		protected Template(Class<?> endpoint, boolean validate) {
+			
+			this.endpoint = validate? assertValid(endpoint, Validators.ENDPOINT) :assertNotNull(endpoint);
 			RequestExecutors.CONFIGURATION.register(this.endpoint);
+			
+			Map<Method, RequestPlan> requestPlans = new HashMap<Method, RequestPlan>();
+			
+			for (Method request : this.endpoint.getMethods()) {
+				
+				requestPlans.put(request, RequestPlan.compile(this.endpoint, request));
+			}
+			
+			this.plans = requestPlans;
+		}
+		
+		/**
+		 * <p>Retrieves the {@link RequestPlan} which was compiled for the given request definition. If the 
+		 * request is unknown to this template (e.g. a method declared on {@link Object}), a new plan is 
+		 * compiled on demand.</p>
+		 * 
+		 * @param request
+		 * 			the {@link Method} which defines the invoked request
+		 * <br><br>
+		 * @return the {@link RequestPlan} for the given request definition
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		protected RequestPlan planFor(Method request) {
+			
+			RequestPlan plan = plans.get(request);
+			return plan == null? RequestPlan.compile(endpoint, request) :plan;
 		}
 
 		/**
@@ -115,6 +176,9 @@ final class ProxyInvocation implements Invocation {
 		 * <p>Responsible for executing a request using the designated {@link HttpClient} and returning the 
 		 * resulting {@link HttpResponse}, if any.</p>
 		 * 
+		 * <p>Requests with a @{@link RateLimit} take a permit before they are dispatched. See 
+		 * {@link RequestExecutors#throttle(InvocationContext)}.</p>
+		 * 
 		 * @param context
 		 * 			the {@link InvocationContext} associated with the current request execution
 		 * <br><br>
@@ -128,6 +192,7 @@ final class ProxyInvocation implements Invocation {
 		 */
 		protected HttpResponse executeRequest(InvocationContext context, HttpRequestBase request) {
 			
+			RequestExecutors.throttle(context);
 			return RequestExecutors.resolve(context).execute(context, request);
 		}
 		
@@ -152,6 +217,8 @@ final class ProxyInvocation implements Invocation {
 	}
 	
 	
+	private static final ConcurrentMap<Class<?>, Object> FALLBACKS = new ConcurrentHashMap<Class<?>, Object>();
+	
 	private final Template template;
 	private final InvocationContext context;
 	
@@ -184,6 +251,40 @@ final class ProxyInvocation implements Invocation {
 				.setProxy(proxy)
 				.setRequest(method)
 				.setArguments(args)
+				.setPlan(template.planFor(method))
+				.build(), template);
+	}
+	
+	/**
+	 * <p>Creates a new {@link ProxyInvocation} for the given {@link RequestPlan}, which was resolved ahead
+	 * of the invocation. This is used by endpoint implementations which dispatch each request directly to
+	 * its plan. See {@link GeneratedEndpoint}.</p>
+	 * 
+	 * @param template
+	 * 			the {@link ProxyInvocation.Template} which is used for the invocation
+	 * <br><br>
+	 * @param proxy
+	 * 			the endpoint implementation on which the request was invoked
+	 * <br><br>
+	 * @param plan
+	 * 			the {@link RequestPlan} of the invoked request
+	 * <br><br>
+	 * @param args
+	 * 			the arguments which were passed to the request; else {@code null} if none
+	 * <br><br>
+	 * @return a new {@link ProxyInvocation} for the planned request
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static ProxyInvocation newInstance(
+		ProxyInvocation.Template template, Object proxy, RequestPlan plan, Object[] args) {
+		
+		return new ProxyInvocation(InvocationContext.newBuilder()
+				.setEndpoint(template.endpoint)
+				.setProxy(proxy)
+				.setRequest(plan.getRequest())
+				.setArguments(args)
+				.setPlan(plan)
 				.build(), template);
 	}
 	
@@ -196,6 +297,20 @@ final class ProxyInvocation implements Invocation {
 	/**
 	 * <p>Allows the request invocation to progress by directing each stage of the process from context 
 	 * instantiation to request processing, onto request execution and finally response handling.</p>
+	 * 
+	 * <p>If the request returns a {@link java.util.concurrent.Future}, these stages are performed in the 
+	 * background and the future is returned immediately. See {@link RequestExecutors#submit(InvocationContext, 
+	 * Callable)}.</p>
+	 * 
+	 * <p>Requests which are batched are served by a single invocation of their paired bulk request along 
+	 * with any other invocations in the same batch; asynchronous requests are buffered and sent in bulk. 
+	 * See {@link RequestPlan#getBatched()}.</p>
+	 * 
+	 * <p>Requests which are coalesced share their execution and response handling with any identical 
+	 * request which is already in flight. See {@link RequestPlan#isCoalesced()}.</p>
+	 * 
+	 * <p>Requests which are rejected by an open circuit are served by the fallback of their 
+	 * @{@link CircuitBreaker}, if any. See {@link RequestPlan#getCircuitBreaker()}.</p>
 	 *
 	 * @return the result of the invocation as specified by the request definition on the endpoint
 	 * <br><br>
@@ -207,8 +322,91 @@ final class ProxyInvocation implements Invocation {
 	@Override
 	public Object invoke() {
 		
-		HttpRequestBase request = template.buildRequest(context); 
-		HttpResponse response = template.executeRequest(context, request);
+		if(context.getPlan().isFuture()) {
+			
+			return RequestExecutors.submit(context, new Callable<Object>() {
+				
+				@Override
+				public Object call() {
+					
+					return execute();
+				}
+			});
+		}
+		
+		return execute();
+	}
+	
+	private Object execute() {
+		
+		if(context.getPlan().getBatched() != null) {
+			
+			return context.getPlan().isAsync()? 
+				RequestBatcher.enqueue(context, template) :RequestBatcher.execute(context);
+		}
+		
+		final HttpRequestBase request = template.buildRequest(context); 
+		
+		if(context.getPlan().isCoalesced()) {
+			
+			return RequestCoalescer.execute(context, request, new Callable<Object>() {
+				
+				@Override
+				public Object call() {
+					
+					return exchange(request);
+				}
+			});
+		}
+		
+		return exchange(request);
+	}
+	
+	private Object exchange(HttpRequestBase request) {
+		
+		HttpResponse response = null;
+		
+		try {
+			
+			response = template.executeRequest(context, request);
+		}
+		catch(CircuitOpenException coe) {
+			
+			return fallback(coe);
+		}
+		
 		return response == null? null :template.handleResponse(context, response);
 	}
+	
+	private Object fallback(CircuitOpenException coe) {
+		
+		Class<?> fallbackType = context.getPlan().getCircuitBreaker().fallback();
+		
+		if(fallbackType == Void.class) {
+			
+			throw coe;
+		}
+		
+		try {
+			
+			Object fallback = FALLBACKS.get(fallbackType);
+			
+			if(fallback == null) {
+				
+				Object created = fallbackType.newInstance();
+				fallback = FALLBACKS.putIfAbsent(fallbackType, created);
+				fallback = fallback == null? created :fallback;
+			}
+			
+			return context.getRequest().invoke(fallback, context.getArguments().toArray());
+		}
+		catch(InvocationTargetException ite) {
+			
+			throw InvocationException.newInstance(context, ite.getCause());
+		}
+		catch(Exception e) {
+			
+			throw InvocationException.newInstance(context, e);
+		}
+	}
 }
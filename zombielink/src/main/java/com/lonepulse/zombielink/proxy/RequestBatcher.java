@@ -0,0 +1,553 @@
+package com.lonepulse.zombielink.proxy;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+
+import com.lonepulse.zombielink.annotation.Async;
+import com.lonepulse.zombielink.annotation.Batched;
+import com.lonepulse.zombielink.executor.RequestExecutors;
+import com.lonepulse.zombielink.response.AsyncHandler;
+
+/**
+ * <p>Collects concurrent invocations of a @{@link Batched} request into a single invocation of its paired
+ * bulk request. The first invocation opens a <b>batch</b> for the request and every invocation which arrives
+ * before the batch is dispatched adds its key to it. A batch is dispatched once it holds the maximum number
+ * of keys or once its delay has elapsed, on the thread of one of its invokers, while the others await and
+ * share the outcome.</p>
+ * 
+ * <p>The bulk request is invoked on the endpoint proxy itself, so it is subject to every policy which is
+ * placed on it, e.g. a @{@link com.lonepulse.zombielink.annotation.Retry}.</p>
+ * 
+ * <p>Invocations of @{@link Async} requests return immediately after their argument is placed on a
+ * lock-free <b>buffer</b> for the request. A buffer is flushed once it holds the maximum number of
+ * arguments or once the delay of its oldest argument has elapsed, and each flush sends its arguments in
+ * a single bulk request on the endpoint's executor. The outcome of the bulk request is delivered to the
+ * {@link AsyncHandler} of every invocation in the flush. Neither the timer nor an invoker which fills the
+ * buffer ever sends the bulk request itself; if the executor is saturated, the flush is rejected and the
+ * rejection is delivered to every invocation in the flush instead.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class RequestBatcher {
+	
+	
+	private static final class Batch {
+		
+		
+		private final Set<Object> keys = new LinkedHashSet<Object>();
+		private final FutureTask<Map<Object, Object>> dispatch;
+		private final long deadline;
+		
+		private boolean closed;
+		
+		
+		private Batch(final InvocationContext context, long maxDelay) {
+			
+			this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelay);
+			this.dispatch = new FutureTask<Map<Object, Object>>(new Callable<Map<Object, Object>>() {
+				
+				@Override
+				public Map<Object, Object> call() throws Exception {
+					
+					return RequestBatcher.dispatch(context, new ArrayList<Object>(keys));
+				}
+			});
+		}
+		
+		private synchronized void await() throws InterruptedException {
+			
+			long remaining = deadline - System.nanoTime();
+			
+			while(!closed && remaining > 0) {
+				
+				TimeUnit.NANOSECONDS.timedWait(this, remaining);
+				remaining = deadline - System.nanoTime();
+			}
+		}
+		
+		private synchronized void close() {
+			
+			closed = true;
+			notifyAll();
+		}
+	}
+	
+	
+	private static final class Buffer {
+		
+		
+		private final ConcurrentLinkedQueue<InvocationContext> invocations = new ConcurrentLinkedQueue<InvocationContext>();
+		private final AtomicInteger size = new AtomicInteger();
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+	}
+	
+	
+	private static final Log LOGGER = LogFactory.getLog(RequestBatcher.class);
+	
+	private static final Map<Method, Batch> PENDING = new HashMap<Method, Batch>();
+	
+	private static final ConcurrentMap<Method, Buffer> BUFFERS = new ConcurrentHashMap<Method, Buffer>();
+	
+	private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+		
+		@Override
+		public Thread newThread(Runnable runnable) {
+			
+			Thread timer = new Thread(runnable, "zombielink-batch-timer");
+			timer.setDaemon(true);
+			
+			return timer;
+		}
+	});
+	
+	
+	private RequestBatcher() {}
+	
+	
+	/**
+	 * <p>Adds the key of the given invocation to the pending batch of its request, opening a new batch if
+	 * none is pending, and awaits the outcome of the bulk request which serves the batch.</p>
+	 * 
+	 * @param context
+	 * 			the {@link InvocationContext} of the invoked @{@link Batched} request, whose only argument
+	 * 			is its key
+	 * <br><br>
+	 * @return the part of the bulk response which belongs to the key of the invocation; else {@code null}
+	 * 		   if the bulk response has no such part
+	 * <br><br>
+	 * @throws InvocationException
+	 * 			if the thread was interrupted while awaiting the batch; any other failure of the bulk request
+	 * 			is rethrown as-is to every invocation in the batch
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static Object execute(InvocationContext context) {
+		
+		Method request = context.getRequest();
+		Batched batched = context.getPlan().getBatched();
+		Object key = context.getArguments().get(context.getPlan().getBatchIndex());
+		
+		Batch batch;
+		
+		synchronized (PENDING) {
+			
+			batch = PENDING.get(request);
+			
+			if(batch == null) {
+				
+				batch = new Batch(context, batched.maxDelay());
+				PENDING.put(request, batch);
+			}
+			
+			batch.keys.add(key);
+			
+			if(batch.keys.size() >= batched.maxSize()) {
+				
+				PENDING.remove(request);
+				batch.close();
+			}
+		}
+		
+		try {
+			
+			batch.await();
+			
+			synchronized (PENDING) {
+				
+				if(PENDING.get(request) == batch) {
+					
+					PENDING.remove(request);
+				}
+			}
+			
+			batch.close();
+			batch.dispatch.run(); //only the first invoker to get here dispatches the batch
+			
+			return batch.dispatch.get().get(key);
+		}
+		catch(ExecutionException ee) {
+			
+			Throwable cause = ee.getCause();
+			
+			if(cause instanceof RuntimeException) {
+				
+				throw (RuntimeException)cause;
+			}
+			
+			if(cause instanceof Error) {
+				
+				throw (Error)cause;
+			}
+			
+			throw InvocationException.newInstance(context, cause);
+		}
+		catch(InterruptedException ie) {
+			
+			Thread.currentThread().interrupt();
+			throw InvocationException.newInstance(context, ie);
+		}
+	}
+	
+	private static Map<Object, Object> dispatch(InvocationContext context, List<Object> keys) throws Exception {
+		
+		Method target = context.getPlan().getBatchTarget();
+		
+		Object result = null;
+		
+		try {
+			
+			result = target.invoke(context.getProxy(), argument(target, keys));
+		}
+		catch(InvocationTargetException ite) {
+			
+			Throwable cause = ite.getCause();
+			throw (cause instanceof Exception)? (Exception)cause :new ExecutionException(cause);
+		}
+		
+		return split(keys, result);
+	}
+	
+	/**
+	 * <p>Places the argument of the given invocation of an @{@link Async} request on the buffer of its
+	 * request and returns immediately. The buffer is flushed on the endpoint's executor once it is full,
+	 * or else once the delay of the request has elapsed.</p>
+	 * 
+	 * @param context
+	 * 			the {@link InvocationContext} of the invoked @{@link Async} @{@link Batched} request
+	 * <br><br>
+	 * @param template
+	 * 			the {@link ProxyInvocation.Template} which defines the stages in invoking the bulk request
+	 * <br><br>
+	 * @return {@code null}, since the outcome is delivered to the {@link AsyncHandler} of the invocation
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static Object enqueue(InvocationContext context, final ProxyInvocation.Template template) {
+		
+		final Method request = context.getRequest();
+		final Batched batched = context.getPlan().getBatched();
+		
+		Buffer buffer = BUFFERS.get(request);
+		
+		if(buffer == null) {
+			
+			Buffer created = new Buffer();
+			buffer = BUFFERS.putIfAbsent(request, created);
+			buffer = buffer == null? created :buffer;
+		}
+		
+		buffer.invocations.offer(context);
+		int size = buffer.size.incrementAndGet();
+		
+		if(buffer.scheduled.compareAndSet(false, true)) {
+			
+			final Buffer scheduled = buffer;
+			
+			TIMER.schedule(new Runnable() {
+				
+				@Override
+				public void run() {
+					
+					scheduled.scheduled.set(false);
+					
+					while(flush(scheduled, batched.maxSize(), template));
+				}
+				
+			}, batched.maxDelay(), TimeUnit.MILLISECONDS);
+		}
+		
+		if(size >= batched.maxSize()) {
+			
+			flush(buffer, batched.maxSize(), template);
+		}
+		
+		return null;
+	}
+	
+	private static boolean flush(Buffer buffer, int maxSize, final ProxyInvocation.Template template) {
+		
+		final List<InvocationContext> invocations = new ArrayList<InvocationContext>(maxSize);
+		InvocationContext invocation = null;
+		
+		while(invocations.size() < maxSize && (invocation = buffer.invocations.poll()) != null) {
+			
+			invocations.add(invocation);
+		}
+		
+		if(invocations.isEmpty()) {
+			
+			return false;
+		}
+		
+		buffer.size.addAndGet(-invocations.size());
+		
+		try {
+			
+			RequestExecutors.schedule(invocations.get(0), new Runnable() {
+				
+				@Override
+				public void run() {
+					
+					send(invocations, template);
+				}
+			});
+		}
+		catch(Exception e) {
+			
+			for (InvocationContext context : invocations) {
+				
+				onError(context, e);
+			}
+		}
+		
+		return true;
+	}
+	
+	private static void send(List<InvocationContext> invocations, ProxyInvocation.Template template) {
+		
+		InvocationContext first = invocations.get(0);
+		Method target = first.getPlan().getBatchTarget();
+		
+		List<Object> entities = new ArrayList<Object>(invocations.size());
+		
+		for (InvocationContext context : invocations) {
+			
+			entities.add(context.getArguments().get(context.getPlan().getBatchIndex()));
+		}
+		
+		InvocationContext bulk = InvocationContext.newBuilder()
+			.setEndpoint(first.getEndpoint())
+			.setProxy(first.getProxy())
+			.setRequest(target)
+			.setArguments(new Object[] {argument(target, entities)})
+			.setPlan(template.planFor(target))
+			.build();
+		
+		HttpResponse response = null;
+		Object content = null;
+		
+		try {
+			
+			HttpRequestBase request = template.buildRequest(bulk);
+			
+			RequestExecutors.throttle(bulk);
+			response = RequestExecutors.BASIC.execute(bulk, request); //the bulk request is always synchronous
+			
+			content = response == null? null :template.handleResponse(bulk, response);
+		}
+		catch(InvocationException ie) {
+			
+			for (InvocationContext context : invocations) {
+				
+				if(ie.hasResponse()) {
+					
+					onFailure(context, ie.getResponse());
+				}
+				else {
+					
+					onError(context, ie);
+				}
+			}
+			
+			return;
+		}
+		catch(Exception e) {
+			
+			for (InvocationContext context : invocations) {
+				
+				onError(context, e);
+			}
+			
+			return;
+		}
+		
+		List<?> parts = elements(content);
+		
+		for (int i = 0; i < invocations.size(); i++) {
+			
+			onSuccess(invocations.get(i), response, parts == null? content :i < parts.size()? parts.get(i) :null);
+		}
+	}
+	
+	@SuppressWarnings("unchecked") //safe cast from Object to AsyncHandler
+	private static AsyncHandler<Object> getAsyncHandler(InvocationContext context) {
+		
+		for (Object argument : context.getArguments()) {
+			
+			if(argument instanceof AsyncHandler) {
+				
+				return AsyncHandler.class.cast(argument);
+			}
+		}
+		
+		return null;
+	}
+	
+	private static void onSuccess(InvocationContext context, HttpResponse response, Object content) {
+		
+		AsyncHandler<Object> asyncHandler = getAsyncHandler(context);
+		
+		if(asyncHandler != null) {
+			
+			try {
+				
+				asyncHandler.onSuccess(response, content);
+			}
+			catch(Exception e) {
+				
+				LOGGER.error("Callback \"onSuccess\" aborted with an exception.", e);
+			}
+		}
+	}
+	
+	private static void onFailure(InvocationContext context, HttpResponse response) {
+		
+		AsyncHandler<Object> asyncHandler = getAsyncHandler(context);
+		
+		if(asyncHandler != null) {
+			
+			try {
+				
+				asyncHandler.onFailure(response);
+			}
+			catch(Exception e) {
+				
+				LOGGER.error("Callback \"onFailure\" aborted with an exception.", e);
+			}
+		}
+	}
+	
+	private static void onError(InvocationContext context, Exception error) {
+		
+		AsyncHandler<Object> asyncHandler = getAsyncHandler(context);
+		
+		if(asyncHandler != null) {
+			
+			try {
+				
+				asyncHandler.onError(InvocationException.newInstance(context, error));
+			}
+			catch(Exception e) {
+				
+				LOGGER.error("Callback \"onError\" aborted with an exception.", e);
+			}
+		}
+	}
+	
+	private static Object argument(Method target, List<Object> values) {
+		
+		Class<?> valuesType = target.getParameterTypes()[0];
+		
+		if(!valuesType.isArray()) {
+			
+			return values;
+		}
+		
+		Object array = Array.newInstance(valuesType.getComponentType(), values.size());
+		
+		for (int i = 0; i < values.size(); i++) {
+			
+			Array.set(array, i, values.get(i));
+		}
+		
+		return array;
+	}
+	
+	private static Map<Object, Object> split(List<Object> keys, Object result) {
+		
+		Map<Object, Object> items = new HashMap<Object, Object>();
+		
+		if(result instanceof Map) {
+			
+			Map<?, ?> values = (Map<?, ?>)result;
+			
+			for (Object key : keys) {
+				
+				items.put(key, values.get(key));
+			}
+		}
+		else {
+			
+			List<?> values = elements(result);
+			
+			for (int i = 0; values != null && i < keys.size() && i < values.size(); i++) {
+				
+				items.put(keys.get(i), values.get(i));
+			}
+		}
+		
+		return items;
+	}
+	
+	private static List<?> elements(Object content) {
+		
+		if(content instanceof Collection) {
+			
+			return new ArrayList<Object>((Collection<?>)content);
+		}
+		
+		if(content == null || !content.getClass().isArray()) {
+			
+			return null;
+		}
+		
+		Object[] elements = new Object[Array.getLength(content)];
+		
+		for (int i = 0; i < elements.length; i++) {
+			
+			elements[i] = Array.get(content, i);
+		}
+		
+		return Arrays.asList(elements);
+	}
+}
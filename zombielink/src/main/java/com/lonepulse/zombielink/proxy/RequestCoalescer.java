@@ -0,0 +1,145 @@
+package com.lonepulse.zombielink.proxy;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.apache.http.Header;
+import org.apache.http.client.methods.HttpRequestBase;
+
+import com.lonepulse.zombielink.annotation.Coalesce;
+
+/**
+ * <p>Collapses concurrent identical invocations of @{@link Coalesce} requests into a single exchange.
+ * The first invocation for a given request <i>key</i> (its endpoint and request definition along with its
+ * HTTP method, URI and headers) becomes the
+ * <b>leader</b> and performs the exchange on its own thread, while invocations which arrive with the
+ * same key before the leader completes await its outcome.</p>
+ * 
+ * <p>A key is released as soon as its exchange completes, so invocations which arrive afterwards start
+ * a new exchange. This is not a cache.</p>
+ * 
+ * <p>Since the key identifies the request definition, only invocations which expect the same type of
+ * response content share an exchange. Requests with in-out @{@link com.lonepulse.zombielink.annotation.Header}
+ * parameters are never coalesced (see {@link RequestPlan#isCoalesced()}).</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class RequestCoalescer {
+	
+	
+	private static final ConcurrentMap<String, FutureTask<Object>> IN_FLIGHT
+		= new ConcurrentHashMap<String, FutureTask<Object>>();
+	
+	
+	private RequestCoalescer() {}
+	
+	
+	/**
+	 * <p>Performs the given exchange for the given request, unless an identical request is already in
+	 * flight, in which case its outcome is awaited and shared.</p>
+	 * 
+	 * @param context
+	 * 			the {@link InvocationContext} of the invoked request
+	 * <br><br>
+	 * @param request
+	 * 			the fully built {@link HttpRequestBase} which identifies the exchange
+	 * <br><br>
+	 * @param exchange
+	 * 			the {@link Callable} which executes the request and yields the processed response content
+	 * <br><br>
+	 * @return the response content produced by this or an identical in-flight exchange
+	 * <br><br>
+	 * @throws InvocationException
+	 * 			if the thread was interrupted while awaiting an in-flight exchange; any other failure of the
+	 * 			exchange is rethrown as-is to every invocation which shares it
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static Object execute(InvocationContext context, HttpRequestBase request, Callable<Object> exchange) {
+		
+		String key = key(context, request);
+		
+		FutureTask<Object> flight = new FutureTask<Object>(exchange);
+		FutureTask<Object> leader = IN_FLIGHT.putIfAbsent(key, flight);
+		
+		if(leader == null) {
+			
+			leader = flight;
+			
+			try {
+				
+				flight.run();
+			}
+			finally {
+				
+				IN_FLIGHT.remove(key, flight);
+			}
+		}
+		
+		try {
+			
+			return leader.get();
+		}
+		catch(ExecutionException ee) {
+			
+			Throwable cause = ee.getCause();
+			
+			if(cause instanceof RuntimeException) {
+				
+				throw (RuntimeException)cause;
+			}
+			
+			if(cause instanceof Error) {
+				
+				throw (Error)cause;
+			}
+			
+			throw InvocationException.newInstance(context, cause);
+		}
+		catch(InterruptedException ie) {
+			
+			Thread.currentThread().interrupt();
+			throw InvocationException.newInstance(context, ie);
+		}
+	}
+	
+	private static String key(InvocationContext context, HttpRequestBase request) {
+		
+		StringBuilder key = new StringBuilder(context.getEndpoint().getName()).append('#')
+			.append(context.getRequest()).append('\n').append(request.getMethod()).append(' ').append(request.getURI());
+		
+		for (Header header : request.getAllHeaders()) {
+			
+			key.append('\n').append(header.getName()).append(": ").append(header.getValue());
+		}
+		
+		return key.toString();
+	}
+}
@@ -0,0 +1,857 @@
+package com.lonepulse.zombielink.proxy;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.lonepulse.zombielink.util.Assert.assertNotNull;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import com.lonepulse.zombielink.annotation.Async;
+import com.lonepulse.zombielink.annotation.Batched;
+import com.lonepulse.zombielink.annotation.Bulkhead;
+import com.lonepulse.zombielink.annotation.CircuitBreaker;
+import com.lonepulse.zombielink.annotation.Coalesce;
+import com.lonepulse.zombielink.annotation.Deserialize;
+import com.lonepulse.zombielink.annotation.Detach;
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.Entity.ContentType;
+import com.lonepulse.zombielink.annotation.Header;
+import com.lonepulse.zombielink.annotation.Headers;
+import com.lonepulse.zombielink.annotation.Hedge;
+import com.lonepulse.zombielink.annotation.RateLimit;
+import com.lonepulse.zombielink.annotation.Request.RequestMethod;
+import com.lonepulse.zombielink.annotation.Retry;
+import com.lonepulse.zombielink.annotation.Serialize;
+import com.lonepulse.zombielink.annotation.Skip;
+import com.lonepulse.zombielink.annotation.Stateful;
+import com.lonepulse.zombielink.request.AbstractSerializer;
+import com.lonepulse.zombielink.request.Serializers;
+import com.lonepulse.zombielink.response.AbstractDeserializer;
+import com.lonepulse.zombielink.response.AsyncHandler;
+import com.lonepulse.zombielink.response.Deserializers;
+import com.lonepulse.zombielink.util.Metadata;
+
+/**
+ * <p>An <b>immutable</b> plan for invoking a single request definition on an endpoint. All annotated
+ * metadata on the endpoint, the request method and its parameters is discovered <b>once</b> when the
+ * plan is compiled and is subsequently shared by every {@link InvocationContext} for the same request.</p>
+ *
+ * <p>Plans are compiled for all requests on an endpoint when its proxy is created, which keeps the
+ * reflective discovery of annotations off the path of each request invocation. For endpoints whose
+ * implementations were generated at compile-time, the path template, the static headers and the
+ * serializer and deserializer are taken from the constants emitted in the generated source instead.
+ * See {@link GeneratedEndpoint}.</p>
+ *
+ * @version 1.9.1
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public final class RequestPlan {
+	
+	
+	/**
+	 * <p>Binds an annotation found on a request parameter to the <i>index</i> of that parameter, so that
+	 * the runtime argument can be read directly off an {@link InvocationContext}.</p>
+	 *
+	 * @version 1.1.0
+	 * <br><br>
+	 * @since 1.3.4
+	 * <br><br>
+	 * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static final class Binding<T extends Annotation> {
+		
+		
+		private final T annotation;
+		private final int index;
+		
+		
+		private Binding(T annotation, int index) {
+			
+			this.annotation = annotation;
+			this.index = index;
+		}
+		
+		/**
+		 * <p>Retrieves the annotation which was placed on the bound request parameter.</p>
+		 *
+		 * @return the annotation instance on the request parameter
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		public T getAnnotation() {
+			
+			return annotation;
+		}
+		
+		/**
+		 * <p>Retrieves the zero-based position of the bound parameter in the request definition.</p>
+		 *
+		 * @return the index of the request parameter
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		public int getIndex() {
+			
+			return index;
+		}
+		
+		/**
+		 * <p>Reads the runtime argument for the bound parameter from the given {@link InvocationContext}.</p>
+		 *
+		 * @param context
+		 * 			the {@link InvocationContext} whose arguments are read
+		 * <br><br>
+		 * @return the runtime argument which was supplied for the bound parameter; may be {@code null}
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		public Object valueIn(InvocationContext context) {
+			
+			return context.getArguments().get(index);
+		}
+	}
+	
+	
+	private final Class<?> endpoint;
+	private final Method request;
+	
+	private final RequestMethod method;
+	private final String path;
+	
+	private final List<Map.Entry<String, Object>> staticHeaders;
+	
+	private final ContentType serialize;
+	private final Class<?> serializerType;
+	private volatile AbstractSerializer<?, ?> serializer;
+	
+	private final ContentType deserialize;
+	private final Class<?> deserializerType;
+	private volatile AbstractDeserializer<?> deserializer;
+	
+	private final boolean async;
+	private final boolean stateful;
+	private final boolean future;
+	private final boolean coalesced;
+	
+	private final Retry retry;
+	private final Hedge hedge;
+	private final CircuitBreaker circuitBreaker;
+	private final RateLimit rateLimit;
+	private final Bulkhead bulkhead;
+	
+	private final Batched batched;
+	private final Method batchTarget;
+	private final int batchIndex;
+	
+	private final Type genericResponseType;
+	private final Class<?> responseType;
+	
+	private final Map<Class<? extends Annotation>, Annotation> endpointMetadata;
+	private final Map<Class<? extends Annotation>, Annotation> requestMetadata;
+	private final Map<Class<? extends Annotation>, List<Binding<?>>> paramMetadata;
+	
+	private final List<Class<? extends Annotation>> detached;
+	private final List<Class<?>> skipped;
+	
+	
+	/**
+	 * <p>Compiles a new {@link RequestPlan} for the given request definition on an endpoint by discovering
+	 * all metadata which is required for invoking the request.</p>
+	 *
+	 * @param endpoint
+	 * 			the endpoint definition interface to which the request belongs
+	 * <br><br>
+	 * @param request
+	 * 			the {@link Method} on the endpoint interface which defines the request
+	 * <br><br>
+	 * @return a new immutable {@link RequestPlan} for the given request
+	 * <br><br>
+	 * @throws NullPointerException
+	 * 			if either the endpoint or the request definition is {@code null}
+	 * <br><br>
+	 * @throws EndpointValidationFailedException
+	 * 			if the request is @{@link Batched} but is not paired with a valid bulk request
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	static RequestPlan compile(Class<?> endpoint, Method request) {
+		
+		return new RequestPlan(assertNotNull(endpoint), assertNotNull(request));
+	}
+	
+	private RequestPlan(Class<?> endpoint, Method request) {
+		
+		this.endpoint = endpoint;
+		this.request = request;
+		
+		this.endpointMetadata = index(endpoint.getAnnotations());
+		this.requestMetadata = index(request.getAnnotations());
+		this.paramMetadata = index(request.getParameterAnnotations());
+		
+		Detach detach = getRequestAnnotation(Detach.class);
+		this.detached = Collections.unmodifiableList(detach == null?
+			new ArrayList<Class<? extends Annotation>>() :Arrays.asList(detach.value()));
+		
+		Skip skip = getRequestAnnotation(Skip.class);
+		this.skipped = Collections.unmodifiableList(skip == null?
+			new ArrayList<Class<?>>() :Arrays.asList(skip.value()));
+		
+		this.method = Metadata.findMethod(request);
+		
+		GeneratedEndpoint.Definition definition = GeneratedEndpoint.definitionOf(endpoint, request);
+		
+		if(definition != null) {
+			
+			this.path = definition.path;
+			this.staticHeaders = entries(definition.headers);
+			
+			this.serialize = definition.serialize;
+			this.serializerType = definition.serializer();
+			
+			this.deserialize = definition.deserialize;
+			this.deserializerType = definition.deserializer();
+		}
+		else {
+			
+			Endpoint root = getEndpointAnnotation(Endpoint.class);
+			this.path = (root == null? "" :root.value()) + Metadata.findPath(request);
+			
+			Headers headers = getRequestAnnotation(Headers.class);
+			this.staticHeaders = entries(headers == null? null :headers.value());
+			
+			Serialize serialize = isDetached(Serialize.class)? null :getAnnotation(Serialize.class);
+			this.serialize = serialize == null? null :serialize.value();
+			this.serializerType = serialize == null || serialize.value() != ContentType.UNDEFINED? null :serialize.type();
+			
+			Deserialize deserialize = isDetached(Deserialize.class)? null :getAnnotation(Deserialize.class);
+			this.deserialize = deserialize == null? null :deserialize.value();
+			this.deserializerType = deserialize == null || deserialize.value() != ContentType.UNDEFINED? null :deserialize.type();
+		}
+		
+		this.future = Future.class.isAssignableFrom(request.getReturnType());
+		
+		this.genericResponseType = future? resolveFutureType(request.getGenericReturnType()) :request.getGenericReturnType();
+		this.responseType = rawType(genericResponseType);
+		
+		this.async = !future && !isDetached(Async.class) &&
+			(requestMetadata.containsKey(Async.class) || endpointMetadata.containsKey(Async.class));
+		
+		this.stateful = endpointMetadata.containsKey(Stateful.class);
+		
+		this.coalesced = !async && requestMetadata.containsKey(Coalesce.class) && 
+			(method == RequestMethod.GET || method == RequestMethod.HEAD) && !bindsResponseHeaders(request);
+		
+		Retry retry = getRequestAnnotation(Retry.class);
+		this.retry = retry != null? retry :isDetached(Retry.class)? null :getEndpointAnnotation(Retry.class);
+		
+		this.hedge = stateful || method == RequestMethod.POST || method == RequestMethod.PATCH? 
+			null :getRequestAnnotation(Hedge.class);
+		
+		CircuitBreaker circuitBreaker = getRequestAnnotation(CircuitBreaker.class);
+		this.circuitBreaker = circuitBreaker != null? circuitBreaker :
+			isDetached(CircuitBreaker.class)? null :getEndpointAnnotation(CircuitBreaker.class);
+		
+		RateLimit rateLimit = getRequestAnnotation(RateLimit.class);
+		this.rateLimit = rateLimit != null? rateLimit :
+			isDetached(RateLimit.class)? null :getEndpointAnnotation(RateLimit.class);
+		
+		Bulkhead bulkhead = getRequestAnnotation(Bulkhead.class);
+		this.bulkhead = bulkhead != null? bulkhead :
+			isDetached(Bulkhead.class)? null :getEndpointAnnotation(Bulkhead.class);
+		
+		this.batched = getRequestAnnotation(Batched.class);
+		this.batchIndex = batched == null? -1 :findBatchIndex(request, async);
+		this.batchTarget = batched == null? null :findBatchTarget(endpoint, request, batched, async);
+	}
+	
+	private static int findBatchIndex(Method request, boolean async) {
+		
+		Class<?>[] parameterTypes = request.getParameterTypes();
+		int index = -1, handlers = 0;
+		
+		for (int i = 0; i < parameterTypes.length; i++) {
+			
+			if(async && AsyncHandler.class.isAssignableFrom(parameterTypes[i])) {
+				
+				handlers++;
+			}
+			else if(index < 0) {
+				
+				index = i;
+			}
+		}
+		
+		if(index < 0 || parameterTypes.length - handlers != 1) {
+			
+			throw new EndpointValidationFailedException(new StringBuilder("The @Batched request <")
+				.append(request.getName()).append("> should take exactly one argument")
+				.append(async? " besides its AsyncHandler. " :". ").toString());
+		}
+		
+		return index;
+	}
+	
+	private static Method findBatchTarget(Class<?> endpoint, Method request, Batched batched, boolean async) {
+		
+		for (Method target : endpoint.getMethods()) {
+			
+			Class<?>[] parameterTypes = target.getParameterTypes();
+			Class<?> returnType = target.getReturnType();
+			
+			if(target.getName().equals(batched.target()) && parameterTypes.length == 1 && 
+			   (parameterTypes[0].isArray() || parameterTypes[0].isAssignableFrom(ArrayList.class)) && 
+			   (async || returnType.isArray() || Map.class.isAssignableFrom(returnType) || 
+			    Collection.class.isAssignableFrom(returnType))) {
+				
+				return target;
+			}
+		}
+		
+		throw new EndpointValidationFailedException(new StringBuilder("The @Batched request <")
+			.append(request.getName()).append("> targets <").append(batched.target())
+			.append(">, which should be a request on the same endpoint that takes exactly one ")
+			.append("java.util.List (or one of its supertypes) or an array").append(async? ". " :
+				" and returns a java.util.Map, a java.util.Collection or an array. ").toString());
+	}
+	
+	private static List<Map.Entry<String, Object>> entries(String[] headers) {
+		
+		List<Map.Entry<String, Object>> entries = new ArrayList<Map.Entry<String, Object>>();
+		
+		for (int i = 0; headers != null && i + 1 < headers.length; i += 2) {
+			
+			entries.add(new AbstractMap.SimpleImmutableEntry<String, Object>(headers[i], headers[i + 1]));
+		}
+		
+		return Collections.unmodifiableList(entries);
+	}
+	
+	private static List<Map.Entry<String, Object>> entries(Headers.Header[] headers) {
+		
+		String[] pairs = new String[headers == null? 0 :headers.length * 2];
+		
+		for (int i = 0; i < pairs.length; i += 2) {
+			
+			pairs[i] = headers[i / 2].name();
+			pairs[i + 1] = headers[i / 2].value();
+		}
+		
+		return entries(pairs);
+	}
+	
+	private boolean bindsResponseHeaders(Method request) {
+		
+		Class<?>[] parameterTypes = request.getParameterTypes();
+		
+		for (Binding<Header> header : getBindings(Header.class)) {
+			
+			if(parameterTypes[header.getIndex()].isAssignableFrom(StringBuilder.class)) {
+				
+				return true; //in-out parameters which receive response headers are specific to each invocation
+			}
+		}
+		
+		return false;
+	}
+	
+	private static Type resolveFutureType(Type returnType) {
+		
+		if(returnType instanceof ParameterizedType) {
+			
+			Type futureType = ((ParameterizedType)returnType).getActualTypeArguments()[0];
+			
+			return futureType instanceof WildcardType? 
+				((WildcardType)futureType).getUpperBounds()[0] :futureType;
+		}
+		
+		return Object.class; //raw futures and extensions which bind the type themselves
+	}
+	
+	private static Class<?> rawType(Type type) {
+		
+		if(type instanceof Class) {
+			
+			return (Class<?>)type;
+		}
+		
+		if(type instanceof ParameterizedType) {
+			
+			return (Class<?>)((ParameterizedType)type).getRawType();
+		}
+		
+		return Object.class; //type variables and generic arrays
+	}
+	
+	private static Map<Class<? extends Annotation>, Annotation> index(Annotation[] annotations) {
+		
+		Map<Class<? extends Annotation>, Annotation> metadata = new HashMap<Class<? extends Annotation>, Annotation>();
+		
+		for (Annotation annotation : annotations) {
+			
+			metadata.put(annotation.annotationType(), annotation);
+		}
+		
+		return Collections.unmodifiableMap(metadata);
+	}
+	
+	private static Map<Class<? extends Annotation>, List<Binding<?>>> index(Annotation[][] annotationsForAllParams) {
+		
+		Map<Class<? extends Annotation>, List<Binding<?>>> metadata = new HashMap<Class<? extends Annotation>, List<Binding<?>>>();
+		
+		for (int i = 0; i < annotationsForAllParams.length; i++) {
+			
+			for (Annotation annotation : annotationsForAllParams[i]) {
+				
+				List<Binding<?>> bindings = metadata.get(annotation.annotationType());
+				
+				if(bindings == null) {
+					
+					bindings = new ArrayList<Binding<?>>();
+					metadata.put(annotation.annotationType(), bindings);
+				}
+				
+				bindings.add(new Binding<Annotation>(annotation, i));
+			}
+		}
+		
+		for (Map.Entry<Class<? extends Annotation>, List<Binding<?>>> entry : metadata.entrySet()) {
+			
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+		
+		return Collections.unmodifiableMap(metadata);
+	}
+	
+	/**
+	 * <p>Retrieves the endpoint definition interface to which the planned request belongs.</p>
+	 *
+	 * @return the {@link Class} of the endpoint
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public Class<?> getEndpoint() {
+		
+		return endpoint;
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Method} on the endpoint interface which defines the planned request.</p>
+	 *
+	 * @return the request definition
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public Method getRequest() {
+		
+		return request;
+	}
+	
+	/**
+	 * <p>Retrieves the HTTP method which was discovered for the request. See {@link Metadata#findMethod(Method)}.</p>
+	 *
+	 * @return the {@link RequestMethod} of the request; else {@code null} if none was specified
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public RequestMethod getMethod() {
+		
+		return method;
+	}
+	
+	/**
+	 * <p>Retrieves the complete URI template of the request, which is the root path on the @{@link Endpoint}
+	 * followed by the request's sub-path. Any path parameter placeholders are left unresolved.</p>
+	 *
+	 * @return the URI template of the request
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public String getPath() {
+		
+		return path;
+	}
+	
+	/**
+	 * <p>Retrieves the static headers which are placed on the request using @{@link Headers}, in the order
+	 * in which they were declared.</p>
+	 * 
+	 * @return an <b>unmodifiable</b> {@link List} of the names and values of all static headers
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public List<Map.Entry<String, Object>> getStaticHeaders() {
+		
+		return staticHeaders;
+	}
+	
+	/**
+	 * <p>Retrieves the serializer which is defined using @{@link Serialize} on the request or on the endpoint,
+	 * unless it has been detached. The serializer is resolved on first use and is reused for all invocations.</p>
+	 * 
+	 * @return the {@link AbstractSerializer} of the request; else {@code null} if none was defined
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	@SuppressWarnings("unchecked") //welcomes a ClassCastException on misuse of @Serialize(type = Custom.class)
+	public AbstractSerializer<?, ?> getSerializer() {
+		
+		if(serialize == null) {
+			
+			return null;
+		}
+		
+		AbstractSerializer<?, ?> resolved = serializer;
+		
+		if(resolved == null) {
+			
+			resolved = serializerType == null? Serializers.resolve(serialize)
+				:Serializers.resolve((Class<? extends AbstractSerializer<?, ?>>)serializerType);
+			
+			serializer = resolved;
+		}
+		
+		return resolved;
+	}
+	
+	/**
+	 * <p>Retrieves the deserializer which is defined using @{@link Deserialize} on the request or on the
+	 * endpoint, unless it has been detached. The deserializer is resolved on first use and is reused for
+	 * all invocations.</p>
+	 * 
+	 * @return the {@link AbstractDeserializer} of the request; else {@code null} if none was defined
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	@SuppressWarnings("unchecked") //welcomes a ClassCastException on misuse of @Deserialize(type = Custom.class)
+	public AbstractDeserializer<?> getDeserializer() {
+		
+		if(deserialize == null) {
+			
+			return null;
+		}
+		
+		AbstractDeserializer<?> resolved = deserializer;
+		
+		if(resolved == null) {
+			
+			resolved = deserializerType == null? Deserializers.resolve(deserialize)
+				:Deserializers.resolve((Class<? extends AbstractDeserializer<?>>)deserializerType);
+			
+			deserializer = resolved;
+		}
+		
+		return resolved;
+	}
+	
+	/**
+	 * <p>Determines if the request should be executed <b>asynchronously</b>, i.e. if @{@link Async} is
+	 * placed on the request or on the endpoint and has not been detached on the request. This does not 
+	 * apply to requests which return a {@link Future}; see {@link #isFuture()}.</p>
+	 *
+	 * @return {@code true} if the request should be executed asynchronously
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public boolean isAsync() {
+		
+		return async;
+	}
+	
+	/**
+	 * <p>Determines if the request returns a {@link Future} which is completed with the response content. 
+	 * Such requests are always executed in the background and their results are never delivered to an 
+	 * {@link com.lonepulse.zombielink.response.AsyncHandler}.</p>
+	 *
+	 * @return {@code true} if the return type of the request is a {@link Future}
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public boolean isFuture() {
+		
+		return future;
+	}
+	
+	/**
+	 * <p>Retrieves the type to which the response content should be deserialized. This is the return type 
+	 * of the request, unless it is a {@link Future}, in which case it's the type argument of the future 
+	 * (e.g. {@code String} for {@code Future<String>}).</p>
+	 *
+	 * @return the raw {@link Class} of the response content
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public Class<?> getResponseType() {
+		
+		return responseType;
+	}
+	
+	/**
+	 * <p>Retrieves the generic form of {@link #getResponseType()}, which is used by deserializers that 
+	 * support parameterized types.</p>
+	 *
+	 * @return the generic {@link Type} of the response content
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public Type getGenericResponseType() {
+		
+		return genericResponseType;
+	}
+	
+	/**
+	 * <p>Determines if concurrent identical invocations of the request should share a single exchange, 
+	 * i.e. if @{@link Coalesce} is placed on a synchronous GET or HEAD request which has no in-out @{@link Header}
+	 * parameters to receive the headers of its response.</p>
+	 *
+	 * @return {@code true} if the request should be coalesced
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public boolean isCoalesced() {
+		
+		return coalesced;
+	}
+	
+	/**
+	 * <p>Determines if the endpoint maintains state via @{@link Stateful}.</p>
+	 *
+	 * @return {@code true} if the endpoint is stateful
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public boolean isStateful() {
+		
+		return stateful;
+	}
+	
+	/**
+	 * <p>Retrieves the @{@link Retry} policy of the request, which is the one placed on the request itself; 
+	 * else the one placed on the endpoint, unless it has been detached.</p>
+	 *
+	 * @return the {@link Retry} policy of the request; else {@code null} if it should not be retried
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public Retry getRetry() {
+		
+		return retry;
+	}
+	
+	/**
+	 * <p>Retrieves the @{@link Hedge} policy of the request, which applies to idempotent requests only.</p>
+	 *
+	 * @return the {@link Hedge} policy of the request; else {@code null} if it should not be hedged
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public Hedge getHedge() {
+		
+		return hedge;
+	}
+	
+	/**
+	 * <p>Retrieves the @{@link CircuitBreaker} of the request, which is the one placed on the request itself; 
+	 * else the one placed on the endpoint, unless it has been detached.</p>
+	 *
+	 * @return the {@link CircuitBreaker} of the request; else {@code null} if it should not be guarded
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public CircuitBreaker getCircuitBreaker() {
+		
+		return circuitBreaker;
+	}
+	
+	/**
+	 * <p>Retrieves the @{@link RateLimit} of the request, which is the one placed on the request itself; 
+	 * else the one placed on the endpoint, unless it has been detached.</p>
+	 *
+	 * @return the {@link RateLimit} of the request; else {@code null} if it should not be limited
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public RateLimit getRateLimit() {
+		
+		return rateLimit;
+	}
+	
+	/**
+	 * <p>Retrieves the @{@link Bulkhead} of the request, which is the one placed on the request itself; 
+	 * else the one placed on the endpoint, unless it has been detached.</p>
+	 *
+	 * @return the {@link Bulkhead} of the request; else {@code null} if it should not be confined
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public Bulkhead getBulkhead() {
+		
+		return bulkhead;
+	}
+	
+	/**
+	 * <p>Retrieves the @{@link Batched} policy of the request. Synchronous requests are batched to share a 
+	 * bulk response, while @{@link Async} requests are batched to send their arguments in a bulk request.</p>
+	 *
+	 * @return the {@link Batched} policy of the request; else {@code null} if it should not be batched
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public Batched getBatched() {
+		
+		return batched;
+	}
+	
+	/**
+	 * <p>Retrieves the bulk request on the same endpoint which serves batches of this request. See 
+	 * {@link Batched#target()}.</p>
+	 *
+	 * @return the {@link Method} of the paired bulk request; else {@code null} if it should not be batched
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public Method getBatchTarget() {
+		
+		return batchTarget;
+	}
+	
+	/**
+	 * <p>Retrieves the index of the parameter whose arguments are gathered into a batch, which is the only 
+	 * parameter of the request other than an {@link AsyncHandler}.</p>
+	 *
+	 * @return the index of the batched parameter; else {@code -1} if the request should not be batched
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public int getBatchIndex() {
+		
+		return batchIndex;
+	}
+	
+	/**
+	 * <p>Determines whether the request has detached the given {@link Annotation} type using @{@link Detach}.</p>
+	 *
+	 * @param type
+	 * 			the {@link Annotation} type whose detachment is to be determined
+	 * <br><br>
+	 * @return {@code true} if the given type has been detached from the request
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public boolean isDetached(Class<? extends Annotation> type) {
+		
+		return detached.contains(type);
+	}
+	
+	/**
+	 * <p>Retrieves the components which are skipped on the request using @{@link Skip}.</p>
+	 *
+	 * @return an <b>unmodifiable</b> {@link List} of the skipped components, which may be empty
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public List<Class<?>> getSkipped() {
+		
+		return skipped;
+	}
+	
+	/**
+	 * <p>Retrieves an annotation of the given type which was placed on the endpoint interface.</p>
+	 *
+	 * @param type
+	 * 			the {@link Class} of the annotation to retrieve
+	 * <br><br>
+	 * @return the annotation on the endpoint; else {@code null} if no such annotation was found
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public <T extends Annotation> T getEndpointAnnotation(Class<T> type) {
+		
+		return type.cast(endpointMetadata.get(type));
+	}
+	
+	/**
+	 * <p>Retrieves an annotation of the given type which was placed on the request definition.</p>
+	 *
+	 * @param type
+	 * 			the {@link Class} of the annotation to retrieve
+	 * <br><br>
+	 * @return the annotation on the request; else {@code null} if no such annotation was found
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public <T extends Annotation> T getRequestAnnotation(Class<T> type) {
+		
+		return type.cast(requestMetadata.get(type));
+	}
+	
+	/**
+	 * <p>Retrieves an annotation of the given type by searching the request definition first and then
+	 * falling back to the endpoint. The request-level annotation overrides the endpoint-level annotation.</p>
+	 *
+	 * <p><b>Note</b> that this does not consider any detachment of the annotation type.</p>
+	 *
+	 * @param type
+	 * 			the {@link Class} of the annotation to retrieve
+	 * <br><br>
+	 * @return the annotation on the request or endpoint; else {@code null} if no such annotation was found
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public <T extends Annotation> T getAnnotation(Class<T> type) {
+		
+		T annotation = getRequestAnnotation(type);
+		return annotation == null? getEndpointAnnotation(type) :annotation;
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Binding}s of all request parameters which are annotated with the given type,
+	 * in the order in which the parameters are declared.</p>
+	 *
+	 * @param type
+	 * 			the {@link Class} of the annotation to look for on the request parameters
+	 * <br><br>
+	 * @return an <b>unmodifiable</b> {@link List} of {@link Binding}s, which may be empty
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"}) //bindings are indexed by their annotation type
+	public <T extends Annotation> List<Binding<T>> getBindings(Class<T> type) {
+		
+		List bindings = paramMetadata.get(type);
+		return bindings == null? Collections.<Binding<T>>emptyList() :(List<Binding<T>>)bindings;
+	}
+}
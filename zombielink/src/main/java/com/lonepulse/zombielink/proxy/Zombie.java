@@ -21,15 +21,13 @@ package com.lonepulse.zombielink.proxy;
  */
 
 import static com.lonepulse.zombielink.util.Assert.assertNotNull;
-import static com.lonepulse.zombielink.util.Is.hierarchyTerminal;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.http.client.HttpClient;
 import org.apache.http.conn.scheme.PlainSocketFactory;
@@ -37,11 +35,16 @@ import org.apache.http.conn.scheme.Scheme;
 import org.apache.http.conn.ssl.SSLSocketFactory;
 import org.apache.http.impl.conn.PoolingClientConnectionManager;
 
+import com.lonepulse.zombielink.annotation.Async;
 import com.lonepulse.zombielink.annotation.Bite;
 import com.lonepulse.zombielink.annotation.Config;
 import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.Warm;
+import com.lonepulse.zombielink.executor.BoundedExecutorService;
+import com.lonepulse.zombielink.executor.ExecutionMode;
+import com.lonepulse.zombielink.executor.NonBlockingTransport;
 import com.lonepulse.zombielink.executor.RequestExecutors;
-import com.lonepulse.zombielink.util.Fields;
+import com.lonepulse.zombielink.executor.ResponseCache;
 
 /**
  * <p>An animated corpse which spreads the {@link Endpoint} infection via a {@link Bite}. Used for 
@@ -51,8 +54,14 @@ import com.lonepulse.zombielink.util.Fields;
  * <p>To avoid unnecessary traversal up an inheritance hierarchy, specify the prefixes of the packages to 
  * search for injection targets using {@link #infect(String, Object, Object...)} and 
  * {@link #infect(List, Object, Object...)}.</p>
+ * 
+ * <p>The injection targets of each type are discovered only once, on its first infection, and are 
+ * replayed for all subsequent infections of the same type.</p>
+ *  
+ * <p>The connections of endpoints can be opened ahead of their first requests using
+ * {@link #warmUp(Class...)}.</p>
  *  
- * @version 1.4.0
+ * @version 1.6.0
  * <br><br>
  * @since 1.1.0
  * <br><br>
@@ -75,7 +84,7 @@ public final class Zombie {
 	 * 
 	 * <p><b>Note</b> that all extensions must expose a default non-parameterized constructor.</p>
 	 *  
-	 * @version 1.2.0
+	 * @version 1.7.0
 	 * <br><br>
 	 * @since 1.3.0
 	 * <br><br>
@@ -99,7 +108,9 @@ public final class Zombie {
 		 * </ol>
 		 * 
 		 * <p>It uses a {@link PoolingClientConnectionManager} with the maximum number of client connections 
-		 * per route set to <b>4</b> and the total set to <b>128</b>.</p>
+		 * per route set to <b>20</b> and the total set to <b>200</b>. These limits can be declared for an 
+		 * endpoint using @{@link com.lonepulse.zombielink.annotation.Pool} instead of overriding this 
+		 * method. Idle connections are evicted in the background.</p>
 		 *
 		 * @return the instance of {@link HttpClient} which will be used for request execution
 		 * <br><br>
@@ -114,6 +125,71 @@ public final class Zombie {
 			
 			return DEFAULT.httpClient();
 		}
+		
+		/**
+		 * <p>The <i>out-of-the-box</i> configuration for the {@link ExecutorService} which will be used for 
+		 * executing all @{@link Async} requests.</p>
+		 * 
+		 * <p>It is a {@link BoundedExecutorService} with <b>64</b> threads, a queue of <b>1024</b> requests 
+		 * and a {@link BoundedExecutorService.RejectionPolicy#CALLER_RUNS} policy. Unlike other properties, 
+		 * this default instance is <b>shared</b> by all endpoints which do not override it.</p>
+		 * 
+		 * <p>Setting the system property {@value ExecutionMode#PROPERTY} to <i>virtual</i> replaces it with 
+		 * an executor which runs each request on a new virtual thread, where supported. See {@link ExecutionMode}.</p>
+		 * 
+		 * <p>Override this method to return a new {@link BoundedExecutorService} created via 
+		 * {@link BoundedExecutorService#newBuilder()} with the desired threads, queue capacity and rejection 
+		 * policy.</p>
+		 *
+		 * @return the instance of {@link ExecutorService} which will be used for asynchronous requests
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		public ExecutorService asyncExecutor() {
+			
+			return DEFAULT.asyncExecutor();
+		}
+		
+		/**
+		 * <p>The <i>out-of-the-box</i> configuration for the {@link NonBlockingTransport} which sends the 
+		 * @{@link Async} requests of an endpoint without holding a thread while each awaits its response.</p>
+		 * 
+		 * <p>By default this is {@code null} and all requests are sent using the blocking {@link HttpClient}. 
+		 * Override this method to return a new {@link NonBlockingTransport} created via 
+		 * {@link NonBlockingTransport#newBuilder()} to serve a large number of concurrent asynchronous requests 
+		 * on a handful of I/O threads.</p>
+		 * 
+		 * <p>A transport which speaks {@link NonBlockingTransport.Protocol#HTTP_2} multiplexes both the 
+		 * synchronous and the asynchronous requests of the endpoint over a single connection to each host, 
+		 * which the server must accept as cleartext HTTP/2.</p>
+		 *
+		 * @return the instance of {@link NonBlockingTransport} for asynchronous requests; else {@code null} 
+		 * 		   to use the blocking {@link HttpClient}
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		public NonBlockingTransport nonBlockingTransport() {
+			
+			return DEFAULT.nonBlockingTransport();
+		}
+		
+		/**
+		 * <p>The <i>out-of-the-box</i> configuration for the {@link ResponseCache} which stores and 
+		 * revalidates the responses of an endpoint according to their HTTP caching headers.</p>
+		 * 
+		 * <p>By default this is {@code null} and no responses are cached. Override this method to return 
+		 * a new {@link ResponseCache} created via {@link ResponseCache#newBuilder()} to avoid refetching 
+		 * and reprocessing responses which are still fresh or which have not been modified.</p>
+		 *
+		 * @return the instance of {@link ResponseCache} for the endpoint's responses; else {@code null} 
+		 * 		   to disable caching
+		 * <br><br>
+		 * @since 1.3.4
+		 */
+		public ResponseCache responseCache() {
+			
+			return DEFAULT.responseCache();
+		}
 	}
 	
 	
@@ -309,59 +385,73 @@ public final class Zombie {
 			injectees.addAll(Arrays.asList(moreVictims));
 		}
 		
-		Class<?> endpointInterface = null;
-		
 		for (Object injectee : injectees) {
 		
-			Class<?> type = injectee.getClass();
+			InjectionPlan.of(injectee.getClass()).apply(injectee, packagePrefixes);
+		}
+	}
+	
+	/**
+	 * <p>Opens connections to the hosts of the given endpoints and pools them for reuse by their requests,
+	 * so that their first requests do not pay for the TCP and TLS handshakes. The endpoints are warmed up
+	 * in parallel, each with the number of connections and the timeout of its @{@link Warm} annotation, or
+	 * with <b>1</b> connection within <b>5</b> seconds if it has none. This blocks until every warm-up has
+	 * completed or timed out.</p>
+	 * 
+	 * <p>Endpoints with a @{@link Warm} annotation are warmed up in the background when they are first
+	 * injected. Warming them up again is useful once their pools have been emptied, e.g. after the upstream
+	 * was restarted or its connections were evicted. Failures to open connections are logged and do not
+	 * fail the warm-up.</p>
+	 * <br>
+	 * <b>Usage:</b>
+	 * <br><br>
+	 * <pre>
+	 * <code>Zombie.warmUp(GitHubEndpoint.class, GistEndpoint.class);</code>
+	 * </pre>
+	 * 
+	 * @param endpoints
+	 * 			the endpoint definitions whose connections are warmed up
+	 * <br><br>
+	 * @return the total number of open connections which were pooled for the given endpoints
+	 * <br><br>
+	 * @throws NullPointerException
+	 * 			if the given endpoints or any one of them is {@code null}
+	 * <br><br>
+	 * @throws EndpointValidationFailedException
+	 * 			if an endpoint failed to be validated as an endpoint definition
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static int warmUp(Class<?>... endpoints) {
+		
+		assertNotNull(endpoints);
+		
+		List<Future<Integer>> warmUps = new ArrayList<Future<Integer>>(endpoints.length);
+		
+		for (Class<?> endpoint : endpoints) {
 			
-			do {
-				
-				for (Field field : Fields.in(type).annotatedWith(Bite.class)) {
-					
-					try {
-						
-						endpointInterface = field.getType();
-						Object proxyInstance = EndpointProxyFactory.INSTANCE.create(endpointInterface); 
-						
-						try { //1.Simple Field Injection 
-							
-							field.set(injectee, proxyInstance);
-						}
-						catch (IllegalAccessException iae) { //2.Setter Injection 
-							
-							String fieldName = field.getName();
-							String mutatorName = "set" + Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
-							
-							try {
-							
-								Method mutator = injectee.getClass().getDeclaredMethod(mutatorName, endpointInterface);
-								mutator.invoke(injectee, proxyInstance);
-							}
-							catch (NoSuchMethodException nsme) { //3.Forced Field Injection
-								
-								field.setAccessible(true);
-								field.set(injectee, proxyInstance);
-							}
-						}
-					} 
-					catch (Exception e) {
-						
-						Logger.getLogger(Zombie.class.getName())
-						.log(Level.SEVERE, new StringBuilder()
-						.append("Failed to inject the endpoint proxy instance of type ")
-						.append(endpointInterface.getName())
-						.append(" on property ")
-						.append(field.getName())
-						.append(" at ")
-						.append(injectee.getClass().getName())
-						.append(". ").toString(), e);
-					}
-				}
+			EndpointProxyFactory.INSTANCE.create(assertNotNull(endpoint)); //registers the endpoint's configuration
+			warmUps.add(RequestExecutors.warmUp(endpoint));
+		}
+		
+		int warmed = 0;
+		
+		try {
+			
+			for (Future<Integer> warmUp : warmUps) {
 				
-				type = type.getSuperclass();
+				warmed += warmUp.get();
 			}
-			while(!hierarchyTerminal(type, packagePrefixes));
 		}
+		catch(InterruptedException ie) {
+			
+			Thread.currentThread().interrupt();
+		}
+		catch(ExecutionException ee) {
+			
+			throw new IllegalStateException(ee.getCause()); //warm-ups log their failures and never fail
+		}
+		
+		return warmed;
 	}
 }
@@ -20,12 +20,6 @@ package com.lonepulse.zombielink.request;
  * #L%
  */
 
-import static com.lonepulse.zombielink.annotation.Entity.ContentType.UNDEFINED;
-import static com.lonepulse.zombielink.util.Components.isDetached;
-
-import java.util.List;
-import java.util.Map.Entry;
-
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpEntityEnclosingRequest;
 import org.apache.http.HttpHeaders;
@@ -37,9 +31,9 @@ import org.apache.http.entity.ContentType;
 import com.lonepulse.zombielink.annotation.Entity;
 import com.lonepulse.zombielink.annotation.Serialize;
 import com.lonepulse.zombielink.proxy.InvocationContext;
+import com.lonepulse.zombielink.proxy.RequestPlan;
 import com.lonepulse.zombielink.util.Entities;
 import com.lonepulse.zombielink.util.EntityResolutionFailedException;
-import com.lonepulse.zombielink.util.Metadata;
 
 /**
  * <p>This is a concrete implementation of {@link AbstractRequestProcessor} which resolves and inserts 
@@ -48,7 +42,7 @@ import com.lonepulse.zombielink.util.Metadata;
  * <p>It identifies an @{@link Entity} annotation on a parameter of an endpoint interface method and 
  * inserts the value as the body in the resulting {@link HttpEntityEnclosingRequest}.</p>
  * 
- * @version 1.2.0
+ * @version 1.3.0
  * <br><br>
  * @since 1.3.0
  * <br><br>
@@ -99,29 +93,32 @@ class EntityProcessor extends AbstractRequestProcessor {
 
 			if(request instanceof HttpEntityEnclosingRequestBase) {
 				
-				List<Entry<Entity, Object>> entities = Metadata.onParams(Entity.class, context);
+				Object entity = null;
 				
-				if(entities.isEmpty()) {
+				for (RequestPlan.Binding<Entity> binding : context.getPlan().getBindings(Entity.class)) {
 					
-					throw new MissingEntityException(context);
+					Object value = binding.valueIn(context);
+					
+					if(value != null) {
+						
+						if(entity != null) {
+							
+							throw new MultipleEntityException(context);
+						}
+						
+						entity = value;
+					}
 				}
 				
-				if(entities.size() > 1) {
+				if(entity == null) {
 					
-					throw new MultipleEntityException(context);
+					throw new MissingEntityException(context);
 				}
 				
-				Object entity = entities.get(0).getValue();
+				@SuppressWarnings("rawtypes") //no restrictions on custom serializer types with @Serialize
+				AbstractSerializer serializer = context.getPlan().getSerializer();
 				
-				Serialize metadata = (metadata = 
-					context.getRequest().getAnnotation(Serialize.class)) == null? 
-						context.getEndpoint().getAnnotation(Serialize.class) :metadata;
-				
-				if(metadata != null && !isDetached(context, Serialize.class)) {
-					
-					@SuppressWarnings("rawtypes") //no restrictions on custom serializer types with @Serialize
-					AbstractSerializer serializer = (metadata.value() == UNDEFINED)? 
-						Serializers.resolve(metadata.type()) :Serializers.resolve(metadata.value());
+				if(serializer != null) {
 						
 					entity = serializer.run(context, entity);
 				}
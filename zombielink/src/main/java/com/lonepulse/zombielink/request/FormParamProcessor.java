@@ -39,7 +39,7 @@ import com.lonepulse.zombielink.annotation.FormParam;
 import com.lonepulse.zombielink.annotation.FormParams;
 import com.lonepulse.zombielink.annotation.Param;
 import com.lonepulse.zombielink.proxy.InvocationContext;
-import com.lonepulse.zombielink.util.Metadata;
+import com.lonepulse.zombielink.proxy.RequestPlan;
 
 /**
  * <p>This is a concrete implementation of {@link AbstractRequestProcessor} which discovers <b>form 
@@ -107,12 +107,18 @@ class FormParamProcessor extends AbstractRequestProcessor {
 				}
 				
 				//add individual name and value pairs
-				List<Entry<FormParam, Object>> formParams = Metadata.onParams(FormParam.class, context);
+				RequestPlan plan = context.getPlan();
 				
-				for (Entry<FormParam, Object> entry : formParams) {
+				for (RequestPlan.Binding<FormParam> binding : plan.getBindings(FormParam.class)) {
 					
-					String name = entry.getKey().value();
-					Object value = entry.getValue();
+					Object value = binding.valueIn(context);
+					
+					if(value == null) {
+						
+						continue;
+					}
+					
+					String name = binding.getAnnotation().value();
 					
 					if(!(value instanceof CharSequence)) {
 						
@@ -130,11 +136,16 @@ class FormParamProcessor extends AbstractRequestProcessor {
 				}
 				
 				//add batch name and value pairs (along with any static params)
-				List<Entry<FormParams, Object>> queryParamMaps = Metadata.onParams(FormParams.class, context);
-				
-				for (Entry<FormParams, Object> entry : queryParamMaps) {
+				for (RequestPlan.Binding<FormParams> binding : plan.getBindings(FormParams.class)) {
 					
-					Param[] constantParams = entry.getKey().value();
+					Object map = binding.valueIn(context);
+					
+					if(map == null) {
+						
+						continue;
+					}
+					
+					Param[] constantParams = binding.getAnnotation().value();
 					
 					if(constantParams != null && constantParams.length > 0) {
 					
@@ -144,8 +155,6 @@ class FormParamProcessor extends AbstractRequestProcessor {
 						}
 					}
 					
-					Object map = entry.getValue();
-					
 					if(!(map instanceof Map)) {
 					
 						StringBuilder errorContext = new StringBuilder()
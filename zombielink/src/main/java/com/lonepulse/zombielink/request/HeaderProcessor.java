@@ -27,7 +27,7 @@ import org.apache.http.client.methods.HttpRequestBase;
 import com.lonepulse.zombielink.annotation.Header;
 import com.lonepulse.zombielink.annotation.Headers;
 import com.lonepulse.zombielink.proxy.InvocationContext;
-import com.lonepulse.zombielink.util.Metadata;
+import com.lonepulse.zombielink.proxy.RequestPlan;
 
 /**
  * <p>This {@link AbstractRequestProcessor} populates the <i>request-headers</i> of an {@link HttpRequestBase} 
@@ -86,9 +86,9 @@ final class HeaderProcessor extends AbstractRequestProcessor {
 				addHeader(request, header.getKey(), header.getValue());
 			}
 			
-			for (Map.Entry<Header, Object> header : Metadata.onParams(Header.class, context)) {
+			for (RequestPlan.Binding<Header> header : context.getPlan().getBindings(Header.class)) {
 				
-				addHeader(request, header.getKey().value(), header.getValue());
+				addHeader(request, header.getAnnotation().value(), header.valueIn(context));
 			}
 			
 			return request;
@@ -86,8 +86,8 @@ class InterceptionProcessor extends AbstractRequestProcessor {
 			
 			List<Class<? extends Interceptor>> interceptors = new ArrayList<Class<? extends Interceptor>>();
 			
-			Intercept endpointMetadata = context.getEndpoint().getAnnotation(Intercept.class);
-			Intercept requestMetadata = context.getRequest().getAnnotation(Intercept.class);
+			Intercept endpointMetadata = context.getPlan().getEndpointAnnotation(Intercept.class);
+			Intercept requestMetadata = context.getPlan().getRequestAnnotation(Intercept.class);
 			
 			if(isDetached(context, Intercept.class)) {
 			
@@ -33,7 +33,7 @@ import com.lonepulse.zombielink.annotation.Param;
 import com.lonepulse.zombielink.annotation.QueryParam;
 import com.lonepulse.zombielink.annotation.QueryParams;
 import com.lonepulse.zombielink.proxy.InvocationContext;
-import com.lonepulse.zombielink.util.Metadata;
+import com.lonepulse.zombielink.proxy.RequestPlan;
 
 /**
  * <p>This {@link AbstractRequestProcessor} discovers <i>query parameters</i> in a request which are 
@@ -42,7 +42,8 @@ import com.lonepulse.zombielink.util.Metadata;
  * 
  * <p>The @{@link QueryParam} annotation should be used on an implementation of {@link CharSequence} which 
  * provides the <i>value</i> for each <i>name-value</i> pair; and the supplied {@link QueryParam#value()} 
- * provides the <i>name</i>.</p>
+ * provides the <i>name</i>. A {@code Collection<? extends CharSequence>} yields one pair for each of its 
+ * values, all of which share the same <i>name</i>.</p>
  * 
  * <p>The @{@link QueryParams} annotation should be used on a {@code Map<CharSequence, CharSequence>} of 
  * name and value pairs.</p>
@@ -52,7 +53,7 @@ import com.lonepulse.zombielink.util.Metadata;
  * 	<li>{@link UriProcessor}</li>
  * </ul>
  * 
- * @version 1.3.0
+ * @version 1.4.0
  * <br><br>
  * @since 1.3.0
  * <br><br>
@@ -98,12 +99,37 @@ class QueryParamProcessor extends AbstractRequestProcessor {
 			}
 			
 			//add individual name and value pairs
-			List<Entry<QueryParam, Object>> queryParams = Metadata.onParams(QueryParam.class, context);
+			RequestPlan plan = context.getPlan();
 			
-			for (Entry<QueryParam, Object> entry : queryParams) {
+			for (RequestPlan.Binding<QueryParam> binding : plan.getBindings(QueryParam.class)) {
 				
-				String name = entry.getKey().value();
-				Object value = entry.getValue();
+				Object value = binding.valueIn(context);
+				
+				if(value == null) {
+					
+					continue;
+				}
+				
+				String name = binding.getAnnotation().value();
+				
+				if(value instanceof Collection) { //add multi-valued query params
+					
+					for (Object multivalue : (Collection<?>)value) {
+						
+						if(!(multivalue instanceof CharSequence)) {
+							
+							StringBuilder errorContext = new StringBuilder()
+							.append("Multi-valued query parameters can only be of type ")
+							.append("java.util.Collection<? extends CharSequence>");
+							
+							throw new RequestProcessorException(new IllegalArgumentException(errorContext.toString()));
+						}
+						
+						uriBuilder.addParameter(name, ((CharSequence)multivalue).toString());
+					}
+					
+					continue;
+				}
 				
 				if(!(value instanceof CharSequence)) {
 				
@@ -121,11 +147,16 @@ class QueryParamProcessor extends AbstractRequestProcessor {
 			}
 			
 			//add batch name and value pairs (along with any static params)
-			List<Entry<QueryParams, Object>> queryParamMaps = Metadata.onParams(QueryParams.class, context);
-			
-			for (Entry<QueryParams, Object> entry : queryParamMaps) {
+			for (RequestPlan.Binding<QueryParams> binding : plan.getBindings(QueryParams.class)) {
 				
-				Param[] constantParams = entry.getKey().value();
+				Object map = binding.valueIn(context);
+				
+				if(map == null) {
+					
+					continue;
+				}
+				
+				Param[] constantParams = binding.getAnnotation().value();
 				
 				if(constantParams != null && constantParams.length > 0) {
 				
@@ -135,8 +166,6 @@ class QueryParamProcessor extends AbstractRequestProcessor {
 					}
 				}
 				
-				Object map = entry.getValue();
-				
 				if(!(map instanceof Map)) {
 				
 					StringBuilder errorContext = new StringBuilder()
@@ -22,7 +22,6 @@ package com.lonepulse.zombielink.request;
 
 import static com.lonepulse.zombielink.util.Assert.assertNotNull;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -45,13 +44,12 @@ import com.lonepulse.zombielink.annotation.Param;
 import com.lonepulse.zombielink.annotation.QueryParams;
 import com.lonepulse.zombielink.annotation.Request.RequestMethod;
 import com.lonepulse.zombielink.proxy.InvocationContext;
-import com.lonepulse.zombielink.util.Metadata;
 
 /**
  * <p>This utility class offers some common operations which are used in building requests - most commonly 
  * using the information contained within a {@link InvocationContext}.
  * 
- * @version 1.2.0
+ * @version 1.3.0
  * <br><br>
  * @since 1.3.0
  * <br><br>
@@ -81,9 +79,7 @@ final class RequestUtils {
 	 */
 	 static List<Param> findStaticQueryParams(InvocationContext context) {
 		
-		Method request = assertNotNull(context).getRequest();
-		
-		QueryParams queryParams = request.getAnnotation(QueryParams.class);
+		QueryParams queryParams = assertNotNull(context).getPlan().getRequestAnnotation(QueryParams.class);
 		
 		return Collections.unmodifiableList(queryParams != null? 
 				Arrays.asList(queryParams.value()) : new ArrayList<Param>());
@@ -108,9 +104,7 @@ final class RequestUtils {
 	  */
 	 static List<Param> findStaticFormParams(InvocationContext context) {
 		 
-		 Method request = assertNotNull(context).getRequest();
-		 
-		 FormParams formParams = request.getAnnotation(FormParams.class);
+		 FormParams formParams = assertNotNull(context).getPlan().getRequestAnnotation(FormParams.class);
 		 
 		 return Collections.unmodifiableList(formParams != null? 
 				 Arrays.asList(formParams.value()) : new ArrayList<Param>());
@@ -142,40 +136,7 @@ final class RequestUtils {
 	 */
 	static List<Map.Entry<String, Object>> findStaticHeaders(InvocationContext context) {
 		
-		assertNotNull(context);
-		
-		Method request = context.getRequest();
-		Headers headerSet = request.getAnnotation(Headers.class);
-		
-		List<Map.Entry<String, Object>> headers = new ArrayList<Map.Entry<String, Object>>();
-		
-		if(headerSet != null && headerSet.value() != null && headerSet.value().length > 0) {
-		
-			List<Headers.Header> staticHeaders = Arrays.asList(headerSet.value());
-			
-			for (final Headers.Header staticHeader : staticHeaders) {
-				
-				headers.add(new Map.Entry<String, Object>() {
-
-					@Override
-					public String getKey() {
-						return staticHeader.name();
-					}
-
-					@Override
-					public Object getValue() {
-						return staticHeader.value();
-					}
-
-					@Override
-					public Object setValue(Object value) {
-						throw new UnsupportedOperationException();
-					}
-				});
-			}
-		}
-		
-		return Collections.unmodifiableList(headers);
+		return assertNotNull(context).getPlan().getStaticHeaders();
 	}
 	
 	/**
@@ -195,7 +156,7 @@ final class RequestUtils {
 	 */
 	static HttpRequestBase translateRequestMethod(InvocationContext context) {
 		
-		RequestMethod requestMethod = Metadata.findMethod(assertNotNull(context).getRequest());
+		RequestMethod requestMethod = assertNotNull(context).getPlan().getMethod();
 		
 		switch (requestMethod) {
 		
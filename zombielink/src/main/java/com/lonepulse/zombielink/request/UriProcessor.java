@@ -21,17 +21,14 @@ package com.lonepulse.zombielink.request;
  */
 
 import java.net.URI;
-import java.util.List;
-import java.util.Map.Entry;
 import java.util.regex.Pattern;
 
 import org.apache.http.client.methods.HttpRequestBase;
 
-import com.lonepulse.zombielink.annotation.Endpoint;
 import com.lonepulse.zombielink.annotation.PathParam;
 import com.lonepulse.zombielink.annotation.Request;
 import com.lonepulse.zombielink.proxy.InvocationContext;
-import com.lonepulse.zombielink.util.Metadata;
+import com.lonepulse.zombielink.proxy.RequestPlan;
 
 /**
  * <p>This is a concrete implementation of {@link AbstractRequestProcessor} which extracts the root 
@@ -93,15 +90,19 @@ class UriProcessor extends AbstractRequestProcessor {
 
 		try {
 			
-			Endpoint endpoint = context.getEndpoint().getAnnotation(Endpoint.class);
-			String path = endpoint.value() + Metadata.findPath(context.getRequest());
+			RequestPlan plan = context.getPlan();
+			String path = plan.getPath();
 			
-			List<Entry<PathParam, Object>> pathParams = Metadata.onParams(PathParam.class, context);
-			
-			for (Entry<PathParam, Object> entry : pathParams) {
+			for (RequestPlan.Binding<PathParam> binding : plan.getBindings(PathParam.class)) {
+				
+				Object value = binding.valueIn(context);
+				
+				if(value == null) {
+					
+					continue;
+				}
 				
-				String name = entry.getKey().value();
-				Object value = entry.getValue();
+				String name = binding.getAnnotation().value();
 				
 				if(!(value instanceof CharSequence)) {
 				
@@ -71,7 +71,7 @@ public abstract class AbstractDeserializer<OUTPUT> implements Deserializer<OUTPU
 	@Override
 	public final OUTPUT run(InvocationContext context, HttpResponse response) {
 		
-		Class<?> requestReturnType = context.getRequest().getReturnType();
+		Class<?> requestReturnType = context.getPlan().getResponseType();
 		
 		try {
 			
@@ -20,7 +20,6 @@ package com.lonepulse.zombielink.response;
  * #L%
  */
 
-import static com.lonepulse.zombielink.util.Components.isDetached;
 import static com.lonepulse.zombielink.util.Is.async;
 import static com.lonepulse.zombielink.util.Is.status;
 import static com.lonepulse.zombielink.util.Is.successful;
@@ -42,7 +41,7 @@ import com.lonepulse.zombielink.proxy.InvocationContext;
  * declarations which define a return type should be associated with a deserializer. Custom deserializers 
  * may be used by extending {@link AbstractDeserializer} and defining its type at {@link Deserialize#type()}.</p>
  * 
- * @version 1.1.0
+ * @version 1.3.0
  * <br><br>
  * @since 1.3.0
  * <br><br>
@@ -59,6 +58,9 @@ class EntityProcessor extends AbstractResponseProcessor {
 	 * <p>If the desired return type is {@link HttpResponse} or {@link HttpEntity} the response or entity 
 	 * is simply returned without any further processing.</p>
 	 * 
+	 * <p>For requests which return a {@link java.util.concurrent.Future}, the desired type is the type 
+	 * argument of the future. See {@link com.lonepulse.zombielink.proxy.RequestPlan#getResponseType()}.</p>
+	 * 
 	 * <p><b>Note</b> that this processor returns {@code null} for successful responses with the status 
 	 * codes {@code 205} or {@code 205}.</p>
 	 * 
@@ -86,7 +88,7 @@ class EntityProcessor extends AbstractResponseProcessor {
 		HttpEntity entity = response.getEntity();
 		
 		Method request = context.getRequest();
-		Class<?> responseType = request.getReturnType();
+		Class<?> responseType = context.getPlan().getResponseType();
 		
 		try {
 			
@@ -108,24 +110,18 @@ class EntityProcessor extends AbstractResponseProcessor {
 				if(handleAsync || responseExpected) {
 					
 					Class<?> endpoint = context.getEndpoint();
-					AbstractDeserializer<?> deserializer = null;
+					AbstractDeserializer<?> deserializer = context.getPlan().getDeserializer();
 			
-					Deserialize metadata = (metadata = 
-						request.getAnnotation(Deserialize.class)) == null? 
-							endpoint.getAnnotation(Deserialize.class) :metadata;
+					if(deserializer == null) {
 					
-					if(metadata != null & !isDetached(context, Deserialize.class)) {
-						
-						deserializer = (metadata.value() == ContentType.UNDEFINED)? 
-							Deserializers.resolve(metadata.type()) :Deserializers.resolve(metadata.value()); 
-					}
-					else if(handleAsync || CharSequence.class.isAssignableFrom(responseType)) {
+						if(handleAsync || CharSequence.class.isAssignableFrom(responseType)) {
 						
-						deserializer = Deserializers.resolve(ContentType.PLAIN);     
-					}
-					else {
+							deserializer = Deserializers.resolve(ContentType.PLAIN);
+						}
+						else {
 						
-						throw new DeserializerUndefinedException(endpoint, request);
+							throw new DeserializerUndefinedException(endpoint, request);
+						}
 					}
 					
 					return deserializer.run(context, response);
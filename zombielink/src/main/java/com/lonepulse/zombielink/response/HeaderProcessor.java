@@ -20,14 +20,11 @@ package com.lonepulse.zombielink.response;
  * #L%
  */
 
-import java.util.List;
-import java.util.Map;
-
 import org.apache.http.HttpResponse;
 
 import com.lonepulse.zombielink.annotation.Header;
 import com.lonepulse.zombielink.proxy.InvocationContext;
-import com.lonepulse.zombielink.util.Metadata;
+import com.lonepulse.zombielink.proxy.RequestPlan;
 
 /**
  * <p>This {@link AbstractResponseProcessor} retrieves the <i>response headers</i> from an 
@@ -76,17 +73,17 @@ class HeaderProcessor extends AbstractResponseProcessor {
 
 		try {
 			
-			List<Map.Entry<Header, Object>> headers = Metadata.onParams(Header.class, context);
-			
 			String name;
 			StringBuilder value;
 			
-			for (Map.Entry<Header, Object> header : headers) {
+			for (RequestPlan.Binding<Header> header : context.getPlan().getBindings(Header.class)) {
+				
+				Object arg = header.valueIn(context);
 				
-				if(header.getValue() instanceof StringBuilder) {
+				if(arg instanceof StringBuilder) {
 					
-					name = header.getKey().value();
-					value = (StringBuilder)header.getValue();
+					name = header.getAnnotation().value();
+					value = (StringBuilder)arg;
 					
 					org.apache.http.Header[] responseHeaders = response.getHeaders(name);
 					
@@ -158,7 +158,7 @@ final class JsonDeserializer extends AbstractDeserializer<Object> {
 		try {
 			
 			return entity == null? null :Gson_fromJson.invoke(gson, EntityUtils.toString(entity), 
-					TypeToken_getType.invoke(TypeToken_GET.invoke(null, context.getRequest().getGenericReturnType())));
+					TypeToken_getType.invoke(TypeToken_GET.invoke(null, context.getPlan().getGenericResponseType())));
 		} 
 		catch(Exception e) {
 			
@@ -21,9 +21,7 @@ package com.lonepulse.zombielink.util;
  */
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import com.lonepulse.zombielink.annotation.Detach;
@@ -65,10 +63,7 @@ public final class Components {
 	 */
 	public static boolean isDetached(InvocationContext context, Class<? extends Annotation> type) {
 		
-		Method request = context.getRequest();
-		
-		return request.isAnnotationPresent(Detach.class) && 
-			   Arrays.asList(request.getAnnotation(Detach.class).value()).contains(type);
+		return context.getPlan().isDetached(type);
 	}
 	 
 	/**
@@ -90,14 +85,13 @@ public final class Components {
 	public static <E> List<Class<? extends E>> 
 		filterSkipped(InvocationContext context, List<Class<? extends E>> components) {
 		
-		Method request = context.getRequest();
+		List<Class<?>> skippedComponents = context.getPlan().getSkipped();
 		
-		if(!request.isAnnotationPresent(Skip.class)) {
+		if(skippedComponents.isEmpty()) {
 			
 			return components;
 		}
 		
-		List<Class<?>> skippedComponents = Arrays.asList(request.getAnnotation(Skip.class).value());
 		List<Class<? extends E>> filteredComponents = new ArrayList<Class<? extends E>>();
 
 		for (Class<? extends E> component : components) {
@@ -21,7 +21,6 @@ package com.lonepulse.zombielink.util;
  */
 
 import static com.lonepulse.zombielink.util.Assert.assertNotNull;
-import static com.lonepulse.zombielink.util.Components.isDetached;
 
 import java.util.List;
 
@@ -29,6 +28,7 @@ import org.apache.http.HttpResponse;
 
 import com.lonepulse.zombielink.annotation.Async;
 import com.lonepulse.zombielink.proxy.InvocationContext;
+import com.lonepulse.zombielink.proxy.RequestPlan;
 
 /**
  * <p>A collection of utility services for common conditional checks.</p>
@@ -103,7 +103,8 @@ public final class Is {
 	}
 	
 	/**
-	 * <p>Determines if a proxy invocation should be handled <b>asynchronously</b>.</p>
+	 * <p>Determines if a proxy invocation should be handled <b>asynchronously</b>, i.e. if @{@link Async} 
+	 * was found on the request or endpoint when its {@link RequestPlan} was compiled.</p>
 	 *
 	 * @param context
 	 * 			the {@link InvocationContext} which contains information about the proxy invocation
@@ -114,9 +115,7 @@ public final class Is {
 	 */
 	public static boolean async(InvocationContext context) {
 		
-		return !isDetached(context, Async.class) && 
-			   (context.getRequest().isAnnotationPresent(Async.class) || 
-			   (context.getEndpoint().isAnnotationPresent(Async.class)));
+		return context.getPlan().isAsync();
 	}
 	
 	/**
@@ -41,6 +41,7 @@ import com.lonepulse.zombielink.annotation.Request;
 import com.lonepulse.zombielink.annotation.Request.RequestMethod;
 import com.lonepulse.zombielink.annotation.TRACE;
 import com.lonepulse.zombielink.proxy.InvocationContext;
+import com.lonepulse.zombielink.proxy.RequestPlan;
 
 /**
  * <p>A collection of <b>generic</b> utility services which enables the discovery of metadata on endpoint 
@@ -64,6 +65,9 @@ public final class Metadata {
 	 * <p>Finds all parameters on the request definition which are annotated with the given type and returns 
 	 * the annotation instance together with the runtime argument.</p>
 	 * 
+	 * <p>The annotated parameters are read off the precompiled {@link RequestPlan} of the invocation. Processors 
+	 * on the hot path should prefer {@link RequestPlan#getBindings(Class)}, which avoids creating entries.</p>
+	 * 
 	 * @param type
 	 * 			the {@link Class} of the annotation to look for on the request parameters
 	 * <br><br>
@@ -81,50 +85,45 @@ public final class Metadata {
 		assertNotNull(type);
 		assertNotNull(context);
 		
-		List<Entry<T, Object>> metadata = new ArrayList<Entry<T, Object>>();
+		List<RequestPlan.Binding<T>> bindings = context.getPlan().getBindings(type);
+		
+		if(bindings.isEmpty()) {
 			
-		Method request = context.getRequest();
-		List<Object> paramValues = context.getArguments();
+			return Collections.emptyList();
+		}
 		
-		Annotation[][] annotationsForAllParams = request.getParameterAnnotations();
+		List<Entry<T, Object>> metadata = new ArrayList<Entry<T, Object>>(bindings.size());
 		
-		for (int i = 0; i < annotationsForAllParams.length; i++) {
+		for (RequestPlan.Binding<T> binding : bindings) {
 			
-			final Object value = paramValues.get(i);
+			final T annotation = binding.getAnnotation();
+			final Object value = binding.valueIn(context);
 			
 			if(value == null) {
 				
 				continue;
 			}
 			
-			for (final Annotation annotation : annotationsForAllParams[i]) {
-				
-				if(type.isAssignableFrom(annotation.getClass())) {
-					
-					metadata.add(new Map.Entry<T, Object>() {
+			metadata.add(new Map.Entry<T, Object>() {
 
-						@Override
-						public T getKey() {
-							
-							return type.cast(annotation);
-						}
+				@Override
+				public T getKey() {
+					
+					return annotation;
+				}
 
-						@Override
-						public Object getValue() {
-							
-							return value;
-						}
+				@Override
+				public Object getValue() {
+					
+					return value;
+				}
 
-						@Override
-						public Object setValue(Object value) {
-							
-							throw new UnsupportedOperationException();
-						}
-					});
+				@Override
+				public Object setValue(Object value) {
 					
-					break;
+					throw new UnsupportedOperationException();
 				}
-			}
+			});
 		}
 		
 		return Collections.unmodifiableList(metadata);
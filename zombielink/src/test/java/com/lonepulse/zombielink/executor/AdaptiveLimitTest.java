@@ -0,0 +1,132 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * <p>Performs unit testing on {@link AdaptiveLimit}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class AdaptiveLimitTest {
+	
+	
+	private static final long BASELINE = TimeUnit.MILLISECONDS.toNanos(10);
+	
+	
+	/**
+	 * <p>Tests that the limit grows up to its maximum while the latency stays at the baseline and the
+	 * limit is in use.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testGrowth() {
+		
+		AdaptiveLimit adaptiveLimit = new AdaptiveLimit(100);
+		assertEquals(20, adaptiveLimit.getLimit());
+		
+		assertEquals(24, adaptiveLimit.update(BASELINE, 20, false));
+		
+		for (int i = 0; i < 50; i++) {
+			
+			adaptiveLimit.update(BASELINE, adaptiveLimit.getLimit(), false);
+		}
+		
+		assertEquals(100, adaptiveLimit.getLimit());
+	}
+	
+	/**
+	 * <p>Tests that the limit does not grow while less than half of it is in use.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testApplicationLimited() {
+		
+		AdaptiveLimit adaptiveLimit = new AdaptiveLimit(100);
+		
+		for (int i = 0; i < 50; i++) {
+			
+			adaptiveLimit.update(BASELINE, 1, false);
+		}
+		
+		assertEquals(20, adaptiveLimit.getLimit());
+	}
+	
+	/**
+	 * <p>Tests that the limit shrinks while the latency stays above the baseline.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testShrink() {
+		
+		AdaptiveLimit adaptiveLimit = new AdaptiveLimit(100);
+		adaptiveLimit.update(BASELINE, 20, false);
+		
+		int previous = adaptiveLimit.getLimit();
+		
+		for (int i = 0; i < 100; i++) {
+			
+			int limit = adaptiveLimit.update(BASELINE * 4, adaptiveLimit.getLimit(), false);
+			
+			assertTrue(limit <= previous);
+			previous = limit;
+		}
+		
+		assertTrue(previous < 10);
+		assertTrue(previous >= 1);
+	}
+	
+	/**
+	 * <p>Tests that a dropped call backs off the limit by a constant factor and that the limit never
+	 * falls below one.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testBackoff() {
+		
+		AdaptiveLimit adaptiveLimit = new AdaptiveLimit(100);
+		
+		assertEquals(18, adaptiveLimit.update(BASELINE, 20, true));
+		
+		for (int i = 0; i < 100; i++) {
+			
+			adaptiveLimit.update(BASELINE, 1, true);
+		}
+		
+		assertEquals(1, adaptiveLimit.getLimit());
+	}
+}
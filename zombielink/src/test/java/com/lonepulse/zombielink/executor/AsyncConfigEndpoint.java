@@ -0,0 +1,57 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.lonepulse.zombielink.annotation.Async;
+import com.lonepulse.zombielink.annotation.Config;
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.proxy.Zombie;
+import com.lonepulse.zombielink.response.AsyncHandler;
+
+/**
+ * <p>An endpoint with asynchronous requests which are executed on a custom executor supplied by a 
+ * {@link Zombie.Configuration}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Async
+@Config(AsyncConfig.class)
+@Endpoint("http://0.0.0.0:8080")
+public interface AsyncConfigEndpoint {
+	
+	/**
+	 * <p>Sends an asynchronous request which takes a while to complete.</p>
+	 * 
+	 * @param asyncHandler
+	 * 			the {@link AsyncHandler} which handles the results of the asynchronous request
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/slow")
+	void slow(AsyncHandler<String> asyncHandler);
+}
@@ -0,0 +1,129 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.http.HttpResponse;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.proxy.InvocationException;
+import com.lonepulse.zombielink.proxy.Zombie;
+import com.lonepulse.zombielink.response.AsyncHandler;
+
+/**
+ * <p>Performs unit testing on the asynchronous requests of {@link AsyncConfigEndpoint}, which are executed 
+ * on the bounded executor configured by {@link AsyncConfig}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class AsyncConfigEndpointTest {
+
+	
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule();
+	
+	@Bite
+	private AsyncConfigEndpoint asyncConfigEndpoint;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		Zombie.infect(this);
+	}
+	
+	/**
+	 * <p>Tests that a request which arrives while the configured executor is saturated is rejected and 
+	 * that the rejection is delivered to the <i>onError</i> callback.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the accepted requests to complete
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testRejection() throws InterruptedException {
+		
+		String subpath = "/slow", body = "hello";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)
+				.withFixedDelay(1000)));
+		
+		final CountDownLatch accepted = new CountDownLatch(2);
+		final AtomicReference<InvocationException> rejection = new AtomicReference<InvocationException>();
+		
+		AsyncHandler<String> asyncHandler = new AsyncHandler<String>() {
+
+			@Override
+			public void onSuccess(HttpResponse httpResponse, String content) {
+				
+				accepted.countDown();
+			}
+			
+			@Override
+			public void onError(InvocationException error) {
+				
+				rejection.set(error);
+			}
+		};
+		
+		asyncConfigEndpoint.slow(asyncHandler); //occupies the only thread
+		asyncConfigEndpoint.slow(asyncHandler); //occupies the only slot in the queue
+		
+		assertEquals(1, AsyncConfig.EXECUTOR.getQueueDepth());
+		
+		asyncConfigEndpoint.slow(asyncHandler); //rejected
+		
+		assertNotNull(rejection.get());
+		assertTrue(rejection.get().getCause().getCause() instanceof RejectedExecutionException);
+		assertEquals(1, AsyncConfig.EXECUTOR.getRejectedCount());
+		
+		assertTrue(accepted.await(10, TimeUnit.SECONDS));
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+}
@@ -0,0 +1,153 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.lonepulse.zombielink.executor.BoundedExecutorService.RejectionPolicy;
+
+/**
+ * <p>Performs unit testing on {@link BoundedExecutorService}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class BoundedExecutorServiceTest {
+	
+	
+	private static Runnable blocker(final CountDownLatch release) {
+		
+		return new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				try {
+					
+					release.await(10, TimeUnit.SECONDS);
+				}
+				catch(InterruptedException ie) {
+					
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+	}
+	
+	/**
+	 * <p>Tests that a request which is blocked under {@link RejectionPolicy#BLOCK} is rejected rather than
+	 * queued if the executor is shut down while it waits for space.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the executor
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testBlockAfterShutdown() throws InterruptedException {
+		
+		final BoundedExecutorService executor = BoundedExecutorService.newBuilder()
+			.setCoreThreads(1)
+			.setMaxThreads(1)
+			.setQueueCapacity(1)
+			.setRejectionPolicy(RejectionPolicy.BLOCK)
+			.setBlockTimeout(10, TimeUnit.SECONDS)
+			.build();
+		
+		CountDownLatch running = new CountDownLatch(1), queued = new CountDownLatch(1);
+		
+		final AtomicBoolean ran = new AtomicBoolean();
+		final AtomicReference<Throwable> outcome = new AtomicReference<Throwable>();
+		
+		try {
+			
+			executor.execute(blocker(running));
+			
+			while(executor.getActiveCount() == 0 || executor.getQueueDepth() > 0) {
+				
+				Thread.sleep(10); //an idle worker may yet have to take the blocker off the queue
+			}
+			
+			executor.execute(blocker(queued));
+			
+			Thread invoker = new Thread(new Runnable() {
+				
+				@Override
+				public void run() {
+					
+					try {
+						
+						executor.execute(new Runnable() {
+							
+							@Override
+							public void run() {
+								
+								ran.set(true);
+							}
+						});
+					}
+					catch(RejectedExecutionException ree) {
+						
+						outcome.set(ree);
+					}
+				}
+			});
+			
+			invoker.start();
+			
+			while(invoker.getState() != Thread.State.TIMED_WAITING) {
+				
+				Thread.sleep(10); //the invoker blocks on the full queue
+			}
+			
+			executor.shutdown();
+			running.countDown(); //the worker takes the queued blocker, which makes space for the invoker
+			
+			invoker.join(10000);
+			
+			assertTrue(outcome.get() instanceof RejectedExecutionException);
+			assertEquals(1, executor.getRejectedCount());
+		}
+		finally {
+			
+			running.countDown();
+			queued.countDown();
+		}
+		
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		assertFalse(ran.get());
+	}
+}
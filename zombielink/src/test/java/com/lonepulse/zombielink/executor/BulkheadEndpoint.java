@@ -0,0 +1,117 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.lonepulse.zombielink.annotation.Async;
+import com.lonepulse.zombielink.annotation.Bulkhead;
+import com.lonepulse.zombielink.annotation.Detach;
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.annotation.PathParam;
+import com.lonepulse.zombielink.response.AsyncHandler;
+
+/**
+ * <p>An endpoint whose requests are confined by type-level and method-level @{@link Bulkhead}s.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Bulkhead(maxConcurrent = 2)
+@Endpoint("http://0.0.0.0:8080")
+public interface BulkheadEndpoint {
+	
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier within the endpoint's compartment.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/bulkhead/{id}")
+	String get(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier outside of any compartment.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Detach(Bulkhead.class)
+	@GET("/bulkhead/{id}")
+	String getUnconfined(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier, waiting to enter its compartment if it's full.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Bulkhead(maxConcurrent = 1, maxWait = 5000)
+	@GET("/bulkhead/{id}")
+	String getWaiting(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier within a compartment whose limit adapts.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Bulkhead(maxConcurrent = 50, adaptive = true)
+	@GET("/bulkhead/{id}")
+	String getAdaptive(@PathParam("id") String id);
+	
+	/**
+	 * <p>Asynchronously retrieves the resource with the given identifier within its own compartment.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @param asyncHandler
+	 * 			the {@link AsyncHandler} which receives the outcome of the request
+	 * 
+	 * @since 1.3.4
+	 */
+	@Async
+	@Bulkhead(maxConcurrent = 1)
+	@GET("/bulkhead/{id}")
+	void getAsync(@PathParam("id") String id, AsyncHandler<String> asyncHandler);
+}
@@ -0,0 +1,296 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.http.HttpResponse;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.annotation.Bulkhead;
+import com.lonepulse.zombielink.proxy.InvocationException;
+import com.lonepulse.zombielink.proxy.Zombie;
+import com.lonepulse.zombielink.response.AsyncHandler;
+
+/**
+ * <p>Performs unit testing on the @{@link Bulkhead}s of {@link BulkheadEndpoint}.</p>
+ * 
+ * @version 1.0.1
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class BulkheadEndpointTest {
+	
+	
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule();
+	
+	@Bite
+	private BulkheadEndpoint bulkheadEndpoint;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		Zombie.infect(this);
+	}
+	
+	private static void stubSlow(String subpath, String body, int delay) {
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)
+				.withFixedDelay(delay)));
+	}
+	
+	/**
+	 * <p>Starts a thread which runs the given request and returns it.</p>
+	 */
+	private static Thread start(Runnable request) {
+		
+		Thread thread = new Thread(request);
+		thread.start();
+		
+		return thread;
+	}
+	
+	/**
+	 * <p>Waits until the given {@link Compartment} has the given number of invocations in flight.</p>
+	 */
+	private static void awaitInFlight(Compartment compartment, int count) throws InterruptedException {
+		
+		for (int i = 0; i < 200 && compartment.getInFlightCount() < count; i++) {
+			
+			Thread.sleep(10);
+		}
+		
+		assertEquals(count, compartment.getInFlightCount());
+	}
+	
+	/**
+	 * <p>Tests that invocations are rejected while their compartment is full and that requests which
+	 * detach the bulkhead are unaffected.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the invocations in flight
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testFull() throws InterruptedException {
+		
+		String subpath = "/bulkhead/full", body = "full";
+		stubSlow(subpath, body, 500);
+		
+		Compartment compartment = Compartment.of(BulkheadEndpoint.class);
+		final AtomicInteger completed = new AtomicInteger();
+		
+		Runnable request = new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				bulkheadEndpoint.get("full");
+				completed.incrementAndGet();
+			}
+		};
+		
+		Thread first = start(request), second = start(request);
+		awaitInFlight(compartment, 2);
+		
+		try {
+			
+			bulkheadEndpoint.get("full");
+			fail("The invocation was not rejected. ");
+		}
+		catch(BulkheadFullException bfe) {
+			
+			assertSame(compartment, bfe.getCompartment());
+		}
+		
+		assertEquals(body, bulkheadEndpoint.getUnconfined("full"));
+		
+		first.join();
+		second.join();
+		
+		assertEquals(2, completed.get());
+		assertEquals(0, compartment.getInFlightCount());
+		assertEquals(1, compartment.getRejectedCount());
+		
+		verify(3, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that an invocation waits to enter a full compartment when its bulkhead has a maximum wait.</p>
+	 * 
+	 * @throws Exception
+	 * 			if the test failed to resolve the request or was interrupted
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testWait() throws Exception {
+		
+		String subpath = "/bulkhead/waiting", body = "waiting";
+		stubSlow(subpath, body, 300);
+		
+		Compartment compartment = Compartment.of(BulkheadEndpoint.class.getMethod("getWaiting", String.class));
+		
+		Thread first = start(new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				bulkheadEndpoint.getWaiting("waiting");
+			}
+		});
+		
+		awaitInFlight(compartment, 1);
+		
+		assertEquals(body, bulkheadEndpoint.getWaiting("waiting"));
+		first.join();
+		
+		assertEquals(0, compartment.getRejectedCount());
+		assertEquals(2, compartment.getAdmittedCount());
+		assertTrue(compartment.getMaxWait(TimeUnit.MILLISECONDS) >= 100);
+		
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that asynchronous invocations are confined to their compartment and that rejections are
+	 * delivered to the <i>onError</i> callback.</p>
+	 * 
+	 * @throws Exception
+	 * 			if the test failed to resolve the request or was interrupted
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testAsync() throws Exception {
+		
+		String subpath = "/bulkhead/async", body = "async";
+		stubSlow(subpath, body, 500);
+		
+		Compartment compartment = Compartment.of(BulkheadEndpoint.class.getMethod("getAsync", String.class, AsyncHandler.class));
+		
+		final CountDownLatch completed = new CountDownLatch(2);
+		final AtomicReference<String> content = new AtomicReference<String>();
+		final AtomicReference<InvocationException> error = new AtomicReference<InvocationException>();
+		
+		AsyncHandler<String> asyncHandler = new AsyncHandler<String>() {
+			
+			@Override
+			public void onSuccess(HttpResponse httpResponse, String result) {
+				
+				content.set(result);
+				completed.countDown();
+			}
+			
+			@Override
+			public void onError(InvocationException ie) {
+				
+				error.set(ie);
+				completed.countDown();
+			}
+		};
+		
+		bulkheadEndpoint.getAsync("async", asyncHandler);
+		awaitInFlight(compartment, 1);
+		
+		bulkheadEndpoint.getAsync("async", asyncHandler);
+		
+		assertTrue(completed.await(10, TimeUnit.SECONDS));
+		assertEquals(body, content.get());
+		assertTrue(error.get() instanceof BulkheadFullException);
+		
+		verify(1, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that an adaptive compartment backs off its limit when calls fail with a server error and
+	 * keeps it when calls succeed without using much of it.</p>
+	 * 
+	 * <p>The failed call is delayed well beyond the successful one, so that it sets the baseline latency 
+	 * and the successful call is never slower than the baseline, which would shrink the limit.</p>
+	 * 
+	 * @throws Exception
+	 * 			if the test failed to resolve the request
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testAdaptive() throws Exception {
+		
+		String subpath = "/bulkhead/adaptive";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(503)
+				.withFixedDelay(500)));
+		
+		Compartment compartment = Compartment.of(BulkheadEndpoint.class.getMethod("getAdaptive", String.class));
+		
+		assertEquals(50, compartment.getMaxConcurrent());
+		assertEquals(20, compartment.getLimit());
+		
+		try {
+			
+			bulkheadEndpoint.getAdaptive("adaptive");
+			fail("The request did not fail. ");
+		}
+		catch(InvocationException ie) {}
+		
+		assertEquals(18, compartment.getLimit());
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody("adaptive")));
+		
+		assertEquals("adaptive", bulkheadEndpoint.getAdaptive("adaptive"));
+		assertEquals(18, compartment.getLimit()); //application-limited, since only one call was in flight
+		assertEquals(0, compartment.getInFlightCount());
+	}
+}
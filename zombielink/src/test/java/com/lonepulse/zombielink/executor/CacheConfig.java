@@ -0,0 +1,48 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>An implementation of {@link Zombie.Configuration} which caches the responses of {@link CacheEndpoint}
+ * using a small {@link ResponseCache}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class CacheConfig extends Zombie.Configuration {
+	
+	
+	static final ResponseCache CACHE = ResponseCache.newBuilder().setCapacity(1024).setMaxEntrySize(512).build();
+	
+	
+	@Override
+	public ResponseCache responseCache() {
+		
+		return CACHE;
+	}
+}
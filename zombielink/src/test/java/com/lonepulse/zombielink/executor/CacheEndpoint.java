@@ -0,0 +1,87 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.lonepulse.zombielink.annotation.Config;
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.annotation.Header;
+import com.lonepulse.zombielink.annotation.POST;
+import com.lonepulse.zombielink.annotation.PathParam;
+
+/**
+ * <p>An endpoint whose responses are cached using the {@link ResponseCache} configured by {@link CacheConfig}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Config(CacheConfig.class)
+@Endpoint("http://0.0.0.0:8080")
+public interface CacheEndpoint {
+	
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier, which may be served from the cache.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/cache/{id}")
+	String get(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier using the given <i>Cache-Control</i> directives.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @param cacheControl
+	 * 			the <i>Cache-Control</i> directives of the request
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/cache/{id}")
+	String get(@PathParam("id") String id, @Header("Cache-Control") String cacheControl);
+	
+	/**
+	 * <p>Updates the resource with the given identifier, which invalidates any cached response.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the updated resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@POST("/cache/{id}")
+	String post(@PathParam("id") String id);
+}
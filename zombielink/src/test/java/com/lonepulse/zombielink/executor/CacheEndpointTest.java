@@ -0,0 +1,428 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.impl.cookie.DateUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>Performs unit testing on the {@link ResponseCache} which is configured for {@link CacheEndpoint}.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class CacheEndpointTest {
+	
+	
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule();
+	
+	@Bite
+	private CacheEndpoint cacheEndpoint;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		Zombie.infect(this);
+		CacheConfig.CACHE.clear();
+	}
+	
+	private static String content(char fill, int length) {
+		
+		char[] content = new char[length];
+		Arrays.fill(content, fill);
+		
+		return new String(content);
+	}
+	
+	/**
+	 * <p>Tests that a fresh response is served from the cache without contacting the server.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testFreshResponse() {
+		
+		String subpath = "/cache/fresh", body = "fresh";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("Cache-Control", "max-age=60")
+				.withBody(body)));
+		
+		assertEquals(body, cacheEndpoint.get("fresh"));
+		assertEquals(body, cacheEndpoint.get("fresh"));
+		
+		verify(1, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that a stale response with an <i>ETag</i> is revalidated using <i>If-None-Match</i> and
+	 * served from the cache when the server replies with <i>304 Not Modified</i>.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testETagRevalidation() {
+		
+		String subpath = "/cache/etag", body = "etag", etag = "\"v1\"";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("Cache-Control", "no-cache")
+				.withHeader("ETag", etag)
+				.withBody(body)));
+		
+		stubFor(get(urlEqualTo(subpath))
+				.withHeader("If-None-Match", equalTo(etag))
+				.willReturn(aResponse()
+				.withStatus(304)
+				.withHeader("ETag", etag)));
+		
+		assertEquals(body, cacheEndpoint.get("etag"));
+		assertEquals(body, cacheEndpoint.get("etag"));
+		
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+		verify(1, getRequestedFor(urlEqualTo(subpath)).withHeader("If-None-Match", equalTo(etag)));
+	}
+	
+	/**
+	 * <p>Tests that a stale response with a <i>Last-Modified</i> date is revalidated using
+	 * <i>If-Modified-Since</i> and served from the cache when the server replies with <i>304</i>.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testLastModifiedRevalidation() {
+		
+		String subpath = "/cache/lastmodified", body = "lastmodified";
+		String lastModified = DateUtils.formatDate(new Date(System.currentTimeMillis() - 60 * 60 * 1000));
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("Cache-Control", "max-age=0")
+				.withHeader("Last-Modified", lastModified)
+				.withBody(body)));
+		
+		stubFor(get(urlEqualTo(subpath))
+				.withHeader("If-Modified-Since", equalTo(lastModified))
+				.willReturn(aResponse()
+				.withStatus(304)));
+		
+		assertEquals(body, cacheEndpoint.get("lastmodified"));
+		assertEquals(body, cacheEndpoint.get("lastmodified"));
+		
+		verify(1, getRequestedFor(urlEqualTo(subpath)).withHeader("If-Modified-Since", equalTo(lastModified)));
+	}
+	
+	/**
+	 * <p>Tests that a request which carries <i>no-cache</i> is not served from the cache.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testRequestNoCache() {
+		
+		String subpath = "/cache/requestnocache", body = "requestnocache";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("Cache-Control", "max-age=60")
+				.withBody(body)));
+		
+		assertEquals(body, cacheEndpoint.get("requestnocache"));
+		assertEquals(body, cacheEndpoint.get("requestnocache", "no-cache"));
+		
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that responses which carry <i>no-store</i> or no caching information are never stored.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testUncacheable() {
+		
+		stubFor(get(urlEqualTo("/cache/nostore"))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("Cache-Control", "no-store, max-age=60")
+				.withBody("nostore")));
+		
+		stubFor(get(urlEqualTo("/cache/noinfo"))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody("noinfo")));
+		
+		for (int i = 0; i < 2; i++) {
+			
+			assertEquals("nostore", cacheEndpoint.get("nostore"));
+			assertEquals("noinfo", cacheEndpoint.get("noinfo"));
+		}
+		
+		verify(2, getRequestedFor(urlEqualTo("/cache/nostore")));
+		verify(2, getRequestedFor(urlEqualTo("/cache/noinfo")));
+		
+		assertEquals(0, CacheConfig.CACHE.getEntryCount());
+	}
+	
+	/**
+	 * <p>Tests that a successful unsafe request on a URI invalidates the response cached for it.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testInvalidation() {
+		
+		String subpath = "/cache/invalidation", body = "invalidation";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("Cache-Control", "max-age=60")
+				.withBody(body)));
+		
+		stubFor(post(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)));
+		
+		assertEquals(body, cacheEndpoint.get("invalidation"));
+		cacheEndpoint.post("invalidation");
+		assertEquals(body, cacheEndpoint.get("invalidation"));
+		
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that responses whose content exceeds the maximum entry size are passed through intact
+	 * without being stored.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testOversizedResponse() {
+		
+		String subpath = "/cache/oversized", body = content('o', 600);
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("Cache-Control", "max-age=60")
+				.withBody(body)));
+		
+		assertEquals(body, cacheEndpoint.get("oversized"));
+		assertEquals(body, cacheEndpoint.get("oversized"));
+		
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that the least recently used response is evicted once the capacity of the cache is exceeded.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testEviction() {
+		
+		for (String id : new String[] {"first", "second", "third"}) {
+			
+			stubFor(get(urlEqualTo("/cache/" + id))
+					.willReturn(aResponse()
+					.withStatus(200)
+					.withHeader("Cache-Control", "max-age=60")
+					.withBody(content(id.charAt(0), 400))));
+		}
+		
+		cacheEndpoint.get("first");
+		cacheEndpoint.get("second");
+		cacheEndpoint.get("first");
+		cacheEndpoint.get("third");
+		
+		assertEquals(2, CacheConfig.CACHE.getEntryCount());
+		
+		assertEquals(content('f', 400), cacheEndpoint.get("first"));
+		assertEquals(content('s', 400), cacheEndpoint.get("second"));
+		
+		verify(1, getRequestedFor(urlEqualTo("/cache/first")));
+		verify(2, getRequestedFor(urlEqualTo("/cache/second")));
+		verify(1, getRequestedFor(urlEqualTo("/cache/third")));
+	}
+	
+	private static void awaitRefreshes(long count) throws InterruptedException {
+		
+		for (int i = 0; i < 100 && CacheConfig.CACHE.getRefreshCount() < count; i++) {
+			
+			Thread.sleep(50);
+		}
+		
+		assertTrue(CacheConfig.CACHE.getRefreshCount() >= count);
+	}
+	
+	/**
+	 * <p>Tests that a stale response within its <i>stale-while-revalidate</i> window is served immediately
+	 * while it's refreshed in the background, and that the refreshed response is served thereafter.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the refresh
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testStaleWhileRevalidate() throws InterruptedException {
+		
+		String subpath = "/cache/swr";
+		long refreshes = CacheConfig.CACHE.getRefreshCount();
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("Cache-Control", "max-age=0, stale-while-revalidate=60")
+				.withBody("stale")));
+		
+		assertEquals("stale", cacheEndpoint.get("swr"));
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("Cache-Control", "max-age=0, stale-while-revalidate=60")
+				.withBody("refreshed")
+				.withFixedDelay(1000)));
+		
+		long start = System.currentTimeMillis();
+		
+		assertEquals("stale", cacheEndpoint.get("swr"));
+		assertTrue(System.currentTimeMillis() - start < 1000);
+		
+		awaitRefreshes(refreshes + 1);
+		
+		assertEquals("refreshed", cacheEndpoint.get("swr"));
+		assertTrue(CacheConfig.CACHE.getMaxRefreshLatency(TimeUnit.MILLISECONDS) >= 1000);
+	}
+	
+	/**
+	 * <p>Tests that concurrent requests for a stale response trigger only a single background refresh.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the refresh
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testRefreshDeduplication() throws InterruptedException {
+		
+		String subpath = "/cache/swrdedup";
+		long refreshes = CacheConfig.CACHE.getRefreshCount();
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("Cache-Control", "max-age=0, stale-while-revalidate=60")
+				.withBody("stale")));
+		
+		cacheEndpoint.get("swrdedup");
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("Cache-Control", "max-age=60")
+				.withBody("refreshed")
+				.withFixedDelay(500)));
+		
+		for (int i = 0; i < 10; i++) {
+			
+			assertEquals("stale", cacheEndpoint.get("swrdedup"));
+		}
+		
+		awaitRefreshes(refreshes + 1);
+		
+		assertEquals("refreshed", cacheEndpoint.get("swrdedup"));
+		
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that a failed background refresh is counted and that the stale response is still served.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the refresh
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testRefreshFailure() throws InterruptedException {
+		
+		String subpath = "/cache/swrfailure";
+		
+		long refreshes = CacheConfig.CACHE.getRefreshCount();
+		long failures = CacheConfig.CACHE.getRefreshFailureCount();
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("Cache-Control", "max-age=0, stale-while-revalidate=60")
+				.withBody("stale")));
+		
+		cacheEndpoint.get("swrfailure");
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(503)));
+		
+		assertEquals("stale", cacheEndpoint.get("swrfailure"));
+		
+		awaitRefreshes(refreshes + 1);
+		
+		assertEquals(failures + 1, CacheConfig.CACHE.getRefreshFailureCount());
+		assertEquals("stale", cacheEndpoint.get("swrfailure"));
+	}
+}
@@ -0,0 +1,141 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.lonepulse.zombielink.annotation.CircuitBreaker;
+import com.lonepulse.zombielink.annotation.Detach;
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.annotation.PathParam;
+
+/**
+ * <p>An endpoint whose requests are guarded by type-level and method-level @{@link CircuitBreaker}s.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@CircuitBreaker(window = 2, minimumCalls = 2)
+@Endpoint("http://0.0.0.0:8080")
+public interface CircuitBreakerEndpoint {
+	
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier using the endpoint's circuit.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/circuit/{id}")
+	String get(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier using the endpoint's circuit.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/circuit/{id}")
+	String getShared(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier without a circuit.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Detach(CircuitBreaker.class)
+	@GET("/circuit/{id}")
+	String getUnguarded(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier using a circuit which stays open.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@CircuitBreaker(window = 4, minimumCalls = 4)
+	@GET("/circuit/{id}")
+	String getFailing(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier using a circuit which is soon half-open.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@CircuitBreaker(window = 2, minimumCalls = 2, openDuration = 200, probes = 1)
+	@GET("/circuit/{id}")
+	String getRecovering(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier using a circuit which is soon half-open.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@CircuitBreaker(window = 2, minimumCalls = 2, openDuration = 200, probes = 1)
+	@GET("/circuit/{id}")
+	String getProbing(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier using a circuit which opens on slow calls and
+	 * which is served by {@link CircuitBreakerFallback} while it's open.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@CircuitBreaker(window = 2, minimumCalls = 2, slowCall = 100, fallback = CircuitBreakerFallback.class)
+	@GET("/circuit/{id}")
+	String getSlow(@PathParam("id") String id);
+}
@@ -0,0 +1,316 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.annotation.CircuitBreaker;
+import com.lonepulse.zombielink.proxy.InvocationException;
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>Performs unit testing on the @{@link CircuitBreaker}s of {@link CircuitBreakerEndpoint}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class CircuitBreakerEndpointTest {
+	
+	
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule();
+	
+	@Bite
+	private CircuitBreakerEndpoint circuitBreakerEndpoint;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		Zombie.infect(this);
+	}
+	
+	/**
+	 * <p>Records the transitions of a {@link Circuit} as "FROM-TO" strings.</p>
+	 */
+	private static List<String> record(Circuit circuit) {
+		
+		final List<String> transitions = new ArrayList<String>();
+		
+		circuit.addListener(new Circuit.Listener() {
+			
+			@Override
+			public void onTransition(Circuit circuit, Circuit.State from, Circuit.State to) {
+				
+				transitions.add(from + "-" + to);
+			}
+		});
+		
+		return transitions;
+	}
+	
+	private static void stubStatus(String subpath, int status) {
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(status)));
+	}
+	
+	private static void assertFails(Runnable request, Class<? extends InvocationException> failure) {
+		
+		try {
+			
+			request.run();
+			fail("The request did not fail. ");
+		}
+		catch(InvocationException ie) {
+			
+			assertSame(failure, ie.getClass());
+		}
+	}
+	
+	/**
+	 * <p>Tests that a circuit opens once the failure rate reaches its threshold and that requests are then
+	 * rejected with a {@link CircuitOpenException} without being sent.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testOpen() throws Exception {
+		
+		String subpath = "/circuit/failing";
+		stubStatus(subpath, 503);
+		
+		Circuit circuit = Circuit.of(CircuitBreakerEndpoint.class.getMethod("getFailing", String.class));
+		List<String> transitions = record(circuit);
+		
+		Runnable request = new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				circuitBreakerEndpoint.getFailing("failing");
+			}
+		};
+		
+		for (int i = 0; i < 4; i++) {
+			
+			assertFails(request, InvocationException.class);
+		}
+		
+		assertFails(request, CircuitOpenException.class);
+		
+		assertEquals(Circuit.State.OPEN, circuit.getState());
+		assertEquals(4, circuit.getFailureCount());
+		assertEquals(1, circuit.getRejectionCount());
+		assertEquals(1, transitions.size());
+		assertEquals("CLOSED-OPEN", transitions.get(0));
+		
+		verify(4, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that an open circuit is half-open once its open duration has elapsed and that it closes
+	 * when its probe succeeds.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testHalfOpen() throws Exception {
+		
+		String subpath = "/circuit/recovering";
+		stubStatus(subpath, 500);
+		
+		Circuit circuit = Circuit.of(CircuitBreakerEndpoint.class.getMethod("getRecovering", String.class));
+		List<String> transitions = record(circuit);
+		
+		for (int i = 0; i < 2; i++) {
+			
+			try {
+				
+				circuitBreakerEndpoint.getRecovering("recovering");
+			}
+			catch(InvocationException ie) {}
+		}
+		
+		assertEquals(Circuit.State.OPEN, circuit.getState());
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody("recovered")));
+		
+		Thread.sleep(250);
+		
+		assertEquals("recovered", circuitBreakerEndpoint.getRecovering("recovering"));
+		assertEquals(Circuit.State.CLOSED, circuit.getState());
+		
+		assertEquals(3, transitions.size());
+		assertEquals("OPEN-HALF_OPEN", transitions.get(1));
+		assertEquals("HALF_OPEN-CLOSED", transitions.get(2));
+	}
+	
+	/**
+	 * <p>Tests that a half-open circuit opens again when its probe fails.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testFailedProbe() throws Exception {
+		
+		String subpath = "/circuit/probing";
+		stubStatus(subpath, 502);
+		
+		Circuit circuit = Circuit.of(CircuitBreakerEndpoint.class.getMethod("getProbing", String.class));
+		
+		Runnable request = new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				circuitBreakerEndpoint.getProbing("probing");
+			}
+		};
+		
+		assertFails(request, InvocationException.class);
+		assertFails(request, InvocationException.class);
+		
+		Thread.sleep(250);
+		
+		assertFails(request, InvocationException.class);
+		assertEquals(Circuit.State.OPEN, circuit.getState());
+		
+		assertFails(request, CircuitOpenException.class);
+		
+		verify(3, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that a circuit opens once the rate of slow calls reaches its threshold and that requests are
+	 * then served by the fallback.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testSlowCallsWithFallback() throws Exception {
+		
+		String subpath = "/circuit/slow";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody("slow")
+				.withFixedDelay(150)));
+		
+		Circuit circuit = Circuit.of(CircuitBreakerEndpoint.class.getMethod("getSlow", String.class));
+		
+		assertEquals("slow", circuitBreakerEndpoint.getSlow("slow"));
+		assertEquals("slow", circuitBreakerEndpoint.getSlow("slow"));
+		
+		assertEquals(Circuit.State.OPEN, circuit.getState());
+		assertEquals(2, circuit.getSlowCallCount());
+		assertEquals(0, circuit.getFailureCount());
+		
+		assertEquals("fallback-slow", circuitBreakerEndpoint.getSlow("slow"));
+		
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that the requests on an endpoint share its type-level circuit, that requests which detach
+	 * it are unaffected and that client errors are not counted as failures.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testSharedCircuit() {
+		
+		String failing = "/circuit/shared", missing = "/circuit/missing", unguarded = "/circuit/unguarded";
+		
+		stubStatus(failing, 503);
+		stubStatus(missing, 404);
+		stubStatus(unguarded, 200);
+		
+		Circuit circuit = Circuit.of(CircuitBreakerEndpoint.class);
+		
+		for (int i = 0; i < 2; i++) {
+			
+			try {
+				
+				circuitBreakerEndpoint.get("missing");
+			}
+			catch(InvocationException ie) {}
+		}
+		
+		assertEquals(Circuit.State.CLOSED, circuit.getState());
+		
+		try {
+			
+			circuitBreakerEndpoint.get("shared");
+			fail("The request did not fail. ");
+		}
+		catch(InvocationException ie) {
+			
+			assertFalse(ie instanceof CircuitOpenException);
+		}
+		
+		assertEquals(Circuit.State.OPEN, circuit.getState());
+		
+		try {
+			
+			circuitBreakerEndpoint.getShared("shared");
+			fail("The request was not rejected by the shared circuit. ");
+		}
+		catch(CircuitOpenException coe) {
+			
+			assertSame(circuit, coe.getCircuit());
+		}
+		
+		circuitBreakerEndpoint.getUnguarded("unguarded");
+		
+		verify(1, getRequestedFor(urlEqualTo(failing)));
+		verify(1, getRequestedFor(urlEqualTo(unguarded)));
+		assertEquals(1, circuit.getRejectionCount());
+	}
+}
@@ -0,0 +1,54 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.annotation.Pool;
+import com.lonepulse.zombielink.annotation.Warm;
+
+/**
+ * <p>An endpoint with a @{@link Warm} annotation whose host cannot be reached.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Warm(connections = 2, timeout = 1000)
+@Pool
+@Endpoint("http://0.0.0.0:8099")
+public interface ColdEndpoint {
+	
+	
+	/**
+	 * <p>Retrieves a resource from the unreachable host.</p>
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/cold")
+	String get();
+}
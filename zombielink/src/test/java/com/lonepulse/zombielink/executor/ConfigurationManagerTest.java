@@ -23,6 +23,10 @@ package com.lonepulse.zombielink.executor;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
 import org.apache.http.client.HttpClient;
 import org.apache.http.params.HttpConnectionParams;
 import org.junit.Before;
@@ -30,12 +34,14 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.lonepulse.zombielink.annotation.Config;
+import com.lonepulse.zombielink.annotation.Endpoint;
 import com.lonepulse.zombielink.proxy.MockEndpoint;
 
 /**
  * <p>Performs unit testing on the implementation of {@link ConfigurationManager}.</p>
  * 
- * @version 1.1.0
+ * @version 1.4.0
  * <br><br>
  * @since 1.3.0
  * <br><br>
@@ -45,6 +51,14 @@ import com.lonepulse.zombielink.proxy.MockEndpoint;
  */
 public class ConfigurationManagerTest {
 	
+	
+	@Config(SharedConfig.class)
+	@Endpoint("http://0.0.0.0:8080")
+	public static interface FirstSharedEndpoint {}
+	
+	@Config(SharedConfig.class)
+	@Endpoint("http://0.0.0.0:8080")
+	public static interface SecondSharedEndpoint {}
 
 	@Rule
 	public WireMockRule wireMockRule = new WireMockRule();
@@ -86,4 +100,76 @@ public class ConfigurationManagerTest {
 		configurationManager.register(ConfigEndpoint.class);
 		assertTrue(HttpClientDirectory.INSTANCE.lookup(ConfigEndpoint.class) == httpClient);
 	}
+	
+	/**
+	 * <p>Test for endpoints which share a configuration, whose resources should be created only once.</p>
+	 *  
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testSharedConfiguration() {
+		
+		configurationManager.register(FirstSharedEndpoint.class);
+		configurationManager.register(SecondSharedEndpoint.class);
+		configurationManager.register(FirstSharedEndpoint.class);
+		
+		assertEquals(1, SharedConfig.EXECUTORS.get());
+		assertEquals(1, SharedConfig.TRANSPORTS.get());
+		assertEquals(1, SharedConfig.CACHES.get());
+	}
+	
+	/**
+	 * <p>Test for the {@link ExecutionMode} selected via its system property.</p>
+	 *  
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testExecutionModeResolution() {
+		
+		assertEquals(ExecutionMode.PLATFORM, ExecutionMode.resolve());
+		
+		System.setProperty(ExecutionMode.PROPERTY, "virtual");
+		
+		try {
+			
+			assertEquals(ExecutionMode.VIRTUAL, ExecutionMode.resolve());
+		}
+		finally {
+			
+			System.clearProperty(ExecutionMode.PROPERTY);
+		}
+	}
+	
+	/**
+	 * <p>Test for the {@link ExecutionMode#VIRTUAL} executor, which should fall back to platform threads 
+	 * on JVMs without support for virtual threads.</p>
+	 * 
+	 * @throws Exception
+	 * 			if the task failed to execute
+	 *  
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testVirtualExecutionMode() throws Exception {
+		
+		ExecutorService executor = ExecutionMode.VIRTUAL.newExecutor();
+		
+		try {
+			
+			assertEquals(ExecutionMode.VIRTUAL.isSupported(), !(executor instanceof BoundedExecutorService));
+			
+			assertEquals("executed", executor.submit(new Callable<String>() {
+				
+				@Override
+				public String call() {
+					
+					return "executed";
+				}
+			}).get(10, TimeUnit.SECONDS));
+		}
+		finally {
+			
+			executor.shutdown();
+		}
+	}
 }
@@ -0,0 +1,147 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/**
+ * <p>Performs unit testing on {@link Handoff}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class HandoffTest {
+	
+	
+	/**
+	 * <p>Tests that a task which a worker hands off to its own executor is run by that worker once it
+	 * takes the task off the queue.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testWorkerHandoff() throws Exception {
+		
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		final CountDownLatch ran = new CountDownLatch(1);
+		
+		try {
+			
+			executor.execute(new Runnable() {
+				
+				@Override
+				public void run() {
+					
+					Handoff.execute(executor, new Runnable() {
+						
+						@Override
+						public void run() {
+							
+							ran.countDown();
+						}
+					});
+				}
+			});
+			
+			assertTrue(ran.await(5, TimeUnit.SECONDS));
+		}
+		finally {
+			
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * <p>Tests that a saturated executor with a caller-runs policy rejects the task instead of running it
+	 * on the handing thread.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testCallerRunsDeclined() throws Exception {
+		
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicBoolean ran = new AtomicBoolean();
+		
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+			new ArrayBlockingQueue<Runnable>(1), new ThreadPoolExecutor.CallerRunsPolicy());
+		
+		Runnable blocker = new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				try {
+					
+					release.await();
+				}
+				catch(InterruptedException ie) {
+					
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		
+		try {
+			
+			executor.execute(blocker);
+			executor.execute(blocker);
+			
+			Handoff.execute(executor, new Runnable() {
+				
+				@Override
+				public void run() {
+					
+					ran.set(true);
+				}
+			});
+			
+			fail("The handoff should have been rejected. ");
+		}
+		catch(RejectedExecutionException ree) {
+			
+			assertFalse(ran.get());
+		}
+		finally {
+			
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+}
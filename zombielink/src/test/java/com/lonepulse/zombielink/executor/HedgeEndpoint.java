@@ -0,0 +1,84 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.annotation.Hedge;
+import com.lonepulse.zombielink.annotation.PathParam;
+
+/**
+ * <p>An endpoint whose requests are hedged using @{@link Hedge} policies.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Endpoint("http://0.0.0.0:8080")
+public interface HedgeEndpoint {
+	
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier, which is hedged after a fixed delay.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Hedge(delay = 100)
+	@GET("/hedge/{id}")
+	String get(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier, which may be hedged only once.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Hedge(delay = 50, rate = 0)
+	@GET("/hedge/{id}")
+	String getCapped(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier, which is hedged after the observed median.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Hedge(percentile = 50)
+	@GET("/hedge/{id}")
+	String getTracked(@PathParam("id") String id);
+}
@@ -0,0 +1,267 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.annotation.Hedge;
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>Performs unit testing on the @{@link Hedge} policies of {@link HedgeEndpoint}.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class HedgeEndpointTest {
+	
+	
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule();
+	
+	@Bite
+	private HedgeEndpoint hedgeEndpoint;
+	
+	@Bite
+	private SaturatedEndpoint saturatedEndpoint;
+	
+	private HedgeMetrics metrics;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		Zombie.infect(this);
+		metrics = HedgeMetrics.of(HedgeEndpoint.class);
+	}
+	
+	/**
+	 * <p>Tests that a request whose first attempt is slow is hedged and that the response of the hedge
+	 * is served without waiting for the first attempt.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testHedgeWins() {
+		
+		String subpath = "/hedge/slow", body = "hedged";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.inScenario("hedge")
+				.whenScenarioStateIs(Scenario.STARTED)
+				.willSetStateTo("hedged")
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody("slow")
+				.withFixedDelay(2000)));
+		
+		stubFor(get(urlEqualTo(subpath))
+				.inScenario("hedge")
+				.whenScenarioStateIs("hedged")
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)));
+		
+		long hedges = metrics.getHedgeCount(), wins = metrics.getWinCount();
+		long start = System.currentTimeMillis();
+		
+		assertEquals(body, hedgeEndpoint.get("slow"));
+		assertTrue(System.currentTimeMillis() - start < 2000);
+		
+		assertEquals(hedges + 1, metrics.getHedgeCount());
+		assertEquals(wins + 1, metrics.getWinCount());
+		
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that a request whose first attempt completes within the delay is not hedged.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting past the hedge delay
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testNoHedge() throws InterruptedException {
+		
+		String subpath = "/hedge/fast", body = "fast";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)));
+		
+		long invocations = metrics.getInvocationCount(), hedges = metrics.getHedgeCount();
+		
+		assertEquals(body, hedgeEndpoint.get("fast"));
+		
+		Thread.sleep(200);
+		
+		assertEquals(invocations + 1, metrics.getInvocationCount());
+		assertEquals(hedges, metrics.getHedgeCount());
+		
+		verify(1, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that the hedges of a request are capped by its hedge rate.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testHedgeRate() {
+		
+		String subpath = "/hedge/capped", body = "capped";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)
+				.withFixedDelay(200)));
+		
+		long hedges = metrics.getHedgeCount();
+		
+		for (int i = 0; i < 3; i++) {
+			
+			assertEquals(body, hedgeEndpoint.getCapped("capped"));
+		}
+		
+		assertEquals(hedges + 1, metrics.getHedgeCount());
+		
+		verify(4, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that a request which is hedged after a percentile of its latencies is not hedged until
+	 * enough latencies have been observed.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testPercentileWarmup() {
+		
+		String subpath = "/hedge/tracked", body = "tracked";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)
+				.withFixedDelay(50)));
+		
+		long hedges = metrics.getHedgeCount();
+		
+		assertEquals(body, hedgeEndpoint.getTracked("tracked"));
+		assertEquals(hedges, metrics.getHedgeCount());
+		
+		verify(1, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that a hedge which is rejected by a saturated executor is skipped instead of being sent on
+	 * the timer thread, and that its token is returned to the budget.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while saturating the executor
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testSaturatedExecutor() throws InterruptedException {
+		
+		String subpath = "/saturated/hedge", body = "primary";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)
+				.withFixedDelay(500)));
+		
+		final CountDownLatch release = new CountDownLatch(1);
+		
+		Runnable blocker = new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				try {
+					
+					release.await(10, TimeUnit.SECONDS);
+				}
+				catch(InterruptedException ie) {
+					
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		
+		HedgeMetrics saturatedMetrics = HedgeMetrics.of(SaturatedEndpoint.class);
+		long hedges = saturatedMetrics.getHedgeCount();
+		
+		try {
+			
+			SaturatedConfig.EXECUTOR.execute(blocker);
+			
+			while(SaturatedConfig.EXECUTOR.getActiveCount() == 0 || SaturatedConfig.EXECUTOR.getQueueDepth() > 0) {
+				
+				Thread.sleep(10); //an idle worker may yet have to take the blocker off the queue
+			}
+			
+			SaturatedConfig.EXECUTOR.execute(blocker);
+			
+			long rejections = SaturatedConfig.EXECUTOR.getRejectedCount();
+			
+			assertEquals(body, saturatedEndpoint.hedge("hedge"));
+			assertEquals(body, saturatedEndpoint.hedge("hedge")); //only hedged if the first token was returned
+			
+			assertEquals(rejections + 2, SaturatedConfig.EXECUTOR.getRejectedCount());
+			assertEquals(hedges, saturatedMetrics.getHedgeCount());
+		}
+		finally {
+			
+			release.countDown();
+		}
+		
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+}
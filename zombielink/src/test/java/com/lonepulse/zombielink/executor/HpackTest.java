@@ -0,0 +1,181 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.http.Header;
+import org.junit.Test;
+
+/**
+ * <p>Performs unit testing on {@link Hpack} using the examples of
+ * <a href="http://tools.ietf.org/html/rfc7541#appendix-C">RFC 7541, Appendix C</a>.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class HpackTest {
+	
+	
+	/**
+	 * <p>Tests the decoding of consecutive request header blocks with Huffman coded strings which refer
+	 * to the dynamic table (RFC 7541, C.4).</p>
+	 * 
+	 * @throws IOException
+	 * 			if a header block could not be decoded
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testRequests() throws IOException {
+		
+		Hpack.Decoder decoder = new Hpack.Decoder(4096);
+		
+		assertHeaders(decoder.decode(bytes("828684418cf1e3c2e5f23a6ba0ab90f4ff")),
+			":method", "GET", ":scheme", "http", ":path", "/", ":authority", "www.example.com");
+		
+		assertHeaders(decoder.decode(bytes("828684be5886a8eb10649cbf")),
+			":method", "GET", ":scheme", "http", ":path", "/", ":authority", "www.example.com",
+			"cache-control", "no-cache");
+		
+		assertHeaders(decoder.decode(bytes("828785bf408825a849e95ba97d7f8925a849e95bb8e8b4bf")),
+			":method", "GET", ":scheme", "https", ":path", "/index.html", ":authority", "www.example.com",
+			"custom-key", "custom-value");
+	}
+	
+	/**
+	 * <p>Tests the decoding of consecutive response header blocks with Huffman coded strings, where the
+	 * size of the dynamic table causes entries to be evicted (RFC 7541, C.6).</p>
+	 * 
+	 * @throws IOException
+	 * 			if a header block could not be decoded
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testResponses() throws IOException {
+		
+		Hpack.Decoder decoder = new Hpack.Decoder(256);
+		
+		assertHeaders(decoder.decode(bytes("488264025885aec3771a4b6196d07abe941054d444a8200595040b8166e082a62d1bff"
+			+ "6e919d29ad171863c78f0b97c8e9ae82ae43d3")),
+			":status", "302", "cache-control", "private", "date", "Mon, 21 Oct 2013 20:13:21 GMT",
+			"location", "https://www.example.com");
+		
+		assertHeaders(decoder.decode(bytes("4883640effc1c0bf")),
+			":status", "307", "cache-control", "private", "date", "Mon, 21 Oct 2013 20:13:21 GMT",
+			"location", "https://www.example.com");
+		
+		assertHeaders(decoder.decode(bytes("88c16196d07abe941054d444a8200595040b8166e084a62d1bffc05a839bd9ab77ad94"
+			+ "e7821dd7f2e6c7b335dfdfcd5b3960d5af27087f3672c1ab270fb5291f9587316065c003ed4ee5b1063d5007")),
+			":status", "200", "cache-control", "private", "date", "Mon, 21 Oct 2013 20:13:22 GMT",
+			"location", "https://www.example.com", "content-encoding", "gzip",
+			"set-cookie", "foo=ASDJKHQKBZXOQWEOPIUAXQWEOIU; max-age=3600; version=1");
+	}
+	
+	/**
+	 * <p>Tests that encoded headers are decoded to the same headers.</p>
+	 * 
+	 * @throws IOException
+	 * 			if the header block could not be decoded
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testEncoding() throws IOException {
+		
+		ByteArrayOutputStream block = new ByteArrayOutputStream();
+		
+		Hpack.encode(":method", "GET", block);
+		Hpack.encode(":path", "/users?page=2", block);
+		Hpack.encode("authorization", "Basic emFtYmllOmxpbms=", block);
+		Hpack.encode("x-long-value", new String(new char[300]).replace('\0', 'z'), block);
+		
+		assertEquals(0x82, block.toByteArray()[0] & 0xff);
+		
+		assertHeaders(new Hpack.Decoder(4096).decode(block.toByteArray()),
+			":method", "GET", ":path", "/users?page=2", "authorization", "Basic emFtYmllOmxpbms=",
+			"x-long-value", new String(new char[300]).replace('\0', 'z'));
+	}
+	
+	/**
+	 * <p>Tests that malformed header blocks are rejected.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testMalformed() {
+		
+		String[] blocks = {
+			"be", //an index beyond the static table with an empty dynamic table
+			"00821fff", //a Huffman coded string which is padded with more than 7 bits
+			"008118", //a Huffman coded string which is padded with zeros
+			"0004f2b2", //a string which exceeds the header block
+			"3fe21f" //a dynamic table size update which exceeds the limit
+		};
+		
+		for (String block : blocks) {
+			
+			try {
+				
+				new Hpack.Decoder(4096).decode(bytes(block));
+				fail("A malformed header block <" + block + "> was decoded.");
+			}
+			catch(IOException ioe) {
+				
+				//expected
+			}
+		}
+	}
+	
+	private static void assertHeaders(List<Header> headers, String... expected) {
+		
+		assertEquals(expected.length / 2, headers.size());
+		
+		for (int i = 0; i < headers.size(); i++) {
+			
+			assertEquals(expected[2 * i], headers.get(i).getName());
+			assertEquals(expected[2 * i + 1], headers.get(i).getValue());
+		}
+	}
+	
+	private static byte[] bytes(String hex) {
+		
+		byte[] bytes = new byte[hex.length() / 2];
+		
+		for (int i = 0; i < bytes.length; i++) {
+			
+			bytes[i] = (byte)Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+		}
+		
+		return bytes;
+	}
+}
@@ -0,0 +1,98 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.lonepulse.zombielink.annotation.Async;
+import com.lonepulse.zombielink.annotation.Config;
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.Entity;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.annotation.POST;
+import com.lonepulse.zombielink.annotation.PathParam;
+import com.lonepulse.zombielink.response.AsyncHandler;
+
+/**
+ * <p>An endpoint whose requests are multiplexed over HTTP/2 using the {@link NonBlockingTransport}
+ * supplied by {@link Http2Config}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Config(Http2Config.class)
+@Endpoint("http://0.0.0.0:8090")
+public interface Http2Endpoint {
+	
+	/**
+	 * <p>Sends one of many synchronous requests which take a while to complete.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the content of the requested resource
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/http2/{id}")
+	String slow(@PathParam("id") String id);
+	
+	/**
+	 * <p>Sends one of many asynchronous requests which take a while to complete.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @param asyncHandler
+	 * 			the {@link AsyncHandler} which handles the results of the asynchronous request
+	 * 
+	 * @since 1.3.4
+	 */
+	@Async
+	@GET("/http2/{id}")
+	void slowAsync(@PathParam("id") String id, AsyncHandler<String> asyncHandler);
+	
+	/**
+	 * <p>Sends a request with an entity which is echoed in the response.</p>
+	 * 
+	 * @param content
+	 * 			the content of the request entity
+	 * 
+	 * @return the echoed content
+	 * 
+	 * @since 1.3.4
+	 */
+	@POST("/http2entity")
+	String entity(@Entity String content);
+	
+	/**
+	 * <p>Sends a request which responds with a status code that signifies a failure.</p>
+	 * 
+	 * @return the content of the response, which is never returned
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/http2failure")
+	String failure();
+}
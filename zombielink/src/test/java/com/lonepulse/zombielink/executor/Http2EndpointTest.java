@@ -0,0 +1,232 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.proxy.InvocationException;
+import com.lonepulse.zombielink.proxy.Zombie;
+import com.lonepulse.zombielink.response.AsyncHandler;
+
+/**
+ * <p>Performs unit testing on {@link Http2Endpoint}, whose requests are multiplexed over cleartext HTTP/2
+ * by the {@link NonBlockingTransport} configured in {@link Http2Config}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class Http2EndpointTest {
+	
+	
+	private static final int MAX_CONCURRENT_STREAMS = 8;
+	
+	private static final Http2Server SERVER = new Http2Server(8090, MAX_CONCURRENT_STREAMS);
+	
+	@Bite
+	private Http2Endpoint http2Endpoint;
+	
+	
+	@BeforeClass
+	public static void startServer() throws Exception {
+		
+		SERVER.start();
+		
+		for (int i = 0; i < 32; i++) {
+			
+			SERVER.stub("/http2/" + i, 200, ("resource-" + i).getBytes("UTF-8"), 250);
+		}
+		
+		SERVER.stub("/http2entity", 200, null, 0);
+		SERVER.stub("/http2failure", 404, "jabberwocky".getBytes("UTF-8"), 0);
+	}
+	
+	@AfterClass
+	public static void stopServer() {
+		
+		SERVER.stop();
+	}
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		Zombie.infect(this);
+	}
+	
+	/**
+	 * <p>Tests that many concurrent synchronous requests are multiplexed over a single connection, within
+	 * the limit of concurrent streams which was advertised by the server.</p>
+	 * 
+	 * @throws Exception
+	 * 			if a request failed or the test was interrupted
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testMultiplexing() throws Exception {
+		
+		ExecutorService invokers = Executors.newFixedThreadPool(32);
+		List<Future<String>> responses = new ArrayList<Future<String>>();
+		
+		try {
+			
+			for (int i = 0; i < 32; i++) {
+				
+				final String id = String.valueOf(i);
+				
+				responses.add(invokers.submit(new Callable<String>() {
+					
+					@Override
+					public String call() {
+						
+						return http2Endpoint.slow(id);
+					}
+				}));
+			}
+			
+			for (int i = 0; i < 32; i++) {
+				
+				assertEquals("resource-" + i, responses.get(i).get(10, TimeUnit.SECONDS));
+			}
+		}
+		finally {
+			
+			invokers.shutdownNow();
+		}
+		
+		assertEquals(1, SERVER.getConnectionCount());
+		assertEquals(1, Http2Config.TRANSPORT.getOpenConnectionCount());
+		
+		assertTrue(SERVER.getMaxActiveStreams() > 1);
+		assertTrue(SERVER.getMaxActiveStreams() <= MAX_CONCURRENT_STREAMS);
+	}
+	
+	/**
+	 * <p>Tests that asynchronous requests are multiplexed over the same connection as synchronous requests.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the requests to complete
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testAsyncMultiplexing() throws InterruptedException {
+		
+		final CountDownLatch completed = new CountDownLatch(32);
+		final Map<String, String> responses = new ConcurrentHashMap<String, String>();
+		
+		for (int i = 0; i < 32; i++) {
+			
+			final String id = String.valueOf(i);
+			
+			http2Endpoint.slowAsync(id, new AsyncHandler<String>() {
+				
+				@Override
+				public void onSuccess(HttpResponse httpResponse, String content) {
+					
+					responses.put(id, content);
+					completed.countDown();
+				}
+			});
+		}
+		
+		assertTrue(completed.await(10, TimeUnit.SECONDS));
+		
+		for (int i = 0; i < 32; i++) {
+			
+			assertEquals("resource-" + i, responses.get(String.valueOf(i)));
+		}
+		
+		assertEquals(0, Http2Config.TRANSPORT.getInFlightCount());
+		assertEquals(1, SERVER.getConnectionCount());
+	}
+	
+	/**
+	 * <p>Tests that entities which exceed the flow-control windows are sent and received in full.</p>
+	 * 
+	 * @throws Exception
+	 * 			if the request failed
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testLargeEntity() throws Exception {
+		
+		StringBuilder content = new StringBuilder();
+		
+		for (int i = 0; content.length() < 2 * 1024 * 1024; i++) {
+			
+			content.append("zombie-").append(i).append(',');
+		}
+		
+		assertEquals(content.toString(), http2Endpoint.entity(content.toString()));
+		assertEquals(content.toString(), new String(SERVER.getReceived("/http2entity"), "UTF-8"));
+	}
+	
+	/**
+	 * <p>Tests that a response with a status code which signifies a failure is reported with its content.</p>
+	 * 
+	 * @throws Exception
+	 * 			if the content of the response could not be read
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testFailure() throws Exception {
+		
+		try {
+			
+			http2Endpoint.failure();
+			fail("Failed request did not throw a context aware <InvocationException>.");
+		}
+		catch(InvocationException error) {
+			
+			assertTrue(error.hasResponse());
+			assertEquals(404, error.getResponse().getStatusLine().getStatusCode());
+			assertEquals("jabberwocky", EntityUtils.toString(error.getResponse().getEntity()));
+		}
+	}
+}
@@ -0,0 +1,487 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.Header;
+
+/**
+ * <p>A minimal cleartext HTTP/2 server which accepts connections with <i>prior knowledge</i> and serves
+ * stubbed responses, for testing the {@link NonBlockingTransport} with {@link NonBlockingTransport.Protocol#HTTP_2}.
+ * Each connection is served by its own thread and responses are written by a pool of workers, honouring
+ * the flow-control windows of the client.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+final class Http2Server {
+	
+	
+	private static final class Stub {
+		
+		
+		private final int status;
+		private final byte[] body;
+		private final long delay;
+		
+		
+		private Stub(int status, byte[] body, long delay) {
+			
+			this.status = status;
+			this.body = body;
+			this.delay = delay;
+		}
+	}
+	
+	private final class Connection implements Runnable {
+		
+		
+		private final Socket socket;
+		private final OutputStream out;
+		
+		private final Hpack.Decoder decoder = new Hpack.Decoder(4 * 1024);
+		private final Map<Integer, ByteArrayOutputStream> bodies = new HashMap<Integer, ByteArrayOutputStream>();
+		private final Map<Integer, List<Header>> requests = new HashMap<Integer, List<Header>>();
+		private final Map<Integer, Integer> windows = new HashMap<Integer, Integer>();
+		
+		private int initialWindow = 64 * 1024 - 1;
+		private int connectionWindow = 64 * 1024 - 1;
+		
+		
+		private Connection(Socket socket) throws IOException {
+			
+			this.socket = socket;
+			this.out = socket.getOutputStream();
+		}
+		
+		@Override
+		public void run() {
+			
+			try {
+				
+				DataInputStream in = new DataInputStream(socket.getInputStream());
+				
+				byte[] preface = new byte[24];
+				in.readFully(preface);
+				
+				if(!new String(preface, "ISO-8859-1").equals("PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n")) {
+					
+					throw new IOException("Illegal connection preface. ");
+				}
+				
+				write(0x4, 0, 0, ByteBuffer.allocate(6).putShort((short)0x3).putInt(maxConcurrentStreams).array());
+				
+				ByteArrayOutputStream headerBlock = new ByteArrayOutputStream();
+				
+				while(true) {
+					
+					int length = (in.readUnsignedByte() << 16) | in.readUnsignedShort();
+					int type = in.readUnsignedByte();
+					int flags = in.readUnsignedByte();
+					int stream = in.readInt() & Integer.MAX_VALUE;
+					
+					byte[] payload = new byte[length];
+					in.readFully(payload);
+					
+					if(type == 0x1 || type == 0x9) { //HEADERS and CONTINUATION
+						
+						headerBlock.write(payload, 0, payload.length);
+						
+						if((flags & 0x4) != 0) {
+							
+							List<Header> headers = decoder.decode(headerBlock.toByteArray());
+							headerBlock.reset();
+							
+							open(stream, headers, (flags & 0x1) != 0);
+						}
+					}
+					else if(type == 0x0) { //DATA
+						
+						bodies.get(stream).write(payload, 0, payload.length);
+						
+						if(length > 0) {
+							
+							write(0x8, 0, 0, ByteBuffer.allocate(4).putInt(length).array());
+							write(0x8, 0, stream, ByteBuffer.allocate(4).putInt(length).array());
+						}
+						
+						if((flags & 0x1) != 0) {
+							
+							respond(stream);
+						}
+					}
+					else if(type == 0x4 && (flags & 0x1) == 0) { //SETTINGS
+						
+						ByteBuffer settings = ByteBuffer.wrap(payload);
+						
+						while(settings.hasRemaining()) {
+							
+							int setting = settings.getShort(), value = settings.getInt();
+							
+							if(setting == 0x4) {
+								
+								synchronized (this) {
+									
+									for (Map.Entry<Integer, Integer> window : windows.entrySet()) {
+										
+										window.setValue(window.getValue() + value - initialWindow);
+									}
+									
+									initialWindow = value;
+									notifyAll();
+								}
+							}
+						}
+						
+						write(0x4, 0x1, 0, new byte[0]);
+					}
+					else if(type == 0x8) { //WINDOW_UPDATE
+						
+						int increment = ByteBuffer.wrap(payload).getInt();
+						
+						synchronized (this) {
+							
+							if(stream == 0) {
+								
+								connectionWindow += increment;
+							}
+							else if(windows.containsKey(stream)) {
+								
+								windows.put(stream, windows.get(stream) + increment);
+							}
+							
+							notifyAll();
+						}
+					}
+					else if(type == 0x6 && (flags & 0x1) == 0) { //PING
+						
+						write(0x6, 0x1, 0, payload);
+					}
+					else if(type == 0x7) { //GOAWAY
+						
+						break;
+					}
+				}
+			}
+			catch(EOFException eofe) {
+				
+				//the client closed the connection
+			}
+			catch(IOException ioe) {
+				
+				//the connection was closed
+			}
+			finally {
+				
+				close(socket);
+			}
+		}
+		
+		private void open(int stream, List<Header> headers, boolean ends) throws IOException {
+			
+			synchronized (this) {
+				
+				windows.put(stream, initialWindow);
+			}
+			
+			requests.put(stream, headers);
+			bodies.put(stream, new ByteArrayOutputStream());
+			
+			int active = activeStreams.incrementAndGet();
+			
+			for (int max = maxActiveStreams.get(); active > max; max = maxActiveStreams.get()) {
+				
+				maxActiveStreams.compareAndSet(max, active);
+			}
+			
+			if(ends) {
+				
+				respond(stream);
+			}
+		}
+		
+		private void respond(final int stream) {
+			
+			final List<Header> headers = requests.remove(stream);
+			final byte[] body = bodies.remove(stream).toByteArray();
+			
+			workers.execute(new Runnable() {
+				
+				@Override
+				public void run() {
+					
+					try {
+						
+						String path = value(headers, ":path");
+						received.put(path, body);
+						
+						Stub stub = stubs.get(path);
+						stub = stub == null? new Stub(404, new byte[0], 0) :stub;
+						
+						if(stub.delay > 0) {
+							
+							Thread.sleep(stub.delay);
+						}
+						
+						byte[] content = stub.body == null? body :stub.body;
+						
+						ByteArrayOutputStream block = new ByteArrayOutputStream();
+						Hpack.encode(":status", String.valueOf(stub.status), block);
+						Hpack.encode("content-type", "text/plain; charset=UTF-8", block);
+						Hpack.encode("content-length", String.valueOf(content.length), block);
+						
+						activeStreams.decrementAndGet();
+						
+						write(0x1, content.length == 0? 0x5 :0x4, stream, block.toByteArray());
+						
+						for (int offset = 0; offset < content.length;) {
+							
+							int length = reserve(stream, Math.min(content.length - offset, 16 * 1024));
+							
+							write(0x0, offset + length == content.length? 0x1 :0x0, stream,
+								Arrays.copyOfRange(content, offset, offset + length));
+							
+							offset += length;
+						}
+					}
+					catch(Exception e) {
+						
+						close(socket);
+					}
+					finally {
+						
+						synchronized (Connection.this) {
+							
+							windows.remove(stream);
+						}
+					}
+				}
+			});
+		}
+		
+		private synchronized int reserve(int stream, int length) throws InterruptedException {
+			
+			while(Math.min(connectionWindow, windows.get(stream)) <= 0) {
+				
+				wait();
+			}
+			
+			length = Math.min(length, Math.min(connectionWindow, windows.get(stream)));
+			
+			connectionWindow -= length;
+			windows.put(stream, windows.get(stream) - length);
+			
+			return length;
+		}
+		
+		private void write(int type, int flags, int stream, byte[] payload) throws IOException {
+			
+			ByteBuffer frame = ByteBuffer.allocate(9 + payload.length);
+			
+			frame.put((byte)(payload.length >>> 16)).putShort((short)payload.length);
+			frame.put((byte)type).put((byte)flags).putInt(stream).put(payload);
+			
+			synchronized (out) {
+				
+				out.write(frame.array());
+				out.flush();
+			}
+		}
+	}
+	
+	
+	private final int port;
+	private final int maxConcurrentStreams;
+	
+	private final Map<String, Stub> stubs = new ConcurrentHashMap<String, Stub>();
+	private final Map<String, byte[]> received = new ConcurrentHashMap<String, byte[]>();
+	
+	private final AtomicInteger connections = new AtomicInteger();
+	private final AtomicInteger activeStreams = new AtomicInteger();
+	private final AtomicInteger maxActiveStreams = new AtomicInteger();
+	
+	private final ExecutorService workers = Executors.newCachedThreadPool();
+	
+	private ServerSocket serverSocket;
+	
+	
+	/**
+	 * <p>Creates a new {@link Http2Server} which listens on the given port once it's started.</p>
+	 * 
+	 * @param port
+	 * 			the port on which connections are accepted
+	 * 
+	 * @param maxConcurrentStreams
+	 * 			the maximum number of concurrent streams per connection which is advertised to clients
+	 * 
+	 * @since 1.3.4
+	 */
+	Http2Server(int port, int maxConcurrentStreams) {
+		
+		this.port = port;
+		this.maxConcurrentStreams = maxConcurrentStreams;
+	}
+	
+	/**
+	 * <p>Starts accepting connections on a background thread.</p>
+	 * 
+	 * @throws IOException
+	 * 			if the server socket could not be bound
+	 * 
+	 * @since 1.3.4
+	 */
+	void start() throws IOException {
+		
+		serverSocket = new ServerSocket();
+		serverSocket.setReuseAddress(true);
+		serverSocket.bind(new InetSocketAddress(port));
+		
+		Thread acceptor = new Thread(new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				try {
+					
+					while(true) {
+						
+						Socket socket = serverSocket.accept();
+						connections.incrementAndGet();
+						
+						Thread connection = new Thread(new Connection(socket), "http2-server-connection");
+						connection.setDaemon(true);
+						connection.start();
+					}
+				}
+				catch(IOException ioe) {
+					
+					//the server was stopped
+				}
+			}
+		}, "http2-server-acceptor");
+		
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+	
+	/**
+	 * <p>Stops accepting connections and releases the workers.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	void stop() {
+		
+		try {
+			
+			serverSocket.close();
+		}
+		catch(IOException ioe) {
+			
+			//already closed
+		}
+		
+		workers.shutdownNow();
+	}
+	
+	/**
+	 * <p>Stubs the response for the given path.</p>
+	 * 
+	 * @param path
+	 * 			the request path, including the query string
+	 * 
+	 * @param status
+	 * 			the status code of the response
+	 * 
+	 * @param body
+	 * 			the body of the response; else {@code null} to echo the request body
+	 * 
+	 * @param delay
+	 * 			the time in milliseconds for which the response is withheld
+	 * 
+	 * @since 1.3.4
+	 */
+	void stub(String path, int status, byte[] body, long delay) {
+		
+		stubs.put(path, new Stub(status, body, delay));
+	}
+	
+	byte[] getReceived(String path) {
+		
+		return received.get(path);
+	}
+	
+	int getConnectionCount() {
+		
+		return connections.get();
+	}
+	
+	int getMaxActiveStreams() {
+		
+		return maxActiveStreams.get();
+	}
+	
+	private static String value(List<Header> headers, String name) {
+		
+		for (Header header : headers) {
+			
+			if(header.getName().equals(name)) {
+				
+				return header.getValue();
+			}
+		}
+		
+		return null;
+	}
+	
+	private static void close(Socket socket) {
+		
+		try {
+			
+			socket.close();
+		}
+		catch(IOException ioe) {
+			
+			//already closed
+		}
+	}
+}
@@ -0,0 +1,294 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.http.HttpResponse;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.proxy.InvocationException;
+import com.lonepulse.zombielink.proxy.Zombie;
+import com.lonepulse.zombielink.response.AsyncHandler;
+
+/**
+ * <p>Performs unit testing on the asynchronous requests of {@link NonBlockingEndpoint}, which are sent
+ * using the {@link NonBlockingTransport} configured by {@link NonBlockingConfig}.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class NonBlockingEndpointTest {
+	
+	
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule();
+	
+	@Bite
+	private NonBlockingEndpoint nonBlockingEndpoint;
+	
+	@Bite
+	private SaturatedEndpoint saturatedEndpoint;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		Zombie.infect(this);
+	}
+	
+	/**
+	 * <p>Tests that many slow requests are in flight at once on a single I/O thread and that each of
+	 * them completes with its own response.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the requests to complete
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testConcurrentRequests() throws InterruptedException {
+		
+		int requests = 32;
+		
+		for (int i = 0; i < requests; i++) {
+			
+			stubFor(get(urlEqualTo("/nonblocking/" + i))
+					.willReturn(aResponse()
+					.withStatus(200)
+					.withBody("resource-" + i)
+					.withFixedDelay(500)));
+		}
+		
+		final CountDownLatch completed = new CountDownLatch(requests);
+		final Map<String, String> responses = new ConcurrentHashMap<String, String>();
+		
+		for (int i = 0; i < requests; i++) {
+			
+			final String id = String.valueOf(i);
+			
+			nonBlockingEndpoint.slow(id, new AsyncHandler<String>() {
+				
+				@Override
+				public void onSuccess(HttpResponse httpResponse, String content) {
+					
+					responses.put(id, content);
+					completed.countDown();
+				}
+			});
+		}
+		
+		assertTrue(NonBlockingConfig.TRANSPORT.getInFlightCount() > 1);
+		assertTrue(completed.await(10, TimeUnit.SECONDS));
+		
+		for (int i = 0; i < requests; i++) {
+			
+			assertEquals("resource-" + i, responses.get(String.valueOf(i)));
+		}
+		
+		assertEquals(0, NonBlockingConfig.TRANSPORT.getInFlightCount());
+	}
+	
+	/**
+	 * <p>Tests that the entity of a request is sent using the {@link NonBlockingTransport}.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the request to complete
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testEntity() throws InterruptedException {
+		
+		String subpath = "/nonblockingentity", content = "{\"name\":\"zombie\"}";
+		
+		stubFor(post(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(content)));
+		
+		final CountDownLatch completed = new CountDownLatch(1);
+		final AtomicReference<String> response = new AtomicReference<String>();
+		
+		nonBlockingEndpoint.entity(content, new AsyncHandler<String>() {
+			
+			@Override
+			public void onSuccess(HttpResponse httpResponse, String content) {
+				
+				response.set(content);
+				completed.countDown();
+			}
+		});
+		
+		assertTrue(completed.await(10, TimeUnit.SECONDS));
+		assertEquals(content, response.get());
+		
+		verify(postRequestedFor(urlEqualTo(subpath))
+			  .withRequestBody(equalTo(content)));
+	}
+	
+	/**
+	 * <p>Tests that a response with a status code which signifies a failure is delivered to the
+	 * <i>onFailure</i> callback.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the request to complete
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testFailure() throws InterruptedException {
+		
+		String subpath = "/nonblockingfailure";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(404)));
+		
+		final CountDownLatch failed = new CountDownLatch(1);
+		final AtomicReference<HttpResponse> response = new AtomicReference<HttpResponse>();
+		
+		nonBlockingEndpoint.failure(new AsyncHandler<String>() {
+			
+			@Override
+			public void onSuccess(HttpResponse httpResponse, String content) {}
+			
+			@Override
+			public void onFailure(HttpResponse httpResponse) {
+				
+				response.set(httpResponse);
+				failed.countDown();
+			}
+		});
+		
+		assertTrue(failed.await(10, TimeUnit.SECONDS));
+		assertEquals(404, response.get().getStatusLine().getStatusCode());
+		
+		verify(getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that responses which arrive while the executor is saturated are neither handled on the
+	 * I/O thread, which the {@link BoundedExecutorService.RejectionPolicy#CALLER_RUNS} policy would
+	 * otherwise cause, nor hold it up; their rejection is reported to the <i>onError</i> callback.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the requests to complete
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testSaturatedExecutor() throws InterruptedException {
+		
+		int requests = 8;
+		
+		for (int i = 0; i < requests; i++) {
+			
+			stubFor(get(urlEqualTo("/saturated/" + i))
+					.willReturn(aResponse()
+					.withStatus(200)
+					.withBody("resource-" + i)));
+		}
+		
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch rejected = new CountDownLatch(requests - 2);
+		final AtomicInteger errors = new AtomicInteger();
+		final CountDownLatch completed = new CountDownLatch(requests);
+		
+		final Set<String> threads = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+		long rejections = SaturatedConfig.EXECUTOR.getRejectedCount();
+		
+		for (int i = 0; i < requests; i++) {
+			
+			saturatedEndpoint.saturate(String.valueOf(i), new AsyncHandler<String>() {
+				
+				@Override
+				public void onSuccess(HttpResponse httpResponse, String content) {
+					
+					threads.add(Thread.currentThread().getName());
+					
+					try {
+						
+						release.await(10, TimeUnit.SECONDS); //keeps the executor saturated
+					}
+					catch(InterruptedException ie) {
+						
+						Thread.currentThread().interrupt();
+					}
+					
+					completed.countDown();
+				}
+				
+				@Override
+				public void onError(InvocationException error) {
+					
+					threads.add(Thread.currentThread().getName());
+					
+					errors.incrementAndGet();
+					rejected.countDown();
+					completed.countDown();
+				}
+			});
+		}
+		
+		assertTrue(rejected.await(10, TimeUnit.SECONDS));
+		release.countDown();
+		
+		assertTrue(completed.await(10, TimeUnit.SECONDS));
+		
+		for (String thread : threads) {
+			
+			assertFalse(thread, thread.startsWith("zombielink-nio-"));
+		}
+		
+		assertTrue(errors.get() >= requests - 2); //an idle worker may not have taken the first response yet
+		assertEquals(rejections + errors.get(), SaturatedConfig.EXECUTOR.getRejectedCount());
+	}
+}
@@ -0,0 +1,57 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.annotation.PathParam;
+import com.lonepulse.zombielink.annotation.Pool;
+
+/**
+ * <p>An endpoint with a @{@link Pool} which limits its connections to the mock server.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Pool(maxTotal = 4, maxPerRoute = 1, leaseTimeout = 250, timeToLive = 60000, validateAfterInactivity = 1000,
+	routes = @Pool.Route(host = "http://0.0.0.0:8080", maxConnections = 2))
+@Endpoint("http://0.0.0.0:8080")
+public interface PoolEndpoint {
+	
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier over a pooled connection.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/pool/{id}")
+	String get(@PathParam("id") String id);
+}
@@ -0,0 +1,302 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.params.HttpConnectionParams;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.annotation.Pool;
+import com.lonepulse.zombielink.proxy.InvocationException;
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>Performs unit testing on the @{@link Pool} of {@link PoolEndpoint} and its {@link ConnectionPool}.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class PoolEndpointTest {
+	
+	
+	private static final String HOST = "http://0.0.0.0:8080";
+	
+	
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule();
+	
+	@Bite
+	private PoolEndpoint poolEndpoint;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		Zombie.infect(this);
+	}
+	
+	private static void stubSlow(String subpath, String body, int delay) {
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)
+				.withFixedDelay(delay)));
+	}
+	
+	/**
+	 * <p>Starts the given number of threads which request the given resource and counts those which
+	 * complete successfully.</p>
+	 */
+	private List<Thread> start(int count, final String id, final AtomicInteger completed) {
+		
+		List<Thread> threads = new ArrayList<Thread>(count);
+		
+		for (int i = 0; i < count; i++) {
+			
+			Thread thread = new Thread(new Runnable() {
+				
+				@Override
+				public void run() {
+					
+					poolEndpoint.get(id);
+					completed.incrementAndGet();
+				}
+			});
+			
+			thread.start();
+			threads.add(thread);
+		}
+		
+		return threads;
+	}
+	
+	/**
+	 * <p>Waits until the given {@link ConnectionPool} has the given number of leased connections.</p>
+	 */
+	private static void awaitLeased(ConnectionPool pool, int count) throws InterruptedException {
+		
+		for (int i = 0; i < 200 && pool.getLeasedCount() < count; i++) {
+			
+			Thread.sleep(10);
+		}
+		
+		assertEquals(count, pool.getLeasedCount());
+	}
+	
+	/**
+	 * <p>Tests that the endpoint is given an {@link org.apache.http.client.HttpClient} of its own whose pool
+	 * is sized as declared.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testPoolSpec() {
+		
+		ConnectionPool pool = ConnectionPool.of(PoolEndpoint.class);
+		
+		assertNotSame(HttpClientDirectory.DEFAULT, HttpClientDirectory.INSTANCE.lookup(PoolEndpoint.class));
+		assertNotSame(ConnectionPool.of(BulkheadEndpoint.class), pool);
+		
+		assertEquals(4, pool.getMaxTotal());
+		assertEquals(1, pool.getMaxPerRoute());
+		assertEquals(2, pool.getMaxPerRoute(HOST));
+		assertEquals(1, pool.getMaxPerRoute("localhost:8080"));
+		assertEquals(30000, pool.getIdleTimeout());
+	}
+	
+	/**
+	 * <p>Tests that the connections of a pool are evicted once they have been idle for longer than its
+	 * idle timeout and that they are not checked for staleness on each lease.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while the connection was idle
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testEviction() throws InterruptedException {
+		
+		String subpath = "/pool/idle", body = "idle";
+		stubSlow(subpath, body, 0);
+		
+		ConnectionPool pool = ConnectionPool.of(PoolEndpoint.class);
+		
+		assertFalse(HttpConnectionParams.isStaleCheckingEnabled(
+			HttpClientDirectory.INSTANCE.lookup(PoolEndpoint.class).getParams()));
+		
+		try {
+			
+			pool.setIdleTimeout(0);
+			pool.evict(); //closes the connections left idle by other tests
+			
+			pool.setIdleTimeout(500);
+			
+			assertEquals(body, poolEndpoint.get("idle"));
+			assertEquals(1, pool.getAvailableCount());
+			
+			long idleEvictions = pool.getIdleEvictionCount();
+			
+			pool.evict();
+			assertEquals(1, pool.getAvailableCount());
+			
+			Thread.sleep(600);
+			pool.evict();
+			
+			assertEquals(0, pool.getAvailableCount());
+			assertEquals(idleEvictions + 1, pool.getIdleEvictionCount());
+		}
+		finally {
+			
+			pool.setIdleTimeout(30000);
+		}
+		
+		assertEquals(body, poolEndpoint.get("idle"));
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that a request fails once it has waited for the lease timeout on a saturated route.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the requests in flight
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testLeaseTimeout() throws InterruptedException {
+		
+		String subpath = "/pool/saturated", body = "saturated";
+		stubSlow(subpath, body, 1000);
+		
+		ConnectionPool pool = ConnectionPool.of(PoolEndpoint.class);
+		AtomicInteger completed = new AtomicInteger();
+		
+		List<Thread> threads = start(2, "saturated", completed);
+		awaitLeased(pool, 2);
+		
+		long start = System.currentTimeMillis();
+		
+		try {
+			
+			poolEndpoint.get("saturated");
+			fail("A connection was leased beyond the limit of the route. ");
+		}
+		catch(InvocationException ie) {
+			
+			Throwable cause = ie;
+			
+			while(cause != null && !(cause instanceof ConnectionPoolTimeoutException)) {
+				
+				cause = cause.getCause();
+			}
+			
+			assertTrue(cause instanceof ConnectionPoolTimeoutException);
+			assertTrue(System.currentTimeMillis() - start < 900);
+		}
+		
+		for (Thread thread : threads) {
+			
+			thread.join();
+		}
+		
+		assertEquals(2, completed.get());
+		assertEquals(0, pool.getLeasedCount());
+		
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that the limit of a route can be raised while the endpoint is in use.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the requests in flight
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testResize() throws InterruptedException {
+		
+		String subpath = "/pool/resized", body = "resized";
+		stubSlow(subpath, body, 500);
+		
+		ConnectionPool pool = ConnectionPool.of(PoolEndpoint.class);
+		pool.setMaxPerRoute(HOST, 3);
+		
+		try {
+			
+			AtomicInteger completed = new AtomicInteger();
+			
+			List<Thread> threads = start(3, "resized", completed);
+			awaitLeased(pool, 3);
+			
+			for (Thread thread : threads) {
+				
+				thread.join();
+			}
+			
+			assertEquals(3, completed.get());
+			assertEquals(3, pool.getMaxPerRoute(HOST));
+		}
+		finally {
+			
+			pool.setMaxPerRoute(HOST, 2);
+		}
+		
+		verify(3, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that illegal limits are rejected.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public final void testIllegalLimit() {
+		
+		ConnectionPool.of(PoolEndpoint.class).setMaxPerRoute(HOST, 0);
+	}
+}
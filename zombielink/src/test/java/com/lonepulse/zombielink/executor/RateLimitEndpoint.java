@@ -0,0 +1,165 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.lonepulse.zombielink.annotation.Bulkhead;
+import com.lonepulse.zombielink.annotation.Detach;
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.annotation.PathParam;
+import com.lonepulse.zombielink.annotation.RateLimit;
+import com.lonepulse.zombielink.annotation.Retry;
+
+/**
+ * <p>An endpoint whose requests are limited by type-level and method-level @{@link RateLimit}s.</p>
+ * 
+ * @version 1.2.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@RateLimit(permits = 2, period = 60000)
+@Endpoint("http://0.0.0.0:8080")
+public interface RateLimitEndpoint {
+	
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier using the endpoint's bucket.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/ratelimit/{id}")
+	String get(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier without a limit.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Detach(RateLimit.class)
+	@GET("/ratelimit/{id}")
+	String getUnlimited(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier, waiting for a permit if none is available.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@RateLimit(permits = 10, burst = 1, timeout = 1000)
+	@GET("/ratelimit/{id}")
+	String getBlocking(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier using a bucket which adapts to the quota
+	 * reported by the upstream.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@RateLimit(permits = 100)
+	@GET("/ratelimit/{id}")
+	String getAdaptive(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier using a bucket which adapts to the
+	 * <i>Retry-After</i> of the upstream.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@RateLimit(permits = 100)
+	@GET("/ratelimit/{id}")
+	String getThrottled(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier, retrying failed attempts while permits are
+	 * available in a bucket which is owned by the request.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Retry(attempts = 5, delay = 10)
+	@RateLimit(permits = 2, period = 60000)
+	@GET("/ratelimit/{id}")
+	String getRetried(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier using a bucket whose permits are reserved well
+	 * ahead, so that a waiting request may be interrupted.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@RateLimit(permits = 2, period = 60000, timeout = 45000)
+	@GET("/ratelimit/{id}")
+	String getReserved(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier within a compartment, retrying failed attempts
+	 * once a permit becomes available.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Bulkhead(maxConcurrent = 1)
+	@Retry(delay = 10)
+	@RateLimit(permits = 1, period = 1000, timeout = 5000)
+	@GET("/ratelimit/{id}")
+	String getConfined(@PathParam("id") String id);
+}
@@ -0,0 +1,348 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.annotation.RateLimit;
+import com.lonepulse.zombielink.proxy.InvocationException;
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>Performs unit testing on the @{@link RateLimit}s of {@link RateLimitEndpoint}.</p>
+ * 
+ * @version 1.2.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class RateLimitEndpointTest {
+	
+	
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule();
+	
+	@Bite
+	private RateLimitEndpoint rateLimitEndpoint;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		Zombie.infect(this);
+	}
+	
+	/**
+	 * <p>Tests that requests fail fast once the permits of their bucket are exhausted and that requests
+	 * which detach the limit are unaffected.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testFailFast() {
+		
+		String subpath = "/ratelimit/fast", body = "fast";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)));
+		
+		RateLimiter limiter = RateLimiter.of(RateLimitEndpoint.class);
+		
+		assertEquals(body, rateLimitEndpoint.get("fast"));
+		assertEquals(body, rateLimitEndpoint.get("fast"));
+		assertEquals(0, limiter.getAvailablePermits());
+		
+		try {
+			
+			rateLimitEndpoint.get("fast");
+			fail("The request was not rejected. ");
+		}
+		catch(RateLimitExceededException rlee) {
+			
+			assertSame(limiter, rlee.getLimiter());
+		}
+		
+		assertEquals(body, rateLimitEndpoint.getUnlimited("fast"));
+		
+		assertEquals(2, limiter.getGrantedCount());
+		assertEquals(1, limiter.getRejectedCount());
+		
+		verify(3, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that requests wait for a permit when their limit has a timeout.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testBlocking() throws Exception {
+		
+		String subpath = "/ratelimit/blocking", body = "blocking";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)));
+		
+		RateLimiter limiter = RateLimiter.of(RateLimitEndpoint.class.getMethod("getBlocking", String.class));
+		long start = System.currentTimeMillis();
+		
+		for (int i = 0; i < 3; i++) {
+			
+			assertEquals(body, rateLimitEndpoint.getBlocking("blocking"));
+		}
+		
+		assertTrue(System.currentTimeMillis() - start >= 150);
+		assertEquals(2, limiter.getDelayedCount());
+		assertEquals(0, limiter.getRejectedCount());
+		
+		verify(3, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that a bucket is drained when the upstream reports an exhausted quota.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testRemainingHeader() throws Exception {
+		
+		String subpath = "/ratelimit/adaptive", body = "adaptive";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("X-RateLimit-Remaining", "0")
+				.withHeader("X-RateLimit-Reset", "60")
+				.withBody(body)));
+		
+		RateLimiter limiter = RateLimiter.of(RateLimitEndpoint.class.getMethod("getAdaptive", String.class));
+		
+		assertEquals(body, rateLimitEndpoint.getAdaptive("adaptive"));
+		assertEquals(0, limiter.getAvailablePermits());
+		
+		try {
+			
+			rateLimitEndpoint.getAdaptive("adaptive");
+			fail("The request was not rejected. ");
+		}
+		catch(RateLimitExceededException rlee) {}
+		
+		verify(1, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that a bucket withholds its permits for the duration given by the <i>Retry-After</i> header
+	 * of a <b>429</b> response.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testRetryAfterHeader() throws Exception {
+		
+		String subpath = "/ratelimit/throttled";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(429)
+				.withHeader("Retry-After", "60")));
+		
+		RateLimiter limiter = RateLimiter.of(RateLimitEndpoint.class.getMethod("getThrottled", String.class));
+		
+		try {
+			
+			rateLimitEndpoint.getThrottled("throttled");
+			fail("The request did not fail. ");
+		}
+		catch(InvocationException ie) {
+			
+			assertFalse(ie instanceof RateLimitExceededException);
+			assertEquals(429, ie.getResponse().getStatusLine().getStatusCode());
+		}
+		
+		assertEquals(0, limiter.getAvailablePermits());
+		
+		try {
+			
+			rateLimitEndpoint.getThrottled("throttled");
+			fail("The request was not rejected. ");
+		}
+		catch(RateLimitExceededException rlee) {}
+		
+		verify(1, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that each retry of a limited request takes a permit of its own and that a retry for which
+	 * no permit is available fails the request with a {@link RateLimitExceededException}.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testRetryPermits() throws Exception {
+		
+		String subpath = "/ratelimit/retried";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(503)));
+		
+		RateLimiter limiter = RateLimiter.of(RateLimitEndpoint.class.getMethod("getRetried", String.class));
+		
+		try {
+			
+			rateLimitEndpoint.getRetried("retried");
+			fail("The retry was not rejected. ");
+		}
+		catch(RateLimitExceededException rlee) {}
+		
+		assertEquals(2, limiter.getGrantedCount());
+		assertEquals(1, limiter.getRejectedCount());
+		
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that a permit which was reserved by a request is returned when its wait is interrupted.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testInterruptedWait() throws Exception {
+		
+		final RateLimiter limiter = RateLimiter.of(RateLimitEndpoint.class.getMethod("getReserved", String.class));
+		
+		assertTrue(limiter.acquire());
+		assertTrue(limiter.acquire());
+		
+		for (int i = 1; i <= 3; i++) { //each reservation would otherwise push the next one past the timeout
+			
+			final AtomicReference<Object> outcome = new AtomicReference<Object>();
+			
+			Thread waiter = new Thread(new Runnable() {
+				
+				@Override
+				public void run() {
+					
+					try {
+						
+						outcome.set(limiter.acquire());
+					}
+					catch(InterruptedException ie) {
+						
+						outcome.set(ie);
+					}
+				}
+			});
+			
+			waiter.start();
+			
+			for (int j = 0; j < 200 && limiter.getDelayedCount() < i && waiter.isAlive(); j++) {
+				
+				Thread.sleep(10);
+			}
+			
+			waiter.interrupt();
+			waiter.join();
+			
+			assertTrue(outcome.get() instanceof InterruptedException);
+		}
+		
+		assertEquals(2, limiter.getGrantedCount());
+		assertEquals(0, limiter.getRejectedCount());
+	}
+	
+	/**
+	 * <p>Tests that a retry does not hold on to its place in a compartment while it waits for a permit.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testConfinedRetry() throws Exception {
+		
+		String subpath = "/ratelimit/confined", body = "confined";
+		
+		stubFor(get(urlEqualTo(subpath)).inScenario("confined")
+				.whenScenarioStateIs(Scenario.STARTED)
+				.willReturn(aResponse().withStatus(503))
+				.willSetStateTo("recovered"));
+		
+		stubFor(get(urlEqualTo(subpath)).inScenario("confined")
+				.whenScenarioStateIs("recovered")
+				.willReturn(aResponse().withStatus(200).withBody(body)));
+		
+		RateLimiter limiter = RateLimiter.of(RateLimitEndpoint.class.getMethod("getConfined", String.class));
+		Compartment compartment = Compartment.of(RateLimitEndpoint.class.getMethod("getConfined", String.class));
+		
+		final AtomicReference<String> content = new AtomicReference<String>();
+		
+		Thread invoker = new Thread(new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				content.set(rateLimitEndpoint.getConfined("confined"));
+			}
+		});
+		
+		invoker.start();
+		
+		for (int i = 0; i < 200 && limiter.getDelayedCount() < 1; i++) {
+			
+			Thread.sleep(10);
+		}
+		
+		assertEquals(1, limiter.getDelayedCount());
+		assertEquals(0, compartment.getInFlightCount());
+		
+		invoker.join();
+		
+		assertEquals(body, content.get());
+		assertEquals(2, compartment.getAdmittedCount());
+		
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+}
@@ -0,0 +1,283 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * <p>Performs unit testing on the disk-backed tier of {@link ResponseCache}.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class ResponseCacheTest {
+	
+	
+	/**
+	 * <p>Serves a fixed cacheable response of the given size and counts the exchanges.</p>
+	 */
+	private static final class CountingExchange implements ResponseCache.Exchange {
+		
+		
+		private final byte[] content;
+		private final String cacheControl;
+		private final AtomicInteger count = new AtomicInteger();
+		
+		
+		private CountingExchange(byte[] content) {
+			
+			this(content, "max-age=60");
+		}
+		
+		private CountingExchange(byte[] content, String cacheControl) {
+			
+			this.content = content;
+			this.cacheControl = cacheControl;
+		}
+		
+		@Override
+		public HttpResponse execute(HttpRequestBase request) throws IOException {
+			
+			count.incrementAndGet();
+			
+			HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+			response.setHeader("Cache-Control", cacheControl);
+			response.setEntity(new InputStreamEntity(new ByteArrayInputStream(content), -1));
+			
+			return response;
+		}
+		
+		@Override
+		public HttpRequestBase rebuild(HttpRequestBase request) {
+			
+			return new HttpGet(request.getURI());
+		}
+	}
+	
+	
+	private static final long DISK_CAPACITY = 4 * 1024 * 1024;
+	
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+	
+	private File directory;
+	
+	
+	@Before
+	public void setUp() throws IOException {
+		
+		directory = temporaryFolder.newFolder("cache");
+	}
+	
+	private ResponseCache newCache() {
+		
+		return ResponseCache.newBuilder()
+				.setMaxEntrySize(1024)
+				.setDiskStore(directory, DISK_CAPACITY)
+				.build();
+	}
+	
+	private static byte[] content(int length) {
+		
+		byte[] content = new byte[length];
+		Arrays.fill(content, (byte)'z');
+		
+		return content;
+	}
+	
+	private static byte[] fetch(ResponseCache cache, String uri, ResponseCache.Exchange exchange) throws IOException {
+		
+		return EntityUtils.toByteArray(cache.execute(new HttpGet(uri), exchange).getEntity());
+	}
+	
+	/**
+	 * <p>Tests that responses stored on disk are served by a new cache over the same directory, as they
+	 * would be after a restart of the process.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testRestart() throws IOException {
+		
+		String uri = "http://0.0.0.0:8080/catalog/small";
+		CountingExchange exchange = new CountingExchange(content(512));
+		
+		fetch(newCache(), uri, exchange);
+		
+		ResponseCache restarted = newCache();
+		
+		assertEquals(1, restarted.getDiskEntryCount());
+		assertTrue(Arrays.equals(content(512), fetch(restarted, uri, exchange)));
+		assertEquals(1, exchange.count.get());
+	}
+	
+	/**
+	 * <p>Tests that a response which is too large for the in-memory tier is stored on disk once its content
+	 * has been read in full, and is subsequently served from the mapped segment.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testLargeResponse() throws IOException {
+		
+		String uri = "http://0.0.0.0:8080/catalog/large";
+		CountingExchange exchange = new CountingExchange(content(256 * 1024));
+		
+		ResponseCache cache = newCache();
+		
+		assertTrue(Arrays.equals(content(256 * 1024), fetch(cache, uri, exchange)));
+		assertEquals(0, cache.getEntryCount());
+		assertEquals(1, cache.getDiskEntryCount());
+		
+		HttpResponse cached = cache.execute(new HttpGet(uri), exchange);
+		
+		assertTrue(cached.getEntity().isRepeatable());
+		assertTrue(Arrays.equals(content(256 * 1024), EntityUtils.toByteArray(cached.getEntity())));
+		assertEquals(1, exchange.count.get());
+	}
+	
+	/**
+	 * <p>Tests that a large response whose content was not read in full is not stored.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testPartialRead() throws IOException {
+		
+		String uri = "http://0.0.0.0:8080/catalog/partial";
+		CountingExchange exchange = new CountingExchange(content(256 * 1024));
+		
+		ResponseCache cache = newCache();
+		
+		HttpResponse response = cache.execute(new HttpGet(uri), exchange);
+		response.getEntity().getContent().close();
+		
+		assertEquals(0, cache.getDiskEntryCount());
+	}
+	
+	/**
+	 * <p>Tests that an invalidated response is removed from disk and stays removed after a restart.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testInvalidation() throws IOException {
+		
+		String uri = "http://0.0.0.0:8080/catalog/invalidated";
+		CountingExchange exchange = new CountingExchange(content(512));
+		
+		ResponseCache cache = newCache();
+		
+		fetch(cache, uri, exchange);
+		cache.execute(new HttpPost(uri), exchange);
+		
+		assertEquals(0, cache.getDiskEntryCount());
+		assertEquals(0, newCache().getDiskEntryCount());
+	}
+	
+	/**
+	 * <p>Tests that the oldest segments are deleted once the disk capacity is exceeded.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testDiskEviction() throws IOException {
+		
+		ResponseCache cache = newCache();
+		CountingExchange exchange = new CountingExchange(content(900 * 1024));
+		
+		for (int i = 0; i < 8; i++) {
+			
+			fetch(cache, "http://0.0.0.0:8080/catalog/" + i, exchange);
+		}
+		
+		assertTrue(cache.getDiskEntryCount() < 8);
+		
+		long total = 0;
+		
+		for (File segment : directory.listFiles()) {
+			
+			total += segment.getName().startsWith("segment-")? segment.length() :0;
+		}
+		
+		assertTrue(total <= DISK_CAPACITY);
+		
+		fetch(cache, "http://0.0.0.0:8080/catalog/0", exchange);
+		assertEquals(9, exchange.count.get());
+	}
+	
+	/**
+	 * <p>Tests that the background refresh of a stale response is never run on the serving thread, even
+	 * if the executor would do so, and that it's counted as a failed refresh instead.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testInlineRefreshDeclined() throws IOException {
+		
+		String uri = "http://0.0.0.0:8080/catalog/stale";
+		CountingExchange exchange = new CountingExchange(content(512), "max-age=0, stale-while-revalidate=60");
+		
+		ResponseCache cache = newCache();
+		fetch(cache, uri, exchange);
+		
+		Executor callerRuns = new Executor() {
+			
+			@Override
+			public void execute(Runnable command) {
+				
+				command.run();
+			}
+		};
+		
+		HttpResponse stale = cache.execute(new HttpGet(uri), exchange, callerRuns);
+		
+		assertTrue(Arrays.equals(content(512), EntityUtils.toByteArray(stale.getEntity())));
+		assertEquals(1, exchange.count.get());
+		assertEquals(1, cache.getRefreshFailureCount());
+	}
+}
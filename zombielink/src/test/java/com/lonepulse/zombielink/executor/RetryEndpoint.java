@@ -0,0 +1,109 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.InputStream;
+
+import org.apache.http.HttpEntity;
+
+import com.lonepulse.zombielink.annotation.Detach;
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.Entity;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.annotation.POST;
+import com.lonepulse.zombielink.annotation.PathParam;
+import com.lonepulse.zombielink.annotation.Retry;
+
+/**
+ * <p>An endpoint whose requests are retried using a type-level @{@link Retry} policy.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Retry(delay = 10)
+@Endpoint("http://0.0.0.0:8080")
+public interface RetryEndpoint {
+	
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier using the endpoint's retry policy.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/retry/{id}")
+	String get(@PathParam("id") String id);
+	
+	/**
+	 * <p>Retrieves the resource with the given identifier without any retries.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Detach(Retry.class)
+	@GET("/retry/{id}")
+	String getOnce(@PathParam("id") String id);
+	
+	/**
+	 * <p>Sends the given {@link InputStream}, which is buffered and can therefore be retried.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the updated resource
+	 * 
+	 * @param content
+	 * 			the {@link InputStream} which is sent as the entity
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@POST("/retry/{id}")
+	String post(@PathParam("id") String id, @Entity InputStream content);
+	
+	/**
+	 * <p>Sends the given {@link HttpEntity}, which is retried only if it is repeatable.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the updated resource
+	 * 
+	 * @param entity
+	 * 			the {@link HttpEntity} which is sent as-is
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@POST("/retry/{id}")
+	String post(@PathParam("id") String id, @Entity HttpEntity entity);
+}
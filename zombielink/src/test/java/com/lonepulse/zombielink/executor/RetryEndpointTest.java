@@ -0,0 +1,391 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.annotation.Retry;
+import com.lonepulse.zombielink.proxy.InvocationException;
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>Performs unit testing on the @{@link Retry} policies of {@link RetryEndpoint} and {@link RetryBudgetEndpoint}.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class RetryEndpointTest {
+	
+	
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule();
+	
+	@Bite
+	private RetryEndpoint retryEndpoint;
+	
+	@Bite
+	private RetryBudgetEndpoint retryBudgetEndpoint;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		Zombie.infect(this);
+	}
+	
+	/**
+	 * <p>Stubs a resource which fails once with the given response and succeeds thereafter.</p>
+	 */
+	private static void stubRecovery(MappingBuilder failure, MappingBuilder success) {
+		
+		stubFor(failure.inScenario("recovery")
+				.whenScenarioStateIs(Scenario.STARTED)
+				.willSetStateTo("recovered"));
+		
+		stubFor(success.inScenario("recovery")
+				.whenScenarioStateIs("recovered"));
+	}
+	
+	/**
+	 * <p>Tests that a request which fails with a retryable status code is retried and that the response of
+	 * the successful attempt is returned.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testRetryOnStatus() {
+		
+		String subpath = "/retry/status", body = "recovered";
+		
+		stubRecovery(get(urlEqualTo(subpath)).willReturn(aResponse().withStatus(503)),
+					 get(urlEqualTo(subpath)).willReturn(aResponse().withStatus(200).withBody(body)));
+		
+		assertEquals(body, retryEndpoint.get("status"));
+		
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that a request which keeps failing is attempted at most the maximum number of times and that
+	 * the final failure is reported.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testMaxAttempts() {
+		
+		String subpath = "/retry/attempts";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(503)));
+		
+		try {
+			
+			retryEndpoint.get("attempts");
+			fail("The final failure was not reported. ");
+		}
+		catch(InvocationException ie) {
+			
+			assertEquals(503, ie.getResponse().getStatusLine().getStatusCode());
+		}
+		
+		verify(3, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that a status code which is not retryable fails on the first attempt.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testNonRetryableStatus() {
+		
+		String subpath = "/retry/notfound";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(404)));
+		
+		try {
+			
+			retryEndpoint.get("notfound");
+			fail("The failure was not reported. ");
+		}
+		catch(InvocationException ie) {}
+		
+		verify(1, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that a retry waits for at least the time requested by <i>Retry-After</i>.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testRetryAfter() {
+		
+		String subpath = "/retry/after", body = "recovered";
+		
+		stubRecovery(get(urlEqualTo(subpath)).willReturn(aResponse().withStatus(503).withHeader("Retry-After", "1")),
+					 get(urlEqualTo(subpath)).willReturn(aResponse().withStatus(200).withBody(body)));
+		
+		long start = System.currentTimeMillis();
+		
+		assertEquals(body, retryEndpoint.get("after"));
+		assertTrue(System.currentTimeMillis() - start >= 1000);
+		
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that a request is not retried if <i>Retry-After</i> exceeds the maximum delay.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testRetryAfterExceedsMaxDelay() {
+		
+		String subpath = "/retry/later";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(503)
+				.withHeader("Retry-After", "3600")));
+		
+		try {
+			
+			retryEndpoint.get("later");
+			fail("The failure was not reported. ");
+		}
+		catch(InvocationException ie) {}
+		
+		verify(1, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that a request which detaches the endpoint's policy is not retried.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testDetached() {
+		
+		String subpath = "/retry/detached";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(503)));
+		
+		try {
+			
+			retryEndpoint.getOnce("detached");
+			fail("The failure was not reported. ");
+		}
+		catch(InvocationException ie) {}
+		
+		verify(1, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that an {@link java.io.InputStream} entity, which is buffered, is sent in full on every attempt.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testBufferedStreamEntity() {
+		
+		String subpath = "/retry/stream", content = "zombie";
+		
+		stubRecovery(post(urlEqualTo(subpath)).willReturn(aResponse().withStatus(503)),
+					 post(urlEqualTo(subpath)).willReturn(aResponse().withStatus(200).withBody(content)));
+		
+		assertEquals(content, retryEndpoint.post("stream", new ByteArrayInputStream(content.getBytes())));
+		
+		verify(2, postRequestedFor(urlEqualTo(subpath))
+				  .withRequestBody(equalTo(content)));
+	}
+	
+	/**
+	 * <p>Tests that a request with an entity which cannot be repeated is not retried, while one with a
+	 * repeatable entity is.</p>
+	 * 
+	 * @throws Exception
+	 * 			if the test terminated with an error
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testNonRepeatableEntity() throws Exception {
+		
+		String subpath = "/retry/entity", content = "zombie";
+		
+		stubFor(post(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(503)));
+		
+		try {
+			
+			retryEndpoint.post("entity", new InputStreamEntity(new ByteArrayInputStream(content.getBytes()), -1));
+			fail("The failure was not reported. ");
+		}
+		catch(InvocationException ie) {}
+		
+		verify(1, postRequestedFor(urlEqualTo(subpath)));
+		
+		try {
+			
+			retryEndpoint.post("entity", new StringEntity(content));
+			fail("The failure was not reported. ");
+		}
+		catch(InvocationException ie) {}
+		
+		verify(4, postRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that retries stop once the retry budget of the endpoint has been exhausted.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testRetryBudget() {
+		
+		stubFor(get(urlEqualTo("/retry/drain"))
+				.willReturn(aResponse()
+				.withStatus(503)));
+		
+		stubFor(get(urlEqualTo("/retry/budget"))
+				.willReturn(aResponse()
+				.withStatus(503)));
+		
+		for (int i = 0; i < 20; i++) { //draws down the reserve
+			
+			try {
+				
+				retryBudgetEndpoint.get("drain");
+			}
+			catch(InvocationException ie) {}
+		}
+		
+		for (int i = 0; i < 10; i++) {
+			
+			try {
+				
+				retryBudgetEndpoint.get("budget");
+			}
+			catch(InvocationException ie) {}
+		}
+		
+		verify(10, getRequestedFor(urlEqualTo("/retry/budget")));
+	}
+	
+	/**
+	 * <p>Tests that a request whose backoff is interrupted reports the failed attempt with its response
+	 * content intact and restores the interrupt status.</p>
+	 * 
+	 * @throws IOException
+	 * 			if the content of the reported response could not be read
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testInterruptedBackoff() throws IOException {
+		
+		String subpath = "/retry/interrupted", body = "unavailable";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(503)
+				.withHeader("Retry-After", "5")
+				.withBody(body)));
+		
+		final Thread invoker = Thread.currentThread();
+		
+		Thread interrupter = new Thread(new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				try {
+					
+					Thread.sleep(1000); //the first attempt completes and its backoff begins
+					invoker.interrupt();
+				}
+				catch(InterruptedException ie) {
+					
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		
+		long start = System.currentTimeMillis();
+		interrupter.start();
+		
+		try {
+			
+			retryEndpoint.get("interrupted");
+			fail("The failure was not reported. ");
+		}
+		catch(InvocationException ie) {
+			
+			assertEquals(503, ie.getResponse().getStatusLine().getStatusCode());
+			assertEquals(body, EntityUtils.toString(ie.getResponse().getEntity()));
+		}
+		finally {
+			
+			assertTrue(Thread.interrupted());
+		}
+		
+		assertTrue(System.currentTimeMillis() - start < 5000);
+		verify(1, getRequestedFor(urlEqualTo(subpath)));
+	}
+}
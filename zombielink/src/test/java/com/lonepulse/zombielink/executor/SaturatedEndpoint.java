@@ -0,0 +1,131 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.lonepulse.zombielink.annotation.Entity.ContentType.JSON;
+
+import java.util.concurrent.Future;
+
+import com.lonepulse.zombielink.annotation.Async;
+import com.lonepulse.zombielink.annotation.Batched;
+import com.lonepulse.zombielink.annotation.Config;
+import com.lonepulse.zombielink.annotation.Detach;
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.Entity;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.annotation.Hedge;
+import com.lonepulse.zombielink.annotation.POST;
+import com.lonepulse.zombielink.annotation.PathParam;
+import com.lonepulse.zombielink.annotation.Serialize;
+import com.lonepulse.zombielink.response.AsyncHandler;
+
+/**
+ * <p>An endpoint with asynchronous requests which are sent using a {@link NonBlockingTransport} and whose
+ * responses are handled on the saturable executor supplied by {@link SaturatedConfig}, along with a
+ * synchronous request whose hedges are sent on the same executor, a batched request whose bulk
+ * requests are sent on it and a request whose future is completed on it.</p>
+ * 
+ * @version 1.3.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Async
+@Config(SaturatedConfig.class)
+@Endpoint("http://0.0.0.0:8080")
+public interface SaturatedEndpoint {
+	
+	/**
+	 * <p>Sends one of many asynchronous requests whose responses arrive while the executor is busy.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @param asyncHandler
+	 * 			the {@link AsyncHandler} which handles the results of the asynchronous request
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/saturated/{id}")
+	void saturate(@PathParam("id") String id, AsyncHandler<String> asyncHandler);
+	
+	/**
+	 * <p>Sends a synchronous request whose hedges are handed off to the saturable executor.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Detach(Async.class)
+	@Hedge(delay = 100)
+	@GET("/saturated/{id}")
+	String hedge(@PathParam("id") String id);
+	
+	/**
+	 * <p>Buffers an event which is sent in bulk on the saturable executor once another event arrives.</p>
+	 * 
+	 * @param event
+	 * 			the event to be sent
+	 * 
+	 * @param asyncHandler
+	 * 			the {@link AsyncHandler} which handles the results of the bulk request
+	 * 
+	 * @since 1.3.4
+	 */
+	@Batched(target = "pushAll", maxSize = 2, maxDelay = 60000)
+	@POST("/saturated/events")
+	void push(@Entity String event, AsyncHandler<String> asyncHandler);
+	
+	/**
+	 * <p>Sends the buffered events of {@link #push(String, AsyncHandler)} in bulk.</p>
+	 * 
+	 * @param events
+	 * 			the events to be sent
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Detach(Async.class)
+	@Serialize(JSON)
+	@POST("/saturated/events")
+	String pushAll(@Entity String[] events);
+	
+	/**
+	 * <p>Sends a request whose entire invocation is handed off to the saturable executor.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return a {@link Future} which completes with the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Detach(Async.class)
+	@GET("/saturated/{id}")
+	Future<String> defer(@PathParam("id") String id);
+}
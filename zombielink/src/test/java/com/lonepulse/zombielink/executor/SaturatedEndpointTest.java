@@ -0,0 +1,234 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.lonepulse.zombielink.annotation.Batched;
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.proxy.InvocationException;
+import com.lonepulse.zombielink.proxy.Zombie;
+import com.lonepulse.zombielink.response.AsyncHandler;
+
+/**
+ * <p>Performs unit testing on the @{@link Batched} and {@link Future} requests of {@link SaturatedEndpoint}
+ * while its executor is saturated.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class SaturatedEndpointTest {
+	
+	
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule();
+	
+	@Bite
+	private SaturatedEndpoint saturatedEndpoint;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		Zombie.infect(this);
+	}
+	
+	private static Runnable blocker(final CountDownLatch release) {
+		
+		return new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				try {
+					
+					release.await(10, TimeUnit.SECONDS);
+				}
+				catch(InterruptedException ie) {
+					
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+	}
+	
+	private static void saturate(CountDownLatch release) throws InterruptedException {
+		
+		SaturatedConfig.EXECUTOR.execute(blocker(release));
+		
+		while(SaturatedConfig.EXECUTOR.getActiveCount() == 0 || SaturatedConfig.EXECUTOR.getQueueDepth() > 0) {
+			
+			Thread.sleep(10); //an idle worker may yet have to take the blocker off the queue
+		}
+		
+		SaturatedConfig.EXECUTOR.execute(blocker(release));
+	}
+	
+	/**
+	 * <p>Tests that a full buffer is not sent on the thread of the invoker when the executor is saturated
+	 * and that the rejection of the flush is delivered to the <i>onError</i> callback of every invocation.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while saturating the executor or awaiting the callbacks
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testSaturatedFlush() throws InterruptedException {
+		
+		String subpath = "/saturated/events";
+		
+		stubFor(post(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody("received")));
+		
+		CountDownLatch release = new CountDownLatch(1);
+		
+		final CountDownLatch failed = new CountDownLatch(2);
+		final Map<String, Throwable> errors = new ConcurrentHashMap<String, Throwable>();
+		
+		try {
+			
+			saturate(release);
+			
+			long start = System.currentTimeMillis();
+			
+			for (final String event : new String[] {"first", "second"}) {
+				
+				saturatedEndpoint.push(event, new AsyncHandler<String>() {
+					
+					@Override
+					public void onSuccess(HttpResponse httpResponse, String content) {}
+					
+					@Override
+					public void onError(InvocationException error) {
+						
+						errors.put(event, error);
+						failed.countDown();
+					}
+				});
+			}
+			
+			assertTrue(System.currentTimeMillis() - start < 5000);
+			assertTrue(failed.await(5, TimeUnit.SECONDS));
+		}
+		finally {
+			
+			release.countDown();
+		}
+		
+		assertEquals(2, errors.size());
+		
+		for (Throwable error : errors.values()) {
+			
+			while(error != null && !(error instanceof RejectedExecutionException)) {
+				
+				error = error.getCause();
+			}
+			
+			assertTrue(error instanceof RejectedExecutionException);
+		}
+		
+		verify(0, postRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that the invocation of a request which returns a {@link Future} is not run on the thread of
+	 * the invoker when the executor is saturated and that the future fails with the rejection instead.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while saturating the executor or awaiting the future
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testSaturatedFuture() throws InterruptedException {
+		
+		String subpath = "/saturated/deferred";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody("deferred")));
+		
+		CountDownLatch release = new CountDownLatch(1);
+		Throwable error = null;
+		
+		try {
+			
+			saturate(release);
+			
+			Future<String> future = saturatedEndpoint.defer("deferred");
+			
+			assertTrue(future.isDone());
+			
+			try {
+				
+				future.get();
+			}
+			catch(ExecutionException ee) {
+				
+				error = ee.getCause();
+			}
+		}
+		finally {
+			
+			release.countDown();
+		}
+		
+		while(error != null && !(error instanceof RejectedExecutionException)) {
+			
+			error = error.getCause();
+		}
+		
+		assertTrue(error instanceof RejectedExecutionException);
+		verify(0, getRequestedFor(urlEqualTo(subpath)));
+	}
+}
@@ -0,0 +1,243 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <p>Performs unit testing on {@link ValidatingConnectionManager} using a server which closes each
+ * connection once it has responded, i.e. which drops every pooled connection.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class ValidatingConnectionManagerTest {
+	
+	
+	private ServerSocket serverSocket;
+	
+	private final AtomicInteger connections = new AtomicInteger();
+	
+	
+	@Before
+	public void setUp() throws IOException {
+		
+		serverSocket = new ServerSocket(0);
+		
+		Thread server = new Thread(new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				while(!serverSocket.isClosed()) {
+					
+					try {
+						
+						Socket socket = serverSocket.accept();
+						connections.incrementAndGet();
+						
+						try {
+							
+							respond(socket);
+						}
+						finally {
+							
+							socket.close();
+						}
+					}
+					catch(IOException ioe) {
+						
+						//the server was stopped or the client went away
+					}
+				}
+			}
+		});
+		
+		server.setDaemon(true);
+		server.start();
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		
+		serverSocket.close();
+	}
+	
+	/**
+	 * <p>Reads a request with an optional <i>Content-Length</i> delimited body and answers it.</p>
+	 */
+	private static void respond(Socket socket) throws IOException {
+		
+		InputStream in = socket.getInputStream();
+		StringBuilder head = new StringBuilder();
+		
+		while(head.indexOf("\r\n\r\n") < 0) {
+			
+			int octet = in.read();
+			
+			if(octet < 0) {
+				
+				return;
+			}
+			
+			head.append((char)octet);
+		}
+		
+		String headers = head.toString().toLowerCase();
+		int index = headers.indexOf("content-length:");
+		
+		if(index >= 0) {
+			
+			int length = Integer.parseInt(headers.substring(index + 15, headers.indexOf("\r\n", index)).trim());
+			
+			for (int i = 0; i < length; i++) {
+				
+				in.read();
+			}
+		}
+		
+		OutputStream out = socket.getOutputStream();
+		out.write("HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\nok".getBytes("US-ASCII"));
+		out.flush();
+	}
+	
+	/**
+	 * <p>Creates a client which neither checks connections on every lease nor retries failed requests.</p>
+	 */
+	private static DefaultHttpClient newHttpClient(long validateAfterInactivity) {
+		
+		SchemeRegistry schemeRegistry = new SchemeRegistry();
+		schemeRegistry.register(new Scheme("http", 80, PlainSocketFactory.getSocketFactory()));
+		
+		DefaultHttpClient httpClient
+			= new DefaultHttpClient(new ValidatingConnectionManager(schemeRegistry, -1, validateAfterInactivity));
+		
+		HttpConnectionParams.setStaleCheckingEnabled(httpClient.getParams(), false);
+		httpClient.setHttpRequestRetryHandler(new DefaultHttpRequestRetryHandler(0, false));
+		
+		return httpClient;
+	}
+	
+	private String uri() {
+		
+		return "http://localhost:" + serverSocket.getLocalPort() + "/validate";
+	}
+	
+	private String post(DefaultHttpClient httpClient) throws IOException {
+		
+		HttpPost post = new HttpPost(uri());
+		post.setEntity(new StringEntity("content"));
+		
+		return EntityUtils.toString(httpClient.execute(post).getEntity());
+	}
+	
+	/**
+	 * <p>Tests that a connection which has been idle for longer than the inactivity threshold is checked
+	 * when leased and replaced, since the server has closed it.</p>
+	 * 
+	 * @throws Exception
+	 * 			if the test failed to execute a request or was interrupted
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testValidateAfterInactivity() throws Exception {
+		
+		DefaultHttpClient httpClient = newHttpClient(100);
+		
+		try {
+			
+			assertEquals("ok", EntityUtils.toString(httpClient.execute(new HttpGet(uri())).getEntity()));
+			
+			Thread.sleep(250);
+			
+			assertEquals("ok", post(httpClient));
+			assertEquals(2, connections.get());
+		}
+		finally {
+			
+			httpClient.getConnectionManager().shutdown();
+		}
+	}
+	
+	/**
+	 * <p>Tests that a connection which was used within the inactivity threshold is leased unchecked, in
+	 * which case a non-idempotent request fails if the server has closed it.</p>
+	 * 
+	 * @throws Exception
+	 * 			if the test failed to execute the first request or was interrupted
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testRecentlyUsed() throws Exception {
+		
+		DefaultHttpClient httpClient = newHttpClient(60000);
+		
+		try {
+			
+			assertEquals("ok", EntityUtils.toString(httpClient.execute(new HttpGet(uri())).getEntity()));
+			
+			Thread.sleep(250);
+			
+			try {
+				
+				post(httpClient);
+				fail("A request was sent over a connection which was closed by the server. ");
+			}
+			catch(IOException ioe) {
+				
+				assertEquals(1, connections.get());
+			}
+		}
+		finally {
+			
+			httpClient.getConnectionManager().shutdown();
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package com.lonepulse.zombielink.executor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.annotation.Warm;
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>Performs unit testing on the @{@link Warm} endpoints {@link WarmEndpoint} and {@link ColdEndpoint}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class WarmEndpointTest {
+	
+	
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule();
+	
+	@Bite
+	private WarmEndpoint warmEndpoint;
+	
+	@Bite
+	private ColdEndpoint coldEndpoint;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		Zombie.infect(this);
+	}
+	
+	/**
+	 * <p>Tests that the declared number of connections is pooled without sending any requests and that
+	 * concurrent requests reuse them instead of opening connections of their own.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the requests
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testWarmUp() throws InterruptedException {
+		
+		assertEquals(3, Zombie.warmUp(WarmEndpoint.class));
+		
+		ConnectionPool pool = ConnectionPool.of(WarmEndpoint.class);
+		
+		assertEquals(3, pool.getAvailableCount());
+		verify(0, getRequestedFor(urlMatching(".*")));
+		
+		String subpath = "/warm/reused", body = "reused";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)
+				.withFixedDelay(300)));
+		
+		final AtomicInteger completed = new AtomicInteger();
+		List<Thread> threads = new ArrayList<Thread>();
+		
+		for (int i = 0; i < 3; i++) {
+			
+			Thread thread = new Thread(new Runnable() {
+				
+				@Override
+				public void run() {
+					
+					warmEndpoint.get("reused");
+					completed.incrementAndGet();
+				}
+			});
+			
+			thread.start();
+			threads.add(thread);
+		}
+		
+		for (Thread thread : threads) {
+			
+			thread.join();
+		}
+		
+		assertEquals(3, completed.get());
+		assertEquals(3, pool.getLeasedCount() + pool.getAvailableCount());
+		
+		verify(3, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that warming up an unreachable endpoint pools no connections and does not fail.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testUnreachable() {
+		
+		long start = System.currentTimeMillis();
+		
+		assertEquals(0, Zombie.warmUp(ColdEndpoint.class));
+		assertTrue(System.currentTimeMillis() - start < 2000);
+		
+		assertEquals(0, ConnectionPool.of(ColdEndpoint.class).getAvailableCount());
+	}
+}
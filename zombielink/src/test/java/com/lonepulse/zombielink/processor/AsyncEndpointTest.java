@@ -102,6 +102,7 @@ public class AsyncEndpointTest {
 		
 		final Lock lock = new ReentrantLock();
 		final Condition condition = lock.newCondition();
+		lock.lock(); //held until awaiting, so that the callback cannot signal beforehand
 		
 		String result = asyncEndpoint.asyncSuccess(new AsyncHandler<String>() {
 			
@@ -118,7 +119,6 @@ public class AsyncEndpointTest {
 			}
 		});
 
-		lock.lock();
 		condition.await();
 		lock.unlock();
 
@@ -151,6 +151,7 @@ public class AsyncEndpointTest {
 		
 		final Lock lock = new ReentrantLock();
 		final Condition condition = lock.newCondition();
+		lock.lock(); //held until awaiting, so that the callback cannot signal beforehand
 		
 		asyncEndpoint.asyncFailure(new AsyncHandler<String>() {
 			
@@ -169,7 +170,6 @@ public class AsyncEndpointTest {
 			}
 		});
 		
-		lock.lock();
 		condition.await();
 		lock.unlock();
 		
@@ -198,6 +198,7 @@ public class AsyncEndpointTest {
 		
 		final Lock lock = new ReentrantLock();
 		final Condition condition = lock.newCondition();
+		lock.lock(); //held until awaiting, so that the callback cannot signal beforehand
 		
 		asyncEndpoint.asyncError(new AsyncHandler<User>() {
 			
@@ -216,7 +217,6 @@ public class AsyncEndpointTest {
 			}
 		});
 		
-		lock.lock();
 		condition.await();
 		lock.unlock();
 		
@@ -266,6 +266,7 @@ public class AsyncEndpointTest {
 		
 		final Lock lock = new ReentrantLock();
 		final Condition condition = lock.newCondition();
+		lock.lock(); //held until awaiting, so that the callback cannot signal beforehand
 		
 		asyncEndpoint.asyncSuccessCallbackError(new AsyncHandler<String>() {
 
@@ -285,7 +286,6 @@ public class AsyncEndpointTest {
 			}
 		});
 
-		lock.lock();
 		condition.await();
 		lock.unlock();
 		
@@ -311,6 +311,7 @@ public class AsyncEndpointTest {
 		
 		final Lock lock = new ReentrantLock();
 		final Condition condition = lock.newCondition();
+		lock.lock(); //held until awaiting, so that the callback cannot signal beforehand
 		
 		asyncEndpoint.asyncFailureCallbackError(new AsyncHandler<String>() {
 			
@@ -333,7 +334,6 @@ public class AsyncEndpointTest {
 			}
 		});
 		
-		lock.lock();
 		condition.await();
 		lock.unlock();
 		
@@ -360,6 +360,7 @@ public class AsyncEndpointTest {
 		
 		final Lock lock = new ReentrantLock();
 		final Condition condition = lock.newCondition();
+		lock.lock(); //held until awaiting, so that the callback cannot signal beforehand
 		
 		asyncEndpoint.asyncErrorCallbackError(new AsyncHandler<User>() {
 			
@@ -382,7 +383,6 @@ public class AsyncEndpointTest {
 			}
 		});
 		
-		lock.lock();
 		condition.await();
 		lock.unlock();
 		
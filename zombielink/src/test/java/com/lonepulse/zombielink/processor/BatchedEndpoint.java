@@ -0,0 +1,178 @@
+package com.lonepulse.zombielink.processor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.lonepulse.zombielink.annotation.Entity.ContentType.JSON;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.lonepulse.zombielink.annotation.Async;
+import com.lonepulse.zombielink.annotation.Batched;
+import com.lonepulse.zombielink.annotation.Deserialize;
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.Entity;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.annotation.POST;
+import com.lonepulse.zombielink.annotation.PathParam;
+import com.lonepulse.zombielink.annotation.QueryParam;
+import com.lonepulse.zombielink.annotation.Serialize;
+import com.lonepulse.zombielink.response.AsyncHandler;
+
+/**
+ * <p>An endpoint which tests the batching of single-item requests into bulk requests via @{@link Batched}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Endpoint("http://0.0.0.0:8080")
+public interface BatchedEndpoint {
+	
+	
+	/**
+	 * <p>Sends a batched request for the resource with the given identifier, which is served by
+	 * {@link #getAll(List)}.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Batched(target = "getAll", maxDelay = 200)
+	@GET("/batched/{id}")
+	String get(@PathParam("id") String id);
+	
+	/**
+	 * <p>Sends a bulk request for the resources with the given identifiers, whose response contains
+	 * each resource at the position of its identifier.</p>
+	 * 
+	 * @param ids
+	 * 			the identifiers of the requested resources
+	 * 
+	 * @return the response content for each identifier
+	 * 
+	 * @since 1.3.4
+	 */
+	@Deserialize(JSON)
+	@GET("/batched")
+	List<String> getAll(@QueryParam("id") List<String> ids);
+	
+	/**
+	 * <p>Sends a batched request for the resource with the given identifier, which is served by
+	 * {@link #getMapped(Collection)} once eight distinct identifiers have been gathered.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Batched(target = "getMapped", maxSize = 8, maxDelay = 5000)
+	@GET("/batched/{id}")
+	String getSized(@PathParam("id") String id);
+	
+	/**
+	 * <p>Sends a bulk request for the resources with the given identifiers, whose response maps each
+	 * identifier to its resource.</p>
+	 * 
+	 * @param ids
+	 * 			the identifiers of the requested resources
+	 * 
+	 * @return the response content mapped to each identifier
+	 * 
+	 * @since 1.3.4
+	 */
+	@Deserialize(JSON)
+	@GET("/batched/mapped")
+	Map<String, String> getMapped(@QueryParam("id") Collection<String> ids);
+	
+	/**
+	 * <p>Buffers the given event, which is sent by {@link #sendAll(List)} once four events have been
+	 * buffered.</p>
+	 * 
+	 * @param event
+	 * 			the event to be sent
+	 * 
+	 * @param asyncHandler
+	 * 			the {@link AsyncHandler} which receives the response content for the event
+	 * 
+	 * @since 1.3.4
+	 */
+	@Async
+	@Batched(target = "sendAll", maxSize = 4, maxDelay = 60000)
+	@POST("/batched/events")
+	void send(@Entity String event, AsyncHandler<String> asyncHandler);
+	
+	/**
+	 * <p>Sends the given events in bulk, whose response contains a result at the position of each event.</p>
+	 * 
+	 * @param events
+	 * 			the events to be sent
+	 * 
+	 * @return the result for each event
+	 * 
+	 * @since 1.3.4
+	 */
+	@Serialize(JSON)
+	@Deserialize(JSON)
+	@POST("/batched/events")
+	List<String> sendAll(@Entity List<String> events);
+	
+	/**
+	 * <p>Buffers the given event, which is sent by {@link #acknowledgeAll(String[])} once the delay of
+	 * the buffer elapses.</p>
+	 * 
+	 * @param event
+	 * 			the event to be sent
+	 * 
+	 * @param asyncHandler
+	 * 			the {@link AsyncHandler} which receives the acknowledgement of the event
+	 * 
+	 * @since 1.3.4
+	 */
+	@Async
+	@Batched(target = "acknowledgeAll", maxDelay = 200)
+	@POST("/batched/acknowledged")
+	void acknowledge(@Entity String event, AsyncHandler<String> asyncHandler);
+	
+	/**
+	 * <p>Sends the given events in bulk, whose response is a single acknowledgement.</p>
+	 * 
+	 * @param events
+	 * 			the events to be sent
+	 * 
+	 * @return the acknowledgement of all events
+	 * 
+	 * @since 1.3.4
+	 */
+	@Serialize(JSON)
+	@POST("/batched/acknowledged")
+	String acknowledgeAll(@Entity String[] events);
+}
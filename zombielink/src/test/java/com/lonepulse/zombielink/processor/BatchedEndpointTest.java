@@ -0,0 +1,373 @@
+package com.lonepulse.zombielink.processor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.lonepulse.zombielink.annotation.Batched;
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.proxy.InvocationException;
+import com.lonepulse.zombielink.proxy.Zombie;
+import com.lonepulse.zombielink.response.AsyncHandler;
+
+/**
+ * <p>Performs unit testing on the proxy of {@link BatchedEndpoint}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class BatchedEndpointTest {
+	
+	
+	private static final int INVOCATIONS = 8;
+	
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule();
+	
+	@Bite
+	private BatchedEndpoint batchedEndpoint;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		Zombie.infect(this);
+	}
+	
+	private List<Future<String>> invokeConcurrently(final String id, final boolean distinct) throws InterruptedException {
+		
+		List<Callable<String>> invocations = new ArrayList<Callable<String>>();
+		
+		for (int i = 0; i < INVOCATIONS; i++) {
+			
+			final String key = distinct? id + i :id;
+			
+			invocations.add(new Callable<String>() {
+				
+				@Override
+				public String call() {
+					
+					return distinct? batchedEndpoint.getSized(key) :batchedEndpoint.get(key);
+				}
+			});
+		}
+		
+		ExecutorService executor = Executors.newFixedThreadPool(INVOCATIONS);
+		
+		try {
+			
+			return executor.invokeAll(invocations);
+		}
+		finally {
+			
+			executor.shutdown();
+		}
+	}
+	
+	/**
+	 * <p>Tests that concurrent invocations of a @{@link Batched} request with distinct keys are served
+	 * by a single bulk request which is dispatched once the batch is full, and that each invocation
+	 * receives the value mapped to its key.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testBatch() throws Exception {
+		
+		StringBuilder body = new StringBuilder("{");
+		
+		for (int i = 0; i < INVOCATIONS; i++) {
+			
+			body.append(i == 0? "" :",").append("\"key").append(i).append("\":\"value").append(i).append("\"");
+		}
+		
+		stubFor(get(urlMatching("/batched/mapped\\?.*"))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body.append("}").toString())));
+		
+		long start = System.currentTimeMillis();
+		List<Future<String>> results = invokeConcurrently("key", true);
+		
+		for (int i = 0; i < INVOCATIONS; i++) {
+			
+			assertEquals("value" + i, results.get(i).get());
+		}
+		
+		assertTrue(System.currentTimeMillis() - start < 5000);
+		
+		verify(1, getRequestedFor(urlMatching("/batched/mapped\\?.*")));
+		
+		for (int i = 0; i < INVOCATIONS; i++) {
+			
+			verify(getRequestedFor(urlMatching("/batched/mapped\\?(.*&)?id=key" + i + "(&.*)?")));
+		}
+	}
+	
+	/**
+	 * <p>Tests that concurrent invocations with the same key share a single key in the bulk request and
+	 * that the element at the position of the key is delivered to each of them.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testDuplicateKeys() throws Exception {
+		
+		String subpath = "/batched?id=duplicate";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody("[\"duplicate\"]")));
+		
+		for (Future<String> result : invokeConcurrently("duplicate", false)) {
+			
+			assertEquals("duplicate", result.get());
+		}
+		
+		verify(1, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that a lone invocation is dispatched once the delay of its batch elapses and that it
+	 * receives {@code null} if the bulk response contains no element for its key.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testDelay() {
+		
+		stubFor(get(urlEqualTo("/batched?id=lone"))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody("[\"lone\"]")));
+		
+		stubFor(get(urlEqualTo("/batched?id=missing"))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody("[]")));
+		
+		long start = System.currentTimeMillis();
+		
+		assertEquals("lone", batchedEndpoint.get("lone"));
+		assertTrue(System.currentTimeMillis() - start >= 200);
+		
+		assertNull(batchedEndpoint.get("missing"));
+		
+		verify(1, getRequestedFor(urlEqualTo("/batched?id=lone")));
+		verify(0, getRequestedFor(urlEqualTo("/batched/lone")));
+	}
+	
+	/**
+	 * <p>Tests that the failure of a bulk request is delivered to every invocation in its batch.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testBatchFailure() throws Exception {
+		
+		String subpath = "/batched?id=failure";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(503)));
+		
+		for (Future<String> result : invokeConcurrently("failure", false)) {
+			
+			try {
+				
+				result.get();
+				fail("An InvocationException was expected for each batched invocation. ");
+			}
+			catch(ExecutionException ee) {
+				
+				assertTrue(ee.getCause() instanceof InvocationException);
+				assertEquals(503, ((InvocationException)ee.getCause()).getResponse().getStatusLine().getStatusCode());
+			}
+		}
+		
+		verify(1, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	private static AsyncHandler<String> collect(final String event,
+		final Map<String, String> results, final CountDownLatch completed) {
+		
+		return new AsyncHandler<String>() {
+			
+			@Override
+			public void onSuccess(HttpResponse httpResponse, String content) {
+				
+				results.put(event, content);
+				completed.countDown();
+			}
+			
+			@Override
+			public void onFailure(HttpResponse httpResponse) {
+				
+				results.put(event, String.valueOf(httpResponse.getStatusLine().getStatusCode()));
+				completed.countDown();
+			}
+		};
+	}
+	
+	/**
+	 * <p>Tests that invocations of an @{@link com.lonepulse.zombielink.annotation.Async} @{@link Batched}
+	 * request are sent in bulk once the buffer is full and that each handler receives the element at the
+	 * position of its argument.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the requests to complete
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testBufferFull() throws InterruptedException {
+		
+		for (int i = 0; i < INVOCATIONS; i += 4) {
+			
+			stubFor(post(urlEqualTo("/batched/events"))
+					.withRequestBody(equalTo("[\"e" + i + "\",\"e" + (i + 1) + "\",\"e" + (i + 2) + "\",\"e" + (i + 3) + "\"]"))
+					.willReturn(aResponse()
+					.withStatus(200)
+					.withBody("[\"r" + i + "\",\"r" + (i + 1) + "\",\"r" + (i + 2) + "\",\"r" + (i + 3) + "\"]")));
+		}
+		
+		CountDownLatch completed = new CountDownLatch(INVOCATIONS);
+		Map<String, String> results = new ConcurrentHashMap<String, String>();
+		
+		for (int i = 0; i < INVOCATIONS; i++) {
+			
+			batchedEndpoint.send("e" + i, collect("e" + i, results, completed));
+		}
+		
+		assertTrue(completed.await(10, TimeUnit.SECONDS));
+		
+		for (int i = 0; i < INVOCATIONS; i++) {
+			
+			assertEquals("r" + i, results.get("e" + i));
+		}
+		
+		verify(INVOCATIONS / 4, postRequestedFor(urlEqualTo("/batched/events")));
+	}
+	
+	/**
+	 * <p>Tests that buffered invocations are sent in bulk once the delay of the buffer elapses and that
+	 * each handler receives the whole response content if it is not a collection.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the request to complete
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testBufferDelay() throws InterruptedException {
+		
+		String subpath = "/batched/acknowledged";
+		
+		stubFor(post(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody("acknowledged")));
+		
+		CountDownLatch completed = new CountDownLatch(2);
+		Map<String, String> results = new ConcurrentHashMap<String, String>();
+		
+		batchedEndpoint.acknowledge("first", collect("first", results, completed));
+		batchedEndpoint.acknowledge("second", collect("second", results, completed));
+		
+		assertTrue(completed.await(10, TimeUnit.SECONDS));
+		
+		assertEquals("acknowledged", results.get("first"));
+		assertEquals("acknowledged", results.get("second"));
+		
+		verify(1, postRequestedFor(urlEqualTo(subpath))
+				  .withRequestBody(equalTo("[\"first\",\"second\"]")));
+	}
+	
+	/**
+	 * <p>Tests that a bulk request with a status code which signifies a failure is delivered to the
+	 * <i>onFailure</i> callback of every buffered invocation.</p>
+	 * 
+	 * @throws InterruptedException
+	 * 			if the test was interrupted while waiting for the request to complete
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testBufferFailure() throws InterruptedException {
+		
+		String subpath = "/batched/acknowledged";
+		
+		stubFor(post(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(503)));
+		
+		CountDownLatch completed = new CountDownLatch(2);
+		Map<String, String> results = new ConcurrentHashMap<String, String>();
+		
+		batchedEndpoint.acknowledge("first", collect("first", results, completed));
+		batchedEndpoint.acknowledge("second", collect("second", results, completed));
+		
+		assertTrue(completed.await(10, TimeUnit.SECONDS));
+		
+		assertEquals("503", results.get("first"));
+		assertEquals("503", results.get("second"));
+		
+		verify(1, postRequestedFor(urlEqualTo(subpath)));
+	}
+}
@@ -0,0 +1,104 @@
+package com.lonepulse.zombielink.processor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.apache.http.HttpResponse;
+
+import com.lonepulse.zombielink.annotation.Coalesce;
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.annotation.Header;
+import com.lonepulse.zombielink.annotation.PathParam;
+
+/**
+ * <p>An endpoint which tests the coalescing of concurrent identical requests via @{@link Coalesce}.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Endpoint("http://0.0.0.0:8080")
+public interface CoalesceEndpoint {
+	
+	
+	/**
+	 * <p>Sends a coalesced request for the resource with the given identifier.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Coalesce
+	@GET("/coalesce/{id}")
+	String coalesce(@PathParam("id") String id);
+	
+	/**
+	 * <p>Sends a request for the resource with the given identifier which is <b>not</b> coalesced.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/coalesce/{id}")
+	String uncoalesced(@PathParam("id") String id);
+	
+	/**
+	 * <p>Sends a coalesced request for the same resource as {@link #coalesce(String)}, whose response
+	 * is not deserialized.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return the raw {@link HttpResponse}
+	 * 
+	 * @since 1.3.4
+	 */
+	@Coalesce
+	@GET("/coalesce/{id}")
+	HttpResponse coalesceResponse(@PathParam("id") String id);
+	
+	/**
+	 * <p>Sends a request marked for coalescing which receives a header of its response.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @param version
+	 * 			the in-out parameter which receives the <i>X-Version</i> header of the response
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Coalesce
+	@GET("/coalesce/{id}")
+	String coalesceHeader(@PathParam("id") String id, @Header("X-Version") StringBuilder version);
+}
@@ -0,0 +1,373 @@
+package com.lonepulse.zombielink.processor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.http.HttpResponse;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.annotation.Coalesce;
+import com.lonepulse.zombielink.proxy.InvocationException;
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>Performs unit testing on the proxy of {@link CoalesceEndpoint}.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class CoalesceEndpointTest {
+	
+	
+	private static final int INVOCATIONS = 16;
+	
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule();
+	
+	@Bite
+	private CoalesceEndpoint coalesceEndpoint;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		Zombie.infect(this);
+	}
+	
+	private List<Future<String>> invokeConcurrently(final String id, final boolean coalesce) throws InterruptedException {
+		
+		List<Callable<String>> invocations = new ArrayList<Callable<String>>();
+		
+		for (int i = 0; i < INVOCATIONS; i++) {
+			
+			invocations.add(new Callable<String>() {
+				
+				@Override
+				public String call() {
+					
+					return coalesce? coalesceEndpoint.coalesce(id) :coalesceEndpoint.uncoalesced(id);
+				}
+			});
+		}
+		
+		ExecutorService executor = Executors.newFixedThreadPool(INVOCATIONS);
+		
+		try {
+			
+			return executor.invokeAll(invocations);
+		}
+		finally {
+			
+			executor.shutdown();
+		}
+	}
+	
+	/**
+	 * <p>Tests that concurrent identical invocations of a @{@link Coalesce} request share a single
+	 * exchange and a single deserialized result.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testCoalesce() throws Exception {
+		
+		String subpath = "/coalesce/hot", body = "hot";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)
+				.withFixedDelay(1000)));
+		
+		List<Future<String>> results = invokeConcurrently("hot", true);
+		
+		String shared = results.get(0).get();
+		assertEquals(body, shared);
+		
+		for (Future<String> result : results) {
+			
+			assertSame(shared, result.get());
+		}
+		
+		verify(1, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that the failure of a coalesced exchange is delivered to every invocation which shared it.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testCoalesceFailure() throws Exception {
+		
+		String subpath = "/coalesce/failure";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(503)
+				.withFixedDelay(1000)));
+		
+		List<Future<String>> results = invokeConcurrently("failure", true);
+		
+		for (Future<String> result : results) {
+			
+			try {
+				
+				result.get();
+				fail("An InvocationException was expected for each coalesced invocation. ");
+			}
+			catch(ExecutionException ee) {
+				
+				assertTrue(ee.getCause() instanceof InvocationException);
+				assertEquals(503, ((InvocationException)ee.getCause()).getResponse().getStatusLine().getStatusCode());
+			}
+		}
+		
+		verify(1, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that invocations which resolve to different URIs are not coalesced.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testDistinctRequests() throws Exception {
+		
+		stubFor(get(urlEqualTo("/coalesce/first"))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody("first")
+				.withFixedDelay(500)));
+		
+		stubFor(get(urlEqualTo("/coalesce/second"))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody("second")
+				.withFixedDelay(500)));
+		
+		List<Future<String>> first = invokeConcurrently("first", true);
+		List<Future<String>> second = invokeConcurrently("second", true);
+		
+		assertEquals("first", first.get(0).get());
+		assertEquals("second", second.get(0).get());
+		
+		verify(1, getRequestedFor(urlEqualTo("/coalesce/first")));
+		verify(1, getRequestedFor(urlEqualTo("/coalesce/second")));
+	}
+	
+	/**
+	 * <p>Tests that an invocation which arrives after a coalesced exchange has completed starts a new
+	 * exchange, i.e. that results are not cached.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testSequentialRequests() {
+		
+		String subpath = "/coalesce/sequential", body = "sequential";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)));
+		
+		assertEquals(body, coalesceEndpoint.coalesce("sequential"));
+		assertEquals(body, coalesceEndpoint.coalesce("sequential"));
+		
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that concurrent identical invocations of a request without @{@link Coalesce} are executed
+	 * independently.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testUncoalesced() throws Exception {
+		
+		String subpath = "/coalesce/cold", body = "cold";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)
+				.withFixedDelay(500)));
+		
+		List<Future<String>> results = invokeConcurrently("cold", false);
+		
+		for (Future<String> result : results) {
+			
+			assertEquals(body, result.get());
+		}
+		
+		verify(INVOCATIONS, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that concurrent invocations of different @{@link Coalesce} requests which resolve to the
+	 * same URI do not share an exchange, since each expects its own type of response content.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testDistinctDefinitions() throws Exception {
+		
+		String subpath = "/coalesce/mixed", body = "mixed";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)
+				.withFixedDelay(1000)));
+		
+		List<Callable<Object>> invocations = new ArrayList<Callable<Object>>();
+		
+		for (int i = 0; i < INVOCATIONS; i++) {
+			
+			final boolean raw = i % 2 == 0;
+			
+			invocations.add(new Callable<Object>() {
+				
+				@Override
+				public Object call() {
+					
+					return raw? coalesceEndpoint.coalesceResponse("mixed") :coalesceEndpoint.coalesce("mixed");
+				}
+			});
+		}
+		
+		ExecutorService executor = Executors.newFixedThreadPool(INVOCATIONS);
+		List<Future<Object>> results;
+		
+		try {
+			
+			results = executor.invokeAll(invocations);
+		}
+		finally {
+			
+			executor.shutdown();
+		}
+		
+		for (int i = 0; i < INVOCATIONS; i++) {
+			
+			Object result = results.get(i).get();
+			
+			if(i % 2 == 0) {
+				
+				assertTrue(result instanceof HttpResponse);
+				assertEquals(200, ((HttpResponse)result).getStatusLine().getStatusCode());
+			}
+			else {
+				
+				assertEquals(body, result);
+			}
+		}
+		
+		verify(2, getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests that requests with in-out @{@link com.lonepulse.zombielink.annotation.Header} parameters
+	 * are not coalesced, so that every invocation receives the headers of its response.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testResponseHeaders() throws Exception {
+		
+		String subpath = "/coalesce/header", body = "header", version = "v2";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("X-Version", version)
+				.withBody(body)
+				.withFixedDelay(500)));
+		
+		final List<StringBuilder> versions = new ArrayList<StringBuilder>();
+		List<Callable<String>> invocations = new ArrayList<Callable<String>>();
+		
+		for (int i = 0; i < INVOCATIONS; i++) {
+			
+			final StringBuilder received = new StringBuilder();
+			versions.add(received);
+			
+			invocations.add(new Callable<String>() {
+				
+				@Override
+				public String call() {
+					
+					return coalesceEndpoint.coalesceHeader("header", received);
+				}
+			});
+		}
+		
+		ExecutorService executor = Executors.newFixedThreadPool(INVOCATIONS);
+		
+		try {
+			
+			for (Future<String> result : executor.invokeAll(invocations)) {
+				
+				assertEquals(body, result.get());
+			}
+		}
+		finally {
+			
+			executor.shutdown();
+		}
+		
+		for (StringBuilder received : versions) {
+			
+			assertEquals(version, received.toString());
+		}
+		
+		verify(INVOCATIONS, getRequestedFor(urlEqualTo(subpath)));
+	}
+}
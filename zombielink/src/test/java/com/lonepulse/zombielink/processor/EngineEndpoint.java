@@ -0,0 +1,70 @@
+package com.lonepulse.zombielink.processor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.Engine;
+import com.lonepulse.zombielink.annotation.Entity;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.annotation.PUT;
+import com.lonepulse.zombielink.annotation.PathParam;
+import com.lonepulse.zombielink.proxy.ProxyEngine;
+
+/**
+ * <p>An endpoint whose implementation is generated at runtime via @{@link Engine}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Engine(ProxyEngine.GENERATED)
+@Endpoint("http://0.0.0.0:8080")
+public interface EngineEndpoint {
+	
+	
+	/**
+	 * <p>Sends a request with a path parameter.</p>
+	 * 
+	 * @param id
+	 * 			the restful path parameter
+	 * 
+	 * @return the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/engine/{id}")
+	String engine(@PathParam("id") String id);
+	
+	/**
+	 * <p>Sends a request which expects no response content.</p>
+	 * 
+	 * @param entity
+	 * 			the entity to be sent with the request
+	 * 
+	 * @since 1.3.4
+	 */
+	@PUT("/engine")
+	void engineVoid(@Entity String entity);
+}
@@ -0,0 +1,115 @@
+package com.lonepulse.zombielink.processor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.lonepulse.zombielink.annotation.Entity.ContentType.JSON;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+import com.lonepulse.zombielink.annotation.Async;
+import com.lonepulse.zombielink.annotation.Deserialize;
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.GET;
+import com.lonepulse.zombielink.annotation.PathParam;
+import com.lonepulse.zombielink.model.User;
+
+/**
+ * <p>An endpoint which tests requests that return a {@link Future}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Endpoint("http://0.0.0.0:8080")
+public interface FutureEndpoint {
+	
+	
+	/**
+	 * <p>Sends a request whose response content is delivered via a {@link Future}.</p>
+	 * 
+	 * @return a {@link Future} which completes with the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/futuresuccess")
+	Future<String> futureSuccess();
+	
+	/**
+	 * <p>Sends a request which responds with a status code that signifies a failure.</p>
+	 * 
+	 * @return a {@link Future} which fails with an {@link com.lonepulse.zombielink.proxy.InvocationException}
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/futurefailure")
+	Future<String> futureFailure();
+	
+	/**
+	 * <p>Sends a request whose response content is deserialized to a parameterized type.</p>
+	 * 
+	 * @return a {@link Future} which completes with the deserialized {@link User}s
+	 * 
+	 * @since 1.3.4
+	 */
+	@Deserialize(JSON)
+	@GET("/futuregeneric")
+	Future<List<User>> futureGeneric();
+	
+	/**
+	 * <p>Sends a request which does not expect any response content.</p>
+	 * 
+	 * @return a {@link Future} which completes with {@code null}
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/futurevoid")
+	Future<Void> futureVoid();
+	
+	/**
+	 * <p>Sends one of many requests which are meant to be executed concurrently.</p>
+	 * 
+	 * @param id
+	 * 			the identifier of the requested resource
+	 * 
+	 * @return a {@link Future} which completes with the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/futurefanout/{id}")
+	Future<String> futureFanOut(@PathParam("id") String id);
+	
+	/**
+	 * <p>Sends a request annotated with @{@link Async} which also returns a {@link Future}. The future
+	 * should take precedence, since there's no {@link com.lonepulse.zombielink.response.AsyncHandler}.</p>
+	 * 
+	 * @return a {@link Future} which completes with the response content
+	 * 
+	 * @since 1.3.4
+	 */
+	@Async
+	@GET("/futureasync")
+	Future<String> futureAsync();
+}
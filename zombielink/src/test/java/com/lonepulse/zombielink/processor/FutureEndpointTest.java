@@ -0,0 +1,242 @@
+package com.lonepulse.zombielink.processor;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.google.gson.Gson;
+import com.lonepulse.zombielink.annotation.Bite;
+import com.lonepulse.zombielink.model.User;
+import com.lonepulse.zombielink.proxy.InvocationException;
+import com.lonepulse.zombielink.proxy.Zombie;
+
+/**
+ * <p>Performs unit testing on the proxy of {@link FutureEndpoint}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class FutureEndpointTest {
+	
+	
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule();
+	
+	@Bite
+	private FutureEndpoint futureEndpoint;
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		Zombie.infect(this);
+	}
+	
+	/**
+	 * <p>Tests a request which completes its {@link Future} with the response content.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testFutureSuccess() throws Exception {
+		
+		String subpath = "/futuresuccess", body = "hello";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)));
+		
+		Future<String> future = futureEndpoint.futureSuccess();
+		
+		assertNotNull(future);
+		assertEquals(body, future.get(10, TimeUnit.SECONDS));
+		
+		verify(getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests a request whose {@link Future} fails with an {@link InvocationException} due to an
+	 * unsuccessful status code.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testFutureFailure() throws Exception {
+		
+		String subpath = "/futurefailure";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(403)));
+		
+		Future<String> future = futureEndpoint.futureFailure();
+		
+		try {
+			
+			future.get(10, TimeUnit.SECONDS);
+			fail("The future should have failed for an unsuccessful response. ");
+		}
+		catch(ExecutionException ee) {
+			
+			assertTrue(ee.getCause() instanceof InvocationException);
+			assertEquals(403, ((InvocationException)ee.getCause()).getResponse().getStatusLine().getStatusCode());
+		}
+		
+		verify(getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests a request whose {@link Future} completes with content deserialized to the parameterized
+	 * type argument of the future.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testFutureGeneric() throws Exception {
+		
+		String subpath = "/futuregeneric";
+		
+		User user1 = new User(0, "Tenzen0", "Yakushiji0", 300, true);
+		User user2 = new User(1, "Tenzen1", "Yakushiji1", 300, true);
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(new Gson().toJson(Arrays.asList(user1, user2)))));
+		
+		List<User> users = futureEndpoint.futureGeneric().get(10, TimeUnit.SECONDS);
+		
+		verify(getRequestedFor(urlEqualTo(subpath)));
+		
+		assertEquals(2, users.size());
+		
+		for (int i = 0; i < users.size(); i++) {
+			
+			User user = users.get(i);
+			
+			assertEquals(i, user.getId());
+			assertEquals("Tenzen" + String.valueOf(i), user.getFirstName());
+			assertEquals("Yakushiji" + String.valueOf(i), user.getLastName());
+		}
+	}
+	
+	/**
+	 * <p>Tests a request whose {@link Future} does not expect any response content.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testFutureVoid() throws Exception {
+		
+		String subpath = "/futurevoid";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody("ignored")));
+		
+		assertNull(futureEndpoint.futureVoid().get(10, TimeUnit.SECONDS));
+		
+		verify(getRequestedFor(urlEqualTo(subpath)));
+	}
+	
+	/**
+	 * <p>Tests fanning out several requests and joining their {@link Future}s.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testFutureFanOut() throws Exception {
+		
+		int requests = 8;
+		
+		for (int i = 0; i < requests; i++) {
+			
+			stubFor(get(urlEqualTo("/futurefanout/" + i))
+					.willReturn(aResponse()
+					.withStatus(200)
+					.withFixedDelay(100)
+					.withBody("resource-" + i)));
+		}
+		
+		List<Future<String>> futures = new ArrayList<Future<String>>();
+		
+		for (int i = 0; i < requests; i++) {
+			
+			futures.add(futureEndpoint.futureFanOut(String.valueOf(i)));
+		}
+		
+		for (int i = 0; i < requests; i++) {
+			
+			assertEquals("resource-" + i, futures.get(i).get(10, TimeUnit.SECONDS));
+			verify(getRequestedFor(urlEqualTo("/futurefanout/" + i)));
+		}
+	}
+	
+	/**
+	 * <p>Tests a request annotated with @{@link com.lonepulse.zombielink.annotation.Async} which returns
+	 * a {@link Future}.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testFutureAsync() throws Exception {
+		
+		String subpath = "/futureasync", body = "hello";
+		
+		stubFor(get(urlEqualTo(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)
+				.withBody(body)));
+		
+		assertEquals(body, futureEndpoint.futureAsync().get(10, TimeUnit.SECONDS));
+		
+		verify(getRequestedFor(urlEqualTo(subpath)));
+	}
+}
@@ -187,6 +187,17 @@ public interface RequestParamEndpoint {
 	@GET("/queryparamsmultivalued")
 	public void queryParamsMultivalued(@QueryParams Map<String, List<String>> params);
 	
+	/**
+	 * <p>Sends a request with a multivalued query parameter which is given as a collection.</p>
+	 * 
+	 * @param values
+	 * 			the values of the multivalued query parameter
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/queryparamcollection")
+	public void queryParamCollection(@QueryParam("mutant-powers") List<String> values);
+	
 	/**
 	 * <p>Sends a request with a multivalued form parameter.</p>
 	 * 
@@ -346,6 +346,31 @@ public class RequestParamEndpointTest {
 		verify(getRequestedFor(urlEqualTo(url)));
 	}
 	
+	/**
+	 * <p>Test for a request which sends a multivalued query parameter as a collection.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testQueryParamCollection() {
+		
+		String subpath = "/queryparamcollection\\?\\S+", key = "mutant-powers";
+		
+		List<String> values = new ArrayList<String>();
+		values.add("invulnerability");
+		values.add("teleportation");
+		
+		String url = "/queryparamcollection?" + key + "=invulnerability&" + key + "=teleportation";
+		
+		stubFor(get(urlMatching(subpath))
+				.willReturn(aResponse()
+				.withStatus(200)));
+		
+		requestEndpoint.queryParamCollection(values);
+		
+		verify(getRequestedFor(urlEqualTo(url)));
+	}
+	
 	/**
 	 * <p>Test for a request which send a multivalued query parameter.</p>
 	 * 
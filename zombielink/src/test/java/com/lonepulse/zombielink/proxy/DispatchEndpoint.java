@@ -0,0 +1,79 @@
+package com.lonepulse.zombielink.proxy;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.GET;
+
+/**
+ * <p>An endpoint with requests that take and return all kinds of types, which is used to compare the
+ * proxies created by each {@link ProxyEngine}.</p>
+ * 
+ * @version 1.0.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+@Endpoint("http://0.0.0.0:8080")
+public interface DispatchEndpoint {
+	
+	
+	/**
+	 * <p>A request which takes an argument of each primitive type.</p>
+	 * 
+	 * @return the result of the request
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/primitives")
+	long primitives(boolean z, byte b, char c, short s, int i, long j, float f, double d);
+	
+	/**
+	 * <p>A request which takes and returns references.</p>
+	 * 
+	 * @return the result of the request
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/references")
+	String[] references(String value, int[] values, Object nothing);
+	
+	/**
+	 * <p>A request which takes no arguments and returns a primitive.</p>
+	 * 
+	 * @return the result of the request
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/flag")
+	boolean flag();
+	
+	/**
+	 * <p>A request which takes no arguments and returns nothing.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@GET("/none")
+	void none();
+}
@@ -0,0 +1,229 @@
+package com.lonepulse.zombielink.proxy;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Compares the cost of invoking requests on the proxies which are created by each {@link ProxyEngine}.
+ * Requests are answered by a {@link ProxyEngineTest.StubTemplate} without being executed, so that only the
+ * dispatch of each invocation to its {@link ProxyInvocation} is measured.</p>
+ * 
+ * <p>Each engine is measured for each {@link Scenario} in {@value #FORKS} separate JVMs, so that the code
+ * which is profiled and compiled for one engine does not bias another. Every fork runs {@value #WARMUP}
+ * warm-up iterations followed by {@value #ITERATIONS} measured iterations of {@value #INVOCATIONS}
+ * invocations each, and the mean and standard deviation of all measured iterations are reported.</p>
+ * 
+ * <p>Run it with the test classpath of this module, e.g.</p>
+ * 
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/classes:target/test-classes:$(cat target/classpath.txt) \
+ *      com.lonepulse.zombielink.proxy.ProxyEngineBenchmark
+ * </pre>
+ * 
+ * <p>It is not executed as a part of the test suite.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public final class ProxyEngineBenchmark {
+	
+	
+	/**
+	 * <p>The requests which are invoked by a single operation of the benchmark.</p>
+	 */
+	private static enum Scenario {
+		
+		/**
+		 * <p>Invokes {@link DispatchEndpoint#none()} and {@link DispatchEndpoint#references(String, int[], Object)}.</p>
+		 */
+		REFERENCES {
+			
+			@Override
+			long run(DispatchEndpoint endpoint, ProxyEngineTest.StubTemplate template, int invocations) {
+				
+				template.result = null;
+				long hits = 0;
+				
+				for (int i = 0; i < invocations; i++) {
+					
+					endpoint.none();
+					hits += endpoint.references("zombie", null, null) == null? 1 :0;
+				}
+				
+				return hits;
+			}
+		},
+		
+		/**
+		 * <p>Invokes {@link DispatchEndpoint#primitives(boolean, byte, char, short, int, long, float, double)},
+		 * whose arguments and result are boxed by both engines.</p>
+		 */
+		PRIMITIVES {
+			
+			@Override
+			long run(DispatchEndpoint endpoint, ProxyEngineTest.StubTemplate template, int invocations) {
+				
+				template.result = Long.valueOf(1L);
+				long hits = 0;
+				
+				for (int i = 0; i < invocations; i++) {
+					
+					hits += endpoint.primitives(true, (byte)1, 'z', (short)2, i, i, 3.0f, 4.0);
+					hits += endpoint.primitives(false, (byte)5, 'l', (short)6, i, i, 7.0f, 8.0);
+				}
+				
+				return hits;
+			}
+		};
+		
+		
+		abstract long run(DispatchEndpoint endpoint, ProxyEngineTest.StubTemplate template, int invocations);
+	}
+	
+	
+	private static final int FORKS = 3;
+	private static final int WARMUP = 10;
+	private static final int ITERATIONS = 10;
+	private static final int INVOCATIONS = 500000;
+	
+	private static final String SCORE = "score: ";
+	
+	private static volatile long sink;
+	
+	
+	private ProxyEngineBenchmark() {}
+	
+	/**
+	 * <p>Runs the benchmark and prints the average time per invocation for each {@link ProxyEngine} and
+	 * {@link Scenario}. When invoked with the name of an engine and a scenario, only those are measured in
+	 * the current JVM; this is how each fork is run.</p>
+	 * 
+	 * @param args
+	 * 			either nothing, or the name of a {@link ProxyEngine} followed by the name of a {@link Scenario}
+	 * <br><br>
+	 * @throws Exception
+	 * 			if a fork could not be run
+	 * <br><br>
+	 * @since 1.3.4
+	 */
+	public static void main(String[] args) throws Exception {
+		
+		if(args.length == 2) {
+			
+			measure(ProxyEngine.valueOf(args[0]), Scenario.valueOf(args[1]));
+			return;
+		}
+			
+		for (Scenario scenario : Scenario.values()) {
+			
+			for (ProxyEngine engine : ProxyEngine.values()) {
+			
+				List<Double> scores = new ArrayList<Double>();
+				
+				for (int i = 0; i < FORKS; i++) {
+					
+					scores.addAll(fork(engine, scenario));
+				}
+				
+				double mean = 0, variance = 0;
+				
+				for (double score : scores) {
+					
+					mean += score / scores.size();
+				}
+				
+				for (double score : scores) {
+					
+					variance += (score - mean) * (score - mean) / (scores.size() - 1);
+				}
+				
+				System.out.println(String.format("%-10s %-8s %8.1f +/- %.1f ns/op (%d forks x %d iterations)",
+					scenario, engine, mean, Math.sqrt(variance), FORKS, ITERATIONS));
+			}
+		}
+	}
+	
+	private static List<Double> fork(ProxyEngine engine, Scenario scenario) throws IOException, InterruptedException {
+		
+		String java = new StringBuilder(System.getProperty("java.home"))
+			.append(File.separator).append("bin").append(File.separator).append("java").toString();
+		
+		Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+			ProxyEngineBenchmark.class.getName(), engine.name(), scenario.name()).redirectErrorStream(true).start();
+			
+		List<Double> scores = new ArrayList<Double>();
+		BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
+		
+		try {
+			
+			for (String line = output.readLine(); line != null; line = output.readLine()) {
+				
+				if(line.startsWith(SCORE)) {
+					
+					scores.add(Double.valueOf(line.substring(SCORE.length())));
+				}
+			}
+		}
+		finally {
+			
+			output.close();
+		}
+		
+		if(process.waitFor() != 0 || scores.size() != ITERATIONS) {
+			
+			throw new IllegalStateException(new StringBuilder("The fork for ").append(engine).append(" and ")
+				.append(scenario).append(" failed with exit code ").append(process.exitValue()).append(". ").toString());
+		}
+		
+		return scores;
+	}
+	
+	private static void measure(ProxyEngine engine, Scenario scenario) {
+		
+		ProxyEngineTest.StubTemplate template = new ProxyEngineTest.StubTemplate(DispatchEndpoint.class);
+		DispatchEndpoint endpoint = (DispatchEndpoint)engine.newInstance(DispatchEndpoint.class, template);
+		
+		for (int i = 0; i < WARMUP; i++) {
+			
+			sink += scenario.run(endpoint, template, INVOCATIONS);
+		}
+		
+		for (int i = 0; i < ITERATIONS; i++) {
+			
+			long start = System.nanoTime();
+			sink += scenario.run(endpoint, template, INVOCATIONS);
+			
+			System.out.println(SCORE + (double)(System.nanoTime() - start) / INVOCATIONS / 2);
+		}
+	}
+}
@@ -0,0 +1,235 @@
+package com.lonepulse.zombielink.proxy;
+
+/*
+ * #%L
+ * ZombieLink
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Test;
+
+import com.lonepulse.zombielink.annotation.Endpoint;
+import com.lonepulse.zombielink.annotation.GET;
+
+/**
+ * <p>Performs unit testing on the proxies which are created by each {@link ProxyEngine}. Requests are not
+ * executed; instead, the template of the proxies records the arguments of each invocation and returns a
+ * result which is chosen for the request.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.3.4
+ * <br><br>
+ * @category test
+ * <br><br>
+ * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+ */
+public class ProxyEngineTest {
+	
+	
+	@Endpoint("http://0.0.0.0:8080")
+	interface HiddenEndpoint {
+		
+		@GET("/hidden")
+		String hidden();
+	}
+	
+	/**
+	 * <p>A {@link ProxyInvocation.Template} which answers requests without executing them.</p>
+	 * 
+	 * @version 1.0.0
+	 * <br><br>
+	 * @since 1.3.4
+	 * <br><br>
+	 * @category test
+	 * <br><br>
+	 * @author <a href="http://sahan.me">Lahiru Sahan Jayasinghe</a>
+	 */
+	static final class StubTemplate extends ProxyInvocation.Template {
+		
+		
+		volatile List<Object> arguments;
+		volatile Object result;
+		
+		
+		StubTemplate(Class<?> endpoint) {
+			
+			super(endpoint);
+		}
+		
+		@Override
+		protected HttpRequestBase buildRequest(InvocationContext context) {
+			
+			arguments = context.getArguments();
+			return new HttpGet(context.getPlan().getPath());
+		}
+		
+		@Override
+		protected HttpResponse executeRequest(InvocationContext context, HttpRequestBase request) {
+			
+			return new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+		}
+		
+		@Override
+		protected Object handleResponse(InvocationContext context, HttpResponse response) {
+			
+			return result;
+		}
+	}
+	
+	
+	/**
+	 * <p>Tests that the generated engine implements the endpoint with a class which is generated at runtime.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testGeneratedImplementation() {
+		
+		Object endpoint = ProxyEngine.GENERATED.newInstance(DispatchEndpoint.class, new StubTemplate(DispatchEndpoint.class));
+		
+		assertTrue(endpoint instanceof GeneratedEndpoint);
+		assertTrue(endpoint instanceof DispatchEndpoint);
+		assertFalse(Proxy.isProxyClass(endpoint.getClass()));
+		
+		assertEquals(DispatchEndpoint.class.getName() + EndpointGenerator.SUFFIX, endpoint.getClass().getName());
+		assertTrue(endpoint.toString().startsWith(DispatchEndpoint.class.getName() + "@"));
+		
+		assertTrue(endpoint.equals(endpoint));
+		assertEquals(System.identityHashCode(endpoint), endpoint.hashCode());
+	}
+	
+	/**
+	 * <p>Tests that the generated and dynamic engines pass the same arguments and results for requests
+	 * which take and return all kinds of types.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testEquivalentEngines() {
+		
+		for (ProxyEngine engine : ProxyEngine.values()) {
+			
+			StubTemplate template = new StubTemplate(DispatchEndpoint.class);
+			DispatchEndpoint endpoint = (DispatchEndpoint)engine.newInstance(DispatchEndpoint.class, template);
+			
+			template.result = Long.MAX_VALUE;
+			
+			assertEquals(Long.MAX_VALUE, endpoint.primitives(true, (byte)1, 'c', (short)2, 3, 4L, 5.5f, 6.6d));
+			assertEquals(Arrays.<Object>asList(true, (byte)1, 'c', (short)2, 3, 4L, 5.5f, 6.6d), template.arguments);
+			
+			String[] values = {"zombie"};
+			int[] numbers = {1, 2};
+			template.result = values;
+			
+			assertSame(values, endpoint.references("value", numbers, null));
+			assertEquals("value", template.arguments.get(0));
+			assertArrayEquals(numbers, (int[])template.arguments.get(1));
+			assertNull(template.arguments.get(2));
+			
+			template.result = Boolean.TRUE;
+			
+			assertTrue(endpoint.flag());
+			assertTrue(template.arguments.isEmpty());
+			
+			template.result = null;
+			endpoint.none();
+			
+			assertNotNull(template.arguments);
+		}
+	}
+	
+	/**
+	 * <p>Tests that the generated engine falls back to a dynamic proxy for an endpoint which is not public.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testGeneratedFallback() {
+		
+		StubTemplate template = new StubTemplate(HiddenEndpoint.class);
+		HiddenEndpoint endpoint = (HiddenEndpoint)ProxyEngine.GENERATED.newInstance(HiddenEndpoint.class, template);
+		
+		assertTrue(Proxy.isProxyClass(endpoint.getClass()));
+		
+		template.result = "hidden";
+		assertEquals("hidden", endpoint.hidden());
+	}
+	
+	/**
+	 * <p>Tests that an endpoint whose implementation from compile-time fails to initialize falls back to a
+	 * proxy which is created at runtime.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testStaleImplementation() {
+		
+		StaleEndpoint endpoint = EndpointProxyFactory.INSTANCE.create(StaleEndpoint.class);
+		
+		assertNotNull(endpoint);
+		assertFalse(endpoint.getClass().getName().equals(StaleEndpoint.class.getName() + GeneratedEndpoint.SUFFIX));
+	}
+	
+	/**
+	 * <p>Tests the selection of the {@link ProxyEngine} via the system property.</p>
+	 * 
+	 * @since 1.3.4
+	 */
+	@Test
+	public final void testEngineSelection() {
+		
+		String engine = System.getProperty(ProxyEngine.PROPERTY);
+		
+		try {
+			
+			System.setProperty(ProxyEngine.PROPERTY, "generated");
+			assertSame(ProxyEngine.GENERATED, ProxyEngine.of(DispatchEndpoint.class));
+			
+			System.setProperty(ProxyEngine.PROPERTY, "unknown");
+			assertSame(ProxyEngine.DYNAMIC, ProxyEngine.of(DispatchEndpoint.class));
+		}
+		finally {
+			
+			if(engine == null) {
+				
+				System.clearProperty(ProxyEngine.PROPERTY);
+			}
+			else {
+				
+				System.setProperty(ProxyEngine.PROPERTY, engine);
+			}
+		}
+	}
+}
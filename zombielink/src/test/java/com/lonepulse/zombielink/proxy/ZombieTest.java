@@ -20,14 +20,27 @@ package com.lonepulse.zombielink.proxy;
  * #L%
  */
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.lonepulse.zombielink.annotation.Endpoint;
 import com.lonepulse.zombielink.mock.ExtendedMockService;
 
 /**
@@ -104,6 +117,25 @@ public class ZombieTest {
 		assertNotNull(service3.getPrivateMockEndpoint());
 	}
 	
+	/**
+	 * <p>Test method for repeated injections on instances of the same type, which should replay the 
+	 * cached {@link InjectionPlan} for that type.</p>
+	 */
+	@Test
+	public final void testRepeatedInjection() {
+		
+		BasicMockService service = new BasicMockService();
+		Zombie.infect(service);
+		
+		assertSame(InjectionPlan.of(BasicMockService.class), InjectionPlan.of(BasicMockService.class));
+		
+		assertSame(mockService.getDefaultMockEndpoint(), service.getDefaultMockEndpoint());
+		assertSame(mockService.getForcedPrivateMockEndpoint(), service.getForcedPrivateMockEndpoint());
+		assertSame(mockService.getPrivateMockEndpoint(), service.getPrivateMockEndpoint());
+		assertSame(mockService.getProtectedMockEndpoint(), service.getProtectedMockEndpoint());
+		assertSame(mockService.getPublicMockEndpoint(), service.getPublicMockEndpoint());
+	}
+	
 	/**
 	 * <p>Test method for endpoint injection on an object hierarchy.</p>
 	 */
@@ -144,4 +176,64 @@ public class ZombieTest {
 		assertNotNull(EnumMockService.INSTANCE.getEndpoint());
 		assertNotNull(EnumMockService.getStaticEndpoint());
 	}
+	
+	/**
+	 * <p>Test method for invocations of {@link Object} methods on an endpoint proxy, which should be 
+	 * handled on the proxy itself without initiating a request.</p>
+	 */
+	@Test
+	public final void testObjectMethods() {
+		
+		MockEndpoint endpoint = mockService.getPrivateMockEndpoint();
+		
+		assertTrue(endpoint.equals(endpoint));
+		assertFalse(endpoint.equals(new Object()));
+		assertEquals(System.identityHashCode(endpoint), endpoint.hashCode());
+		assertTrue(endpoint.toString().startsWith(MockEndpoint.class.getName()));
+	}
+	
+	/**
+	 * <p>Test method for concurrent creation of an endpoint proxy, where only a single proxy should be 
+	 * created and shared by all threads which request it.</p>
+	 * 
+	 * @throws Exception
+	 * 			if the threads failed to complete
+	 */
+	@Test
+	public final void testConcurrentCreation() throws Exception {
+		
+		int threads = 64;
+		
+		final CountDownLatch gate = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		
+		List<Future<ConcurrentMockEndpoint>> proxies = new ArrayList<Future<ConcurrentMockEndpoint>>();
+		
+		for (int i = 0; i < threads; i++) {
+			
+			proxies.add(executor.submit(new Callable<ConcurrentMockEndpoint>() {
+				
+				@Override
+				public ConcurrentMockEndpoint call() throws Exception {
+					
+					gate.await();
+					return EndpointProxyFactory.INSTANCE.create(ConcurrentMockEndpoint.class);
+				}
+			}));
+		}
+		
+		gate.countDown();
+		
+		ConcurrentMockEndpoint proxy = proxies.get(0).get(10, TimeUnit.SECONDS);
+		
+		for (Future<ConcurrentMockEndpoint> future : proxies) {
+			
+			assertSame(proxy, future.get(10, TimeUnit.SECONDS));
+		}
+		
+		executor.shutdown();
+	}
+	
+	@Endpoint("http://0.0.0.0:8080")
+	interface ConcurrentMockEndpoint {}
 }